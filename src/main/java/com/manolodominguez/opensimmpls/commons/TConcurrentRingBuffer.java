@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.commons;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class implements a bounded FIFO queue backed by a pre-allocated
+ * circular array, that can be written by several threads at the same time and
+ * read by a single one. Writers claim a slot by incrementing a sequence
+ * counter, without taking any lock, and then publish the element by storing
+ * its sequence number in the slot. The reader takes every published element
+ * in a single batch. When the queue is full, writers wait until the reader
+ * frees some slots.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ * @param <E> the type of the elements stored in the queue.
+ */
+public class TConcurrentRingBuffer<E> {
+
+    /**
+     * This method is the constructor of the class. It creates a new empty
+     * queue able to hold, at least, the specified number of elements. The
+     * capacity is rounded up to the next power of two.
+     *
+     * @param capacity the minimum number of elements the queue has to hold.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     * @since 2.3
+     */
+    public TConcurrentRingBuffer(int capacity) {
+        if ((capacity < ONE) || (capacity > MAX_CAPACITY)) {
+            throw new IllegalArgumentException();
+        }
+        int actualCapacity = ONE;
+        while (actualCapacity < capacity) {
+            actualCapacity <<= ONE;
+        }
+        this.mask = actualCapacity - ONE;
+        this.slots = new AtomicReferenceArray<>(actualCapacity);
+        this.publishedSequences = new AtomicLongArray(actualCapacity);
+        for (int i = ZERO; i < actualCapacity; i++) {
+            this.publishedSequences.set(i, NOT_PUBLISHED);
+        }
+        this.claimedSequence = new AtomicLong(ZERO);
+        this.consumedSequence = new AtomicLong(ZERO);
+    }
+
+    /**
+     * This method adds an element at the end of the queue. It can be called
+     * from any thread. If the queue is full, the calling thread waits until
+     * there is room for the element.
+     *
+     * @param element the element to be added.
+     * @throws IllegalArgumentException if the element is null.
+     * @since 2.3
+     */
+    public void put(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException();
+        }
+        long sequence = this.claimedSequence.getAndIncrement();
+        int spins = ZERO;
+        while ((sequence - this.consumedSequence.get()) > this.mask) {
+            if (spins < MAX_SPINS) {
+                spins++;
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(WAIT_WHEN_FULL_IN_NS);
+            }
+        }
+        int index = (int) (sequence & this.mask);
+        this.slots.lazySet(index, element);
+        this.publishedSequences.set(index, sequence);
+    }
+
+    /**
+     * This method removes the published elements at the beginning of the
+     * queue, in order, and copies them into the specified array. It has to be
+     * called always from the same thread, or under the caller's own
+     * synchronization.
+     *
+     * @param batch the array where elements are copied to.
+     * @return the number of elements copied to the array. Zero if there is no
+     * element published.
+     * @since 2.3
+     */
+    public int drainTo(E[] batch) {
+        long sequence = this.consumedSequence.get();
+        int numberOfElements = ZERO;
+        while (numberOfElements < batch.length) {
+            int index = (int) (sequence & this.mask);
+            if (this.publishedSequences.get(index) != sequence) {
+                break;
+            }
+            batch[numberOfElements] = this.slots.get(index);
+            this.slots.lazySet(index, null);
+            numberOfElements++;
+            sequence++;
+        }
+        if (numberOfElements > ZERO) {
+            this.consumedSequence.set(sequence);
+        }
+        return numberOfElements;
+    }
+
+    /**
+     * This method checks whether there is any published element waiting in
+     * the queue.
+     *
+     * @return true, if there is no published element in the queue.
+     * Otherwise, false.
+     * @since 2.3
+     */
+    public boolean isEmpty() {
+        long sequence = this.consumedSequence.get();
+        return this.publishedSequences.get((int) (sequence & this.mask)) != sequence;
+    }
+
+    /**
+     * This method gets the number of elements waiting in the queue, including
+     * those whose writers have claimed a slot but not published them yet. It
+     * can be called from any thread, so the value is only an estimate while
+     * the queue is being used.
+     *
+     * @return the number of elements waiting in the queue.
+     * @since 2.3
+     */
+    public int getSize() {
+        long consumed = this.consumedSequence.get();
+        long claimed = this.claimedSequence.get();
+        long size = claimed - consumed;
+        if (size < ZERO) {
+            return ZERO;
+        }
+        if (size > this.mask) {
+            return this.mask + ONE;
+        }
+        return (int) size;
+    }
+
+    /**
+     * This method gets the number of elements the queue can hold.
+     *
+     * @return the number of elements the queue can hold.
+     * @since 2.3
+     */
+    public int getCapacity() {
+        return this.mask + ONE;
+    }
+
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray publishedSequences;
+    private final AtomicLong claimedSequence;
+    private final AtomicLong consumedSequence;
+    private final int mask;
+
+    private static final long NOT_PUBLISHED = -1L;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int MAX_SPINS = 64;
+    private static final long WAIT_WHEN_FULL_IN_NS = 100000L;
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+}
@@ -0,0 +1,241 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.commons;
+
+/**
+ * This class implements a histogram of latencies that takes a fixed amount of
+ * memory whatever the number of values recorded and the range they span.
+ * Values are counted in buckets whose width grows with the magnitude of the
+ * values: small values get a bucket each, and larger ones share buckets whose
+ * width is never greater than 1/32 of their lower bound. So percentiles are
+ * computed with a relative error below 3.2%, while minimum, maximum and mean
+ * are exact. Besides, the histogram computes the interarrival jitter of the
+ * recorded values as defined in RFC 3550, that is, a smoothed mean of the
+ * difference between consecutive latencies.
+ *
+ * Instances are not thread safe; values have to be recorded and queried from
+ * the same thread.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public class TLatencyHistogram {
+
+    /**
+     * This method is the constructor of the class. It creates a new empty
+     * histogram.
+     *
+     * @since 2.3
+     */
+    public TLatencyHistogram() {
+        this.counts = new long[NUMBER_OF_BUCKETS];
+        reset();
+    }
+
+    /**
+     * This method records a new latency in the histogram and updates the
+     * jitter with the difference between this latency and the previous one.
+     *
+     * @param latency the latency, in nanoseconds.
+     * @throws IllegalArgumentException if the latency is negative.
+     * @since 2.3
+     */
+    public void record(long latency) {
+        if (latency < ZERO) {
+            throw new IllegalArgumentException();
+        }
+        this.counts[getBucket(latency)]++;
+        if (this.count > ZERO) {
+            long difference = Math.abs(latency - this.lastLatency);
+            this.jitter += (difference - this.jitter) / JITTER_GAIN_DIVISOR;
+        }
+        if (latency < this.min) {
+            this.min = latency;
+        }
+        if (latency > this.max) {
+            this.max = latency;
+        }
+        this.lastLatency = latency;
+        this.sum += latency;
+        this.count++;
+    }
+
+    /**
+     * This method gets the number of latencies recorded.
+     *
+     * @return the number of latencies recorded.
+     * @since 2.3
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * This method gets the lowest latency recorded.
+     *
+     * @return the lowest latency, in nanoseconds, or 0 if no latency has been
+     * recorded.
+     * @since 2.3
+     */
+    public long getMin() {
+        if (this.count == ZERO) {
+            return ZERO;
+        }
+        return this.min;
+    }
+
+    /**
+     * This method gets the highest latency recorded.
+     *
+     * @return the highest latency, in nanoseconds, or 0 if no latency has been
+     * recorded.
+     * @since 2.3
+     */
+    public long getMax() {
+        return this.max;
+    }
+
+    /**
+     * This method gets the mean of the latencies recorded.
+     *
+     * @return the mean latency, in nanoseconds, or 0 if no latency has been
+     * recorded.
+     * @since 2.3
+     */
+    public double getMean() {
+        if (this.count == ZERO) {
+            return ZERO;
+        }
+        return ((double) this.sum) / this.count;
+    }
+
+    /**
+     * This method gets the interarrival jitter of the latencies recorded, as
+     * defined in RFC 3550.
+     *
+     * @return the jitter, in nanoseconds, or 0 if less than two latencies
+     * have been recorded.
+     * @since 2.3
+     */
+    public double getJitter() {
+        return this.jitter;
+    }
+
+    /**
+     * This method gets the specified percentile of the latencies recorded,
+     * that is, the lowest latency that is greater than or equal to the given
+     * percentage of them. The value returned is the upper bound of the bucket
+     * the percentile falls in, but never lower than the lowest latency nor
+     * higher than the highest one.
+     *
+     * @param percentile the percentile, between 0 and 100.
+     * @return the latency of the percentile, in nanoseconds, or 0 if no
+     * latency has been recorded.
+     * @throws IllegalArgumentException if the percentile is out of range.
+     * @since 2.3
+     */
+    public long getPercentile(double percentile) {
+        if ((percentile < ZERO) || (percentile > ONE_HUNDRED) || Double.isNaN(percentile)) {
+            throw new IllegalArgumentException();
+        }
+        if (this.count == ZERO) {
+            return ZERO;
+        }
+        long rank = Math.max(ONE, (long) Math.ceil((percentile / ONE_HUNDRED) * this.count));
+        long accumulatedCount = ZERO;
+        for (int bucket = ZERO; bucket < NUMBER_OF_BUCKETS; bucket++) {
+            accumulatedCount += this.counts[bucket];
+            if (accumulatedCount >= rank) {
+                return Math.max(this.min, Math.min(this.max, getBucketUpperBound(bucket)));
+            }
+        }
+        return this.max;
+    }
+
+    /**
+     * This method removes every latency recorded, as in the moment of the
+     * instantiation.
+     *
+     * @since 2.3
+     */
+    public final void reset() {
+        for (int bucket = ZERO; bucket < NUMBER_OF_BUCKETS; bucket++) {
+            this.counts[bucket] = ZERO;
+        }
+        this.count = ZERO;
+        this.sum = ZERO;
+        this.min = Long.MAX_VALUE;
+        this.max = ZERO;
+        this.lastLatency = ZERO;
+        this.jitter = ZERO;
+    }
+
+    /**
+     * This method gets the bucket a latency is counted in. Latencies lower than
+     * 2^PRECISION_BITS get a bucket each; larger ones are counted in a bucket
+     * that depends on their PRECISION_BITS most significant bits and on their
+     * magnitude.
+     *
+     * @param latency the latency, in nanoseconds, not negative.
+     * @return the index of the bucket.
+     * @since 2.3
+     */
+    static int getBucket(long latency) {
+        if (latency < LINEAR_BUCKETS) {
+            return (int) latency;
+        }
+        int shift = (Long.SIZE - Long.numberOfLeadingZeros(latency)) - PRECISION_BITS;
+        return (shift * HALF_LINEAR_BUCKETS) + (int) (latency >>> shift);
+    }
+
+    /**
+     * This method gets the highest latency that is counted in the specified
+     * bucket.
+     *
+     * @param bucket the index of the bucket.
+     * @return the upper bound of the bucket, in nanoseconds.
+     * @since 2.3
+     */
+    static long getBucketUpperBound(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket / HALF_LINEAR_BUCKETS) - ONE;
+        long mostSignificantBits = bucket - (shift * HALF_LINEAR_BUCKETS);
+        if (shift + PRECISION_BITS >= Long.SIZE - ONE) {
+            return Long.MAX_VALUE;
+        }
+        return ((mostSignificantBits + ONE) << shift) - ONE;
+    }
+
+    private final long[] counts;
+    private long count;
+    private long sum;
+    private long min;
+    private long max;
+    private long lastLatency;
+    private double jitter;
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final double ONE_HUNDRED = 100.0;
+    // RFC 3550 smooths the jitter with a gain of 1/16.
+    private static final double JITTER_GAIN_DIVISOR = 16.0;
+    private static final int PRECISION_BITS = 6;
+    private static final int LINEAR_BUCKETS = 1 << PRECISION_BITS;
+    private static final int HALF_LINEAR_BUCKETS = LINEAR_BUCKETS / 2;
+    private static final int NUMBER_OF_BUCKETS = getBucket(Long.MAX_VALUE) + ONE;
+}
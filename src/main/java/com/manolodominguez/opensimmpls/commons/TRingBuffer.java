@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.commons;
+
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements a FIFO queue backed by a circular array that grows
+ * when it is full. Adding and removing elements do not allocate memory unless
+ * the array has to grow. This class is not thread safe; callers have to
+ * provide their own synchronization.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ * @param <E> the type of the elements stored in the queue.
+ */
+public class TRingBuffer<E> {
+
+    /**
+     * This method is the constructor of the class. It creates a new empty
+     * queue with a default initial capacity.
+     *
+     * @since 2.3
+     */
+    public TRingBuffer() {
+        this.elements = new Object[DEFAULT_CAPACITY];
+        this.head = ZERO;
+        this.size = ZERO;
+    }
+
+    /**
+     * This method adds an element at the end of the queue, growing the
+     * underlying array if needed.
+     *
+     * @param element the element to be added.
+     * @since 2.3
+     */
+    public void addLast(E element) {
+        if (this.size == this.elements.length) {
+            grow();
+        }
+        this.elements[(this.head + this.size) & (this.elements.length - ONE)] = element;
+        this.size++;
+    }
+
+    /**
+     * This method removes and returns the first element of the queue.
+     *
+     * @return the first element of the queue.
+     * @throws NoSuchElementException if the queue is empty.
+     * @since 2.3
+     */
+    @SuppressWarnings("unchecked")
+    public E removeFirst() {
+        if (this.size == ZERO) {
+            throw new NoSuchElementException();
+        }
+        E element = (E) this.elements[this.head];
+        this.elements[this.head] = null;
+        this.head = (this.head + ONE) & (this.elements.length - ONE);
+        this.size--;
+        return element;
+    }
+
+    /**
+     * This method returns, without removing it, the first element of the
+     * queue.
+     *
+     * @return the first element of the queue.
+     * @throws NoSuchElementException if the queue is empty.
+     * @since 2.3
+     */
+    @SuppressWarnings("unchecked")
+    public E getFirst() {
+        if (this.size == ZERO) {
+            throw new NoSuchElementException();
+        }
+        return (E) this.elements[this.head];
+    }
+
+    /**
+     * This method returns, without removing it, the element at the specified
+     * position of the queue, being 0 the first one.
+     *
+     * @param index the position of the element.
+     * @return the element at the specified position.
+     * @throws IndexOutOfBoundsException if the position is not in the queue.
+     * @since 2.3
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if ((index < ZERO) || (index >= this.size)) {
+            throw new IndexOutOfBoundsException();
+        }
+        return (E) this.elements[(this.head + index) & (this.elements.length - ONE)];
+    }
+
+    /**
+     * This method returns the number of elements in the queue.
+     *
+     * @return the number of elements in the queue.
+     * @since 2.3
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * This method checks whether the queue is empty.
+     *
+     * @return TRUE, if the queue has no elements. Otherwise, FALSE.
+     * @since 2.3
+     */
+    public boolean isEmpty() {
+        return this.size == ZERO;
+    }
+
+    /**
+     * This method removes all the elements of the queue. The underlying array
+     * is kept so that it can be reused.
+     *
+     * @since 2.3
+     */
+    public void clear() {
+        for (int i = ZERO; i < this.size; i++) {
+            this.elements[(this.head + i) & (this.elements.length - ONE)] = null;
+        }
+        this.head = ZERO;
+        this.size = ZERO;
+    }
+
+    private void grow() {
+        Object[] newElements = new Object[this.elements.length << ONE];
+        int elementsUntilArrayEnd = this.elements.length - this.head;
+        System.arraycopy(this.elements, this.head, newElements, ZERO, elementsUntilArrayEnd);
+        System.arraycopy(this.elements, ZERO, newElements, elementsUntilArrayEnd, this.head);
+        this.elements = newElements;
+        this.head = ZERO;
+    }
+
+    private Object[] elements;
+    private int head;
+    private int size;
+
+    // Must be a power of two.
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+}
@@ -0,0 +1,166 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.commons;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class implements a set of counters that can be incremented by several
+ * threads at the same time without taking any lock and without making them
+ * compete for the same memory. Each counter is split into several cells, one
+ * per stripe; each thread always updates the cell of its own stripe, and
+ * stripes are far enough from each other not to share a cache line. The value
+ * of a counter is the sum of its cells, and is computed only when it is read.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public class TStripedCounters {
+
+    /**
+     * This method is the constructor of the class. It creates a new set of
+     * counters, all of them set to zero, with as many stripes as processors
+     * are available to the virtual machine, up to a limit.
+     *
+     * @param numberOfCounters the number of counters of the set.
+     * @throws IllegalArgumentException if the number of counters is not
+     * positive.
+     * @since 2.3
+     */
+    public TStripedCounters(int numberOfCounters) {
+        if ((numberOfCounters < ONE) || (numberOfCounters > MAX_COUNTERS)) {
+            throw new IllegalArgumentException();
+        }
+        int processors = Runtime.getRuntime().availableProcessors();
+        int stripes = ONE;
+        while ((stripes < processors) && (stripes < MAX_STRIPES)) {
+            stripes <<= ONE;
+        }
+        this.numberOfCounters = numberOfCounters;
+        this.stripeMask = stripes - ONE;
+        // Each stripe starts in its own cache line and is followed by a spare
+        // one, so that no two stripes share a line whatever the alignment.
+        this.stripeLength = (((numberOfCounters + LONGS_PER_CACHE_LINE - ONE) / LONGS_PER_CACHE_LINE) + ONE) * LONGS_PER_CACHE_LINE;
+        this.cells = new AtomicLongArray(stripes * this.stripeLength);
+    }
+
+    /**
+     * This method adds one to the specified counter. It can be called from any
+     * thread.
+     *
+     * @param counter the index of the counter.
+     * @throws IndexOutOfBoundsException if the counter does not exist.
+     * @since 2.3
+     */
+    public void increment(int counter) {
+        add(counter, ONE);
+    }
+
+    /**
+     * This method adds the specified amount to the specified counter. It can
+     * be called from any thread.
+     *
+     * @param counter the index of the counter.
+     * @param amount the amount to be added.
+     * @throws IndexOutOfBoundsException if the counter does not exist.
+     * @since 2.3
+     */
+    public void add(int counter, long amount) {
+        if ((counter < ZERO) || (counter >= this.numberOfCounters)) {
+            throw new IndexOutOfBoundsException();
+        }
+        this.cells.getAndAdd((getStripe() * this.stripeLength) + counter, amount);
+    }
+
+    /**
+     * This method gets the current value of the specified counter, adding up
+     * its cells. Updates made at the same time by other threads may or may
+     * not be included.
+     *
+     * @param counter the index of the counter.
+     * @return the value of the counter.
+     * @throws IndexOutOfBoundsException if the counter does not exist.
+     * @since 2.3
+     */
+    public long get(int counter) {
+        if ((counter < ZERO) || (counter >= this.numberOfCounters)) {
+            throw new IndexOutOfBoundsException();
+        }
+        long value = ZERO;
+        for (int cell = counter; cell < this.cells.length(); cell += this.stripeLength) {
+            value += this.cells.get(cell);
+        }
+        return value;
+    }
+
+    /**
+     * This method gets the number of counters of the set.
+     *
+     * @return the number of counters.
+     * @since 2.3
+     */
+    public int getNumberOfCounters() {
+        return this.numberOfCounters;
+    }
+
+    /**
+     * This method gets the number of stripes each counter is split into.
+     *
+     * @return the number of stripes.
+     * @since 2.3
+     */
+    public int getNumberOfStripes() {
+        return this.stripeMask + ONE;
+    }
+
+    /**
+     * This method sets every counter to zero. It should not be called while
+     * other threads are updating the counters.
+     *
+     * @since 2.3
+     */
+    public void reset() {
+        for (int cell = ZERO; cell < this.cells.length(); cell++) {
+            this.cells.set(cell, ZERO);
+        }
+    }
+
+    /**
+     * This method gets the stripe the calling thread updates. It is derived
+     * from the thread identifier, mixing its bits so that consecutive
+     * identifiers are spread over different stripes.
+     *
+     * @return the stripe of the calling thread.
+     * @since 2.3
+     */
+    private int getStripe() {
+        long threadID = Thread.currentThread().getId();
+        return ((int) (threadID * GOLDEN_RATIO_MULTIPLIER >>> STRIPE_HASH_SHIFT)) & this.stripeMask;
+    }
+
+    private final int numberOfCounters;
+    private final int stripeMask;
+    private final int stripeLength;
+    private final AtomicLongArray cells;
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int MAX_STRIPES = 16;
+    private static final int MAX_COUNTERS = 1 << 20;
+    private static final int LONGS_PER_CACHE_LINE = 8;
+    private static final long GOLDEN_RATIO_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final int STRIPE_HASH_SHIFT = 32;
+}
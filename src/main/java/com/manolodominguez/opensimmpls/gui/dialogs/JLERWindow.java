@@ -15,6 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.gui.dialogs;
 
+import com.manolodominguez.opensimmpls.hardware.ports.TQueueDiscipline;
 import com.manolodominguez.opensimmpls.resources.images.AvailableImages;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
 import com.manolodominguez.opensimmpls.scenario.TLERNode;
@@ -109,7 +110,7 @@ public class JLERWindow extends JDialog {
         this.checkBoxQuickGenerateStatistics = new JCheckBox();
         this.labelQuickConfiguration = new JLabel();
         this.labelLERFeatures = new JLabel();
-        this.comboBoxPredefinedOptions = new JComboBox();
+        this.comboBoxPredefinedOptions = new JComboBox<>();
         this.panelAdvancedConfiguration = new JPanel();
         this.checkBoxAdvancedGenerateStatistics = new JCheckBox();
         this.labelAdvancedConfiguration = new JLabel();
@@ -119,6 +120,8 @@ public class JLERWindow extends JDialog {
         this.labelBufferSize = new JLabel();
         this.sliderBufferSize = new JSlider();
         this.labelBufferSizeMB = new JLabel();
+        this.labelQueueDiscipline = new JLabel();
+        this.comboBoxQueueDiscipline = new JComboBox<>();
         this.panelButtons = new JPanel();
         this.buttonOK = new JButton();
         this.buttonCancel = new JButton();
@@ -192,7 +195,7 @@ public class JLERWindow extends JDialog {
         this.labelLERFeatures.setText(this.translations.getString("VentanaLER.CaracteristicasDelLER"));
         this.panelQuickConfiguration.add(this.labelLERFeatures, new AbsoluteConstraints(20, 110, 160, -1));
         this.comboBoxPredefinedOptions.setFont(new Font("Dialog", 0, 12));
-        this.comboBoxPredefinedOptions.setModel(new DefaultComboBoxModel(new String[]{"Personalized", "Very low cost LER", "Low cost LER", "Medium cost LER", "Expensive LER", "Very expensive LER"}));
+        this.comboBoxPredefinedOptions.setModel(new DefaultComboBoxModel<>(new String[]{"Personalized", "Very low cost LER", "Low cost LER", "Medium cost LER", "Expensive LER", "Very expensive LER"}));
         this.comboBoxPredefinedOptions.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent evt) {
@@ -210,7 +213,7 @@ public class JLERWindow extends JDialog {
                 handleClickOnAdvancedGenerateStatistics(evt);
             }
         });
-        this.panelAdvancedConfiguration.add(this.checkBoxAdvancedGenerateStatistics, new AbsoluteConstraints(70, 160, -1, -1));
+        this.panelAdvancedConfiguration.add(this.checkBoxAdvancedGenerateStatistics, new AbsoluteConstraints(70, 185, -1, -1));
         this.labelAdvancedConfiguration.setIcon(this.imageBroker.getImageIcon(AvailableImages.ADVANCED));
         this.labelAdvancedConfiguration.setText(this.translations.getString("VentanaLER.ConfiguracionAvanzada"));
         this.panelAdvancedConfiguration.add(labelAdvancedConfiguration, new AbsoluteConstraints(15, 20, 335, -1));
@@ -256,6 +259,14 @@ public class JLERWindow extends JDialog {
         this.labelBufferSizeMB.setHorizontalAlignment(SwingConstants.LEFT);
         this.labelBufferSizeMB.setText(this.translations.getString("VentanaLER.1_MB"));
         this.panelAdvancedConfiguration.add(this.labelBufferSizeMB, new AbsoluteConstraints(300, 120, 60, 20));
+        this.labelQueueDiscipline.setFont(new Font("Dialog", 0, 12));
+        this.labelQueueDiscipline.setHorizontalAlignment(SwingConstants.RIGHT);
+        this.labelQueueDiscipline.setText(this.translations.getString("VentanaLER.DisciplinaDeCola"));
+        this.panelAdvancedConfiguration.add(this.labelQueueDiscipline, new AbsoluteConstraints(10, 150, 180, -1));
+        this.comboBoxQueueDiscipline.setFont(new Font("Dialog", 0, 12));
+        // Items are sorted as queue discipline types in TQueueDiscipline.
+        this.comboBoxQueueDiscipline.setModel(new DefaultComboBoxModel<>(new String[]{this.translations.getString("DisciplinaDeCola.FIFO"), this.translations.getString("DisciplinaDeCola.DRR"), this.translations.getString("DisciplinaDeCola.RED"), this.translations.getString("DisciplinaDeCola.WRED")}));
+        this.panelAdvancedConfiguration.add(this.comboBoxQueueDiscipline, new AbsoluteConstraints(200, 148, 150, -1));
         this.panelTabs.addTab(this.translations.getString("VentanaLER.tabs.Advanced"), this.panelAdvancedConfiguration);
         this.panelPrincipal.add(panelTabs, new AbsoluteConstraints(15, 15, 370, 240));
         this.panelButtons.setLayout(new AbsoluteLayout());
@@ -305,6 +316,7 @@ public class JLERWindow extends JDialog {
         this.currentConfigName = "";
         this.currentConfigRoutingPower = 0;
         this.currentConfigBufferSize = 0;
+        this.currentConfigQueueDiscipline = TQueueDiscipline.FIFO;
         this.reconguration = false;
         this.currentConfigGenerateStatistics = false;
         this.comboBoxPredefinedOptions.removeAllItems();
@@ -416,6 +428,7 @@ public class JLERWindow extends JDialog {
             this.lerNode.setName(this.currentConfigName);
             this.lerNode.setWellConfigured(true);
             this.lerNode.setBufferSizeInMBytes(this.currentConfigBufferSize);
+            this.lerNode.setQueueDiscipline(this.currentConfigQueueDiscipline);
             this.lerNode.setRoutingPowerInMbps(this.currentConfigRoutingPower);
             this.lerNode.setGenerateStats(this.currentConfigGenerateStatistics);
             this.reconguration = false;
@@ -439,6 +452,7 @@ public class JLERWindow extends JDialog {
             this.lerNode.setScreenPosition(new Point(this.coordinatesPanel.getRealX(), this.coordinatesPanel.getRealY()));
         }
         this.lerNode.setBufferSizeInMBytes(this.sliderBufferSize.getValue());
+        this.lerNode.setQueueDiscipline(this.comboBoxQueueDiscipline.getSelectedIndex());
         this.lerNode.setRoutingPowerInMbps(this.sliderRoutingPower.getValue());
         this.lerNode.setGenerateStats(this.checkBoxQuickGenerateStatistics.isSelected());
         this.lerNode.setName(this.textFieldName.getText());
@@ -530,10 +544,12 @@ public class JLERWindow extends JDialog {
             this.currentConfigName = lerNode.getName();
             this.currentConfigRoutingPower = lerNode.getRoutingPowerInMbps();
             this.currentConfigBufferSize = lerNode.getBufferSizeInMBytes();
+            this.currentConfigQueueDiscipline = lerNode.getQueueDiscipline();
             this.checkBoxAdvancedGenerateStatistics.setSelected(this.currentConfigGenerateStatistics);
             this.checkBoxQuickGenerateStatistics.setSelected(this.currentConfigGenerateStatistics);
             this.sliderRoutingPower.setValue(this.currentConfigRoutingPower);
             this.sliderBufferSize.setValue(this.currentConfigBufferSize);
+            this.comboBoxQueueDiscipline.setSelectedIndex(this.currentConfigQueueDiscipline);
             this.textFieldName.setText(this.currentConfigName);
             this.checkBoxShowName.setSelected(this.currentConfigShowName);
         }
@@ -548,11 +564,13 @@ public class JLERWindow extends JDialog {
     private String currentConfigName;
     private int currentConfigRoutingPower;
     private int currentConfigBufferSize;
+    private int currentConfigQueueDiscipline;
     private boolean currentConfigGenerateStatistics;
     private boolean reconguration;
     private JLabel labelCoordinateX;
     private JLabel labelCoordinateY;
     private JLabel labelBufferSizeMB;
+    private JLabel labelQueueDiscipline;
     private JLabel labelName;
     private JLabel labelRoutingPowerMbps;
     private JLabel labelQuickConfiguration;
@@ -576,7 +594,8 @@ public class JLERWindow extends JDialog {
     private JCheckBox checkBoxQuickGenerateStatistics;
     private JSlider sliderRoutingPower;
     private JSlider sliderBufferSize;
-    private JComboBox comboBoxPredefinedOptions;
+    private JComboBox<String> comboBoxPredefinedOptions;
+    private JComboBox<String> comboBoxQueueDiscipline;
     private JCheckBox checkBoxShowName;
     private ResourceBundle translations;
 }
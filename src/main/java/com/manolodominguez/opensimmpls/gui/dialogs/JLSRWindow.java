@@ -15,6 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.gui.dialogs;
 
+import com.manolodominguez.opensimmpls.hardware.ports.TQueueDiscipline;
 import com.manolodominguez.opensimmpls.resources.images.AvailableImages;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
 import com.manolodominguez.opensimmpls.scenario.TLSRNode;
@@ -109,7 +110,7 @@ public class JLSRWindow extends JDialog {
         this.labelQuickConfiguration = new JLabel();
         this.checkBoxQuickGenerateStatistics = new JCheckBox();
         this.labelLSRFeatures = new JLabel();
-        this.comboBoxPredefinedOptions = new JComboBox();
+        this.comboBoxPredefinedOptions = new JComboBox<>();
         this.panelAdvancedConfiguration = new JPanel();
         this.labelAdvancedConfiguration = new JLabel();
         this.checkBoxAdvancedGenerateStatistics = new JCheckBox();
@@ -119,6 +120,8 @@ public class JLSRWindow extends JDialog {
         this.sliderBufferSize = new JSlider();
         this.labelSwitchingPowerMbps = new JLabel();
         this.labelBufferSizeMB = new JLabel();
+        this.labelQueueDiscipline = new JLabel();
+        this.comboBoxQueueDiscipline = new JComboBox<>();
         this.panelButtons = new JPanel();
         this.buttonOK = new JButton();
         this.buttonCancel = new JButton();
@@ -192,7 +195,7 @@ public class JLSRWindow extends JDialog {
         this.labelLSRFeatures.setText(this.translations.getString("VentanaLSR.Caracteristicas"));
         this.panelQuickConfiguration.add(this.labelLSRFeatures, new AbsoluteConstraints(20, 110, 160, -1));
         this.comboBoxPredefinedOptions.setFont(new Font("Dialog", 0, 12));
-        this.comboBoxPredefinedOptions.setModel(new DefaultComboBoxModel(new String[]{"Personalized", "Very low cost LSR", "Low cost LSR", "Medium cost LSR", "Expensive LSR", "Very expensive LSR"}));
+        this.comboBoxPredefinedOptions.setModel(new DefaultComboBoxModel<>(new String[]{"Personalized", "Very low cost LSR", "Low cost LSR", "Medium cost LSR", "Expensive LSR", "Very expensive LSR"}));
         this.comboBoxPredefinedOptions.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent evt) {
@@ -213,7 +216,7 @@ public class JLSRWindow extends JDialog {
                 handleClickOnAdvancedGenerateStatistics(evt);
             }
         });
-        this.panelAdvancedConfiguration.add(this.checkBoxAdvancedGenerateStatistics, new AbsoluteConstraints(70, 160, -1, -1));
+        this.panelAdvancedConfiguration.add(this.checkBoxAdvancedGenerateStatistics, new AbsoluteConstraints(70, 185, -1, -1));
         this.labelSwitchingPower.setFont(new Font("Dialog", 0, 12));
         this.labelSwitchingPower.setHorizontalAlignment(SwingConstants.RIGHT);
         this.labelSwitchingPower.setText(this.translations.getString("VentanaLSR.PotenciaConmutacion"));
@@ -256,6 +259,14 @@ public class JLSRWindow extends JDialog {
         this.labelBufferSizeMB.setHorizontalAlignment(SwingConstants.LEFT);
         this.labelBufferSizeMB.setText(this.translations.getString("VentanaLSR.1_MB"));
         this.panelAdvancedConfiguration.add(this.labelBufferSizeMB, new AbsoluteConstraints(300, 120, 60, 20));
+        this.labelQueueDiscipline.setFont(new Font("Dialog", 0, 12));
+        this.labelQueueDiscipline.setHorizontalAlignment(SwingConstants.RIGHT);
+        this.labelQueueDiscipline.setText(this.translations.getString("VentanaLSR.DisciplinaDeCola"));
+        this.panelAdvancedConfiguration.add(this.labelQueueDiscipline, new AbsoluteConstraints(10, 150, 180, -1));
+        this.comboBoxQueueDiscipline.setFont(new Font("Dialog", 0, 12));
+        // Items are sorted as queue discipline types in TQueueDiscipline.
+        this.comboBoxQueueDiscipline.setModel(new DefaultComboBoxModel<>(new String[]{this.translations.getString("DisciplinaDeCola.FIFO"), this.translations.getString("DisciplinaDeCola.DRR"), this.translations.getString("DisciplinaDeCola.RED"), this.translations.getString("DisciplinaDeCola.WRED")}));
+        this.panelAdvancedConfiguration.add(this.comboBoxQueueDiscipline, new AbsoluteConstraints(200, 148, 150, -1));
         this.panelTabs.addTab(this.translations.getString("VentanaLSR.tabs.Advanced"), this.panelAdvancedConfiguration);
         this.mainPanel.add(this.panelTabs, new AbsoluteConstraints(15, 15, 370, 240));
         this.panelButtons.setLayout(new AbsoluteLayout());
@@ -305,6 +316,7 @@ public class JLSRWindow extends JDialog {
         this.currentConfigName = "";
         this.currentConfigSwitchingPower = 0;
         this.currentConfigBufferSize = 0;
+        this.currentConfigQueueDiscipline = TQueueDiscipline.FIFO;
         this.currentConfigGenerateStatistics = false;
         this.reconfiguration = false;
         this.comboBoxPredefinedOptions.removeAllItems();
@@ -416,6 +428,7 @@ public class JLSRWindow extends JDialog {
             this.lsrNode.setName(this.currentConfigName);
             this.lsrNode.setWellConfigured(true);
             this.lsrNode.setBufferSizeInMBytes(this.currentConfigBufferSize);
+            this.lsrNode.setQueueDiscipline(this.currentConfigQueueDiscipline);
             this.lsrNode.setGenerateStats(this.currentConfigGenerateStatistics);
             this.lsrNode.setSwitchingPowerInMbps(this.currentConfigSwitchingPower);
             this.reconfiguration = false;
@@ -439,6 +452,7 @@ public class JLSRWindow extends JDialog {
             this.lsrNode.setScreenPosition(new Point(this.coordinatesPanel.getRealX(), this.coordinatesPanel.getRealY()));
         }
         this.lsrNode.setBufferSizeInMBytes(this.sliderBufferSize.getValue());
+        this.lsrNode.setQueueDiscipline(this.comboBoxQueueDiscipline.getSelectedIndex());
         this.lsrNode.setSwitchingPowerInMbps(this.sliderSwitchingPower.getValue());
         this.lsrNode.setName(this.textFieldName.getText());
         this.lsrNode.setGenerateStats(this.checkBoxQuickGenerateStatistics.isSelected());
@@ -529,10 +543,12 @@ public class JLSRWindow extends JDialog {
             this.currentConfigName = lsrNode.getName();
             this.currentConfigSwitchingPower = lsrNode.getSwitchingPowerInMbps();
             this.currentConfigBufferSize = lsrNode.getBufferSizeInMBytes();
+            this.currentConfigQueueDiscipline = lsrNode.getQueueDiscipline();
             this.checkBoxAdvancedGenerateStatistics.setSelected(this.currentConfigGenerateStatistics);
             this.checkBoxQuickGenerateStatistics.setSelected(this.currentConfigGenerateStatistics);
             this.sliderSwitchingPower.setValue(this.currentConfigSwitchingPower);
             this.sliderBufferSize.setValue(this.currentConfigBufferSize);
+            this.comboBoxQueueDiscipline.setSelectedIndex(this.currentConfigQueueDiscipline);
             this.textFieldName.setText(this.currentConfigName);
             this.checkBoxShowName.setSelected(this.currentConfigShowName);
         }
@@ -547,11 +563,13 @@ public class JLSRWindow extends JDialog {
     private String currentConfigName;
     private int currentConfigSwitchingPower;
     private int currentConfigBufferSize;
+    private int currentConfigQueueDiscipline;
     private boolean currentConfigGenerateStatistics;
     private boolean reconfiguration;
     private JLabel labelCoordinateX;
     private JLabel labelCoordinateY;
     private JLabel labelBufferSizeMB;
+    private JLabel labelQueueDiscipline;
     private JLabel labelName;
     private JLabel labelSwitchingPowerMbps;
     private JLabel labelQuickConfiguration;
@@ -575,7 +593,8 @@ public class JLSRWindow extends JDialog {
     private JCheckBox checkBoxQuickGenerateStatistics;
     private JSlider sliderSwitchingPower;
     private JSlider sliderBufferSize;
-    private JComboBox comboBoxPredefinedOptions;
+    private JComboBox<String> comboBoxPredefinedOptions;
+    private JComboBox<String> comboBoxQueueDiscipline;
     private JCheckBox checkBoxShowName;
     private ResourceBundle translations;
 }
@@ -20,6 +20,8 @@ import com.manolodominguez.opensimmpls.scenario.TTopology;
 import com.manolodominguez.opensimmpls.scenario.TLink;
 import com.manolodominguez.opensimmpls.scenario.TNode;
 import com.manolodominguez.opensimmpls.gui.utils.TImageBroker;
+import com.manolodominguez.opensimmpls.gui.utils.TLevelOfDetail;
+import com.manolodominguez.opensimmpls.gui.utils.TRepaintScheduler;
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Dimension;
@@ -36,7 +38,9 @@ import javax.swing.JPanel;
 
 /**
  * This class implements a panel that paints a topology. It is used mainly to
- * let the user show the topology he/she is designing.
+ * let the user show the topology he/she is designing. Only the part of the
+ * topology that is visible is painted, and very dense topologies are painted
+ * with less detail. Repaints are scheduled so that the frame rate is capped.
  *
  * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
  * @version 2.0
@@ -93,6 +97,8 @@ public class JDesignPanel extends JPanel {
         this.bufferedImage = null;
         this.bufferedG2D = null;
         this.topology = null;
+        this.levelOfDetail = new TLevelOfDetail();
+        this.repaintScheduler = new TRepaintScheduler(this, TRepaintScheduler.DEFAULT_FRAMES_PER_SECOND);
         // FIX: Do not use harcoded values. Use class constants instead.
         this.maxX = 10;
         this.maxY = 10;
@@ -109,6 +115,18 @@ public class JDesignPanel extends JPanel {
         this.topology = topology;
     }
 
+    /**
+     * This method requests the panel to be repainted, without exceeding the
+     * maximum frame rate. Every change made to the topology while it is being
+     * designed can request a repaint; they are coalesced into a single frame.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public void requestRepaint() {
+        this.repaintScheduler.requestRepaint();
+    }
+
     /**
      * This method gets the thickness that has to be used when painting the
      * link whose delay is specified as an argument.
@@ -199,6 +217,9 @@ public class JDesignPanel extends JPanel {
         Iterator linksIterator = this.topology.getLinksIterator();
         while (linksIterator.hasNext()) {
             TLink link = (TLink) linksIterator.next();
+            if (!this.levelOfDetail.isVisible(link)) {
+                continue;
+            }
             Point headEnd = link.getHeadEndNode().getScreenPosition();
             Point tailEnd = link.getTailEndNode().getScreenPosition();
             int linkDelay = link.getDelay();
@@ -211,7 +232,7 @@ public class JDesignPanel extends JPanel {
             // FIX: Do not use harcoded values. Use class constants instead.
             graphics2D.drawLine(headEnd.x + 24, headEnd.y + 24, tailEnd.x + 24, tailEnd.y + 24);
             graphics2D.setStroke(new BasicStroke((float) 1));
-            if (link.getShowName()) {
+            if (link.getShowName() && !this.levelOfDetail.isSimplified()) {
                 FontMetrics fontMetrics = this.getFontMetrics(this.getFont());
                 int textWidth = fontMetrics.charsWidth(link.getName().toCharArray(), 0, link.getName().length());
                 // FIX: Do not use harcoded values. Use class constants instead.
@@ -258,6 +279,13 @@ public class JDesignPanel extends JPanel {
             }
             this.setPreferredSize(new Dimension(this.maxX, this.maxY));
             this.revalidate();
+            if (!this.levelOfDetail.isVisible(node)) {
+                continue;
+            }
+            if (this.levelOfDetail.isSimplified()) {
+                this.levelOfDetail.paintSimplifiedNode(graphics2D, node);
+                continue;
+            }
             int nodeType = node.getNodeType();
             switch (nodeType) {
                 case TNode.TRAFFIC_GENERATOR: {
@@ -326,13 +354,26 @@ public class JDesignPanel extends JPanel {
 
     /**
      * This method gets a screeenshot corresponding to the current topology
-     * design.
+     * design. The whole topology is painted, not only its visible part.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @return a screeenshot corresponding to the current topology design.
      * @since 2.0
      */
     public BufferedImage getDesignScreenshot() {
+        this.levelOfDetail.update(this.topology, null);
+        return renderDesign();
+    }
+
+    /**
+     * This method paints the topology design in the offscreen image, with
+     * the level of detail computed last.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the offscreen image containing the topology design.
+     * @since 2.3
+     */
+    private BufferedImage renderDesign() {
         if (this.bufferedImage == null) {
             this.bufferedImage = new BufferedImage(this.screenSize.width, this.screenSize.height, BufferedImage.TYPE_4BYTE_ABGR);
             this.bufferedG2D = this.bufferedImage.createGraphics();
@@ -355,7 +396,8 @@ public class JDesignPanel extends JPanel {
      */
     @Override
     public void paint(Graphics graphics) {
-        BufferedImage bufferedImageAux = this.getDesignScreenshot();
+        this.levelOfDetail.update(this.topology, this.getVisibleRect());
+        BufferedImage bufferedImageAux = this.renderDesign();
         graphics.drawImage(bufferedImageAux, 0, 0, null);
     }
 
@@ -370,6 +412,8 @@ public class JDesignPanel extends JPanel {
     private BufferedImage bufferedImage;
     private Graphics2D bufferedG2D;
     private TTopology topology;
+    private TLevelOfDetail levelOfDetail;
+    private TRepaintScheduler repaintScheduler;
     private Dimension screenSize;
     private int maxX;
     private int maxY;
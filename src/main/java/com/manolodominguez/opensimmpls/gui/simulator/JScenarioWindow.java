@@ -17,7 +17,12 @@ package com.manolodominguez.opensimmpls.gui.simulator;
 
 import com.manolodominguez.opensimmpls.hardware.timer.EProgressEventGeneratorOnlyAllowASingleListener;
 import com.manolodominguez.opensimmpls.hardware.timer.TTimestamp;
+import com.manolodominguez.opensimmpls.io.metrics.TSimulatorMetrics;
 import com.manolodominguez.opensimmpls.io.osm.TOSMSaver;
+import com.manolodominguez.opensimmpls.io.stats.TStatsBinaryWriter;
+import com.manolodominguez.opensimmpls.io.stats.TStatsCSVWriter;
+import com.manolodominguez.opensimmpls.io.stats.TStatsExporter;
+import com.manolodominguez.opensimmpls.io.stats.TStatsWriter;
 import com.manolodominguez.opensimmpls.resources.images.AvailableImages;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
 import com.manolodominguez.opensimmpls.scenario.TExternalLink;
@@ -49,6 +54,7 @@ import com.manolodominguez.opensimmpls.gui.utils.TImageBroker;
 import com.manolodominguez.opensimmpls.gui.utils.JOSMFilter;
 import com.manolodominguez.opensimmpls.gui.utils.TProgressEventListener;
 import com.manolodominguez.opensimmpls.gui.utils.JScrollablePanel;
+import com.manolodominguez.opensimmpls.gui.utils.TRepaintScheduler;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Cursor;
@@ -67,9 +73,11 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseMotionAdapter;
 import java.io.File;
+import java.io.IOException;
 import java.util.Iterator;
 import java.util.ResourceBundle;
 import javax.swing.DefaultComboBoxModel;
+import javax.swing.JCheckBox;
 import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
@@ -86,6 +94,7 @@ import javax.swing.JTabbedPane;
 import javax.swing.JTextArea;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
+import javax.swing.Timer;
 import javax.swing.border.BevelBorder;
 import javax.swing.border.EtchedBorder;
 import javax.swing.border.TitledBorder;
@@ -93,7 +102,7 @@ import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 import net.miginfocom.swing.MigLayout;
 import org.jfree.data.category.DefaultCategoryDataset;
-import org.jfree.data.xy.XYSeriesCollection;
+import org.jfree.data.xy.XYDataset;
 
 /**
  * This class implements a window that contains all needed to design, simulate
@@ -168,6 +177,9 @@ public class JScenarioWindow extends JInternalFrame {
         this.sliderSimulationSpeedInMsPerTick = new JSlider();
         this.labelSimulationSpeedFaster = new JLabel();
         this.labelSimulationSpeedSlower = new JLabel();
+        this.sliderMaxFramesPerSecond = new JSlider();
+        this.labelMaxFramesPerSecond = new JLabel();
+        this.checkBoxExportStats = new JCheckBox();
         this.scrollPaneSimulation = new JScrollPane();
         this.simulationPanel = new JSimulationPanel();
         this.analysisMainContainerPanel = new JPanel();
@@ -908,6 +920,36 @@ public class JScenarioWindow extends JInternalFrame {
         this.labelSimulationSpeedSlower.setForeground(new Color(102, 102, 102));
         this.labelSimulationSpeedSlower.setText(this.translations.getString("VentanaHija.Simulacion.slower"));
         this.simulationToolbarPanel.add(this.labelSimulationSpeedSlower);
+        this.sliderMaxFramesPerSecond.setMinimum(1);
+        this.sliderMaxFramesPerSecond.setMaximum(TRepaintScheduler.MAX_FRAMES_PER_SECOND);
+        this.sliderMaxFramesPerSecond.setValue(TRepaintScheduler.DEFAULT_FRAMES_PER_SECOND);
+        this.sliderMaxFramesPerSecond.setToolTipText(this.translations.getString("VentanaHija.Simulacion.SelectorDeFPS.tooltip"));
+        // FIX: Do not use harcoded values. Use class constants instead
+        this.sliderMaxFramesPerSecond.setPreferredSize(new Dimension(80, 20));
+        this.sliderMaxFramesPerSecond.addChangeListener(new ChangeListener() {
+            @Override
+            public void stateChanged(ChangeEvent evt) {
+                handleChangeInMaxFramesPerSecond(evt);
+            }
+        });
+        this.simulationToolbarPanel.add(this.sliderMaxFramesPerSecond);
+        // FIX: Do not use harcoded values. Use class constants instead
+        this.labelMaxFramesPerSecond.setFont(new Font("Dialog", 0, 10));
+        // FIX: Do not use harcoded values. Use class constants instead
+        this.labelMaxFramesPerSecond.setForeground(new Color(102, 102, 102));
+        this.labelMaxFramesPerSecond.setText(this.sliderMaxFramesPerSecond.getValue() + " " + this.translations.getString("VentanaHija.Simulacion.EtiquetaFPS"));
+        this.simulationToolbarPanel.add(this.labelMaxFramesPerSecond);
+        // FIX: Do not use harcoded values. Use class constants instead
+        this.checkBoxExportStats.setFont(new Font("Dialog", 0, 10));
+        this.checkBoxExportStats.setText(this.translations.getString("VentanaHija.Simulacion.ExportarEstadisticas"));
+        this.checkBoxExportStats.setToolTipText(this.translations.getString("VentanaHija.Simulacion.ExportarEstadisticas.tooltip"));
+        this.checkBoxExportStats.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent evt) {
+                handleClickOnExportStats(evt);
+            }
+        });
+        this.simulationToolbarPanel.add(this.checkBoxExportStats);
         this.simulationMainContainerPanel.add(this.simulationToolbarPanel, BorderLayout.NORTH);
         this.scrollPaneSimulation.setBorder(new BevelBorder(BevelBorder.LOWERED));
         this.simulationPanel.setBorder(new EtchedBorder());
@@ -1016,6 +1058,8 @@ public class JScenarioWindow extends JInternalFrame {
         Dimension frameSize = this.getSize();
         this.setLocation((parentSize.width - frameSize.width) / 2, (parentSize.height - frameSize.height) / 2);
         this.scenario = new TScenario();
+        this.simulatorMetrics = new TSimulatorMetrics(this.scenario);
+        this.simulatorMetrics.register();
         this.designPanel.setTopology(this.scenario.getTopology());
         this.simulationPanel.setTopology(this.scenario.getTopology());
         this.selectedNode = null;
@@ -1038,6 +1082,13 @@ public class JScenarioWindow extends JInternalFrame {
         this.timingControlDisabled = false;
         this.scenario.getSimulation().setSimulationPanel(this.simulationPanel);
         this.xyChart1 = null;
+        this.analysisRefreshTimer = new Timer(ANALYSIS_REFRESH_INTERVAL_IN_MS, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent actionEvent) {
+                refreshAnalysisCharts();
+            }
+        });
+        this.analysisRefreshTimer.start();
         this.xyChart2 = null;
         this.xyChart3 = null;
         this.barChart1 = null;
@@ -1079,7 +1130,7 @@ public class JScenarioWindow extends JInternalFrame {
             }
         } else {
             this.rightClickedElementInDesignPanel = null;
-            this.designPanel.repaint();
+            this.designPanel.requestRepaint();
         }
     }
 
@@ -1128,7 +1179,7 @@ public class JScenarioWindow extends JInternalFrame {
                     mousePosition.y = this.designPanel.getSize().height;
                 }
                 this.selectedNode.setScreenPosition(new Point(mousePosition.x, mousePosition.y));
-                this.simulationPanel.repaint();
+                this.simulationPanel.requestRepaint();
                 this.scenario.setModified(true);
             }
         }
@@ -1150,7 +1201,7 @@ public class JScenarioWindow extends JInternalFrame {
                 this.selectedNode = null;
                 this.scenario.setModified(true);
             }
-            this.simulationPanel.repaint();
+            this.simulationPanel.requestRepaint();
         }
     }
 
@@ -1181,7 +1232,7 @@ public class JScenarioWindow extends JInternalFrame {
                 this.setCursor(new Cursor(Cursor.DEFAULT_CURSOR));
                 this.setToolTipText(null);
             }
-            this.simulationPanel.repaint();
+            this.simulationPanel.requestRepaint();
         }
     }
 
@@ -1224,7 +1275,7 @@ public class JScenarioWindow extends JInternalFrame {
                     trafficSinkWindow.setVisible(true);
                 }
                 this.rightClickedElementInDesignPanel = null;
-                this.designPanel.repaint();
+                this.designPanel.requestRepaint();
             } else {
                 TLink link = (TLink) this.rightClickedElementInDesignPanel;
                 TLinkConfig linkConfig = link.getConfig();
@@ -1239,7 +1290,7 @@ public class JScenarioWindow extends JInternalFrame {
                     internalLink.configure(linkConfig, this.scenario.getTopology(), true);
                 }
                 this.rightClickedElementInDesignPanel = null;
-                this.designPanel.repaint();
+                this.designPanel.requestRepaint();
                 int minDelay = this.scenario.getTopology().getMinimumDelay();
                 int tickDurationInNs = this.sliderOptionsTickDurationInNs.getValue();
                 if (tickDurationInNs > minDelay) {
@@ -1336,6 +1387,85 @@ public class JScenarioWindow extends JInternalFrame {
         this.simulationPanel.setSimulationSpeedInMsPerTick(this.sliderSimulationSpeedInMsPerTick.getValue());
     }
 
+    /**
+     * This method is called when the user changes the maximum number of frames
+     * per second the simulation is played back at.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param evt The event that triggers this method
+     * @since 2.3
+     */
+    private void handleChangeInMaxFramesPerSecond(ChangeEvent evt) {
+        this.labelMaxFramesPerSecond.setText(this.sliderMaxFramesPerSecond.getValue() + " " + this.translations.getString("VentanaHija.Simulacion.EtiquetaFPS"));
+        this.simulationPanel.setMaxFramesPerSecond(this.sliderMaxFramesPerSecond.getValue());
+    }
+
+    /**
+     * This method is called when the user does click on "Export stats" check
+     * box of the simulation toolbar. When checked, it asks for a file and
+     * starts streaming the statistics of the scenario to it while simulating;
+     * files ending in .csv are written as CSV and any other as binary. When
+     * unchecked, it stops the export and closes the file.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param evt The event that triggers this method
+     * @since 2.3
+     */
+    private void handleClickOnExportStats(ActionEvent evt) {
+        if (!this.checkBoxExportStats.isSelected()) {
+            stopStatsExport();
+            return;
+        }
+        JFileChooser exportDialog = new JFileChooser();
+        exportDialog.setDialogTitle(this.translations.getString("VentanaHija.Simulacion.ExportarEstadisticas.titulo"));
+        exportDialog.setSelectedFile(new File(this.getTitle() + CSV_EXTENSION));
+        exportDialog.setFileSelectionMode(JFileChooser.FILES_ONLY);
+        int result = exportDialog.showSaveDialog(this.parent);
+        if (result != JFileChooser.APPROVE_OPTION) {
+            this.checkBoxExportStats.setSelected(false);
+            return;
+        }
+        File file = exportDialog.getSelectedFile();
+        try {
+            TStatsWriter writer;
+            if (file.getName().toLowerCase().endsWith(CSV_EXTENSION)) {
+                writer = new TStatsCSVWriter(file);
+            } else {
+                writer = new TStatsBinaryWriter(file);
+            }
+            this.statsExporter = new TStatsExporter(this.scenario.getTopology(), writer);
+            this.scenario.getTopology().getTimer().addTickCompletionListener(this.statsExporter);
+        } catch (IOException e) {
+            this.checkBoxExportStats.setSelected(false);
+            JErrorWindow errorWindow = new JErrorWindow(this.parent, true, this.imageBroker);
+            errorWindow.setErrorMessage(e.toString());
+            errorWindow.setVisible(true);
+        }
+    }
+
+    /**
+     * This method stops the export of statistics, if any, and closes the file
+     * the statistics are being written to.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    private void stopStatsExport() {
+        if (this.statsExporter == null) {
+            return;
+        }
+        this.scenario.getTopology().getTimer().removeTickCompletionListener(this.statsExporter);
+        try {
+            this.statsExporter.close();
+        } catch (IOException e) {
+            JErrorWindow errorWindow = new JErrorWindow(this.parent, true, this.imageBroker);
+            errorWindow.setErrorMessage(e.toString());
+            errorWindow.setVisible(true);
+        }
+        this.statsExporter = null;
+        this.checkBoxExportStats.setSelected(false);
+    }
+
     /**
      * This method is called when the user does click on "Hide link names"
      * option that is shown when a right click on the background of design panel
@@ -1352,7 +1482,7 @@ public class JScenarioWindow extends JInternalFrame {
             link = (TLink) linksIterator.next();
             link.setShowName(false);
         }
-        this.designPanel.repaint();
+        this.designPanel.requestRepaint();
         this.scenario.setModified(true);
     }
 
@@ -1372,7 +1502,7 @@ public class JScenarioWindow extends JInternalFrame {
             link = (TLink) linksIterator.next();
             link.setShowName(true);
         }
-        this.designPanel.repaint();
+        this.designPanel.requestRepaint();
         this.scenario.setModified(true);
     }
 
@@ -1392,7 +1522,7 @@ public class JScenarioWindow extends JInternalFrame {
             node = (TNode) nodesIterator.next();
             node.setShowName(false);
         }
-        this.designPanel.repaint();
+        this.designPanel.requestRepaint();
         this.scenario.setModified(true);
     }
 
@@ -1412,7 +1542,7 @@ public class JScenarioWindow extends JInternalFrame {
             node = (TNode) nodesIterator.next();
             node.setShowName(true);
         }
-        this.designPanel.repaint();
+        this.designPanel.requestRepaint();
         this.scenario.setModified(true);
     }
 
@@ -1432,7 +1562,7 @@ public class JScenarioWindow extends JInternalFrame {
         boolean userAnswer = decissionWindow.getUserAnswer();
         if (userAnswer) {
             this.scenario.getTopology().removeAllElements();
-            this.designPanel.repaint();
+            this.designPanel.requestRepaint();
         }
         this.scenario.setModified(true);
     }
@@ -1449,6 +1579,9 @@ public class JScenarioWindow extends JInternalFrame {
         long simulationLength = scenario.getSimulation().getSimulationLengthInNs();
         long simulationTickDurationInNs = scenario.getSimulation().getSimulationTickDurationInNs();
         this.scenario = scenario;
+        this.simulatorMetrics.unregister();
+        this.simulatorMetrics = new TSimulatorMetrics(scenario);
+        this.simulatorMetrics.register();
         this.designPanel.setTopology(scenario.getTopology());
         this.simulationPanel.setTopology(scenario.getTopology());
         this.selectedNode = null;
@@ -1512,7 +1645,7 @@ public class JScenarioWindow extends JInternalFrame {
                         externalLink.configure(linkConfig, this.scenario.getTopology(), false);
                         this.scenario.getTopology().addLink(externalLink);
                     }
-                    this.designPanel.repaint();
+                    this.designPanel.requestRepaint();
                 } catch (Exception e) {
                     JErrorWindow errorWindow;
                     errorWindow = new JErrorWindow(this.parent, true, this.imageBroker);
@@ -1554,18 +1687,18 @@ public class JScenarioWindow extends JInternalFrame {
                         } else {
                             this.scenario.getTopology().disconnectNodeAndRemove(node);
                             this.rightClickedElementInDesignPanel = null;
-                            this.designPanel.repaint();
+                            this.designPanel.requestRepaint();
                         }
                     } else {
                         this.scenario.getTopology().disconnectNodeAndRemove(node);
                         this.rightClickedElementInDesignPanel = null;
-                        this.designPanel.repaint();
+                        this.designPanel.requestRepaint();
                     }
                 } else {
                     TLink link = (TLink) this.rightClickedElementInDesignPanel;
                     this.scenario.getTopology().removeLink(link);
                     this.rightClickedElementInDesignPanel = null;
-                    this.designPanel.repaint();
+                    this.designPanel.requestRepaint();
                 }
                 this.scenario.setModified(true);
             }
@@ -1588,12 +1721,12 @@ public class JScenarioWindow extends JInternalFrame {
                 TNode node = (TNode) this.rightClickedElementInDesignPanel;
                 node.setShowName(this.chekBoxMenuItemShowElementName.isSelected());
                 this.rightClickedElementInDesignPanel = null;
-                this.designPanel.repaint();
+                this.designPanel.requestRepaint();
             } else {
                 TLink link = (TLink) this.rightClickedElementInDesignPanel;
                 link.setShowName(this.chekBoxMenuItemShowElementName.isSelected());
                 this.rightClickedElementInDesignPanel = null;
-                this.designPanel.repaint();
+                this.designPanel.requestRepaint();
             }
             this.scenario.setModified(true);
         }
@@ -1629,7 +1762,7 @@ public class JScenarioWindow extends JInternalFrame {
             }
         } else {
             this.rightClickedElementInDesignPanel = null;
-            this.designPanel.repaint();
+            this.designPanel.requestRepaint();
         }
     }
 
@@ -1658,7 +1791,7 @@ public class JScenarioWindow extends JInternalFrame {
         if (activeLSRNode.isWellConfigured()) {
             try {
                 this.scenario.getTopology().addNode(activeLSRNode);
-                this.designPanel.repaint();
+                this.designPanel.requestRepaint();
             } catch (Exception e) {
                 JErrorWindow errorWindow;
                 errorWindow = new JErrorWindow(this.parent, true, this.imageBroker);
@@ -1696,7 +1829,7 @@ public class JScenarioWindow extends JInternalFrame {
         if (lsrNode.isWellConfigured()) {
             try {
                 this.scenario.getTopology().addNode(lsrNode);
-                this.designPanel.repaint();
+                this.designPanel.requestRepaint();
             } catch (Exception e) {
                 JErrorWindow errorWindow;
                 errorWindow = new JErrorWindow(this.parent, true, this.imageBroker);
@@ -1734,7 +1867,7 @@ public class JScenarioWindow extends JInternalFrame {
         if (activeLERNode.isWellConfigured()) {
             try {
                 this.scenario.getTopology().addNode(activeLERNode);
-                this.designPanel.repaint();
+                this.designPanel.requestRepaint();
             } catch (Exception e) {
                 JErrorWindow errorWindow;
                 errorWindow = new JErrorWindow(this.parent, true, this.imageBroker);
@@ -1842,7 +1975,7 @@ public class JScenarioWindow extends JInternalFrame {
                     p2.y = this.designPanel.getSize().height;
                 }
                 this.selectedNode.setScreenPosition(new Point(p2.x, p2.y));
-                this.designPanel.repaint();
+                this.designPanel.requestRepaint();
                 this.scenario.setModified(true);
             }
         }
@@ -1864,7 +1997,7 @@ public class JScenarioWindow extends JInternalFrame {
                 this.selectedNode = null;
                 this.scenario.setModified(true);
             }
-            this.designPanel.repaint();
+            this.designPanel.requestRepaint();
         }
     }
 
@@ -1885,7 +2018,7 @@ public class JScenarioWindow extends JInternalFrame {
                 this.selectedNode.setSelected(TNode.SELECTED);
                 this.scenario.setModified(true);
             }
-            this.designPanel.repaint();
+            this.designPanel.requestRepaint();
         }
     }
 
@@ -2018,7 +2151,7 @@ public class JScenarioWindow extends JInternalFrame {
         if (lerNode.isWellConfigured()) {
             try {
                 this.scenario.getTopology().addNode(lerNode);
-                this.designPanel.repaint();
+                this.designPanel.requestRepaint();
             } catch (Exception e) {
                 JErrorWindow errorWindow;
                 errorWindow = new JErrorWindow(this.parent, true, this.imageBroker);
@@ -2242,7 +2375,7 @@ public class JScenarioWindow extends JInternalFrame {
         if (trafficSinkNode.isWellConfigured()) {
             try {
                 this.scenario.getTopology().addNode(trafficSinkNode);
-                this.designPanel.repaint();
+                this.designPanel.requestRepaint();
             } catch (Exception e) {
                 JErrorWindow errorWindow;
                 errorWindow = new JErrorWindow(this.parent, true, this.imageBroker);
@@ -2296,7 +2429,7 @@ public class JScenarioWindow extends JInternalFrame {
             if (trafficGeneratorNode.isWellConfigured()) {
                 try {
                     this.scenario.getTopology().addNode(trafficGeneratorNode);
-                    this.designPanel.repaint();
+                    this.designPanel.requestRepaint();
                 } catch (Exception e) {
                     JErrorWindow errorWindow;
                     errorWindow = new JErrorWindow(this.parent, true, this.imageBroker);
@@ -2367,6 +2500,9 @@ public class JScenarioWindow extends JInternalFrame {
     private void handleClickOnStartIcon(MouseEvent evt) {
         if (this.iconContainterStartSimulation.isEnabled()) {
             this.scenario.reset();
+            if (this.statsExporter != null) {
+                this.statsExporter.reset();
+            }
             if (!this.scenario.getTopology().getTimer().isRunning()) {
                 this.scenario.getTopology().getTimer().setFinishTimestamp(new TTimestamp(this.sliderOptionsSimulationLengthMs.getValue(), this.sliderOptionsSimulationLengthNs.getValue()));
             }
@@ -2375,7 +2511,7 @@ public class JScenarioWindow extends JInternalFrame {
             this.scenario.setModified(true);
             this.scenario.getTopology().getTimer().reset();
             this.simulationPanel.reset();
-            this.simulationPanel.repaint();
+            this.simulationPanel.requestRepaint();
             this.scenario.simulate();
             int minimumDelay = this.scenario.getTopology().getMinimumDelay();
             int currentTickDurationInNs = this.sliderOptionsTickDurationInNs.getValue();
@@ -2472,6 +2608,9 @@ public class JScenarioWindow extends JInternalFrame {
      * @since 2.0
      */
     public void close() {
+        this.analysisRefreshTimer.stop();
+        stopStatsExport();
+        this.simulatorMetrics.unregister();
         this.setVisible(false);
         this.dispose();
     }
@@ -2538,7 +2677,7 @@ public class JScenarioWindow extends JInternalFrame {
         // Stop simulation before close, if necessary.
         if (this.scenario.getTopology().getTimer().isRunning()) {
             this.simulationPanel.reset();
-            this.simulationPanel.repaint();
+            this.simulationPanel.requestRepaint();
             this.scenario.reset();
             if (!this.scenario.getTopology().getTimer().isRunning()) {
                 this.scenario.getTopology().getTimer().setFinishTimestamp(new TTimestamp(this.sliderOptionsSimulationLengthMs.getValue(), this.sliderOptionsSimulationLengthNs.getValue()));
@@ -2677,8 +2816,8 @@ public class JScenarioWindow extends JInternalFrame {
             if (numeroGraficos > 0) {
                 this.xyChart1 = new JXYChart(nt.getStats().getTitleOfDataset1(),
                         TStats.TIME,
-                        TStats.NUMBER_OF_PACKETS,
-                        (XYSeriesCollection) nt.getStats().getDataset1());
+                        nt.getStats().getValueAxisTitleOfDataset(1),
+                        (XYDataset) nt.getStats().getDataset1());
                 if (numeroGraficos == 1) {
                     this.analysisPanel.add(this.xyChart1.getChartPanel());
                 } else {
@@ -2690,25 +2829,25 @@ public class JScenarioWindow extends JInternalFrame {
 
                 this.xyChart2 = new JXYChart(nt.getStats().getTitleOfDataset2(),
                         TStats.TIME,
-                        TStats.NUMBER_OF_PACKETS,
-                        (XYSeriesCollection) nt.getStats().getDataset2());
+                        nt.getStats().getValueAxisTitleOfDataset(2),
+                        (XYDataset) nt.getStats().getDataset2());
                 this.analysisPanel.add(this.xyChart2.getChartPanel(), "grow, wrap");
             }
             // FIX: Do not use harcoded values. Use class constants instead
             if (numeroGraficos > 2) {
                 this.xyChart3 = new JXYChart(nt.getStats().getTitleOfDataset3(),
                         TStats.TIME,
-                        TStats.NUMBER_OF_PACKETS,
-                        (XYSeriesCollection) nt.getStats().getDataset3());
+                        nt.getStats().getValueAxisTitleOfDataset(3),
+                        (XYDataset) nt.getStats().getDataset3());
                 this.analysisPanel.add(this.xyChart3.getChartPanel(), "grow");
             }
             // FIX: Do not use harcoded values. Use class constants instead
             if (numeroGraficos > 3) {
-                this.barChart1 = new JBarChart(nt.getStats().getTitleOfDataset4(), TStats.DESCRIPTION, TStats.NUMBER, (DefaultCategoryDataset) nt.getStats().getDataset4());
+                this.barChart1 = new JBarChart(nt.getStats().getTitleOfDataset4(), TStats.DESCRIPTION, nt.getStats().getValueAxisTitleOfDataset(4), (DefaultCategoryDataset) nt.getStats().getDataset4());
                 this.analysisPanel.add(this.barChart1.getChartPanel(), "grow, wrap");
             }
             if (numeroGraficos > 4) {
-                this.barChart2 = new JBarChart(nt.getStats().getTitleOfDataset5(), TStats.DESCRIPTION, TStats.NUMBER, (DefaultCategoryDataset) nt.getStats().getDataset5());
+                this.barChart2 = new JBarChart(nt.getStats().getTitleOfDataset5(), TStats.DESCRIPTION, nt.getStats().getValueAxisTitleOfDataset(5), (DefaultCategoryDataset) nt.getStats().getDataset5());
                 this.analysisPanel.add(this.barChart2.getChartPanel(), "grow");
             }
         }
@@ -2735,6 +2874,28 @@ public class JScenarioWindow extends JInternalFrame {
         this.analysisPanel.repaint();
     }
 
+    /**
+     * This method updates the charts of the analysis panel with the
+     * statistics collected since the last update. Charts are only updated
+     * while the analysis panel is being shown.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    private void refreshAnalysisCharts() {
+        if (this.analysisPanel.isShowing()) {
+            if (this.xyChart1 != null) {
+                this.xyChart1.refresh();
+            }
+            if (this.xyChart2 != null) {
+                this.xyChart2.refresh();
+            }
+            if (this.xyChart3 != null) {
+                this.xyChart3.refresh();
+            }
+        }
+    }
+
     /**
      * This method saves the latest information about the simulation to the
      * associated scenario object.
@@ -2755,12 +2916,14 @@ public class JScenarioWindow extends JInternalFrame {
     }
 
     private TProgressEventListener progressEventListener;
+    private TSimulatorMetrics simulatorMetrics;
     private TScenario scenario;
     private TNode selectedNode;
     private TImageBroker imageBroker;
     private JOpenSimMPLS parent;
     private TTopologyElement rightClickedElementInDesignPanel;
     private boolean timingControlDisabled;
+    private Timer analysisRefreshTimer;
     private JXYChart xyChart1;
     private JXYChart xyChart2;
     private JXYChart xyChart3;
@@ -2787,6 +2950,8 @@ public class JScenarioWindow extends JInternalFrame {
     private JLabel labelScenarioTitle;
     private JLabel labelSimulationSpeedFaster;
     private JLabel labelSimulationSpeedSlower;
+    private JLabel labelMaxFramesPerSecond;
+    private JCheckBox checkBoxExportStats;
     private JLabel labelElementToAnalize;
     private JLabel labelOptionsNsTick;
     private JLabel iconContainterStartSimulation;
@@ -2815,6 +2980,7 @@ public class JScenarioWindow extends JInternalFrame {
     private JSeparator separatorPopupMenuBackgroundDesignPanel;
     private JTabbedPane tabsPanel;
     private JSlider sliderSimulationSpeedInMsPerTick;
+    private JSlider sliderMaxFramesPerSecond;
     private JTextField textFieldOptionsScenarioAuthorName;
     private JTextField textFieldOptionsScenarioTitle;
     private JScrollablePanel analysisPanel;
@@ -2830,5 +2996,9 @@ public class JScenarioWindow extends JInternalFrame {
     private JPanel simulationMainContainerPanel;
     private JSlider sliderOptionsTickDurationInNs;
     private JComboBox comboBoxNodeToAnalize;
+    private TStatsExporter statsExporter;
     private ResourceBundle translations;
+
+    private static final int ANALYSIS_REFRESH_INTERVAL_IN_MS = 500;
+    private static final String CSV_EXTENSION = ".csv";
 }
@@ -19,6 +19,8 @@ import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
 import com.manolodominguez.opensimmpls.resources.images.AvailableImages;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
 import com.manolodominguez.opensimmpls.scenario.TInternalLink;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.ISimulationEventBatchConsumer;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventListener;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventNodeCongested;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketDiscarded;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketGenerated;
@@ -32,31 +34,53 @@ import com.manolodominguez.opensimmpls.scenario.TTopology;
 import com.manolodominguez.opensimmpls.scenario.TLink;
 import com.manolodominguez.opensimmpls.scenario.TNode;
 import com.manolodominguez.opensimmpls.gui.utils.TImageBroker;
+import com.manolodominguez.opensimmpls.gui.utils.TLevelOfDetail;
+import com.manolodominguez.opensimmpls.gui.utils.TRepaintScheduler;
 import com.manolodominguez.opensimmpls.commons.TSemaphore;
 import java.awt.BasicStroke;
+import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Point;
+import java.awt.GraphicsConfiguration;
 import java.awt.Polygon;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
+import java.awt.Transparency;
 import java.awt.Toolkit;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
 import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.TreeSet;
 import javax.swing.JPanel;
+import javax.swing.Timer;
 
 /**
  * This class implements a panel that shows the simulation of a given scenario.
+ * Simulation events are grouped by tick into a bounded timeline, as fast as the
+ * simulation generates them, and an independent render loop, driven by a
+ * Swing timer, plays completed ticks back at the speed selected by the user.
+ * Frames are painted through a repaint scheduler that caps the frame rate.
+ * The topology itself is rendered into two cached offscreen layers, below and
+ * above packets in transit, that are only rebuilt when it changes. Only the
+ * visible part of the topology is painted, and very dense topologies are
+ * painted with less detail.
  *
  * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
  * @version 2.0
  */
 @SuppressWarnings("serial")
-public class JSimulationPanel extends JPanel {
+public class JSimulationPanel extends JPanel implements ISimulationEventBatchConsumer {
 
     /**
      * This is the constructor of the class and creates a new instance of
@@ -94,6 +118,10 @@ public class JSimulationPanel extends JPanel {
         this.screenSize = Toolkit.getDefaultToolkit().getScreenSize();
         this.bufferedImage = null;
         this.bufferedG2D = null;
+        this.linksLayerImage = null;
+        this.nodesLayerImage = null;
+        this.topologyLayersSignature = 0;
+        this.levelOfDetail = new TLevelOfDetail();
         this.topology = null;
         // FIX: Do not use harcoded values. Use class constants instead.
         this.maxX = 10;
@@ -101,12 +129,34 @@ public class JSimulationPanel extends JPanel {
         this.maxY = 10;
         this.eventsBuffer = new TreeSet();
         this.simulationBuffer = new TreeSet();
+        this.bufferedTicks = new ArrayDeque<>();
+        this.bufferedTicksInstants = new ArrayDeque<>();
         // FIX: Do not use harcoded values. Use class constants instead.
         this.currentTick = 0;
         // FIX: Do not use harcoded values. Use class constants instead.
+        this.displayedTick = 0;
+        this.pendingPlaybackTimeInMs = 0;
+        this.lastFrameTimestampInNs = System.nanoTime();
+        this.repaintScheduler = new TRepaintScheduler(this, TRepaintScheduler.DEFAULT_FRAMES_PER_SECOND);
+        this.renderTimer = new Timer(this.repaintScheduler.getFrameIntervalInMs(), new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent actionEvent) {
+                playBufferedTicks();
+            }
+        });
+        // FIX: Do not use harcoded values. Use class constants instead.
         this.simulationSpeedInMsPerTick = 0;
         this.showLegend = false;
         this.eventsBuffersSemaphore = new TSemaphore();
+        this.showingOnScreen = false;
+        this.addHierarchyListener(new HierarchyListener() {
+            @Override
+            public void hierarchyChanged(HierarchyEvent hierarchyEvent) {
+                if ((hierarchyEvent.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+                    showingOnScreen = isShowing();
+                }
+            }
+        });
     }
 
     /**
@@ -128,10 +178,17 @@ public class JSimulationPanel extends JPanel {
             eventsIterator.next();
             eventsIterator.remove();
         }
+        this.bufferedTicks.clear();
+        this.bufferedTicksInstants.clear();
         this.showLegend = false;
-        this.eventsBuffersSemaphore.setGreen();
         // FIX: Do not use harcoded values. Use class constants instead.
         this.currentTick = 0;
+        // FIX: Do not use harcoded values. Use class constants instead.
+        this.displayedTick = 0;
+        this.pendingPlaybackTimeInMs = 0;
+        this.eventsBuffersSemaphore.setGreen();
+        this.renderTimer.stop();
+        this.repaintScheduler.resetStatistics();
     }
 
     /**
@@ -249,6 +306,9 @@ public class JSimulationPanel extends JPanel {
         Iterator linksIterator = this.topology.getLinksIterator();
         while (linksIterator.hasNext()) {
             TLink link = (TLink) linksIterator.next();
+            if (!this.levelOfDetail.isVisible(link)) {
+                continue;
+            }
             Point headEnd = link.getHeadEndNode().getScreenPosition();
             Point tailEnd = link.getTailEndNode().getScreenPosition();
             int linkDelay = link.getDelay();
@@ -322,7 +382,7 @@ public class JSimulationPanel extends JPanel {
                     }
                 }
             }
-            if (link.getShowName()) {
+            if (link.getShowName() && !this.levelOfDetail.isSimplified()) {
                 FontMetrics fm = this.getFontMetrics(this.getFont());
                 int anchoTexto = fm.charsWidth(link.getName().toCharArray(), 0, link.getName().length());
                 // FIX: Do not use harcoded values. Use class constants instead.
@@ -377,6 +437,13 @@ public class JSimulationPanel extends JPanel {
             }
             this.setPreferredSize(new Dimension(this.maxX, this.maxY));
             this.revalidate();
+            if (!this.levelOfDetail.isVisible(node)) {
+                continue;
+            }
+            if (this.levelOfDetail.isSimplified()) {
+                this.levelOfDetail.paintSimplifiedNode(graphics2D, node);
+                continue;
+            }
 
             int nodeType = node.getNodeType();
             switch (nodeType) {
@@ -449,13 +516,14 @@ public class JSimulationPanel extends JPanel {
 
     /**
      * This method set the number of Ms between subsequents repaints of the
-     * simulation. In fact this allow the user to set the simulation speed that,
+     * simulation. In fact this allow the user to set the playback speed that,
      * by default is too fast as to see something clearly in the simulation
-     * panel.
+     * panel. It does not slow the simulation down; completed ticks are
+     * buffered and played back at this speed.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
-     * @param simulationSpeedInMsPerTick The number of Ms that the simulation
-     * will wait until next tick is painted in the panel.
+     * @param simulationSpeedInMsPerTick The number of Ms that each tick is
+     * shown in the panel before the next one is painted.
      * @since 2.0
      */
     public void setSimulationSpeedInMsPerTick(int simulationSpeedInMsPerTick) {
@@ -464,7 +532,12 @@ public class JSimulationPanel extends JPanel {
 
     /**
      * This method queues a new simulation event to be painted in the simulation
-     * panel when needed.
+     * panel when needed. When the event belongs to a new tick, the events of
+     * the previous one are complete and are appended to the timeline, to be
+     * played back by the render loop. It never blocks the caller waiting for
+     * the panel to be painted. If the timeline is full because playback is
+     * slower than the simulation, its oldest tick is dropped and counted as
+     * a dropped frame.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @param simulationEvent a new simulation event to be painted in the
@@ -477,33 +550,127 @@ public class JSimulationPanel extends JPanel {
             this.eventsBuffer.add(simulationEvent);
             this.eventsBuffersSemaphore.setGreen();
         } else {
-            this.currentTick = simulationEvent.getInstant();
-            Iterator simulationEventsBufferIterator = this.simulationBuffer.iterator();
-            TSimulationEvent evento = null;
-            while (simulationEventsBufferIterator.hasNext()) {
-                simulationEventsBufferIterator.next();
-                simulationEventsBufferIterator.remove();
-            }
-            simulationEventsBufferIterator = this.eventsBuffer.iterator();
-            evento = null;
-            while (simulationEventsBufferIterator.hasNext()) {
-                evento = (TSimulationEvent) simulationEventsBufferIterator.next();
-                this.simulationBuffer.add(evento);
-                simulationEventsBufferIterator.remove();
+            if (!this.eventsBuffer.isEmpty()) {
+                if (this.bufferedTicks.size() >= MAX_BUFFERED_TICKS) {
+                    // The oldest completed tick is dropped to bound memory,
+                    // and counted as a dropped frame so that the user knows
+                    // that part of the simulation has not been shown.
+                    this.bufferedTicks.pollFirst();
+                    this.bufferedTicksInstants.pollFirst();
+                    this.repaintScheduler.addDroppedFrames(1);
+                }
+                this.bufferedTicks.addLast(this.eventsBuffer);
+                this.bufferedTicksInstants.addLast(this.currentTick);
+                this.eventsBuffer = new TreeSet();
             }
-            this.eventsBuffersSemaphore.setGreen();
-            repaint();
+            this.currentTick = simulationEvent.getInstant();
             this.eventsBuffer.add(simulationEvent);
-            try {
-                // FIX: Do not use static access to sleep() method
-                Thread.currentThread().sleep(this.simulationSpeedInMsPerTick);
-            } catch (Exception e) {
-                // FIX: This is ugly.
-                e.printStackTrace();
+            this.eventsBuffersSemaphore.setGreen();
+            if (!this.renderTimer.isRunning()) {
+                this.lastFrameTimestampInNs = System.nanoTime();
+                this.renderTimer.start();
             }
         }
     }
 
+    /**
+     * This method is run periodically by the render loop, in the event
+     * dispatch thread. It computes how many completed ticks should have been
+     * shown since the previous frame, according to the playback speed,
+     * removes them from the timeline and shows only the latest one, so that
+     * frames are dropped instead of accumulating delay when the panel cannot
+     * keep up.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    private void playBufferedTicks() {
+        long now = System.nanoTime();
+        long elapsedTimeInMs = (now - this.lastFrameTimestampInNs) / NS_PER_MS;
+        this.lastFrameTimestampInNs = now;
+        TreeSet tickToBeShown = null;
+        long tickInstantToBeShown = 0;
+        this.eventsBuffersSemaphore.setRed();
+        if (this.bufferedTicks.isEmpty()) {
+            // Playback time is not accumulated while waiting for the simulation.
+            this.pendingPlaybackTimeInMs = 0;
+        } else {
+            int ticksDue = this.bufferedTicks.size();
+            if (this.simulationSpeedInMsPerTick > 0) {
+                this.pendingPlaybackTimeInMs += elapsedTimeInMs;
+                ticksDue = (int) Math.min(ticksDue, this.pendingPlaybackTimeInMs / this.simulationSpeedInMsPerTick);
+                this.pendingPlaybackTimeInMs -= ticksDue * (long) this.simulationSpeedInMsPerTick;
+            }
+            this.repaintScheduler.addDroppedFrames(ticksDue - 1);
+            for (int i = 0; i < ticksDue; i++) {
+                tickToBeShown = this.bufferedTicks.pollFirst();
+                tickInstantToBeShown = this.bufferedTicksInstants.pollFirst();
+            }
+            if (tickToBeShown != null) {
+                this.simulationBuffer = tickToBeShown;
+                this.displayedTick = tickInstantToBeShown;
+            }
+        }
+        this.eventsBuffersSemaphore.setGreen();
+        if (tickToBeShown != null) {
+            this.repaintScheduler.requestRepaint();
+        }
+    }
+
+    /**
+     * This method sets the maximum number of frames per second the simulation
+     * is played back at.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param maxFramesPerSecond the maximum number of frames per second.
+     * @since 2.3
+     */
+    public void setMaxFramesPerSecond(int maxFramesPerSecond) {
+        this.repaintScheduler.setMaxFramesPerSecond(maxFramesPerSecond);
+        this.renderTimer.setDelay(this.repaintScheduler.getFrameIntervalInMs());
+    }
+
+    /**
+     * This method requests the panel to be repainted, without exceeding the
+     * maximum frame rate. It can be called from any thread.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public void requestRepaint() {
+        this.repaintScheduler.requestRepaint();
+    }
+
+    /**
+     * This method gets the event subtypes the simulation panel wants to
+     * receive, that is, all of them.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the subscription mask of the simulation panel.
+     * @since 2.3
+     */
+    @Override
+    public long getWantedEventSubtypes() {
+        return TSimulationEventListener.ALL_EVENT_SUBTYPES;
+    }
+
+    /**
+     * This method receives a batch of simulation events from the simulation
+     * event listener and queues each one of them to be painted.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param simulationEvents the array containing the batch of simulation
+     * events.
+     * @param numberOfEvents the number of simulation events of the batch.
+     * @since 2.3
+     */
+    @Override
+    public void consumeSimulationEvents(TSimulationEvent[] simulationEvents, int numberOfEvents) {
+        for (int i = 0; i < numberOfEvents; i++) {
+            this.addEvent(simulationEvents[i]);
+        }
+    }
+
     /**
      * This method paints events related to the packets circulating through the
      * topology.
@@ -515,15 +682,35 @@ public class JSimulationPanel extends JPanel {
     private void paintPacketsEvents(Graphics2D graphics2D) {
         this.eventsBuffersSemaphore.setRed();
         try {
+            Map<TLink, Integer> packetsOnFlyPerLink = null;
+            if (this.levelOfDetail.isSimplified()) {
+                packetsOnFlyPerLink = new HashMap<>();
+            }
             Iterator simulationEventsIterator = this.simulationBuffer.iterator();
             TSimulationEvent event = null;
             while (simulationEventsIterator.hasNext()) {
                 event = (TSimulationEvent) simulationEventsIterator.next();
                 if (event != null) {
+                    if ((event.getSubtype() != TSimulationEvent.PACKET_ON_FLY) && (event.getSource() instanceof TNode)) {
+                        if (!this.levelOfDetail.isVisible((TNode) event.getSource())) {
+                            continue;
+                        }
+                        if (this.levelOfDetail.isSimplified() && (event.getSubtype() != TSimulationEvent.PACKET_DISCARDED)) {
+                            continue;
+                        }
+                    }
                     if (event.getSubtype() == TSimulationEvent.PACKET_ON_FLY) {
                         TSimulationEventPacketOnFly simulationEventPacketOnFly = (TSimulationEventPacketOnFly) event;
                         TLink link = (TLink) simulationEventPacketOnFly.getSource();
+                        if (packetsOnFlyPerLink != null) {
+                            // Packets are aggregated and painted after all events.
+                            packetsOnFlyPerLink.merge(link, 1, Integer::sum);
+                            continue;
+                        }
                         Point packetPosition = link.getScreenPacketPosition(simulationEventPacketOnFly.getTransitPercentage());
+                        if (!this.levelOfDetail.isVisible(packetPosition)) {
+                            continue;
+                        }
                         if (simulationEventPacketOnFly.getPacketType() == TAbstractPDU.GPSRP) {
                             // FIX: Do not use harcoded values. Use class constants instead.
                             graphics2D.drawImage(this.imageBroker.getImage(AvailableImages.PDU_GOS), packetPosition.x - 14, packetPosition.y - 14, null);
@@ -601,6 +788,13 @@ public class JSimulationPanel extends JPanel {
                     }
                 }
             }
+            if (packetsOnFlyPerLink != null) {
+                for (Map.Entry<TLink, Integer> packetsOnFly : packetsOnFlyPerLink.entrySet()) {
+                    if (this.levelOfDetail.isVisible(packetsOnFly.getKey())) {
+                        this.levelOfDetail.paintPacketsDensity(graphics2D, packetsOnFly.getKey(), packetsOnFly.getValue());
+                    }
+                }
+            }
         } catch (Exception e) {
             // FIX: This is ugly.
             e.printStackTrace();
@@ -629,6 +823,13 @@ public class JSimulationPanel extends JPanel {
                         Point nodePosition = node.getScreenPosition();
                         int nodeType = node.getNodeType();
                         long congestionLevel = simulationEventNodeCongested.getCongestionLevel();
+                        if (!this.levelOfDetail.isVisible(node)) {
+                            continue;
+                        }
+                        if (this.levelOfDetail.isSimplified()) {
+                            this.levelOfDetail.paintSimplifiedCongestion(graphics2D, node, congestionLevel);
+                            continue;
+                        }
                         // FIX: Do not use harcoded values. Use class constants instead.
                         if ((congestionLevel >= 50) && (congestionLevel < 75)) {
                             if (nodeType == TNode.TRAFFIC_GENERATOR) {
@@ -732,23 +933,51 @@ public class JSimulationPanel extends JPanel {
      */
     private void paintCurrentTick(Graphics2D graphics2D) {
         // FIX: Do not use harcoded values. Use class constants instead.
-        int xPosition = 8;
+        paintStatusBox(graphics2D, this.displayedTick + " " + translations.getString("JPanelSimulacion.Ns"), 18);
+    }
+
+    /**
+     * This method paints, below the tick number, how many frames have been
+     * dropped so far to keep up with the playback speed. Nothing is painted
+     * while no frame has been dropped.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param graphics2D the place where the topology is going to be painted.
+     * @since 2.3
+     */
+    private void paintDroppedFrames(Graphics2D graphics2D) {
+        long droppedFrames = this.repaintScheduler.getDroppedFrames();
+        if (droppedFrames > 0) {
+            // FIX: Do not use harcoded values. Use class constants instead.
+            paintStatusBox(graphics2D, droppedFrames + " " + translations.getString("JPanelSimulacion.Fotogramas_descartados"), 40);
+        }
+    }
+
+    /**
+     * This method paints a text in a box at the upper left corner of the
+     * panel.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param graphics2D the place where the topology is going to be painted.
+     * @param text the text to be painted.
+     * @param yPosition the vertical position of the baseline of the text.
+     * @since 2.3
+     */
+    private void paintStatusBox(Graphics2D graphics2D, String text, int yPosition) {
         // FIX: Do not use harcoded values. Use class constants instead.
-        int yPosition = 18;
-        String tickText = this.currentTick + " " + translations.getString("JPanelSimulacion.Ns");
+        int xPosition = 8;
         FontMetrics fontMetrics = this.getFontMetrics(this.getFont());
-        int textWidth = fontMetrics.charsWidth(tickText.toCharArray(), 0, tickText.length());
-        this.bufferedG2D.setColor(Color.LIGHT_GRAY);
+        int textWidth = fontMetrics.charsWidth(text.toCharArray(), 0, text.length());
+        graphics2D.setColor(Color.LIGHT_GRAY);
         // FIX: Do not use harcoded values. Use class constants instead.
-        this.bufferedG2D.fillRect(xPosition - 2, yPosition - 12, textWidth + 6, 18);
-        this.bufferedG2D.setColor(Color.WHITE);
-        // FIX: Do not use harcoded values. Use class constants instead.
-        this.bufferedG2D.fillRect(xPosition - 3, yPosition - 13, textWidth + 5, 17);
-        this.bufferedG2D.setColor(Color.BLACK);
+        graphics2D.fillRect(xPosition - 2, yPosition - 12, textWidth + 6, 18);
+        graphics2D.setColor(Color.WHITE);
         // FIX: Do not use harcoded values. Use class constants instead.
-        this.bufferedG2D.drawString(tickText, xPosition, yPosition);
+        graphics2D.fillRect(xPosition - 3, yPosition - 13, textWidth + 5, 17);
+        graphics2D.setColor(Color.BLACK);
+        graphics2D.drawString(text, xPosition, yPosition);
         // FIX: Do not use harcoded values. Use class constants instead.
-        this.bufferedG2D.drawRect(xPosition - 3, yPosition - 13, textWidth + 5, 17);
+        graphics2D.drawRect(xPosition - 3, yPosition - 13, textWidth + 5, 17);
     }
 
     /**
@@ -909,23 +1138,132 @@ public class JSimulationPanel extends JPanel {
      */
     private BufferedImage getSimulationScreenshot() {
         if (this.bufferedImage == null) {
-            this.bufferedImage = new BufferedImage(this.screenSize.width, this.screenSize.height, BufferedImage.TYPE_4BYTE_ABGR);
+            this.bufferedImage = createLayerImage(Transparency.TRANSLUCENT);
             this.bufferedG2D = this.bufferedImage.createGraphics();
+            this.bufferedG2D.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         }
-        prepareImage(this.bufferedG2D);
         if (this.topology != null) {
-            paintDomain(this.bufferedG2D);
-            paintLinks(this.bufferedG2D);
+            this.levelOfDetail.update(this.topology, this.getVisibleRect());
+            updateTopologyLayers();
+            this.bufferedG2D.drawImage(this.linksLayerImage, 0, 0, null);
             paintPacketsEvents(this.bufferedG2D);
-            paintNodes(this.bufferedG2D);
+            this.bufferedG2D.drawImage(this.nodesLayerImage, 0, 0, null);
             paintNodesEvents(this.bufferedG2D);
             paintLinksEvents(this.bufferedG2D);
             paintCurrentTick(this.bufferedG2D);
+            paintDroppedFrames(this.bufferedG2D);
             paintLegend(this.bufferedG2D);
+        } else {
+            prepareImage(this.bufferedG2D);
         }
         return this.bufferedImage;
     }
 
+    /**
+     * This method creates an offscreen image of the size of the screen, as
+     * compatible as possible with the device the panel is shown on, so that
+     * drawing it is as fast as possible.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param transparency the transparency mode of the image, as defined in
+     * java.awt.Transparency.
+     * @return a new offscreen image of the size of the screen.
+     * @since 2.3
+     */
+    private BufferedImage createLayerImage(int transparency) {
+        GraphicsConfiguration graphicsConfiguration = this.getGraphicsConfiguration();
+        if (graphicsConfiguration != null) {
+            return graphicsConfiguration.createCompatibleImage(this.screenSize.width, this.screenSize.height, transparency);
+        }
+        return new BufferedImage(this.screenSize.width, this.screenSize.height, BufferedImage.TYPE_4BYTE_ABGR);
+    }
+
+    /**
+     * This method renders the static part of the topology into two cached
+     * layers: the background, the domain and the links, that are painted
+     * below packets in transit, and the nodes, that are painted above them.
+     * Layers are only rendered again when something that appears in them has
+     * changed since the last time.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    private void updateTopologyLayers() {
+        long signature = computeTopologyLayersSignature();
+        if ((this.linksLayerImage != null) && (this.nodesLayerImage != null) && (signature == this.topologyLayersSignature)) {
+            return;
+        }
+        if (this.linksLayerImage == null) {
+            this.linksLayerImage = createLayerImage(Transparency.OPAQUE);
+        }
+        if (this.nodesLayerImage == null) {
+            this.nodesLayerImage = createLayerImage(Transparency.TRANSLUCENT);
+        }
+        Graphics2D linksLayerG2D = this.linksLayerImage.createGraphics();
+        prepareImage(linksLayerG2D);
+        paintDomain(linksLayerG2D);
+        paintLinks(linksLayerG2D);
+        linksLayerG2D.dispose();
+        Graphics2D nodesLayerG2D = this.nodesLayerImage.createGraphics();
+        nodesLayerG2D.setComposite(AlphaComposite.Clear);
+        // FIX: Do not use harcoded values. Use class constants instead.
+        nodesLayerG2D.fillRect(0, 0, this.screenSize.width, this.screenSize.height);
+        nodesLayerG2D.setComposite(AlphaComposite.SrcOver);
+        nodesLayerG2D.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        paintNodes(nodesLayerG2D);
+        nodesLayerG2D.dispose();
+        this.topologyLayersSignature = signature;
+    }
+
+    /**
+     * This method computes a hash of every attribute of the topology that is
+     * painted in the cached topology layers: the visible area and level of
+     * detail, position, type, selection and name of nodes and type, delay,
+     * state, LSPs and name of links. It is
+     * much cheaper than painting them, so it is computed for every frame to
+     * know whether the layers are still valid.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return a hash of the painted attributes of the topology.
+     * @since 2.3
+     */
+    private long computeTopologyLayersSignature() {
+        long signature = System.identityHashCode(this.topology);
+        Rectangle visibleArea = this.levelOfDetail.getVisibleArea();
+        if (visibleArea != null) {
+            signature = (SIGNATURE_PRIME * signature) + visibleArea.x;
+            signature = (SIGNATURE_PRIME * signature) + visibleArea.y;
+            signature = (SIGNATURE_PRIME * signature) + visibleArea.width;
+            signature = (SIGNATURE_PRIME * signature) + visibleArea.height;
+        }
+        signature = (SIGNATURE_PRIME * signature) + (this.levelOfDetail.isSimplified() ? 1 : 0);
+        Iterator nodesIterator = this.topology.getNodesIterator();
+        while (nodesIterator.hasNext()) {
+            TNode node = (TNode) nodesIterator.next();
+            Point nodePosition = node.getScreenPosition();
+            signature = (SIGNATURE_PRIME * signature) + nodePosition.x;
+            signature = (SIGNATURE_PRIME * signature) + nodePosition.y;
+            signature = (SIGNATURE_PRIME * signature) + node.getNodeType();
+            signature = (SIGNATURE_PRIME * signature) + node.isSelected();
+            signature = (SIGNATURE_PRIME * signature) + (node.getShowName() ? node.getName().hashCode() : 0);
+        }
+        Iterator linksIterator = this.topology.getLinksIterator();
+        while (linksIterator.hasNext()) {
+            TLink link = (TLink) linksIterator.next();
+            int linkState = link.isBroken() ? LINK_BROKEN_FLAG : 0;
+            if (link.getLinkType() == TLink.INTERNAL_LINK) {
+                TInternalLink internalLink = (TInternalLink) link;
+                linkState |= internalLink.isBeingUsedByAnyLSP() ? LINK_USED_BY_LSP_FLAG : 0;
+                linkState |= internalLink.isBeingUsedByAnyBackupLSP() ? LINK_USED_BY_BACKUP_LSP_FLAG : 0;
+            }
+            signature = (SIGNATURE_PRIME * signature) + link.getLinkType();
+            signature = (SIGNATURE_PRIME * signature) + link.getDelay();
+            signature = (SIGNATURE_PRIME * signature) + linkState;
+            signature = (SIGNATURE_PRIME * signature) + (link.getShowName() ? link.getName().hashCode() : 0);
+        }
+        return signature;
+    }
+
     /**
      * This method paints the topology simulation whenever necessary,
      * automatically.
@@ -937,11 +1275,31 @@ public class JSimulationPanel extends JPanel {
      */
     @Override
     public void paint(Graphics graphics) {
+        Rectangle dirtyRegion = graphics.getClipBounds();
+        if (this.bufferedG2D != null) {
+            // Only the region to be repainted is composed again.
+            this.bufferedG2D.setClip(dirtyRegion);
+        }
         BufferedImage bufferedImageAux = this.getSimulationScreenshot();
         // FIX: Do not use harcoded values. Use class constants instead.
         graphics.drawImage(bufferedImageAux, 0, 0, null);
     }
 
+    /**
+     * This method checks whether packets travelling through links are going to
+     * be painted, that is, whether the simulation panel is being shown on the
+     * screen. When they are not, links do not need to generate PACKET_ON_FLY
+     * events at all.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TRUE, if packets travelling through links are going to be
+     * painted. Otherwise, FALSE.
+     * @since 2.3
+     */
+    public boolean isPaintingPacketsOnFly() {
+        return this.showingOnScreen;
+    }
+
     /**
      * This gets wheteher the legend is being shown in the simulation panel or
      * not.
@@ -970,18 +1328,38 @@ public class JSimulationPanel extends JPanel {
     private TImageBroker imageBroker;
     private BufferedImage bufferedImage;
     private Graphics2D bufferedG2D;
+    private BufferedImage linksLayerImage;
+    private BufferedImage nodesLayerImage;
+    private long topologyLayersSignature;
+    private TLevelOfDetail levelOfDetail;
     private TTopology topology;
     private Dimension screenSize;
     private int maxX;
     private int maxY;
     private TreeSet eventsBuffer;
     private TreeSet simulationBuffer;
+    private ArrayDeque<TreeSet> bufferedTicks;
+    private ArrayDeque<Long> bufferedTicksInstants;
     private long currentTick;
+    private long displayedTick;
+    private long pendingPlaybackTimeInMs;
+    // Written by the thread that adds events when playback starts and by
+    // the render loop, in the event dispatch thread.
+    private volatile long lastFrameTimestampInNs;
+    private Timer renderTimer;
+    private TRepaintScheduler repaintScheduler;
     private TSemaphore eventsBuffersSemaphore;
     private int simulationSpeedInMsPerTick;
     private boolean showLegend;
+    private volatile boolean showingOnScreen;
     private ResourceBundle translations;
 
+    private static final int MAX_BUFFERED_TICKS = 4096;
+    private static final long NS_PER_MS = 1000000L;
+    private static final long SIGNATURE_PRIME = 31L;
+    private static final int LINK_BROKEN_FLAG = 1;
+    private static final int LINK_USED_BY_LSP_FLAG = 2;
+    private static final int LINK_USED_BY_BACKUP_LSP_FLAG = 4;
     private static Color LEGEND_BACKGROUND_COLOR = new Color(255, 255, 255);
     private static Color LINK_NAME_COLOR = new Color(255, 255, 230);
     private static Color DOMAIN_BORDER_COLOR = new Color(128, 193, 255);
@@ -8,6 +8,8 @@ package com.manolodominguez.opensimmpls.gui.simulator;
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Font;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import javax.swing.BorderFactory;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
@@ -17,8 +19,8 @@ import org.jfree.chart.plot.PlotOrientation;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
 import org.jfree.chart.title.TextTitle;
+import com.manolodominguez.opensimmpls.scenario.TStatsXYDataset;
 import org.jfree.data.xy.XYDataset;
-import org.jfree.data.xy.XYSeriesCollection;
 
 /**
  * This class implements a XY chart customized for OpenSimMPLS.
@@ -39,8 +41,12 @@ public class JXYChart {
      * @param series Series that has to be plotted in the XY chart.
      * @since 2.0
      */
-    public JXYChart(String chartTitle, String xAxisTitle, String yAxisTitle, XYSeriesCollection series) {
+    public JXYChart(String chartTitle, String xAxisTitle, String yAxisTitle, XYDataset series) {
         this.series = series;
+        if (this.series instanceof TStatsXYDataset) {
+            ((TStatsXYDataset) this.series).setMaxPlottedItemCount(ChartPanel.DEFAULT_WIDTH * POINTS_PER_PIXEL);
+        }
+        refresh();
         this.chart = ChartFactory.createScatterPlot(chartTitle, xAxisTitle, yAxisTitle, this.series, PlotOrientation.VERTICAL, true, true, false);
         this.plot = this.chart.getXYPlot();
         XYLineAndShapeRenderer renderer = new XYLineAndShapeRenderer();
@@ -70,6 +76,41 @@ public class JXYChart {
         this.chartPanel.setBackground(Color.WHITE);
         this.chartPanel.setDomainZoomable(false);
         this.chartPanel.setRangeZoomable(false);
+        this.chartPanel.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent componentEvent) {
+                updateResolution();
+            }
+        });
+    }
+
+    /**
+     * This method adapts the resolution of the plotted statistics to the
+     * current width of the chart, so that the cost of drawing it depends on
+     * its size and not on the length of the simulation.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    private void updateResolution() {
+        if ((this.series instanceof TStatsXYDataset) && (this.chartPanel.getWidth() > 0)) {
+            ((TStatsXYDataset) this.series).setMaxPlottedItemCount(this.chartPanel.getWidth() * POINTS_PER_PIXEL);
+            refresh();
+        }
+    }
+
+    /**
+     * This method updates the chart with the points collected by the
+     * simulation since the last time it was refreshed, when its series are
+     * statistics being collected.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public void refresh() {
+        if (this.series instanceof TStatsXYDataset) {
+            ((TStatsXYDataset) this.series).refresh();
+        }
     }
 
     /**
@@ -85,6 +126,8 @@ public class JXYChart {
 
     private static final float STROKE_WIDTH = 1.0f;
     private static final int BORDER_PADDING = 15;
+    // The lowest and the highest point of a bucket per pixel column.
+    private static final int POINTS_PER_PIXEL = 2;
     private static final Font TITLE_FONT = new Font("Serif", Font.BOLD, 18);
 
     private XYDataset series;
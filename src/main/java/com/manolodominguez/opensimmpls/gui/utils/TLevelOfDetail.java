@@ -0,0 +1,286 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.gui.utils;
+
+import com.manolodominguez.opensimmpls.scenario.TLink;
+import com.manolodominguez.opensimmpls.scenario.TNode;
+import com.manolodominguez.opensimmpls.scenario.TTopology;
+import java.awt.Color;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.Iterator;
+
+/**
+ * This class decides how much detail has to be used to paint a topology in a
+ * panel. When the area of the panel that is visible inside its scroll pane is
+ * known, elements outside it are not painted at all. When nodes are so dense
+ * in that area that their icons would overlap, the topology is painted in a
+ * simplified way: nodes as plain shapes, without names, and packets in
+ * transit aggregated per link.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public class TLevelOfDetail {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TLevelOfDetail that paints every element with full detail.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public TLevelOfDetail() {
+        this.visibleArea = null;
+        this.simplified = false;
+    }
+
+    /**
+     * This method computes the level of detail to be used to paint the
+     * specified topology in the specified visible area. It has to be called
+     * before each time the topology is painted.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param topology the topology that is going to be painted.
+     * @param visibleArea the area of the panel that is visible on the screen,
+     * or NULL if the whole topology has to be painted, as when taking a
+     * screenshot.
+     * @since 2.3
+     */
+    public void update(TTopology topology, Rectangle visibleArea) {
+        if ((visibleArea == null) || visibleArea.isEmpty()) {
+            this.visibleArea = null;
+        } else {
+            this.visibleArea = new Rectangle(visibleArea);
+            this.visibleArea.grow(VISIBILITY_MARGIN, VISIBILITY_MARGIN);
+        }
+        int visibleNodes = ZERO;
+        if (topology != null) {
+            Iterator nodesIterator = topology.getNodesIterator();
+            while (nodesIterator.hasNext()) {
+                if (isVisible((TNode) nodesIterator.next())) {
+                    visibleNodes++;
+                }
+            }
+        }
+        if (visibleNodes > MAX_DETAILED_NODES) {
+            this.simplified = true;
+        } else if (this.visibleArea != null) {
+            double nodesArea = (double) visibleNodes * NODE_ICON_SIZE * NODE_ICON_SIZE;
+            double area = (double) visibleArea.width * visibleArea.height;
+            this.simplified = nodesArea > (area * MAX_NODES_COVERAGE);
+        } else {
+            this.simplified = false;
+        }
+    }
+
+    /**
+     * This method checks whether the topology has to be painted in a
+     * simplified way.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TRUE, if nodes have to be painted as plain shapes and packets in
+     * transit aggregated per link. Otherwise, FALSE.
+     * @since 2.3
+     */
+    public boolean isSimplified() {
+        return this.simplified;
+    }
+
+    /**
+     * This method gets the area, including a margin, out of which elements
+     * are not painted.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the area out of which elements are not painted, or NULL if the
+     * whole topology is painted.
+     * @since 2.3
+     */
+    public Rectangle getVisibleArea() {
+        return this.visibleArea;
+    }
+
+    /**
+     * This method checks whether a node, including its name, falls inside the
+     * visible area.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param node the node to be checked.
+     * @return TRUE, if the node has to be painted. Otherwise, FALSE.
+     * @since 2.3
+     */
+    public boolean isVisible(TNode node) {
+        if (this.visibleArea == null) {
+            return true;
+        }
+        Point nodePosition = node.getScreenPosition();
+        return this.visibleArea.intersects(nodePosition.x, nodePosition.y, NODE_ICON_SIZE, NODE_ICON_SIZE);
+    }
+
+    /**
+     * This method checks whether any part of a link falls inside the visible
+     * area.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param link the link to be checked.
+     * @return TRUE, if the link has to be painted. Otherwise, FALSE.
+     * @since 2.3
+     */
+    public boolean isVisible(TLink link) {
+        if (this.visibleArea == null) {
+            return true;
+        }
+        Point headEnd = link.getHeadEndNode().getScreenPosition();
+        Point tailEnd = link.getTailEndNode().getScreenPosition();
+        return this.visibleArea.intersectsLine(headEnd.x + NODE_ICON_CENTER, headEnd.y + NODE_ICON_CENTER, tailEnd.x + NODE_ICON_CENTER, tailEnd.y + NODE_ICON_CENTER);
+    }
+
+    /**
+     * This method checks whether a point, as the position of a packet in
+     * transit, falls inside the visible area.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param point the point to be checked.
+     * @return TRUE, if something painted at that point has to be painted.
+     * Otherwise, FALSE.
+     * @since 2.3
+     */
+    public boolean isVisible(Point point) {
+        if (this.visibleArea == null) {
+            return true;
+        }
+        return this.visibleArea.contains(point);
+    }
+
+    /**
+     * This method paints a node as a plain shape, filled with a colour that
+     * depends on the type of the node, instead of using its icon.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param graphics2D the place where the node has to be painted.
+     * @param node the node to be painted.
+     * @since 2.3
+     */
+    public void paintSimplifiedNode(Graphics2D graphics2D, TNode node) {
+        Point nodePosition = node.getScreenPosition();
+        int x = (nodePosition.x + NODE_ICON_CENTER) - (SIMPLIFIED_NODE_SIZE / TWO);
+        int y = (nodePosition.y + NODE_ICON_CENTER) - (SIMPLIFIED_NODE_SIZE / TWO);
+        switch (node.getNodeType()) {
+            case TNode.TRAFFIC_GENERATOR: {
+                graphics2D.setColor(TRAFFIC_GENERATOR_COLOR);
+                break;
+            }
+            case TNode.TRAFFIC_SINK: {
+                graphics2D.setColor(TRAFFIC_SINK_COLOR);
+                break;
+            }
+            case TNode.LER:
+            case TNode.ACTIVE_LER: {
+                graphics2D.setColor(LER_COLOR);
+                break;
+            }
+            default: {
+                graphics2D.setColor(LSR_COLOR);
+                break;
+            }
+        }
+        if ((node.getNodeType() == TNode.LER) || (node.getNodeType() == TNode.ACTIVE_LER)) {
+            graphics2D.fillRect(x, y, SIMPLIFIED_NODE_SIZE, SIMPLIFIED_NODE_SIZE);
+        } else {
+            graphics2D.fillOval(x, y, SIMPLIFIED_NODE_SIZE, SIMPLIFIED_NODE_SIZE);
+        }
+        if (node.isSelected() == TNode.SELECTED) {
+            graphics2D.setColor(Color.BLACK);
+        } else {
+            graphics2D.setColor(Color.DARK_GRAY);
+        }
+        if ((node.getNodeType() == TNode.ACTIVE_LER) || (node.getNodeType() == TNode.ACTIVE_LSR) || (node.isSelected() == TNode.SELECTED)) {
+            graphics2D.drawRect(x - TWO, y - TWO, SIMPLIFIED_NODE_SIZE + (TWO * TWO), SIMPLIFIED_NODE_SIZE + (TWO * TWO));
+        }
+    }
+
+    /**
+     * This method paints the congestion level of a node painted as a plain
+     * shape, as a ring around it whose colour goes from yellow to red.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param graphics2D the place where the congestion has to be painted.
+     * @param node the congested node.
+     * @param congestionLevel the congestion level of the node, from 0 to
+     * 100.
+     * @since 2.3
+     */
+    public void paintSimplifiedCongestion(Graphics2D graphics2D, TNode node, long congestionLevel) {
+        if (congestionLevel < MIN_CONGESTION_LEVEL_SHOWN) {
+            return;
+        }
+        Point nodePosition = node.getScreenPosition();
+        int size = SIMPLIFIED_NODE_SIZE * TWO;
+        int x = (nodePosition.x + NODE_ICON_CENTER) - (size / TWO);
+        int y = (nodePosition.y + NODE_ICON_CENTER) - (size / TWO);
+        int green = (int) (MAX_COLOR_COMPONENT * (MAX_CONGESTION_LEVEL - Math.min(congestionLevel, MAX_CONGESTION_LEVEL)) / (MAX_CONGESTION_LEVEL - MIN_CONGESTION_LEVEL_SHOWN));
+        graphics2D.setColor(new Color(MAX_COLOR_COMPONENT, Math.min(green, MAX_COLOR_COMPONENT), ZERO));
+        graphics2D.drawOval(x, y, size, size);
+    }
+
+    /**
+     * This method paints a single glyph standing for all packets in transit
+     * through a link, whose size grows with the number of packets.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param graphics2D the place where the glyph has to be painted.
+     * @param link the link the packets are travelling through.
+     * @param numberOfPackets the number of packets in transit through the
+     * link.
+     * @since 2.3
+     */
+    public void paintPacketsDensity(Graphics2D graphics2D, TLink link, int numberOfPackets) {
+        Point center = link.getScreenPacketPosition(HALF_OF_THE_LINK);
+        int diameter = MIN_DENSITY_GLYPH_SIZE + (int) (DENSITY_GLYPH_GROWTH * Math.log(numberOfPackets));
+        graphics2D.setColor(PACKETS_DENSITY_COLOR);
+        graphics2D.fillOval(center.x - (diameter / TWO), center.y - (diameter / TWO), diameter, diameter);
+        graphics2D.setColor(Color.WHITE);
+        String numberOfPacketsText = Integer.toString(numberOfPackets);
+        FontMetrics fontMetrics = graphics2D.getFontMetrics();
+        graphics2D.drawString(numberOfPacketsText, center.x - (fontMetrics.stringWidth(numberOfPacketsText) / TWO), center.y + (fontMetrics.getAscent() / TWO) - ONE);
+    }
+
+    private Rectangle visibleArea;
+    private boolean simplified;
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int TWO = 2;
+    private static final int NODE_ICON_SIZE = 48;
+    private static final int NODE_ICON_CENTER = 24;
+    private static final int VISIBILITY_MARGIN = 48;
+    private static final int MAX_DETAILED_NODES = 200;
+    private static final double MAX_NODES_COVERAGE = 0.25;
+    private static final int SIMPLIFIED_NODE_SIZE = 12;
+    private static final int HALF_OF_THE_LINK = 50;
+    private static final long MIN_CONGESTION_LEVEL_SHOWN = 50;
+    private static final long MAX_CONGESTION_LEVEL = 100;
+    private static final int MAX_COLOR_COMPONENT = 255;
+    private static final int MIN_DENSITY_GLYPH_SIZE = 14;
+    private static final double DENSITY_GLYPH_GROWTH = 4.0;
+    private static final Color TRAFFIC_GENERATOR_COLOR = new Color(0, 160, 0);
+    private static final Color TRAFFIC_SINK_COLOR = new Color(160, 0, 160);
+    private static final Color LER_COLOR = new Color(0, 90, 200);
+    private static final Color LSR_COLOR = new Color(0, 150, 220);
+    private static final Color PACKETS_DENSITY_COLOR = new Color(230, 120, 0);
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.gui.utils;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.JComponent;
+import javax.swing.Timer;
+
+/**
+ * This class schedules the repaints of a component so that it is never
+ * painted more often than a given frame rate. Repaint requests can be made
+ * from any thread, as often as needed; all requests received between two
+ * frames are coalesced into a single one, and at most one frame is pending in
+ * the event dispatch thread at any time. The next frame is never scheduled
+ * before the previous one has been painted, so a slow paint delays the
+ * following frames instead of flooding the event dispatch thread. Requests
+ * coalesced this way are counted as dropped frames.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public class TRepaintScheduler {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TRepaintScheduler for the specified component.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param component the component whose repaints are scheduled.
+     * @param maxFramesPerSecond the maximum number of times per second the
+     * component will be painted.
+     * @throws IllegalArgumentException if the component is null or the frame
+     * rate is out of range.
+     * @since 2.3
+     */
+    public TRepaintScheduler(JComponent component, int maxFramesPerSecond) {
+        if (component == null) {
+            throw new IllegalArgumentException();
+        }
+        this.component = component;
+        this.framePending = new AtomicBoolean(false);
+        this.pendingRequests = new AtomicLong(ZERO);
+        this.paintedFrames = new AtomicLong(ZERO);
+        this.droppedFrames = new AtomicLong(ZERO);
+        this.lastFrameTimestampInNs = System.nanoTime() - (NS_PER_S / MAX_FRAMES_PER_SECOND);
+        this.frameTimer = new Timer(ZERO, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent actionEvent) {
+                paintFrame();
+            }
+        });
+        this.frameTimer.setRepeats(false);
+        this.frameTimer.setCoalesce(true);
+        setMaxFramesPerSecond(maxFramesPerSecond);
+    }
+
+    /**
+     * This method sets the maximum number of times per second the component
+     * will be painted.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param maxFramesPerSecond the maximum number of frames per second,
+     * between 1 and 120.
+     * @throws IllegalArgumentException if the frame rate is out of range.
+     * @since 2.3
+     */
+    public void setMaxFramesPerSecond(int maxFramesPerSecond) {
+        if ((maxFramesPerSecond < ONE) || (maxFramesPerSecond > MAX_FRAMES_PER_SECOND)) {
+            throw new IllegalArgumentException();
+        }
+        this.maxFramesPerSecond = maxFramesPerSecond;
+    }
+
+    /**
+     * This method gets the maximum number of times per second the component
+     * will be painted.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the maximum number of frames per second.
+     * @since 2.3
+     */
+    public int getMaxFramesPerSecond() {
+        return this.maxFramesPerSecond;
+    }
+
+    /**
+     * This method gets the minimum time between two consecutive frames,
+     * according to the maximum frame rate.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the minimum time between frames, in milliseconds.
+     * @since 2.3
+     */
+    public int getFrameIntervalInMs() {
+        return (int) (MS_PER_S / this.maxFramesPerSecond);
+    }
+
+    /**
+     * This method requests the component to be repainted. It can be called
+     * from any thread and returns immediately. If a frame is already
+     * scheduled, the request is merged into it.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public void requestRepaint() {
+        this.pendingRequests.incrementAndGet();
+        if (this.framePending.compareAndSet(false, true)) {
+            long frameIntervalInNs = NS_PER_S / this.maxFramesPerSecond;
+            long elapsedTimeInNs = System.nanoTime() - this.lastFrameTimestampInNs;
+            long delayInMs = Math.max(ZERO, (frameIntervalInNs - elapsedTimeInNs) / NS_PER_MS);
+            this.frameTimer.setInitialDelay((int) delayInMs);
+            this.frameTimer.restart();
+        }
+    }
+
+    /**
+     * This method is run in the event dispatch thread when a frame is due. It
+     * paints the component synchronously, so that the next frame cannot be
+     * scheduled before this one has finished.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    private void paintFrame() {
+        long coalescedRequests = this.pendingRequests.getAndSet(ZERO);
+        if (coalescedRequests > ONE) {
+            this.droppedFrames.addAndGet(coalescedRequests - ONE);
+        }
+        if (this.component.isShowing()) {
+            this.component.paintImmediately(this.component.getVisibleRect());
+        } else {
+            this.component.repaint();
+        }
+        this.paintedFrames.incrementAndGet();
+        this.lastFrameTimestampInNs = System.nanoTime();
+        this.framePending.set(false);
+        if (this.pendingRequests.get() > ZERO) {
+            // Requests received while painting get their own frame.
+            this.pendingRequests.decrementAndGet();
+            requestRepaint();
+        }
+    }
+
+    /**
+     * This method gets the number of frames painted since the scheduler was
+     * created or its statistics were reset.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of frames painted.
+     * @since 2.3
+     */
+    public long getPaintedFrames() {
+        return this.paintedFrames.get();
+    }
+
+    /**
+     * This method gets the number of repaint requests that have been merged
+     * into another frame, and so have not been painted on their own, since the
+     * scheduler was created or its statistics were reset.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of dropped frames.
+     * @since 2.3
+     */
+    public long getDroppedFrames() {
+        return this.droppedFrames.get();
+    }
+
+    /**
+     * This method adds frames that the owner of the scheduler has decided not
+     * to paint, as ticks of a simulation skipped to keep up with the playback
+     * speed, to the count of dropped frames.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param numberOfFrames the number of frames that have been dropped.
+     * @since 2.3
+     */
+    public void addDroppedFrames(long numberOfFrames) {
+        if (numberOfFrames > ZERO) {
+            this.droppedFrames.addAndGet(numberOfFrames);
+        }
+    }
+
+    /**
+     * This method sets the count of painted and dropped frames to zero.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public void resetStatistics() {
+        this.paintedFrames.set(ZERO);
+        this.droppedFrames.set(ZERO);
+    }
+
+    private final JComponent component;
+    private final Timer frameTimer;
+    private final AtomicBoolean framePending;
+    private final AtomicLong pendingRequests;
+    private final AtomicLong paintedFrames;
+    private final AtomicLong droppedFrames;
+    private volatile long lastFrameTimestampInNs;
+    private volatile int maxFramesPerSecond;
+
+    public static final int DEFAULT_FRAMES_PER_SECOND = 30;
+    public static final int MAX_FRAMES_PER_SECOND = 120;
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final long MS_PER_S = 1000L;
+    private static final long NS_PER_MS = 1000000L;
+    private static final long NS_PER_S = 1000000000L;
+}
@@ -16,15 +16,14 @@
 package com.manolodominguez.opensimmpls.hardware.ports;
 
 import com.manolodominguez.opensimmpls.commons.EIDGeneratorOverflow;
-import java.util.Iterator;
-import java.util.TreeSet;
+import com.manolodominguez.opensimmpls.io.jfr.TPortDropEvent;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketReceived;
 import com.manolodominguez.opensimmpls.scenario.TStats;
 import com.manolodominguez.opensimmpls.scenario.TNode;
 import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
 import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
-import com.manolodominguez.opensimmpls.commons.TRotaryIDGenerator;
-import com.manolodominguez.opensimmpls.commons.TSemaphore;
+import com.manolodominguez.opensimmpls.commons.TRingBuffer;
 import static com.manolodominguez.opensimmpls.commons.UnitsTranslations.OCTETS_PER_MEGABYTE;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
 import java.util.NoSuchElementException;
@@ -52,6 +51,7 @@ public class TActivePort extends TPort {
      * @param parentSetOfActivePorts A reference to the parent set of active
      * ports this active port belongs to.
      */
+    @SuppressWarnings("unchecked")
     public TActivePort(TPortSet parentSetOfActivePorts, int portID) {
         super(parentSetOfActivePorts, portID);
         translations = ResourceBundle.getBundle(AvailableBundles.T_ACTIVE_PORT.getPath());
@@ -70,29 +70,14 @@ public class TActivePort extends TPort {
         }
         packetRead = DEFAULT_PACKET_READ;
         isUnlimitedBuffer = DEFAULT_IS_UNLIMITED_BUFFER;
-        rotaryIdentifierGenerator = new TRotaryIDGenerator();
-        priority0BufferSemaphore = new TSemaphore();
-        priority1BufferSemaphore = new TSemaphore();
-        priority2BufferSemaphore = new TSemaphore();
-        priority3BufferSemaphore = new TSemaphore();
-        priority4BufferSemaphore = new TSemaphore();
-        priority5BufferSemaphore = new TSemaphore();
-        priority6BufferSemaphore = new TSemaphore();
-        priority7BufferSemaphore = new TSemaphore();
-        priority8BufferSemaphore = new TSemaphore();
-        priority9BufferSemaphore = new TSemaphore();
-        priority10BufferSemaphore = new TSemaphore();
-        priority0Buffer = new TreeSet<>();
-        priority1Buffer = new TreeSet<>();
-        priority2Buffer = new TreeSet<>();
-        priority3Buffer = new TreeSet<>();
-        priority4Buffer = new TreeSet<>();
-        priority5Buffer = new TreeSet<>();
-        priority6Buffer = new TreeSet<>();
-        priority7Buffer = new TreeSet<>();
-        priority8Buffer = new TreeSet<>();
-        priority9Buffer = new TreeSet<>();
-        priority10Buffer = new TreeSet<>();
+        prioritizedBuffers = new TRingBuffer[MAX_PRIORITIZED_BUFFERS];
+        for (int i = ZERO; i < MAX_PRIORITIZED_BUFFERS; i++) {
+            prioritizedBuffers[i] = new TRingBuffer<>();
+        }
+        nonEmptyBuffersMask = ZERO;
+        buffersWithReadsLeftMask = ALL_BUFFERS_MASK;
+        numberOfPackets = ZERO;
+        octetsInPort = ZERO;
         selectedBuffer = DEFAULT_SELECTED_BUFFER;
         nextPacketToBeRead = null;
         maxReadsOfBuffer = new int[(HIGHEST_PRIORITY + ONE)];
@@ -139,270 +124,93 @@ public class TActivePort extends TPort {
      * @since 2.0
      */
     private void doPrioritizedRoundRobinPacketSelection() {
-        boolean end = false;
-        int numberOfEmptyBuffers = ZERO;
-        int numberOfBuffersAlreadyRead = ZERO;
-        Iterator<TActivePortBufferEntry> iterator = null;
-        TActivePortBufferEntry activePortBufferEntry = null;
         if (nextPacketToBeRead == null) {
-            while ((!end) && (numberOfEmptyBuffers <= MAX_PRIORITIZED_BUFFERS)) {
-                switch (selectedBuffer) {
-                    case TEN:
-                        if (priority10Buffer.size() > ZERO) {
-                            if (currentReadsOfBuffer[TEN] < maxReadsOfBuffer[TEN]) {
-                                priority10BufferSemaphore.setRed();
-                                iterator = priority10Buffer.iterator();
-                                if (iterator.hasNext()) {
-                                    activePortBufferEntry = iterator.next();
-                                    nextPacketToBeRead = activePortBufferEntry.getPacket();
-                                    iterator.remove();
-                                }
-                                priority10BufferSemaphore.setGreen();
-                                currentReadsOfBuffer[TEN]++;
-                                end = true;
-                            } else {
-                                numberOfBuffersAlreadyRead++;
-                            }
-                        } else {
-                            currentReadsOfBuffer[TEN] = maxReadsOfBuffer[TEN];
-                            numberOfBuffersAlreadyRead++;
-                            numberOfEmptyBuffers++;
-                        }
-                        break;
-                    case NINE:
-                        if (priority9Buffer.size() > ZERO) {
-                            if (currentReadsOfBuffer[NINE] < maxReadsOfBuffer[NINE]) {
-                                priority9BufferSemaphore.setRed();
-                                iterator = priority9Buffer.iterator();
-                                if (iterator.hasNext()) {
-                                    activePortBufferEntry = iterator.next();
-                                    nextPacketToBeRead = activePortBufferEntry.getPacket();
-                                    iterator.remove();
-                                }
-                                priority9BufferSemaphore.setGreen();
-                                currentReadsOfBuffer[NINE]++;
-                                end = true;
-                            } else {
-                                numberOfBuffersAlreadyRead++;
-                            }
-                        } else {
-                            currentReadsOfBuffer[NINE] = maxReadsOfBuffer[NINE];
-                            numberOfBuffersAlreadyRead++;
-                            numberOfEmptyBuffers++;
-                        }
-                        break;
-                    case EIGHT:
-                        if (priority8Buffer.size() > ZERO) {
-                            if (currentReadsOfBuffer[EIGHT] < maxReadsOfBuffer[EIGHT]) {
-                                priority8BufferSemaphore.setRed();
-                                iterator = priority8Buffer.iterator();
-                                if (iterator.hasNext()) {
-                                    activePortBufferEntry = iterator.next();
-                                    nextPacketToBeRead = activePortBufferEntry.getPacket();
-                                    iterator.remove();
-                                }
-                                priority8BufferSemaphore.setGreen();
-                                currentReadsOfBuffer[EIGHT]++;
-                                end = true;
-                            } else {
-                                numberOfBuffersAlreadyRead++;
-                            }
-                        } else {
-                            currentReadsOfBuffer[EIGHT] = maxReadsOfBuffer[EIGHT];
-                            numberOfBuffersAlreadyRead++;
-                            numberOfEmptyBuffers++;
-                        }
-                        break;
-                    case SEVEN:
-                        if (priority7Buffer.size() > ZERO) {
-                            if (currentReadsOfBuffer[SEVEN] < maxReadsOfBuffer[SEVEN]) {
-                                priority7BufferSemaphore.setRed();
-                                iterator = priority7Buffer.iterator();
-                                if (iterator.hasNext()) {
-                                    activePortBufferEntry = iterator.next();
-                                    nextPacketToBeRead = activePortBufferEntry.getPacket();
-                                    iterator.remove();
-                                }
-                                priority7BufferSemaphore.setGreen();
-                                currentReadsOfBuffer[SEVEN]++;
-                                end = true;
-                            } else {
-                                numberOfBuffersAlreadyRead++;
-                            }
-                        } else {
-                            currentReadsOfBuffer[SEVEN] = maxReadsOfBuffer[SEVEN];
-                            numberOfBuffersAlreadyRead++;
-                            numberOfEmptyBuffers++;
-                        }
-                        break;
-                    case SIX:
-                        if (priority6Buffer.size() > ZERO) {
-                            if (currentReadsOfBuffer[SIX] < maxReadsOfBuffer[SIX]) {
-                                priority6BufferSemaphore.setRed();
-                                iterator = priority6Buffer.iterator();
-                                if (iterator.hasNext()) {
-                                    activePortBufferEntry = iterator.next();
-                                    nextPacketToBeRead = activePortBufferEntry.getPacket();
-                                    iterator.remove();
-                                }
-                                priority6BufferSemaphore.setGreen();
-                                currentReadsOfBuffer[SIX]++;
-                                end = true;
-                            } else {
-                                numberOfBuffersAlreadyRead++;
-                            }
-                        } else {
-                            currentReadsOfBuffer[SIX] = maxReadsOfBuffer[SIX];
-                            numberOfBuffersAlreadyRead++;
-                            numberOfEmptyBuffers++;
-                        }
-                        break;
-                    case FIVE:
-                        if (priority5Buffer.size() > ZERO) {
-                            if (currentReadsOfBuffer[FIVE] < maxReadsOfBuffer[FIVE]) {
-                                priority5BufferSemaphore.setRed();
-                                iterator = priority5Buffer.iterator();
-                                if (iterator.hasNext()) {
-                                    activePortBufferEntry = iterator.next();
-                                    nextPacketToBeRead = activePortBufferEntry.getPacket();
-                                    iterator.remove();
-                                }
-                                priority5BufferSemaphore.setGreen();
-                                currentReadsOfBuffer[FIVE]++;
-                                end = true;
-                            } else {
-                                numberOfBuffersAlreadyRead++;
-                            }
-                        } else {
-                            currentReadsOfBuffer[FIVE] = maxReadsOfBuffer[FIVE];
-                            numberOfBuffersAlreadyRead++;
-                            numberOfEmptyBuffers++;
-                        }
-                        break;
-                    case FOUR:
-                        if (priority4Buffer.size() > ZERO) {
-                            if (currentReadsOfBuffer[FOUR] < maxReadsOfBuffer[FOUR]) {
-                                priority4BufferSemaphore.setRed();
-                                iterator = priority4Buffer.iterator();
-                                if (iterator.hasNext()) {
-                                    activePortBufferEntry = iterator.next();
-                                    nextPacketToBeRead = activePortBufferEntry.getPacket();
-                                    iterator.remove();
-                                }
-                                priority4BufferSemaphore.setGreen();
-                                currentReadsOfBuffer[FOUR]++;
-                                end = true;
-                            } else {
-                                numberOfBuffersAlreadyRead++;
-                            }
-                        } else {
-                            currentReadsOfBuffer[FOUR] = maxReadsOfBuffer[FOUR];
-                            numberOfBuffersAlreadyRead++;
-                            numberOfEmptyBuffers++;
-                        }
-                        break;
-                    case THREE:
-                        if (priority3Buffer.size() > ZERO) {
-                            if (currentReadsOfBuffer[THREE] < maxReadsOfBuffer[THREE]) {
-                                priority3BufferSemaphore.setRed();
-                                iterator = priority3Buffer.iterator();
-                                if (iterator.hasNext()) {
-                                    activePortBufferEntry = iterator.next();
-                                    nextPacketToBeRead = activePortBufferEntry.getPacket();
-                                    iterator.remove();
-                                }
-                                priority3BufferSemaphore.setGreen();
-                                currentReadsOfBuffer[THREE]++;
-                                end = true;
-                            } else {
-                                numberOfBuffersAlreadyRead++;
-                            }
-                        } else {
-                            currentReadsOfBuffer[THREE] = maxReadsOfBuffer[THREE];
-                            numberOfBuffersAlreadyRead++;
-                            numberOfEmptyBuffers++;
-                        }
-                        break;
-                    case TWO:
-                        if (priority2Buffer.size() > ZERO) {
-                            if (currentReadsOfBuffer[TWO] < maxReadsOfBuffer[TWO]) {
-                                priority2BufferSemaphore.setRed();
-                                iterator = priority2Buffer.iterator();
-                                if (iterator.hasNext()) {
-                                    activePortBufferEntry = iterator.next();
-                                    nextPacketToBeRead = activePortBufferEntry.getPacket();
-                                    iterator.remove();
-                                }
-                                priority2BufferSemaphore.setGreen();
-                                currentReadsOfBuffer[TWO]++;
-                                end = true;
-                            } else {
-                                numberOfBuffersAlreadyRead++;
-                            }
-                        } else {
-                            currentReadsOfBuffer[TWO] = maxReadsOfBuffer[TWO];
-                            numberOfBuffersAlreadyRead++;
-                            numberOfEmptyBuffers++;
-                        }
-                        break;
-                    case ONE:
-                        if (priority1Buffer.size() > ZERO) {
-                            if (currentReadsOfBuffer[ONE] < maxReadsOfBuffer[ONE]) {
-                                priority1BufferSemaphore.setRed();
-                                iterator = priority1Buffer.iterator();
-                                if (iterator.hasNext()) {
-                                    activePortBufferEntry = iterator.next();
-                                    nextPacketToBeRead = activePortBufferEntry.getPacket();
-                                    iterator.remove();
-                                }
-                                priority1BufferSemaphore.setGreen();
-                                currentReadsOfBuffer[ONE]++;
-                                end = true;
-                            } else {
-                                numberOfBuffersAlreadyRead++;
-                            }
-                        } else {
-                            currentReadsOfBuffer[ONE] = maxReadsOfBuffer[ONE];
-                            numberOfBuffersAlreadyRead++;
-                            numberOfEmptyBuffers++;
-                        }
-                        break;
-                    case ZERO:
-                        if (priority0Buffer.size() > ZERO) {
-                            if (currentReadsOfBuffer[ZERO] < maxReadsOfBuffer[ZERO]) {
-                                priority0BufferSemaphore.setRed();
-                                iterator = priority0Buffer.iterator();
-                                if (iterator.hasNext()) {
-                                    activePortBufferEntry = iterator.next();
-                                    nextPacketToBeRead = activePortBufferEntry.getPacket();
-                                    iterator.remove();
-                                }
-                                priority0BufferSemaphore.setGreen();
-                                currentReadsOfBuffer[ZERO]++;
-                                end = true;
-                            } else {
-                                numberOfBuffersAlreadyRead++;
-                            }
-                        } else {
-                            currentReadsOfBuffer[ZERO] = maxReadsOfBuffer[ZERO];
-                            numberOfBuffersAlreadyRead++;
-                            numberOfEmptyBuffers++;
-                        }
-                        break;
-                    default:
-                        break;
+            int candidateBuffersMask = nonEmptyBuffersMask & buffersWithReadsLeftMask;
+            if (candidateBuffersMask != ZERO) {
+                // A non empty buffer with reads left is found in the current
+                // cicle. Empty buffers passed by lose their pending reads.
+                int candidateBuffer = getNextBufferInCicle(candidateBuffersMask, selectedBuffer);
+                buffersWithReadsLeftMask &= ~(getBuffersInCicleRange(selectedBuffer, candidateBuffer) & ~nonEmptyBuffersMask);
+                takeNextPacketFromBuffer(candidateBuffer);
+                currentReadsOfBuffer[candidateBuffer]++;
+                if (currentReadsOfBuffer[candidateBuffer] >= maxReadsOfBuffer[candidateBuffer]) {
+                    buffersWithReadsLeftMask &= ~(ONE << candidateBuffer);
                 }
-                selectedBuffer = ((selectedBuffer + ONE) % MAX_PRIORITIZED_BUFFERS);
-                if (numberOfBuffersAlreadyRead >= MAX_PRIORITIZED_BUFFERS) {
-                    int i;
-                    for (i = ZERO; i < MAX_PRIORITIZED_BUFFERS; i++) {
-                        currentReadsOfBuffer[i] = ZERO;
+                selectedBuffer = (candidateBuffer + ONE) % MAX_PRIORITIZED_BUFFERS;
+            } else {
+                // A whole cicle is done without reading any packet, so a new
+                // cicle starts. The search for a packet in this new cicle
+                // gives up after having found MAX_PRIORITIZED_BUFFERS+1 empty
+                // buffers in total, counting the empty buffers of the
+                // previous cicle.
+                int numberOfNonEmptyBuffers = Integer.bitCount(nonEmptyBuffersMask);
+                int numberOfEmptyBuffers = MAX_PRIORITIZED_BUFFERS - numberOfNonEmptyBuffers;
+                resetReadsOfBuffers();
+                if (numberOfNonEmptyBuffers > ZERO) {
+                    int candidateBuffer = getNextBufferInCicle(nonEmptyBuffersMask, selectedBuffer);
+                    int emptyBuffersBeforeCandidate = (candidateBuffer - selectedBuffer + MAX_PRIORITIZED_BUFFERS) % MAX_PRIORITIZED_BUFFERS;
+                    if ((numberOfEmptyBuffers + emptyBuffersBeforeCandidate) <= MAX_PRIORITIZED_BUFFERS) {
+                        takeNextPacketFromBuffer(candidateBuffer);
+                        selectedBuffer = (candidateBuffer + ONE) % MAX_PRIORITIZED_BUFFERS;
+                        return;
                     }
                 }
+                selectedBuffer = (selectedBuffer + ONE + numberOfNonEmptyBuffers) % MAX_PRIORITIZED_BUFFERS;
             }
         }
     }
 
+    /**
+     * This method finds the first buffer of the specified mask, starting from
+     * the specified buffer and following the Round Robin cicle.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param buffersMask a bit mask with a bit set for each buffer that can be
+     * selected. It must not be empty.
+     * @param firstBuffer the buffer where the search starts.
+     * @return the first buffer of the mask in the Round Robin cicle.
+     * @since 2.3
+     */
+    private int getNextBufferInCicle(int buffersMask, int firstBuffer) {
+        int buffersFromFirstBuffer = buffersMask >>> firstBuffer;
+        if (buffersFromFirstBuffer != ZERO) {
+            return firstBuffer + Integer.numberOfTrailingZeros(buffersFromFirstBuffer);
+        }
+        return Integer.numberOfTrailingZeros(buffersMask);
+    }
+
+    /**
+     * This method computes a bit mask with the buffers visited by the Round
+     * Robin cicle from the first buffer (inclusive) to the last buffer
+     * (exclusive).
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param firstBuffer the first buffer of the range.
+     * @param lastBuffer the buffer following the range.
+     * @return the bit mask of the buffers in the range.
+     * @since 2.3
+     */
+    private int getBuffersInCicleRange(int firstBuffer, int lastBuffer) {
+        if (lastBuffer >= firstBuffer) {
+            return (ONE << lastBuffer) - (ONE << firstBuffer);
+        }
+        return (ALL_BUFFERS_MASK & ~((ONE << firstBuffer) - ONE)) | ((ONE << lastBuffer) - ONE);
+    }
+
+    private void takeNextPacketFromBuffer(int buffer) {
+        nextPacketToBeRead = prioritizedBuffers[buffer].removeFirst();
+        if (prioritizedBuffers[buffer].isEmpty()) {
+            nonEmptyBuffersMask &= ~(ONE << buffer);
+        }
+    }
+
+    private void resetReadsOfBuffers() {
+        for (int i = ZERO; i < MAX_PRIORITIZED_BUFFERS; i++) {
+            currentReadsOfBuffer[i] = ZERO;
+        }
+        buffersWithReadsLeftMask = ALL_BUFFERS_MASK;
+    }
+
     /**
      * This method selects next packet to be read from the active port and
      * return its packetPriority according to the "Guarante of Service (GoS)
@@ -468,7 +276,17 @@ public class TActivePort extends TPort {
             logger.error(translations.getString("badArgument"));
             throw new IllegalArgumentException(translations.getString("badArgument"));
         }
-        getPortSet().getParentNode().discardPacket(packet);
+        TNode parentNode = getPortSet().getParentNode();
+        TPortDropEvent portDropEvent = new TPortDropEvent();
+        if (portDropEvent.isEnabled()) {
+            portDropEvent.setNodeID(parentNode.getNodeID());
+            portDropEvent.setNodeName(parentNode.getName());
+            portDropEvent.setPortID(getPortID());
+            portDropEvent.setPacketType(packet.getType());
+            portDropEvent.setPacketSize(packet.getSize());
+            portDropEvent.commit();
+        }
+        parentNode.discardPacket(packet);
     }
 
     /**
@@ -488,24 +306,14 @@ public class TActivePort extends TPort {
         parentPortSetAux.portSetSemaphore.setRed();
         semaphore.setRed();
         TNode parentNode = parentPortSet.getParentNode();
-        long eventID = ZERO;
-        int packetOrder = ZERO;
         int priority = loadPacketPriority(packet);
-        try {
-            eventID = parentNode.eventIdentifierGenerator.getNextIdentifier();
-            packetOrder = rotaryIdentifierGenerator.getNextIdentifier();
-        } catch (EIDGeneratorOverflow ex) {
-            logger.error(ex.getMessage(), ex);
-        }
-        int packetSubtype = packet.getSubtype();
         if (isUnlimitedBuffer) {
-            TActivePortBufferEntry activePortBufferEntry = new TActivePortBufferEntry(priority, packetOrder, packet);
-            addPrioritizedBufferEntry(activePortBufferEntry);
+            addPacketToPrioritizedBuffer(priority, packet);
             parentPortSetAux.increasePortSetOccupancy(packet.getSize());
-            TSimulationEventPacketReceived packetReceivedEvent = new TSimulationEventPacketReceived(parentNode, eventID, getPortSet().getParentNode().getCurrentTimeInstant(), packetSubtype, packet.getSize());
-            parentNode.simulationEventsListener.captureSimulationEvents(packetReceivedEvent);
-            if (getPortSet().getParentNode().getStats() != null) {
-                getPortSet().getParentNode().getStats().addStatEntry(packet, TStats.INCOMING);
+            capturePacketReceivedEvent(parentNode, packet);
+            TStats statsObserver = getPortSet().getParentNode().getStatsObserver();
+            if (statsObserver != null) {
+                statsObserver.addStatEntry(packet, TStats.INCOMING);
             }
         } else {
             if (!runEarlyPacketCatchAndDiscard(packet)) {
@@ -545,25 +353,15 @@ public class TActivePort extends TPort {
             throw new IllegalArgumentException(translations.getString("badArgument"));
         }
         TActivePortSet parentPortSetAux = (TActivePortSet) parentPortSet;
-        long eventID = 0;
-        int packetOrder = 0;
         int packetPriority = loadPacketPriority(packet);
         TNode parentNode = parentPortSet.getParentNode();
-        try {
-            eventID = parentNode.eventIdentifierGenerator.getNextIdentifier();
-            packetOrder = rotaryIdentifierGenerator.getNextIdentifier();
-        } catch (EIDGeneratorOverflow ex) {
-            logger.error(ex.getMessage(), ex);
-        }
-        int packetSubtype = packet.getSubtype();
         if ((parentPortSetAux.getPortSetOccupancy() + packet.getSize()) <= ((parentPortSetAux.getBufferSizeInMBytes() * OCTETS_PER_MEGABYTE.getUnits()) - EPCD_THRESHOLD)) {
-            TActivePortBufferEntry activePortBufferEntry = new TActivePortBufferEntry(packetPriority, packetOrder, packet);
-            addPrioritizedBufferEntry(activePortBufferEntry);
+            addPacketToPrioritizedBuffer(packetPriority, packet);
             parentPortSetAux.increasePortSetOccupancy(packet.getSize());
-            TSimulationEventPacketReceived packetReceivedEvent = new TSimulationEventPacketReceived(parentNode, eventID, getPortSet().getParentNode().getCurrentTimeInstant(), packetSubtype, packet.getSize());
-            parentNode.simulationEventsListener.captureSimulationEvents(packetReceivedEvent);
-            if (getPortSet().getParentNode().getStats() != null) {
-                getPortSet().getParentNode().getStats().addStatEntry(packet, TStats.INCOMING);
+            capturePacketReceivedEvent(parentNode, packet);
+            TStats statsObserver = getPortSet().getParentNode().getStatsObserver();
+            if (statsObserver != null) {
+                statsObserver.addStatEntry(packet, TStats.INCOMING);
             }
             return true;
         } else {
@@ -574,69 +372,36 @@ public class TActivePort extends TPort {
         return false;
     }
 
-    private void addPrioritizedBufferEntry(TActivePortBufferEntry activePortBufferEntry) {
-        int priorityAux = activePortBufferEntry.getPriority();
-        switch (priorityAux) {
-            case TActivePort.PRIORITY_10:
-                priority10BufferSemaphore.setRed();
-                priority10Buffer.add(activePortBufferEntry);
-                priority10BufferSemaphore.setGreen();
-                break;
-            case TActivePort.PRIORITY_9:
-                priority9BufferSemaphore.setRed();
-                priority9Buffer.add(activePortBufferEntry);
-                priority9BufferSemaphore.setGreen();
-                break;
-            case TActivePort.PRIORITY_8:
-                priority8BufferSemaphore.setRed();
-                priority8Buffer.add(activePortBufferEntry);
-                priority8BufferSemaphore.setGreen();
-                break;
-            case TActivePort.PRIORITY_7:
-                priority7BufferSemaphore.setRed();
-                priority7Buffer.add(activePortBufferEntry);
-                priority7BufferSemaphore.setGreen();
-                break;
-            case TActivePort.PRIORITY_6:
-                priority6BufferSemaphore.setRed();
-                priority6Buffer.add(activePortBufferEntry);
-                priority6BufferSemaphore.setGreen();
-                break;
-            case TActivePort.PRIORITY_5:
-                priority5BufferSemaphore.setRed();
-                priority5Buffer.add(activePortBufferEntry);
-                priority5BufferSemaphore.setGreen();
-                break;
-            case TActivePort.PRIORITY_4:
-                priority4BufferSemaphore.setRed();
-                priority4Buffer.add(activePortBufferEntry);
-                priority4BufferSemaphore.setGreen();
-                break;
-            case TActivePort.PRIORITY_3:
-                priority3BufferSemaphore.setRed();
-                priority3Buffer.add(activePortBufferEntry);
-                priority3BufferSemaphore.setGreen();
-                break;
-            case TActivePort.PRIORITY_2:
-                priority2BufferSemaphore.setRed();
-                priority2Buffer.add(activePortBufferEntry);
-                priority2BufferSemaphore.setGreen();
-                break;
-            case TActivePort.PRIORITY_1:
-                priority1BufferSemaphore.setRed();
-                priority1Buffer.add(activePortBufferEntry);
-                priority1BufferSemaphore.setGreen();
-                break;
-            case TActivePort.WITHOUT_PRIORITY:
-                priority0BufferSemaphore.setRed();
-                priority0Buffer.add(activePortBufferEntry);
-                priority0BufferSemaphore.setGreen();
-                break;
-            default:
-                break;
+    /**
+     * This method notifies the listener of simulation events of the parent
+     * node that a packet has been received in this port. The identifier of
+     * the event is only allocated if someone is subscribed to this type of
+     * event, so that headless simulations do not pay for it.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param parentNode the node this port belongs to.
+     * @param packet the packet that has been received.
+     * @since 2.3
+     */
+    private void capturePacketReceivedEvent(TNode parentNode, TAbstractPDU packet) {
+        if (parentNode.isSubscribedTo(TSimulationEvent.PACKET_RECEIVED)) {
+            try {
+                TSimulationEventPacketReceived packetReceivedEvent = new TSimulationEventPacketReceived(parentNode, parentNode.eventIdentifierGenerator.getNextIdentifier(), parentNode.getCurrentTimeInstant(), packet.getSubtype(), packet.getSize());
+                parentNode.simulationEventsListener.captureSimulationEvents(packetReceivedEvent);
+            } catch (EIDGeneratorOverflow ex) {
+                logger.error(ex.getMessage(), ex);
+            }
         }
     }
 
+    private void addPacketToPrioritizedBuffer(int priority, TAbstractPDU packet) {
+        prioritizedBuffers[priority].addLast(packet);
+        nonEmptyBuffersMask |= (ONE << priority);
+        numberOfPackets++;
+        octetsInPort += packet.getSize();
+        parentPortSet.setPacketsWaitingInPort(portID, true);
+    }
+
     private int loadPacketPriority(TAbstractPDU packet) {
         if (packet.getType() == TAbstractPDU.TLDP) {
             return TActivePort.PRIORITY_10;
@@ -731,17 +496,13 @@ public class TActivePort extends TPort {
         TActivePortSet parentPortSetAux = (TActivePortSet) parentPortSet;
         parentPortSetAux.portSetSemaphore.setRed();
         semaphore.setRed();
-        int packetOrder = ZERO;
         int packetPriority = loadPacketPriority(packet);
-        packetOrder = rotaryIdentifierGenerator.getNextIdentifier();
         if (isUnlimitedBuffer) {
-            TActivePortBufferEntry activePortBufferEntry = new TActivePortBufferEntry(packetPriority, packetOrder, packet);
-            addPrioritizedBufferEntry(activePortBufferEntry);
+            addPacketToPrioritizedBuffer(packetPriority, packet);
             parentPortSetAux.increasePortSetOccupancy(packet.getSize());
         } else {
             if ((parentPortSetAux.getPortSetOccupancy() + packet.getSize()) <= (parentPortSetAux.getBufferSizeInMBytes() * OCTETS_PER_MEGABYTE.getUnits())) {
-                TActivePortBufferEntry activePortBufferEntry = new TActivePortBufferEntry(packetPriority, packetOrder, packet);
-                addPrioritizedBufferEntry(activePortBufferEntry);
+                addPacketToPrioritizedBuffer(packetPriority, packet);
                 parentPortSetAux.increasePortSetOccupancy(packet.getSize());
             } else {
                 discardPacket(packet);
@@ -763,17 +524,41 @@ public class TActivePort extends TPort {
     public TAbstractPDU getPacket() {
         TActivePortSet parentPortSetAux = (TActivePortSet) parentPortSet;
         parentPortSetAux.portSetSemaphore.setRed();
+        try {
+            getPacketFromLockedPortSet();
+        } finally {
+            parentPortSetAux.portSetSemaphore.setGreen();
+        }
+        return packetRead;
+    }
+
+    /**
+     * This method reads and returns the next packet of the port following the
+     * prioritized Round Robin algorithm, assuming that the caller is already
+     * holding the semaphore of the parent port set.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The read packet
+     * @since 2.3
+     */
+    @Override
+    TAbstractPDU getPacketFromLockedPortSet() {
+        TActivePortSet parentPortSetAux = (TActivePortSet) parentPortSet;
         semaphore.setRed();
         doPrioritizedRoundRobinPacketSelection();
         if (nextPacketToBeRead != null) {
             packetRead = nextPacketToBeRead;
+            numberOfPackets--;
+            octetsInPort -= packetRead.getSize();
+            if (numberOfPackets == ZERO) {
+                parentPortSetAux.setPacketsWaitingInPort(portID, false);
+            }
             if (!isUnlimitedBuffer) {
                 parentPortSetAux.decreasePortSetOccupancySize(packetRead.getSize());
             }
             nextPacketToBeRead = null;
         }
         semaphore.setGreen();
-        parentPortSetAux.portSetSemaphore.setGreen();
         // Added to be 100% compatible to the same method of TFIFOPort
         if (packetRead == null) {
             throw new NoSuchElementException();
@@ -838,40 +623,7 @@ public class TActivePort extends TPort {
      */
     @Override
     public boolean thereIsAPacketWaiting() {
-        if (priority10Buffer.size() > ZERO) {
-            return true;
-        }
-        if (priority9Buffer.size() > ZERO) {
-            return true;
-        }
-        if (priority8Buffer.size() > ZERO) {
-            return true;
-        }
-        if (priority7Buffer.size() > ZERO) {
-            return true;
-        }
-        if (priority6Buffer.size() > ZERO) {
-            return true;
-        }
-        if (priority5Buffer.size() > ZERO) {
-            return true;
-        }
-        if (priority4Buffer.size() > ZERO) {
-            return true;
-        }
-        if (priority3Buffer.size() > ZERO) {
-            return true;
-        }
-        if (priority2Buffer.size() > ZERO) {
-            return true;
-        }
-        if (priority1Buffer.size() > ZERO) {
-            return true;
-        }
-        if (priority0Buffer.size() > ZERO) {
-            return true;
-        }
-        return nextPacketToBeRead != null;
+        return numberOfPackets > ZERO;
     }
 
     /**
@@ -886,125 +638,7 @@ public class TActivePort extends TPort {
     @Override
     public long getOccupancy() {
         if (isUnlimitedBuffer) {
-            semaphore.setRed();
-            int occupancyAux = ZERO;
-            TAbstractPDU packet = null;
-            TActivePortBufferEntry activePortBufferEntry = null;
-            priority10BufferSemaphore.setRed();
-            Iterator<TActivePortBufferEntry> iterator = priority10Buffer.iterator();
-            while (iterator.hasNext()) {
-                activePortBufferEntry = iterator.next();
-                packet = activePortBufferEntry.getPacket();
-                if (packet != null) {
-                    occupancyAux += packet.getSize();
-                }
-            }
-            priority10BufferSemaphore.setGreen();
-            priority9BufferSemaphore.setRed();
-            iterator = priority9Buffer.iterator();
-            while (iterator.hasNext()) {
-                activePortBufferEntry = iterator.next();
-                packet = activePortBufferEntry.getPacket();
-                if (packet != null) {
-                    occupancyAux += packet.getSize();
-                }
-            }
-            priority9BufferSemaphore.setGreen();
-            priority8BufferSemaphore.setRed();
-            iterator = priority8Buffer.iterator();
-            while (iterator.hasNext()) {
-                activePortBufferEntry = iterator.next();
-                packet = activePortBufferEntry.getPacket();
-                if (packet != null) {
-                    occupancyAux += packet.getSize();
-                }
-            }
-            priority8BufferSemaphore.setGreen();
-            priority7BufferSemaphore.setRed();
-            iterator = priority7Buffer.iterator();
-            while (iterator.hasNext()) {
-                activePortBufferEntry = iterator.next();
-                packet = activePortBufferEntry.getPacket();
-                if (packet != null) {
-                    occupancyAux += packet.getSize();
-                }
-            }
-            priority7BufferSemaphore.setGreen();
-            priority6BufferSemaphore.setRed();
-            iterator = priority6Buffer.iterator();
-            while (iterator.hasNext()) {
-                activePortBufferEntry = iterator.next();
-                packet = activePortBufferEntry.getPacket();
-                if (packet != null) {
-                    occupancyAux += packet.getSize();
-                }
-            }
-            priority6BufferSemaphore.setGreen();
-            priority5BufferSemaphore.setRed();
-            iterator = priority5Buffer.iterator();
-            while (iterator.hasNext()) {
-                activePortBufferEntry = iterator.next();
-                packet = activePortBufferEntry.getPacket();
-                if (packet != null) {
-                    occupancyAux += packet.getSize();
-                }
-            }
-            priority5BufferSemaphore.setGreen();
-            priority4BufferSemaphore.setRed();
-            iterator = priority4Buffer.iterator();
-            while (iterator.hasNext()) {
-                activePortBufferEntry = iterator.next();
-                packet = activePortBufferEntry.getPacket();
-                if (packet != null) {
-                    occupancyAux += packet.getSize();
-                }
-            }
-            priority4BufferSemaphore.setGreen();
-            priority3BufferSemaphore.setRed();
-            iterator = priority3Buffer.iterator();
-            while (iterator.hasNext()) {
-                activePortBufferEntry = iterator.next();
-                packet = activePortBufferEntry.getPacket();
-                if (packet != null) {
-                    occupancyAux += packet.getSize();
-                }
-            }
-            priority3BufferSemaphore.setGreen();
-            priority2BufferSemaphore.setRed();
-            iterator = priority2Buffer.iterator();
-            while (iterator.hasNext()) {
-                activePortBufferEntry = iterator.next();
-                packet = activePortBufferEntry.getPacket();
-                if (packet != null) {
-                    occupancyAux += packet.getSize();
-                }
-            }
-            priority2BufferSemaphore.setGreen();
-            priority1BufferSemaphore.setRed();
-            iterator = priority1Buffer.iterator();
-            while (iterator.hasNext()) {
-                activePortBufferEntry = iterator.next();
-                packet = activePortBufferEntry.getPacket();
-                if (packet != null) {
-                    occupancyAux += packet.getSize();
-                }
-            }
-            priority1BufferSemaphore.setGreen();
-            priority0BufferSemaphore.setRed();
-            iterator = priority0Buffer.iterator();
-            while (iterator.hasNext()) {
-                activePortBufferEntry = iterator.next();
-                packet = activePortBufferEntry.getPacket();
-                if (packet != null) {
-                    occupancyAux += packet.getSize();
-                }
-            }
-            priority0BufferSemaphore.setGreen();
-            if (nextPacketToBeRead != null) {
-                occupancyAux += nextPacketToBeRead.getSize();
-            }
-            semaphore.setGreen();
-            return occupancyAux;
+            return octetsInPort;
         }
         TActivePortSet parentPortSetAux = (TActivePortSet) parentPortSet;
         return parentPortSetAux.getPortSetOccupancy();
@@ -1021,22 +655,7 @@ public class TActivePort extends TPort {
      */
     @Override
     public int getNumberOfPackets() {
-        int numPackets = ZERO;
-        numPackets += priority10Buffer.size();
-        numPackets += priority9Buffer.size();
-        numPackets += priority8Buffer.size();
-        numPackets += priority7Buffer.size();
-        numPackets += priority6Buffer.size();
-        numPackets += priority5Buffer.size();
-        numPackets += priority4Buffer.size();
-        numPackets += priority3Buffer.size();
-        numPackets += priority2Buffer.size();
-        numPackets += priority1Buffer.size();
-        numPackets += priority0Buffer.size();
-        if (nextPacketToBeRead != null) {
-            numPackets++;
-        }
-        return numPackets;
+        return numberOfPackets;
     }
 
     /**
@@ -1048,121 +667,31 @@ public class TActivePort extends TPort {
      */
     @Override
     public void reset() {
+        clearIngressQueue();
         semaphore.setRed();
-        priority10BufferSemaphore.setRed();
-        Iterator<TActivePortBufferEntry> iterator = priority10Buffer.iterator();
-        while (iterator.hasNext()) {
-            iterator.next();
-            iterator.remove();
+        for (int i = ZERO; i < MAX_PRIORITIZED_BUFFERS; i++) {
+            prioritizedBuffers[i].clear();
         }
-        priority10BufferSemaphore.setGreen();
-        priority9BufferSemaphore.setRed();
-        iterator = priority9Buffer.iterator();
-        while (iterator.hasNext()) {
-            iterator.next();
-            iterator.remove();
-        }
-        priority9BufferSemaphore.setGreen();
-        priority8BufferSemaphore.setRed();
-        iterator = priority8Buffer.iterator();
-        while (iterator.hasNext()) {
-            iterator.next();
-            iterator.remove();
-        }
-        priority8BufferSemaphore.setGreen();
-        priority7BufferSemaphore.setRed();
-        iterator = priority7Buffer.iterator();
-        while (iterator.hasNext()) {
-            iterator.next();
-            iterator.remove();
-        }
-        priority7BufferSemaphore.setGreen();
-        priority6BufferSemaphore.setRed();
-        iterator = priority6Buffer.iterator();
-        while (iterator.hasNext()) {
-            iterator.next();
-            iterator.remove();
-        }
-        priority6BufferSemaphore.setGreen();
-        priority5BufferSemaphore.setRed();
-        iterator = priority5Buffer.iterator();
-        while (iterator.hasNext()) {
-            iterator.next();
-            iterator.remove();
-        }
-        priority5BufferSemaphore.setGreen();
-        priority4BufferSemaphore.setRed();
-        iterator = priority4Buffer.iterator();
-        while (iterator.hasNext()) {
-            iterator.next();
-            iterator.remove();
-        }
-        priority4BufferSemaphore.setGreen();
-        priority3BufferSemaphore.setRed();
-        iterator = priority3Buffer.iterator();
-        while (iterator.hasNext()) {
-            iterator.next();
-            iterator.remove();
-        }
-        priority3BufferSemaphore.setGreen();
-        priority2BufferSemaphore.setRed();
-        iterator = priority2Buffer.iterator();
-        while (iterator.hasNext()) {
-            iterator.next();
-            iterator.remove();
-        }
-        priority2BufferSemaphore.setGreen();
-        priority1BufferSemaphore.setRed();
-        iterator = priority1Buffer.iterator();
-        while (iterator.hasNext()) {
-            iterator.next();
-            iterator.remove();
-        }
-        priority1BufferSemaphore.setGreen();
-        priority0BufferSemaphore.setRed();
-        iterator = priority0Buffer.iterator();
-        while (iterator.hasNext()) {
-            iterator.next();
-            iterator.remove();
-        }
-        priority0BufferSemaphore.setGreen();
+        nonEmptyBuffersMask = ZERO;
+        numberOfPackets = ZERO;
+        octetsInPort = ZERO;
+        parentPortSet.setPacketsWaitingInPort(portID, false);
         semaphore.setGreen();
         packetRead = null;
         selectedBuffer = ZERO;
         nextPacketToBeRead = null;
-        int i;
-        for (i = ZERO; i < MAX_PRIORITIZED_BUFFERS; i++) {
-            currentReadsOfBuffer[i] = ZERO;
-        }
+        resetReadsOfBuffers();
     }
 
-    private final TSemaphore priority0BufferSemaphore;
-    private final TSemaphore priority1BufferSemaphore;
-    private final TSemaphore priority2BufferSemaphore;
-    private final TSemaphore priority3BufferSemaphore;
-    private final TSemaphore priority4BufferSemaphore;
-    private final TSemaphore priority5BufferSemaphore;
-    private final TSemaphore priority6BufferSemaphore;
-    private final TSemaphore priority7BufferSemaphore;
-    private final TSemaphore priority8BufferSemaphore;
-    private final TSemaphore priority9BufferSemaphore;
-    private final TSemaphore priority10BufferSemaphore;
-    private final TreeSet<TActivePortBufferEntry> priority0Buffer;
-    private final TreeSet<TActivePortBufferEntry> priority1Buffer;
-    private final TreeSet<TActivePortBufferEntry> priority2Buffer;
-    private final TreeSet<TActivePortBufferEntry> priority3Buffer;
-    private final TreeSet<TActivePortBufferEntry> priority4Buffer;
-    private final TreeSet<TActivePortBufferEntry> priority5Buffer;
-    private final TreeSet<TActivePortBufferEntry> priority6Buffer;
-    private final TreeSet<TActivePortBufferEntry> priority7Buffer;
-    private final TreeSet<TActivePortBufferEntry> priority8Buffer;
-    private final TreeSet<TActivePortBufferEntry> priority9Buffer;
-    private final TreeSet<TActivePortBufferEntry> priority10Buffer;
+    private final TRingBuffer<TAbstractPDU>[] prioritizedBuffers;
+    private int nonEmptyBuffersMask;
+    private int buffersWithReadsLeftMask;
+    private int numberOfPackets;
+    private long octetsInPort;
 
     private int selectedBuffer;
     private TAbstractPDU packetRead;
     private boolean isUnlimitedBuffer;
-    private final TRotaryIDGenerator rotaryIdentifierGenerator;
     private final int[] maxReadsOfBuffer;
     private final int[] currentReadsOfBuffer;
     private TAbstractPDU nextPacketToBeRead;
@@ -1183,17 +712,9 @@ public class TActivePort extends TPort {
     private static final int WITHOUT_PRIORITY = 0;
     private static final int ZERO = 0;
     private static final int ONE = 1;
-    private static final int TWO = 2;
-    private static final int THREE = 3;
-    private static final int FOUR = 4;
-    private static final int FIVE = 5;
-    private static final int SIX = 6;
-    private static final int SEVEN = 7;
-    private static final int EIGHT = 8;
-    private static final int NINE = 9;
-    private static final int TEN = 10;
     private static final int ELEVEN = 11;
     private static final int MAX_PRIORITIZED_BUFFERS = ELEVEN;
+    private static final int ALL_BUFFERS_MASK = (ONE << MAX_PRIORITIZED_BUFFERS) - ONE;
     private static final int EPCD_THRESHOLD = 100;
     private static final int ONE_HUNDRED = 100;
     private static final int DEFAULT_SELECTED_BUFFER = 0;
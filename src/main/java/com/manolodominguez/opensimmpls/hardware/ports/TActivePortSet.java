@@ -19,6 +19,10 @@ import static com.manolodominguez.opensimmpls.commons.UnitsTranslations.OCTETS_P
 import com.manolodominguez.opensimmpls.scenario.TLink;
 import com.manolodominguez.opensimmpls.scenario.TNode;
 import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import java.util.ResourceBundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * This class implements a set of active ports for a node.
@@ -41,6 +45,7 @@ public class TActivePortSet extends TPortSet {
      */
     public TActivePortSet(int numberOfPorts, TNode activeNode) {
         super(numberOfPorts, activeNode);
+        this.translations = ResourceBundle.getBundle(AvailableBundles.T_ACTIVE_PORT_SET.getPath());
         this.ports = new TActivePort[numberOfPorts];
         int i = ZERO;
         for (i = ZERO; i < this.numberOfPorts; i++) {
@@ -66,22 +71,35 @@ public class TActivePortSet extends TPortSet {
             int auxPriority = DUMMY_PRIORITY;
             int auxCurrentPriority = ZERO;
             int auxReadPort = ZERO;
+            int auxPortsCounter = ZERO;
             while ((priorityCounter < MAX_PRIORITY) && (!end)) {
                 auxCurrentPriority = (this.currentPriority + priorityCounter) % MAX_PRIORITY;
                 if (this.currentByPriority[auxCurrentPriority] < this.ratioByPriority[auxCurrentPriority]) {
-                    while ((portsCounter < this.numberOfPorts) && (!end)) {
-                        auxReadPort = (this.readPort + portsCounter) % this.numberOfPorts;
-                        if (this.ports[auxReadPort].thereIsAPacketWaiting()) {
-                            auxPriority = ((TActivePort) this.ports[auxReadPort]).getNextPacketPriority();
-                            if (auxPriority == auxCurrentPriority) {
-                                this.readPort = auxReadPort;
-                                this.currentPriority = auxCurrentPriority;
-                                this.nextPacketToBeRead = this.ports[auxReadPort].getPacket();
-                                end = true;
-                                this.currentByPriority[auxCurrentPriority]++;
+                    // Only ports having packets waiting are visited, in a
+                    // circular way starting from the current read port.
+                    auxReadPort = this.getNextPortWithPacketsWaiting(this.readPort);
+                    if (auxReadPort >= ZERO) {
+                        portsCounter = (auxReadPort - this.readPort + this.numberOfPorts) % this.numberOfPorts;
+                    }
+                    while ((auxReadPort >= ZERO) && (!end)) {
+                        auxPriority = ((TActivePort) this.ports[auxReadPort]).getNextPacketPriority();
+                        if (auxPriority == auxCurrentPriority) {
+                            this.readPort = auxReadPort;
+                            this.currentPriority = auxCurrentPriority;
+                            this.nextPacketToBeRead = this.ports[auxReadPort].getPacketFromLockedPortSet();
+                            end = true;
+                            this.currentByPriority[auxCurrentPriority]++;
+                        } else {
+                            auxReadPort = this.getNextPortWithPacketsWaiting(auxReadPort + ONE);
+                            auxPortsCounter = (auxReadPort - this.readPort + this.numberOfPorts) % this.numberOfPorts;
+                            if (auxPortsCounter <= portsCounter) {
+                                // All ports having packets waiting have been
+                                // visited.
+                                auxReadPort = DUMMY_PORT;
+                            } else {
+                                portsCounter = auxPortsCounter;
                             }
                         }
-                        portsCounter++;
                     }
                     if (!end) {
                         this.currentByPriority[auxCurrentPriority] = this.ratioByPriority[auxCurrentPriority];
@@ -276,13 +294,54 @@ public class TActivePortSet extends TPortSet {
         TAbstractPDU packetAux = null;
         // This modifies de value of this.nextPacketToBeRead
         // It also changes this.readPort and this.currentPriority
+        this.portSetSemaphore.setRed();
         this.runPriorityBasedNextPacketSelection();
+        this.portSetSemaphore.setGreen();
         // End of packet selection based on priorities
         packetAux = this.nextPacketToBeRead;
         this.nextPacketToBeRead = null;
         return packetAux;
     }
 
+    /**
+     * This method reads from the port set, in the same order getNextPacket()
+     * would do, as many packets as fit in the specified number of octets.
+     * Packets are read acquiring the semaphore of the port set only once.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param maxSwitchableOctects The maximum number of octets that can be
+     * read in total.
+     * @param packetBatch The batch where read packets, and the ports they have
+     * been read from, will be stored. It is cleared before reading.
+     * @return The number of packets read.
+     * @since 2.3
+     */
+    @Override
+    public int getNextPackets(int maxSwitchableOctects, TPacketBatch packetBatch) {
+        if (maxSwitchableOctects < ZERO) {
+            this.logger.error(this.translations.getString("argumentOutOfRange"));
+            throw new IllegalArgumentException(this.translations.getString("argumentOutOfRange"));
+        }
+        if (packetBatch == null) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        packetBatch.clear();
+        int remainingOctets = maxSwitchableOctects;
+        this.portSetSemaphore.setRed();
+        // This modifies de value of this.nextPacketToBeRead
+        // It also changes this.readPort and this.currentPriority
+        this.runPriorityBasedNextPacketSelection();
+        while ((this.nextPacketToBeRead != null) && (this.nextPacketToBeRead.getSize() <= remainingOctets)) {
+            packetBatch.add(this.nextPacketToBeRead, this.readPort);
+            remainingOctets -= this.nextPacketToBeRead.getSize();
+            this.nextPacketToBeRead = null;
+            this.runPriorityBasedNextPacketSelection();
+        }
+        this.portSetSemaphore.setGreen();
+        return packetBatch.size();
+    }
+
     /**
      * This method check whether there are packets waiting in the incoming
      * buffer to be switched or not.
@@ -294,12 +353,7 @@ public class TActivePortSet extends TPortSet {
      */
     @Override
     public boolean isThereAnyPacketToSwitch() {
-        for (int i = ZERO; i < this.numberOfPorts; i++) {
-            if (this.ports[i].thereIsAPacketWaiting()) {
-                return true;
-            }
-        }
-        return false;
+        return this.thereArePortsWithPacketsWaiting();
     }
 
     /**
@@ -332,7 +386,9 @@ public class TActivePortSet extends TPortSet {
         TAbstractPDU auxPacket = null;
         // This modifies de value of this.nextPacketToBeRead
         // It also changes this.readPort and this.currentPriority
+        this.portSetSemaphore.setRed();
         this.runPriorityBasedNextPacketSelection();
+        this.portSetSemaphore.setGreen();
         // End of packet selection based on priorities
         auxPacket = this.nextPacketToBeRead;
         if (auxPacket != null) {
@@ -514,10 +570,13 @@ public class TActivePortSet extends TPortSet {
     private int[] ratioByPriority;
     private int[] currentByPriority;
     // end of comment
+    private final ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(TActivePortSet.class);
 
     private static final int ZERO = 0;
     private static final int ONE = 1;
     private static final int DUMMY_PRIORITY = -1;
+    private static final int DUMMY_PORT = -1;
     private static final int MAX_PRIORITY = 11;
     private static final float CONGESTION_FACTOR = 0.97f;
 }
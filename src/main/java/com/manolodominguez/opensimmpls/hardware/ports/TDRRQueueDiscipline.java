@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.ports;
+
+import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements a Deficit Round Robin queue discipline for a set of
+ * FIFO ports. Each port is given a quantum of octets each time its turn comes
+ * and is read while its deficit counter allows it, so that all ports get the
+ * same share of the switching capacity regardless of the size of their
+ * packets. Packets are admitted using tail drop. The quantum grows up to the
+ * size of the largest packet admitted, so that each turn reads at least one
+ * packet.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public class TDRRQueueDiscipline extends TFIFOQueueDiscipline {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TDRRQueueDiscipline.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param numberOfPorts the number of ports of the port set this queue
+     * discipline is going to be used in.
+     * @since 2.3
+     */
+    public TDRRQueueDiscipline(int numberOfPorts) {
+        super();
+        if (numberOfPorts < ZERO) {
+            logger.error(translations.getString("argumentOutOfRange"));
+            throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
+        }
+        deficits = new long[numberOfPorts];
+        quantum = DEFAULT_QUANTUM_IN_OCTETS;
+        currentPort = NO_PORT;
+    }
+
+    /**
+     * This method returns the type of the queue discipline.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TQueueDiscipline.DRR.
+     * @since 2.3
+     */
+    @Override
+    public int getType() {
+        return TQueueDiscipline.DRR;
+    }
+
+    /**
+     * This method admits the incoming packet only if it fits in the free space
+     * of the buffer of the port set.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet the incoming packet.
+     * @param portSetOccupancy the number of octets currently used in the
+     * buffer of the port set.
+     * @param bufferSizeInOctets the size of the buffer of the port set, in
+     * octets.
+     * @return TRUE, if the packet has to be admitted. Otherwise, FALSE.
+     * @since 2.3
+     */
+    @Override
+    public boolean admitPacket(TAbstractPDU packet, long portSetOccupancy, long bufferSizeInOctets) {
+        boolean admitted = super.admitPacket(packet, portSetOccupancy, bufferSizeInOctets);
+        if (admitted && (packet.getSize() > quantum)) {
+            quantum = packet.getSize();
+        }
+        return admitted;
+    }
+
+    /**
+     * This method selects the port to be read next. The current port is kept
+     * while its deficit counter covers the size of its next packet; otherwise,
+     * the next port having packets waiting gets a new quantum.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param portSet the port set whose ports are being read.
+     * @param lastReadPort the port ID of the port read latest. Not used by this
+     * queue discipline.
+     * @return the port ID of the port to be read next, or -1 if there is not
+     * any packet waiting in the port set.
+     * @since 2.3
+     */
+    @Override
+    public int getNextPortToRead(TFIFOPortSet portSet, int lastReadPort) {
+        if (!portSet.thereArePortsWithPacketsWaiting()) {
+            return NO_PORT;
+        }
+        if ((currentPort != NO_PORT) && portSet.getPort(currentPort).thereIsAPacketWaiting()) {
+            if (deficits[currentPort] >= portSet.getHeadOfLinePacketSize(currentPort)) {
+                return currentPort;
+            }
+        }
+        while (true) {
+            if ((currentPort != NO_PORT) && !portSet.getPort(currentPort).thereIsAPacketWaiting()) {
+                deficits[currentPort] = ZERO;
+            }
+            currentPort = portSet.getNextPortWithPacketsWaiting(currentPort + ONE);
+            deficits[currentPort] += quantum;
+            if (deficits[currentPort] >= portSet.getHeadOfLinePacketSize(currentPort)) {
+                return currentPort;
+            }
+        }
+    }
+
+    /**
+     * This method updates the deficit counter of the port a packet has been
+     * read from.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param portID the port ID of the port the packet has been read from.
+     * @param packetSize the size of the packet, in octets.
+     * @param portEmptied TRUE, if the port has no more packets waiting after
+     * this read. Otherwise, FALSE.
+     * @since 2.3
+     */
+    @Override
+    public void notifyPacketRead(int portID, int packetSize, boolean portEmptied) {
+        if ((portID < ZERO) || (portID >= deficits.length)) {
+            logger.error(translations.getString("argumentOutOfRange"));
+            throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
+        }
+        if (portEmptied) {
+            // An idle port must not accumulate credit.
+            deficits[portID] = ZERO;
+        } else if (portID == currentPort) {
+            deficits[portID] -= packetSize;
+        }
+    }
+
+    /**
+     * This method reset the attributes of the queue discipline as when created
+     * by the constructor.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    @Override
+    public void reset() {
+        for (int i = ZERO; i < deficits.length; i++) {
+            deficits[i] = ZERO;
+        }
+        quantum = DEFAULT_QUANTUM_IN_OCTETS;
+        currentPort = NO_PORT;
+    }
+
+    private final long[] deficits;
+    private int quantum;
+    private int currentPort;
+    private final Logger logger = LoggerFactory.getLogger(TDRRQueueDiscipline.class);
+
+    private static final int DEFAULT_QUANTUM_IN_OCTETS = 1500;
+    private static final int NO_PORT = -1;
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+}
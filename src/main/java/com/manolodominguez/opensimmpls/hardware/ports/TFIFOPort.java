@@ -16,8 +16,9 @@
 package com.manolodominguez.opensimmpls.hardware.ports;
 
 import com.manolodominguez.opensimmpls.commons.EIDGeneratorOverflow;
-import java.util.Iterator;
-import java.util.LinkedList;
+import com.manolodominguez.opensimmpls.commons.TRingBuffer;
+import com.manolodominguez.opensimmpls.io.jfr.TPortDropEvent;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketReceived;
 import com.manolodominguez.opensimmpls.scenario.TStats;
 import com.manolodominguez.opensimmpls.scenario.TNode;
@@ -65,7 +66,8 @@ public class TFIFOPort extends TPort {
                 throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
             }
         }
-        buffer = new LinkedList<>();
+        buffer = new TRingBuffer<>();
+        portOccupancy = ZERO;
         packetRead = null;
         isUnlimitedBuffer = false;
     }
@@ -109,7 +111,17 @@ public class TFIFOPort extends TPort {
             logger.error(translations.getString("badArgument"));
             throw new IllegalArgumentException(translations.getString("badArgument"));
         }
-        getPortSet().getParentNode().discardPacket(packet);
+        TNode parentNode = getPortSet().getParentNode();
+        TPortDropEvent portDropEvent = new TPortDropEvent();
+        if (portDropEvent.isEnabled()) {
+            portDropEvent.setNodeID(parentNode.getNodeID());
+            portDropEvent.setNodeName(parentNode.getName());
+            portDropEvent.setPortID(getPortID());
+            portDropEvent.setPacketType(packet.getType());
+            portDropEvent.setPacketSize(packet.getSize());
+            portDropEvent.commit();
+        }
+        parentNode.discardPacket(packet);
     }
 
     /**
@@ -129,29 +141,26 @@ public class TFIFOPort extends TPort {
         parentPortSetAux.portSetSemaphore.setRed();
         semaphore.setRed();
         TNode parentNode = parentPortSet.getParentNode();
-        long eventID = ZERO;
-        try {
-            eventID = parentNode.eventIdentifierGenerator.getNextIdentifier();
-        } catch (EIDGeneratorOverflow ex) {
-            logger.error(ex.getMessage(), ex);
-        }
-        int packetSubtype = packet.getSubtype();
         if (isUnlimitedBuffer) {
             buffer.addLast(packet);
+            portOccupancy += packet.getSize();
+            parentPortSetAux.setPacketsWaitingInPort(portID, true);
             parentPortSetAux.increasePortSetOccupancy(packet.getSize());
-            TSimulationEventPacketReceived packetReceivedEvent = new TSimulationEventPacketReceived(parentNode, eventID, getPortSet().getParentNode().getCurrentTimeInstant(), packetSubtype, packet.getSize());
-            parentNode.simulationEventsListener.captureSimulationEvents(packetReceivedEvent);
-            if (getPortSet().getParentNode().getStats() != null) {
-                getPortSet().getParentNode().getStats().addStatEntry(packet, TStats.INCOMING);
+            capturePacketReceivedEvent(parentNode, packet);
+            TStats statsObserver = getPortSet().getParentNode().getStatsObserver();
+            if (statsObserver != null) {
+                statsObserver.addStatEntry(packet, TStats.INCOMING);
             }
         } else {
-            if ((parentPortSetAux.getPortSetOccupancy() + packet.getSize()) <= (parentPortSetAux.getBufferSizeInMBytes() * OCTETS_PER_MEGABYTE.getUnits())) {
+            if (parentPortSetAux.getQueueDiscipline().admitPacket(packet, parentPortSetAux.getPortSetOccupancy(), parentPortSetAux.getBufferSizeInMBytes() * OCTETS_PER_MEGABYTE.getUnits())) {
                 buffer.addLast(packet);
+                portOccupancy += packet.getSize();
+                parentPortSetAux.setPacketsWaitingInPort(portID, true);
                 parentPortSetAux.increasePortSetOccupancy(packet.getSize());
-                TSimulationEventPacketReceived packetReceivedEvent = new TSimulationEventPacketReceived(parentNode, eventID, getPortSet().getParentNode().getCurrentTimeInstant(), packetSubtype, packet.getSize());
-                parentNode.simulationEventsListener.captureSimulationEvents(packetReceivedEvent);
-                if (getPortSet().getParentNode().getStats() != null) {
-                    getPortSet().getParentNode().getStats().addStatEntry(packet, TStats.INCOMING);
+                capturePacketReceivedEvent(parentNode, packet);
+                TStats statsObserver = getPortSet().getParentNode().getStatsObserver();
+                if (statsObserver != null) {
+                    statsObserver.addStatEntry(packet, TStats.INCOMING);
                 }
             } else {
                 discardPacket(packet);
@@ -161,6 +170,28 @@ public class TFIFOPort extends TPort {
         parentPortSetAux.portSetSemaphore.setGreen();
     }
 
+    /**
+     * This method notifies the listener of simulation events of the parent
+     * node that a packet has been received in this port. The identifier of
+     * the event is only allocated if someone is subscribed to this type of
+     * event, so that headless simulations do not pay for it.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param parentNode the node this port belongs to.
+     * @param packet the packet that has been received.
+     * @since 2.3
+     */
+    private void capturePacketReceivedEvent(TNode parentNode, TAbstractPDU packet) {
+        if (parentNode.isSubscribedTo(TSimulationEvent.PACKET_RECEIVED)) {
+            try {
+                TSimulationEventPacketReceived packetReceivedEvent = new TSimulationEventPacketReceived(parentNode, parentNode.eventIdentifierGenerator.getNextIdentifier(), parentNode.getCurrentTimeInstant(), packet.getSubtype(), packet.getSize());
+                parentNode.simulationEventsListener.captureSimulationEvents(packetReceivedEvent);
+            } catch (EIDGeneratorOverflow ex) {
+                logger.error(ex.getMessage(), ex);
+            }
+        }
+    }
+
     /**
      * This method put a new packet in the buffer of the port. In fact, this do
      * the same than addPacket(p) method, but does not generates simulation
@@ -181,10 +212,14 @@ public class TFIFOPort extends TPort {
         semaphore.setRed();
         if (isUnlimitedBuffer) {
             buffer.addLast(packet);
+            portOccupancy += packet.getSize();
+            parentPortSetAux.setPacketsWaitingInPort(portID, true);
             parentPortSetAux.increasePortSetOccupancy(packet.getSize());
         } else {
             if ((parentPortSetAux.getPortSetOccupancy() + packet.getSize()) <= (parentPortSetAux.getBufferSizeInMBytes() * OCTETS_PER_MEGABYTE.getUnits())) {
                 buffer.addLast(packet);
+                portOccupancy += packet.getSize();
+                parentPortSetAux.setPacketsWaitingInPort(portID, true);
                 parentPortSetAux.increasePortSetOccupancy(packet.getSize());
             } else {
                 discardPacket(packet);
@@ -207,18 +242,38 @@ public class TFIFOPort extends TPort {
     public TAbstractPDU getPacket() {
         TFIFOPortSet parentPortSetAux = (TFIFOPortSet) parentPortSet;
         parentPortSetAux.portSetSemaphore.setRed();
+        getPacketFromLockedPortSet();
+        parentPortSetAux.portSetSemaphore.setGreen();
+        return packetRead;
+    }
+
+    /**
+     * This method reads and returns the next packet of the buffer, assuming
+     * that the caller is already holding the semaphore of the parent port set.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The read packet
+     * @since 2.3
+     */
+    @Override
+    TAbstractPDU getPacketFromLockedPortSet() {
+        TFIFOPortSet parentPortSetAux = (TFIFOPortSet) parentPortSet;
         semaphore.setRed();
         try {
             packetRead = buffer.removeFirst();
+            portOccupancy -= packetRead.getSize();
+            if (buffer.isEmpty()) {
+                parentPortSetAux.setPacketsWaitingInPort(portID, false);
+            }
             if (!isUnlimitedBuffer) {
                 parentPortSetAux.decreasePortSetOccupancySize(packetRead.getSize());
             }
+            parentPortSetAux.getQueueDiscipline().notifyPacketRead(portID, packetRead.getSize(), buffer.isEmpty());
         } catch (NoSuchElementException e) {
             logger.error(translations.getString("elementDoesNotExist"));
             throw e;
         }
         semaphore.setGreen();
-        parentPortSetAux.portSetSemaphore.setGreen();
         return packetRead;
     }
 
@@ -246,6 +301,24 @@ public class TFIFOPort extends TPort {
         return packetRead.getSize() <= switchableOctets;
     }
 
+    /**
+     * This method returns the size of the next packet of the buffer, without
+     * reading it. If there is not a packet in the buffer, then a
+     * NoSuchElementException is thrown.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The size, in octets, of the next packet of the buffer.
+     * @since 2.3
+     */
+    int getHeadOfLinePacketSize() {
+        semaphore.setRed();
+        try {
+            return buffer.getFirst().getSize();
+        } finally {
+            semaphore.setGreen();
+        }
+    }
+
     /**
      * This method computes the congestion level of the port.
      *
@@ -289,18 +362,7 @@ public class TFIFOPort extends TPort {
     @Override
     public long getOccupancy() {
         if (isUnlimitedBuffer) {
-            semaphore.setRed();
-            int occupancy = ZERO;
-            TAbstractPDU packet = null;
-            Iterator<TAbstractPDU> iterator = buffer.iterator();
-            while (iterator.hasNext()) {
-                packet = iterator.next();
-                if (packet != null) {
-                    occupancy += packet.getSize();
-                }
-            }
-            semaphore.setGreen();
-            return occupancy;
+            return portOccupancy;
         }
         TFIFOPortSet parentPortSetAux = (TFIFOPortSet) parentPortSet;
         return parentPortSetAux.getPortSetOccupancy();
@@ -328,16 +390,16 @@ public class TFIFOPort extends TPort {
      */
     @Override
     public void reset() {
+        clearIngressQueue();
         semaphore.setRed();
-        Iterator<TAbstractPDU> iterator = buffer.iterator();
-        while (iterator.hasNext()) {
-            iterator.next();
-            iterator.remove();
-        }
+        buffer.clear();
+        portOccupancy = ZERO;
+        parentPortSet.setPacketsWaitingInPort(portID, false);
         semaphore.setGreen();
     }
 
-    private LinkedList<TAbstractPDU> buffer;
+    private TRingBuffer<TAbstractPDU> buffer;
+    private long portOccupancy;
     private TAbstractPDU packetRead;
     private boolean isUnlimitedBuffer;
     private final ResourceBundle translations;
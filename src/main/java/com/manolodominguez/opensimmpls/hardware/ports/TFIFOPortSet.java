@@ -60,6 +60,74 @@ public class TFIFOPortSet extends TPortSet {
             ports[i].setPortID(i);
         }
         readPort = ZERO;
+        queueDiscipline = new TFIFOQueueDiscipline();
+    }
+
+    /**
+     * This method sets the queue discipline used by the port set to decide
+     * which incoming packets are admitted and which port is read next.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param queueDisciplineType One of the queue discipline types defined in
+     * TQueueDiscipline.
+     * @since 2.3
+     */
+    public void setQueueDisciplineType(int queueDisciplineType) {
+        portSetSemaphore.setRed();
+        switch (queueDisciplineType) {
+            case TQueueDiscipline.FIFO:
+                queueDiscipline = new TFIFOQueueDiscipline();
+                break;
+            case TQueueDiscipline.DRR:
+                queueDiscipline = new TDRRQueueDiscipline(numberOfPorts);
+                break;
+            case TQueueDiscipline.RED:
+                queueDiscipline = new TREDQueueDiscipline();
+                break;
+            case TQueueDiscipline.WRED:
+                queueDiscipline = new TWREDQueueDiscipline();
+                break;
+            default:
+                portSetSemaphore.setGreen();
+                logger.error(translations.getString("argumentOutOfRange"));
+                throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
+        }
+        portSetSemaphore.setGreen();
+    }
+
+    /**
+     * This method gets the type of the queue discipline used by the port set.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return One of the queue discipline types defined in TQueueDiscipline.
+     * @since 2.3
+     */
+    public int getQueueDisciplineType() {
+        return queueDiscipline.getType();
+    }
+
+    /**
+     * This method gets the queue discipline used by the port set.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The queue discipline used by the port set.
+     * @since 2.3
+     */
+    TQueueDiscipline getQueueDiscipline() {
+        return queueDiscipline;
+    }
+
+    /**
+     * This method gets the size of the next packet waiting in the specified
+     * port, without reading it.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param portID port number of the port to be queried.
+     * @return The size, in octets, of the next packet waiting in the port.
+     * @since 2.3
+     */
+    int getHeadOfLinePacketSize(int portID) {
+        return ((TFIFOPort) ports[portID]).getHeadOfLinePacketSize();
     }
 
     /**
@@ -234,13 +302,58 @@ public class TFIFOPortSet extends TPortSet {
      */
     @Override
     public TAbstractPDU getNextPacket() {
-        for (int i = ZERO; i < numberOfPorts; i++) {
-            readPort = (readPort + ONE) % numberOfPorts;
-            if (ports[readPort].thereIsAPacketWaiting()) {
-                return ports[readPort].getPacket();
+        portSetSemaphore.setRed();
+        int nextReadPort = queueDiscipline.getNextPortToRead(this, readPort);
+        if (nextReadPort < ZERO) {
+            portSetSemaphore.setGreen();
+            return null;
+        }
+        readPort = nextReadPort;
+        TAbstractPDU packet = ports[readPort].getPacketFromLockedPortSet();
+        portSetSemaphore.setGreen();
+        return packet;
+    }
+
+    /**
+     * This method reads from the port set, in the same order getNextPacket()
+     * would do, as many packets as fit in the specified number of octets.
+     * Packets are read acquiring the semaphore of the port set only once.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param maxSwitchableOctects The maximum number of octets that can be
+     * read in total.
+     * @param packetBatch The batch where read packets, and the ports they have
+     * been read from, will be stored. It is cleared before reading.
+     * @return The number of packets read.
+     * @since 2.3
+     */
+    @Override
+    public int getNextPackets(int maxSwitchableOctects, TPacketBatch packetBatch) {
+        if (maxSwitchableOctects < ZERO) {
+            logger.error(translations.getString("argumentOutOfRange"));
+            throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
+        }
+        if (packetBatch == null) {
+            logger.error(translations.getString("badArgument"));
+            throw new IllegalArgumentException(translations.getString("badArgument"));
+        }
+        packetBatch.clear();
+        int remainingOctets = maxSwitchableOctects;
+        portSetSemaphore.setRed();
+        int nextReadPort = queueDiscipline.getNextPortToRead(this, readPort);
+        while (nextReadPort >= ZERO) {
+            if (!ports[nextReadPort].canSwitchPacket(remainingOctets)) {
+                readPort = (nextReadPort - ONE + numberOfPorts) % numberOfPorts;
+                break;
             }
+            readPort = nextReadPort;
+            TAbstractPDU packet = ports[readPort].getPacketFromLockedPortSet();
+            packetBatch.add(packet, readPort);
+            remainingOctets -= packet.getSize();
+            nextReadPort = queueDiscipline.getNextPortToRead(this, readPort);
         }
-        return null;
+        portSetSemaphore.setGreen();
+        return packetBatch.size();
     }
 
     /**
@@ -254,12 +367,7 @@ public class TFIFOPortSet extends TPortSet {
      */
     @Override
     public boolean isThereAnyPacketToSwitch() {
-        for (int i = ZERO; i < numberOfPorts; i++) {
-            if (ports[i].thereIsAPacketWaiting()) {
-                return true;
-            }
-        }
-        return false;
+        return thereArePortsWithPacketsWaiting();
     }
 
     /**
@@ -293,16 +401,18 @@ public class TFIFOPortSet extends TPortSet {
             logger.error(translations.getString("argumentOutOfRange"));
             throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
         }
-        int numberOfEmptyPorts = ZERO;
-        while (numberOfEmptyPorts < numberOfPorts) {
-            if (ports[((readPort + ONE) % numberOfPorts)].thereIsAPacketWaiting()) {
-                return ports[((readPort + ONE) % numberOfPorts)].canSwitchPacket(maxSwitchableOctects);
-            } else {
-                numberOfEmptyPorts++;
-                skipPort();
-            }
+        portSetSemaphore.setRed();
+        int nextReadPort = queueDiscipline.getNextPortToRead(this, readPort);
+        if (nextReadPort < ZERO) {
+            portSetSemaphore.setGreen();
+            return false;
         }
-        return false;
+        // Empty ports are skipped, as if skipPort() had been invoked for each
+        // one of them.
+        readPort = (nextReadPort - ONE + numberOfPorts) % numberOfPorts;
+        boolean canSwitch = ports[nextReadPort].canSwitchPacket(maxSwitchableOctects);
+        portSetSemaphore.setGreen();
+        return canSwitch;
     }
 
     /**
@@ -424,6 +534,7 @@ public class TFIFOPortSet extends TPortSet {
             ports[i].reset();
         }
         readPort = ZERO;
+        queueDiscipline.reset();
         setPortSetOccupancySize(ZERO);
         artificiallyCongested = false;
         occupancy = ZERO;
@@ -467,6 +578,7 @@ public class TFIFOPortSet extends TPortSet {
 
     private TPort[] ports;
     private int readPort;
+    private TQueueDiscipline queueDiscipline;
     private final ResourceBundle translations;
     private final Logger logger = LoggerFactory.getLogger(TFIFOPortSet.class);
 
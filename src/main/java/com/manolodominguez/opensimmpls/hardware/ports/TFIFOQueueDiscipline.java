@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.ports;
+
+import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import java.util.ResourceBundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements the default queue discipline of a set of FIFO ports.
+ * Packets are admitted while there is room enough in the buffer (tail drop)
+ * and ports are read in a round robin way, one packet per port.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public class TFIFOQueueDiscipline extends TQueueDiscipline {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TFIFOQueueDiscipline.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public TFIFOQueueDiscipline() {
+        super();
+        translations = ResourceBundle.getBundle(AvailableBundles.T_QUEUE_DISCIPLINE.getPath());
+    }
+
+    /**
+     * This method returns the type of the queue discipline.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TQueueDiscipline.FIFO.
+     * @since 2.3
+     */
+    @Override
+    public int getType() {
+        return TQueueDiscipline.FIFO;
+    }
+
+    /**
+     * This method admits the incoming packet only if it fits in the free space
+     * of the buffer of the port set.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet the incoming packet.
+     * @param portSetOccupancy the number of octets currently used in the
+     * buffer of the port set.
+     * @param bufferSizeInOctets the size of the buffer of the port set, in
+     * octets.
+     * @return TRUE, if the packet has to be admitted. Otherwise, FALSE.
+     * @since 2.3
+     */
+    @Override
+    public boolean admitPacket(TAbstractPDU packet, long portSetOccupancy, long bufferSizeInOctets) {
+        if (packet == null) {
+            logger.error(translations.getString("badArgument"));
+            throw new IllegalArgumentException(translations.getString("badArgument"));
+        }
+        return (portSetOccupancy + packet.getSize()) <= bufferSizeInOctets;
+    }
+
+    /**
+     * This method selects the next port having packets waiting, starting after
+     * the port read latest.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param portSet the port set whose ports are being read.
+     * @param lastReadPort the port ID of the port read latest.
+     * @return the port ID of the port to be read next, or -1 if there is not
+     * any packet waiting in the port set.
+     * @since 2.3
+     */
+    @Override
+    public int getNextPortToRead(TFIFOPortSet portSet, int lastReadPort) {
+        return portSet.getNextPortWithPacketsWaiting(lastReadPort + ONE);
+    }
+
+    /**
+     * This method does nothing in this queue discipline.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param portID the port ID of the port the packet has been read from.
+     * @param packetSize the size of the packet, in octets.
+     * @param portEmptied TRUE, if the port has no more packets waiting after
+     * this read. Otherwise, FALSE.
+     * @since 2.3
+     */
+    @Override
+    public void notifyPacketRead(int portID, int packetSize, boolean portEmptied) {
+        // Nothing to do. Round robin does not keep state per port.
+    }
+
+    /**
+     * This method does nothing in this queue discipline.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    @Override
+    public void reset() {
+        // Nothing to do.
+    }
+
+    protected final ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(TFIFOQueueDiscipline.class);
+
+    private static final int ONE = 1;
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.ports;
+
+import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+
+/**
+ * This class implements a batch of packets read from a port set, each one of
+ * them together with the port ID of the port it has been read from. A node
+ * reuses the same batch tick after tick, so that reading packets from its
+ * port set does not allocate memory.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public class TPacketBatch {
+
+    /**
+     * This is the constructor of the class. It creates a new empty batch.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public TPacketBatch() {
+        packets = new TAbstractPDU[DEFAULT_CAPACITY];
+        incomingPortIDs = new int[DEFAULT_CAPACITY];
+        size = ZERO;
+    }
+
+    /**
+     * This method adds a packet to the batch.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet the packet read from the port set.
+     * @param incomingPortID the port ID of the port the packet has been read
+     * from.
+     * @since 2.3
+     */
+    void add(TAbstractPDU packet, int incomingPortID) {
+        if (size == packets.length) {
+            TAbstractPDU[] newPackets = new TAbstractPDU[packets.length << ONE];
+            int[] newIncomingPortIDs = new int[packets.length << ONE];
+            System.arraycopy(packets, ZERO, newPackets, ZERO, size);
+            System.arraycopy(incomingPortIDs, ZERO, newIncomingPortIDs, ZERO, size);
+            packets = newPackets;
+            incomingPortIDs = newIncomingPortIDs;
+        }
+        packets[size] = packet;
+        incomingPortIDs[size] = incomingPortID;
+        size++;
+    }
+
+    /**
+     * This method removes all packets from the batch.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public void clear() {
+        for (int i = ZERO; i < size; i++) {
+            packets[i] = null;
+        }
+        size = ZERO;
+    }
+
+    /**
+     * This method gets the number of packets in the batch.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of packets in the batch.
+     * @since 2.3
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * This method gets the packet at the specified position of the batch.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param index the position of the packet in the batch, starting at 0.
+     * @return the packet at the specified position.
+     * @since 2.3
+     */
+    public TAbstractPDU getPacket(int index) {
+        if ((index < ZERO) || (index >= size)) {
+            throw new IndexOutOfBoundsException();
+        }
+        return packets[index];
+    }
+
+    /**
+     * This method gets the port ID of the port the packet at the specified
+     * position of the batch has been read from.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param index the position of the packet in the batch, starting at 0.
+     * @return the port ID of the port the packet has been read from.
+     * @since 2.3
+     */
+    public int getIncomingPortID(int index) {
+        if ((index < ZERO) || (index >= size)) {
+            throw new IndexOutOfBoundsException();
+        }
+        return incomingPortIDs[index];
+    }
+
+    private TAbstractPDU[] packets;
+    private int[] incomingPortIDs;
+    private int size;
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+}
@@ -21,6 +21,7 @@ import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
 import com.manolodominguez.opensimmpls.commons.TSemaphore;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,6 +61,7 @@ public abstract class TPort {
         }
         link = null;
         semaphore = new TSemaphore();
+        ingressQueue = new ConcurrentLinkedQueue<>();
         this.parentPortSet = parentPortSet;
         this.portID = portID;
     }
@@ -209,13 +211,15 @@ public abstract class TPort {
             if (!link.isBroken()) {
                 if (link.getLinkType() == TLink.INTERNAL_LINK) {
                     link.deliverPacketToNode(packet, endNode);
-                    if (getPortSet().getParentNode().getStats() != null) {
-                        getPortSet().getParentNode().getStats().addStatEntry(packet, TStats.OUTGOING);
+                    TStats statsObserver = getPortSet().getParentNode().getStatsObserver();
+                    if (statsObserver != null) {
+                        statsObserver.addStatEntry(packet, TStats.OUTGOING);
                     }
                 } else if ((packet.getType() != TAbstractPDU.GPSRP) && (packet.getType() != TAbstractPDU.TLDP)) {
                     link.deliverPacketToNode(packet, endNode);
-                    if (getPortSet().getParentNode().getStats() != null) {
-                        getPortSet().getParentNode().getStats().addStatEntry(packet, TStats.OUTGOING);
+                    TStats statsObserver = getPortSet().getParentNode().getStatsObserver();
+                    if (statsObserver != null) {
+                        statsObserver.addStatEntry(packet, TStats.OUTGOING);
                     }
                 }
             } else {
@@ -265,6 +269,18 @@ public abstract class TPort {
      */
     public abstract TAbstractPDU getPacket();
 
+    /**
+     * This method, when implemented, will read and return the next packet of
+     * the buffer as getPacket() does, but assuming that the caller is already
+     * holding the semaphore of the parent port set. It allows the port set to
+     * read several packets acquiring its semaphore only once.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The read packet
+     * @since 2.3
+     */
+    abstract TAbstractPDU getPacketFromLockedPortSet();
+
     /**
      * This method, when implemented, will compute whether it is possible or not
      * to switch the next packet in the buffer having the number of octets
@@ -322,6 +338,53 @@ public abstract class TPort {
      */
     public abstract int getNumberOfPackets();
 
+    /**
+     * This method puts a packet in the ingress queue of the port. The ingress
+     * queue is lock-free, so several links can deliver packets to the port at
+     * the same time without blocking each other nor the parent node. Packets
+     * are not stored in the buffer of the port until the parent node drains
+     * the ingress queue.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet Packet that arrives to the port.
+     * @since 2.3
+     */
+    public void enqueueIngressPacket(TAbstractPDU packet) {
+        if (packet == null) {
+            logger.error(translations.getString("badArgument"));
+            throw new IllegalArgumentException(translations.getString("badArgument"));
+        }
+        ingressQueue.offer(packet);
+    }
+
+    /**
+     * This method moves all packets waiting in the ingress queue to the buffer
+     * of the port, in the same order they arrived, as if addPacket() had been
+     * invoked for each one of them. It should be invoked only by the parent
+     * node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public void drainIngressQueue() {
+        TAbstractPDU packet = ingressQueue.poll();
+        while (packet != null) {
+            addPacket(packet);
+            packet = ingressQueue.poll();
+        }
+    }
+
+    /**
+     * This method discards all packets waiting in the ingress queue of the
+     * port.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    protected void clearIngressQueue() {
+        ingressQueue.clear();
+    }
+
     /**
      * This method, when implemented, will reset attributes of the class as when
      * created by the constructor.
@@ -356,6 +419,7 @@ public abstract class TPort {
     protected TPortSet parentPortSet;
     protected TSemaphore semaphore;
     protected int portID;
+    private final ConcurrentLinkedQueue<TAbstractPDU> ingressQueue;
     private final ResourceBundle translations;
     private final Logger logger = LoggerFactory.getLogger(TPort.class);
 
@@ -20,6 +20,7 @@ import com.manolodominguez.opensimmpls.scenario.TNode;
 import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
 import com.manolodominguez.opensimmpls.commons.TSemaphore;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import java.util.BitSet;
 import java.util.ResourceBundle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,6 +58,7 @@ public abstract class TPortSet {
         portSetBufferSize = ONE;
         portSetBufferOccupancySizeInOctets = ZERO;
         portSetSemaphore = new TSemaphore();
+        portsWithPacketsWaiting = new BitSet(numberOfPorts);
         artificiallyCongested = false;
         // FIX: occupancy seems not to be used
         occupancy = ZERO;
@@ -117,6 +119,50 @@ public abstract class TPortSet {
         return portSetBufferOccupancySizeInOctets;
     }
 
+    /**
+     * This method is invoked by the ports of this port set each time they
+     * start or stop having packets waiting, so that the port set can find the
+     * ports to be read without checking every port.
+     *
+     * @param portID The port ID of the port.
+     * @param packetsWaiting TRUE, if the port has packets waiting to be
+     * switched/routed. Otherwise, FALSE.
+     * @since 2.3
+     */
+    synchronized void setPacketsWaitingInPort(int portID, boolean packetsWaiting) {
+        portsWithPacketsWaiting.set(portID, packetsWaiting);
+    }
+
+    /**
+     * This method gets the first port having packets waiting to be
+     * switched/routed, starting from the specified port and going on in a
+     * circular way through the port set.
+     *
+     * @param portID The port ID of the first port to be checked.
+     * @return The port ID of the first port having packets waiting, or -1 if
+     * no port has packets waiting.
+     * @since 2.3
+     */
+    protected synchronized int getNextPortWithPacketsWaiting(int portID) {
+        int nextPortID = portsWithPacketsWaiting.nextSetBit(portID);
+        if (nextPortID < ZERO) {
+            nextPortID = portsWithPacketsWaiting.nextSetBit(ZERO);
+        }
+        return nextPortID;
+    }
+
+    /**
+     * This method checks whether any port of the port set has packets waiting
+     * to be switched/routed.
+     *
+     * @return TRUE, if at least one port has packets waiting. Otherwise,
+     * FALSE.
+     * @since 2.3
+     */
+    protected synchronized boolean thereArePortsWithPacketsWaiting() {
+        return !portsWithPacketsWaiting.isEmpty();
+    }
+
     /**
      * This method checks whether the parent node is congested artificially or
      * not.
@@ -178,6 +224,36 @@ public abstract class TPortSet {
      */
     public abstract TAbstractPDU getNextPacket();
 
+    /**
+     * This method, when implemented, will read from the port set, in the same
+     * order getNextPacket() would do, as many packets as fit in the specified
+     * number of octets. Packets are read acquiring the semaphore of the port
+     * set only once.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param maxSwitchableOctects The maximum number of octets that can be
+     * read in total.
+     * @param packetBatch The batch where read packets, and the ports they have
+     * been read from, will be stored. It is cleared before reading.
+     * @return The number of packets read.
+     * @since 2.3
+     */
+    public abstract int getNextPackets(int maxSwitchableOctects, TPacketBatch packetBatch);
+
+    /**
+     * This method moves the packets waiting in the ingress queue of each port
+     * of the port set to the buffer of the port. It should be invoked only by
+     * the parent node, at the start of each tick.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public void drainIngressQueues() {
+        for (int i = ZERO; i < numberOfPorts; i++) {
+            getPort(i).drainIngressQueue();
+        }
+    }
+
     /**
      * This method, when implemented, will check whether there are packets
      * waiting in the incoming buffer to be switched or not.
@@ -381,6 +457,7 @@ public abstract class TPortSet {
     protected int portSetBufferSize;
     private long portSetBufferOccupancySizeInOctets;
     public TSemaphore portSetSemaphore;
+    private final BitSet portsWithPacketsWaiting;
     protected boolean artificiallyCongested;
     // FIX: occupancy seems not to be used
     protected long occupancy;
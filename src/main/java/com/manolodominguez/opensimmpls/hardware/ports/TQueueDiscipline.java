@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.ports;
+
+import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+
+/**
+ * This abstract class will be implemented to have a queue discipline for a
+ * set of FIFO ports. A queue discipline decides whether an incoming packet is
+ * admitted in the buffer of the port set and which port has to be read next.
+ * All methods are invoked while the semaphore of the port set is being held,
+ * so implementations do not need their own synchronization. Implementations
+ * have to do a constant amount of work per packet, regardless of the number of
+ * packets waiting in the buffer.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public abstract class TQueueDiscipline {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TQueueDiscipline.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public TQueueDiscipline() {
+        // Nothing to do.
+    }
+
+    /**
+     * This method, when implemented, will return the type of the queue
+     * discipline, as one of the constants defined in this class.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the type of the queue discipline.
+     * @since 2.3
+     */
+    public abstract int getType();
+
+    /**
+     * This method, when implemented, will decide whether an incoming packet is
+     * admitted in the buffer of the port set or has to be discarded.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet the incoming packet.
+     * @param portSetOccupancy the number of octets currently used in the
+     * buffer of the port set.
+     * @param bufferSizeInOctets the size of the buffer of the port set, in
+     * octets.
+     * @return TRUE, if the packet has to be admitted. Otherwise, FALSE.
+     * @since 2.3
+     */
+    public abstract boolean admitPacket(TAbstractPDU packet, long portSetOccupancy, long bufferSizeInOctets);
+
+    /**
+     * This method, when implemented, will select the port of the port set that
+     * has to be read next.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param portSet the port set whose ports are being read.
+     * @param lastReadPort the port ID of the port read latest.
+     * @return the port ID of the port to be read next, or -1 if there is not
+     * any packet waiting in the port set.
+     * @since 2.3
+     */
+    public abstract int getNextPortToRead(TFIFOPortSet portSet, int lastReadPort);
+
+    /**
+     * This method, when implemented, will be notified each time a packet is
+     * read from a port of the port set.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param portID the port ID of the port the packet has been read from.
+     * @param packetSize the size of the packet, in octets.
+     * @param portEmptied TRUE, if the port has no more packets waiting after
+     * this read. Otherwise, FALSE.
+     * @since 2.3
+     */
+    public abstract void notifyPacketRead(int portID, int packetSize, boolean portEmptied);
+
+    /**
+     * This method, when implemented, will reset the attributes of the queue
+     * discipline as when created by the constructor.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public abstract void reset();
+
+    /**
+     * This method checks whether the specified value is one of the queue
+     * discipline types defined in this class.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param queueDisciplineType the value to be checked.
+     * @return TRUE, if the value is a valid queue discipline type. Otherwise,
+     * FALSE.
+     * @since 2.3
+     */
+    public static boolean isValidType(int queueDisciplineType) {
+        return (queueDisciplineType >= FIFO) && (queueDisciplineType <= WRED);
+    }
+
+    public static final int FIFO = 0;
+    public static final int DRR = 1;
+    public static final int RED = 2;
+    public static final int WRED = 3;
+}
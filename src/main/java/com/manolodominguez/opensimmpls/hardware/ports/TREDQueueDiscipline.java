@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.ports;
+
+import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+import java.util.Random;
+
+/**
+ * This class implements a Random Early Detection queue discipline for a set of
+ * FIFO ports. An exponentially weighted moving average of the occupancy of the
+ * buffer is updated on each arrival. Below the minimum threshold packets are
+ * admitted, above the maximum threshold they are discarded and between both
+ * thresholds they are discarded with a probability that grows linearly with
+ * the average and with the number of packets admitted since the latest
+ * discard. Ports are read in a round robin way, one packet per port.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public class TREDQueueDiscipline extends TFIFOQueueDiscipline {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TREDQueueDiscipline.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public TREDQueueDiscipline() {
+        super();
+        // A fixed seed makes early discards reproducible from run to run.
+        randomNumberGenerator = new Random(RANDOM_SEED);
+        averageOccupancy = ZERO;
+        packetsSinceLatestDiscard = ZERO;
+    }
+
+    /**
+     * This method returns the type of the queue discipline.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TQueueDiscipline.RED.
+     * @since 2.3
+     */
+    @Override
+    public int getType() {
+        return TQueueDiscipline.RED;
+    }
+
+    /**
+     * This method updates the average occupancy of the buffer and decides
+     * whether the incoming packet is admitted or discarded early.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet the incoming packet.
+     * @param portSetOccupancy the number of octets currently used in the
+     * buffer of the port set.
+     * @param bufferSizeInOctets the size of the buffer of the port set, in
+     * octets.
+     * @return TRUE, if the packet has to be admitted. Otherwise, FALSE.
+     * @since 2.3
+     */
+    @Override
+    public boolean admitPacket(TAbstractPDU packet, long portSetOccupancy, long bufferSizeInOctets) {
+        if (!super.admitPacket(packet, portSetOccupancy, bufferSizeInOctets)) {
+            averageOccupancy += QUEUE_WEIGHT * (portSetOccupancy - averageOccupancy);
+            packetsSinceLatestDiscard = ZERO;
+            return false;
+        }
+        averageOccupancy += QUEUE_WEIGHT * (portSetOccupancy - averageOccupancy);
+        int dropPrecedence = getDropPrecedence(packet);
+        if (dropPrecedence == NOT_DROPPABLE) {
+            return true;
+        }
+        double minThreshold = getMinThresholdFactor(dropPrecedence) * bufferSizeInOctets;
+        double maxThreshold = getMaxThresholdFactor(dropPrecedence) * bufferSizeInOctets;
+        if (averageOccupancy < minThreshold) {
+            packetsSinceLatestDiscard = ZERO;
+            return true;
+        }
+        if (averageOccupancy >= maxThreshold) {
+            packetsSinceLatestDiscard = ZERO;
+            return false;
+        }
+        packetsSinceLatestDiscard++;
+        double discardProbability = getMaxDiscardProbability(dropPrecedence) * (averageOccupancy - minThreshold) / (maxThreshold - minThreshold);
+        double denominator = ONE - (packetsSinceLatestDiscard * discardProbability);
+        if (denominator > ZERO) {
+            discardProbability = discardProbability / denominator;
+        } else {
+            discardProbability = ONE;
+        }
+        if (randomNumberGenerator.nextDouble() < discardProbability) {
+            packetsSinceLatestDiscard = ZERO;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * This method resets the average occupancy of the buffer and the rest of
+     * attributes, including the seed of the random number generator, as when
+     * created by the constructor.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        randomNumberGenerator.setSeed(RANDOM_SEED);
+        averageOccupancy = ZERO;
+        packetsSinceLatestDiscard = ZERO;
+    }
+
+    /**
+     * This method gets the average occupancy of the buffer, in octets, as
+     * computed by this queue discipline.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the average occupancy of the buffer, in octets.
+     * @since 2.3
+     */
+    public double getAverageOccupancy() {
+        return averageOccupancy;
+    }
+
+    /**
+     * This method gets the drop precedence of a packet. Signalling packets are
+     * never discarded early. RED uses the same precedence for any other
+     * packet.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet the incoming packet.
+     * @return the drop precedence of the packet, or NOT_DROPPABLE.
+     * @since 2.3
+     */
+    protected int getDropPrecedence(TAbstractPDU packet) {
+        switch (packet.getType()) {
+            case TAbstractPDU.TLDP:
+            case TAbstractPDU.GPSRP:
+            case TAbstractPDU.RLPRP:
+                return NOT_DROPPABLE;
+            default:
+                return ZERO;
+        }
+    }
+
+    /**
+     * This method gets the minimum threshold for the specified drop
+     * precedence, as a fraction of the buffer size.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param dropPrecedence the drop precedence.
+     * @return the minimum threshold, as a fraction of the buffer size.
+     * @since 2.3
+     */
+    protected double getMinThresholdFactor(int dropPrecedence) {
+        return MIN_THRESHOLD_FACTOR;
+    }
+
+    /**
+     * This method gets the maximum threshold for the specified drop
+     * precedence, as a fraction of the buffer size.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param dropPrecedence the drop precedence.
+     * @return the maximum threshold, as a fraction of the buffer size.
+     * @since 2.3
+     */
+    protected double getMaxThresholdFactor(int dropPrecedence) {
+        return MAX_THRESHOLD_FACTOR;
+    }
+
+    /**
+     * This method gets the discard probability reached at the maximum
+     * threshold for the specified drop precedence.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param dropPrecedence the drop precedence.
+     * @return the maximum discard probability.
+     * @since 2.3
+     */
+    protected double getMaxDiscardProbability(int dropPrecedence) {
+        return MAX_DISCARD_PROBABILITY;
+    }
+
+    private final Random randomNumberGenerator;
+    private double averageOccupancy;
+    private int packetsSinceLatestDiscard;
+
+    protected static final int NOT_DROPPABLE = -1;
+    private static final long RANDOM_SEED = 0x5EEDL;
+    private static final double QUEUE_WEIGHT = 0.002;
+    private static final double MIN_THRESHOLD_FACTOR = 0.25;
+    private static final double MAX_THRESHOLD_FACTOR = 0.75;
+    private static final double MAX_DISCARD_PROBABILITY = 0.1;
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.ports;
+
+import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
+
+/**
+ * This class implements a Weighted Random Early Detection queue discipline for
+ * a set of FIFO ports. It works as RED, but the thresholds and the maximum
+ * discard probability depend on the GoS level requested by each packet, so
+ * that packets requesting a higher GoS level are discarded later and less
+ * often.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public class TWREDQueueDiscipline extends TREDQueueDiscipline {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TWREDQueueDiscipline.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public TWREDQueueDiscipline() {
+        super();
+    }
+
+    /**
+     * This method returns the type of the queue discipline.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TQueueDiscipline.WRED.
+     * @since 2.3
+     */
+    @Override
+    public int getType() {
+        return TQueueDiscipline.WRED;
+    }
+
+    /**
+     * This method gets the drop precedence of a packet, that is the GoS level
+     * (0 to 3) it requests. Signalling packets are never discarded early.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet the incoming packet.
+     * @return the drop precedence of the packet, or NOT_DROPPABLE.
+     * @since 2.3
+     */
+    @Override
+    protected int getDropPrecedence(TAbstractPDU packet) {
+        int dropPrecedence = super.getDropPrecedence(packet);
+        if (dropPrecedence == NOT_DROPPABLE) {
+            return NOT_DROPPABLE;
+        }
+        if (packet.getType() == TAbstractPDU.MPLS) {
+            TMPLSPDU mplsPacket = (TMPLSPDU) packet;
+            if (mplsPacket.getLabelStack().getTop().getLabel() == GOS_LABEL) {
+                return mplsPacket.getLabelStack().getTop().getEXP() % NUMBER_OF_GOS_LEVELS;
+            }
+        } else if (packet.getType() == TAbstractPDU.IPV4) {
+            if (packet.getIPv4Header().getOptionsField().isUsed()) {
+                return packet.getIPv4Header().getOptionsField().getRequestedGoSLevel() % NUMBER_OF_GOS_LEVELS;
+            }
+        }
+        return dropPrecedence;
+    }
+
+    /**
+     * This method gets the minimum threshold for the specified drop
+     * precedence, as a fraction of the buffer size.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param dropPrecedence the drop precedence.
+     * @return the minimum threshold, as a fraction of the buffer size.
+     * @since 2.3
+     */
+    @Override
+    protected double getMinThresholdFactor(int dropPrecedence) {
+        return MIN_THRESHOLD_FACTORS[dropPrecedence];
+    }
+
+    /**
+     * This method gets the maximum threshold for the specified drop
+     * precedence, as a fraction of the buffer size.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param dropPrecedence the drop precedence.
+     * @return the maximum threshold, as a fraction of the buffer size.
+     * @since 2.3
+     */
+    @Override
+    protected double getMaxThresholdFactor(int dropPrecedence) {
+        return MAX_THRESHOLD_FACTORS[dropPrecedence];
+    }
+
+    /**
+     * This method gets the discard probability reached at the maximum
+     * threshold for the specified drop precedence.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param dropPrecedence the drop precedence.
+     * @return the maximum discard probability.
+     * @since 2.3
+     */
+    @Override
+    protected double getMaxDiscardProbability(int dropPrecedence) {
+        return MAX_DISCARD_PROBABILITIES[dropPrecedence];
+    }
+
+    // Indexed by GoS level, from 0 to 3.
+    private static final double[] MIN_THRESHOLD_FACTORS = {0.25, 0.40, 0.55, 0.70};
+    private static final double[] MAX_THRESHOLD_FACTORS = {0.75, 0.80, 0.85, 0.90};
+    private static final double[] MAX_DISCARD_PROBABILITIES = {0.1, 0.05, 0.025, 0.0125};
+    private static final int NUMBER_OF_GOS_LEVELS = 4;
+    private static final int GOS_LABEL = 1;
+}
@@ -0,0 +1,51 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.timer;
+
+import java.util.EventListener;
+
+/**
+ * This interface has to be implemented by classess that wants to be notified
+ * each time the timer has finished a tick, that is, when every topology
+ * element has consumed the timer event of the tick, and when the timer stops.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public interface ITickCompletionListener extends EventListener {
+
+    /**
+     * This method, when implemented, will be called from the thread of the
+     * timer after every topology element has finished the simulation of a
+     * tick, and before the next tick starts.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     * @param timeInstant the time instant (in simulation terms) in which the
+     * tick has finished.
+     */
+    public void tickCompleted(long timeInstant);
+
+    /**
+     * This method, when implemented, will be called from the thread of the
+     * timer when it stops generating ticks, because the simulation has
+     * finished or has been paused.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public void timerStopped();
+}
@@ -17,6 +17,7 @@ package com.manolodominguez.opensimmpls.hardware.timer;
 
 import java.util.Iterator;
 import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
 import com.manolodominguez.opensimmpls.scenario.TExternalLink;
 import com.manolodominguez.opensimmpls.scenario.TInternalLink;
 import com.manolodominguez.opensimmpls.scenario.TActiveLERNode;
@@ -31,6 +32,7 @@ import com.manolodominguez.opensimmpls.scenario.TTopologyElement;
 import com.manolodominguez.opensimmpls.commons.EIDGeneratorOverflow;
 import com.manolodominguez.opensimmpls.gui.utils.TProgressEventListener;
 import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
+import com.manolodominguez.opensimmpls.io.jfr.TTickEvent;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
 import java.util.ResourceBundle;
 import org.slf4j.Logger;
@@ -59,6 +61,7 @@ public class TTimer implements Runnable {
         this.timerEventListenerNodes = new TreeSet<>();
         this.timerEventListenerLinks = new TreeSet<>();
         this.progressEventListener = null;
+        this.tickCompletionListeners = new CopyOnWriteArrayList<>();
         this.longIdentifierGenerator = new TLongIDGenerator();
         this.currentTimestamp = new TTimestamp(ZERO, ZERO);
         this.previousTimestamp = new TTimestamp(ZERO, ZERO);
@@ -67,6 +70,7 @@ public class TTimer implements Runnable {
         this.previousTimestampAux = new TTimestamp(ZERO, ZERO);
         this.finishTimestampAux = new TTimestamp(ZERO, ONE_HUNDRED_THOUSAND);
         this.tickInNs = DEFAULT_TICK_LENGTH_IN_NS;
+        this.lastTickWallTimeInNs = ZERO;
         this.running = false;
         this.isFinished = true;
         this.paused = false;
@@ -225,6 +229,34 @@ public class TTimer implements Runnable {
         this.progressEventListener = null;
     }
 
+    /**
+     * This method subscribes a listener to be notified each time a tick has
+     * been completely simulated and when the timer stops.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param tickCompletionListener the listener to be subscribed.
+     * @throws IllegalArgumentException if the listener is null.
+     * @since 2.3
+     */
+    public void addTickCompletionListener(ITickCompletionListener tickCompletionListener) {
+        if (tickCompletionListener == null) {
+            throw new IllegalArgumentException();
+        }
+        this.tickCompletionListeners.addIfAbsent(tickCompletionListener);
+    }
+
+    /**
+     * This method unsubscribes a listener previously subscribed to be notified
+     * each time a tick has been completely simulated.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param tickCompletionListener the listener to be unsubscribed.
+     * @since 2.3
+     */
+    public void removeTickCompletionListener(ITickCompletionListener tickCompletionListener) {
+        this.tickCompletionListeners.remove(tickCompletionListener);
+    }
+
     /**
      * This method generates a new timer event an sends it to all topology
      * elements that are subscribed to receive timer events.
@@ -421,6 +453,9 @@ public class TTimer implements Runnable {
         }
         while ((this.currentTimestamp.compareTo(this.finishTimestamp) != TTimestamp.THIS_GREATER) && (!this.isFinished)) {
             // Let's simulate
+            long tickStartInNs = System.nanoTime();
+            TTickEvent tickEvent = new TTickEvent();
+            tickEvent.begin();
             generateProgressEvent();
             generateTimerEvent();
             // ------------------
@@ -445,6 +480,20 @@ public class TTimer implements Runnable {
                 this.isFinished = true;
             }
             waitUntilTimerEventListenersFinishTheirWork();
+            this.lastTickWallTimeInNs = System.nanoTime() - tickStartInNs;
+            tickEvent.end();
+            if (tickEvent.shouldCommit()) {
+                tickEvent.setTimeInstant(previousSimulatedTime);
+                tickEvent.setNodes(this.timerEventListenerNodes.size());
+                tickEvent.setLinks(this.timerEventListenerLinks.size());
+                tickEvent.commit();
+            }
+            for (ITickCompletionListener tickCompletionListener : this.tickCompletionListeners) {
+                tickCompletionListener.tickCompleted(previousSimulatedTime);
+            }
+        }
+        for (ITickCompletionListener tickCompletionListener : this.tickCompletionListeners) {
+            tickCompletionListener.timerStopped();
         }
         this.running = false;
     }
@@ -489,6 +538,33 @@ public class TTimer implements Runnable {
         }
     }
 
+    /**
+     * This method gets the wall time spent simulating the latest tick, from
+     * the moment timer events are sent to topology elements until all of them
+     * have consumed them. It is updated before notifying tick completion
+     * listeners.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the wall time of the latest tick, in nanoseconds.
+     * @since 2.3
+     */
+    public long getLastTickWallTimeInNs() {
+        return this.lastTickWallTimeInNs;
+    }
+
+    /**
+     * This method gets the number of topology elements, nodes and links, that
+     * receive timer events from this timer. Each one of them runs its own
+     * thread on every tick.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of topology elements subscribed to this timer.
+     * @since 2.3
+     */
+    public int getNumberOfTimerEventListeners() {
+        return this.timerEventListenerNodes.size() + this.timerEventListenerLinks.size();
+    }
+
     /**
      * This method check whether the timer is running (and therefore, generating
      * events) or not.
@@ -504,8 +580,10 @@ public class TTimer implements Runnable {
     private TreeSet<TTopologyElement> timerEventListenerNodes;
     private TreeSet<TTopologyElement> timerEventListenerLinks;
     private TProgressEventListener progressEventListener;
+    private final CopyOnWriteArrayList<ITickCompletionListener> tickCompletionListeners;
     private TLongIDGenerator longIdentifierGenerator;
     private int tickInNs;
+    private volatile long lastTickWallTimeInNs;
     private Thread thread;
     private TTimestamp currentTimestamp;
     private TTimestamp previousTimestamp;
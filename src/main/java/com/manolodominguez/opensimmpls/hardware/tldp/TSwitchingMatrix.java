@@ -15,7 +15,9 @@
  */
 package com.manolodominguez.opensimmpls.hardware.tldp;
 
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import com.manolodominguez.opensimmpls.commons.TSemaphore;
 
@@ -37,6 +39,7 @@ public class TSwitchingMatrix {
      */
     public TSwitchingMatrix() {
         this.switchingMatrix = new LinkedList<>();
+        this.entriesByPort = new HashMap<>();
         this.semaphore = new TSemaphore();
     }
 
@@ -64,6 +67,8 @@ public class TSwitchingMatrix {
     public void addEntry(TSwitchingMatrixEntry switchingMatrixEntry) {
         this.semaphore.setRed();
         this.switchingMatrix.addLast(switchingMatrixEntry);
+        switchingMatrixEntry.setParentSwitchingMatrix(this);
+        addToPortIndex(switchingMatrixEntry);
         this.semaphore.setGreen();
     }
 
@@ -212,6 +217,7 @@ public class TSwitchingMatrix {
                 if (switchingMatrixEntryAux.getIncomingPortID() == incomingPortID) {
                     if (switchingMatrixEntryAux.getEntryType() == entryType) {
                         iterator.remove();
+                        removeFromPortIndex(switchingMatrixEntryAux);
                     }
                 }
             }
@@ -239,6 +245,7 @@ public class TSwitchingMatrix {
             if (switchingMatrixEntryAux.getLocalTLDPSessionID() == localTLDPSessionID) {
                 if (switchingMatrixEntryAux.getIncomingPortID() == incomingPortID) {
                     iterator.remove();
+                    removeFromPortIndex(switchingMatrixEntryAux);
                 }
             }
         }
@@ -414,7 +421,188 @@ public class TSwitchingMatrix {
      * @since 2.0
      */
     public Iterator<TSwitchingMatrixEntry> getEntriesIterator() {
-        return this.switchingMatrix.iterator();
+        return new TIndexedEntriesIterator(this.switchingMatrix.iterator());
+    }
+
+    /**
+     * This method returns an iterator over the switching entries that use any
+     * of the specified ports as incoming, outgoing or backup outgoing port.
+     * Each entry is returned only once even if it uses several of the
+     * specified ports. As it happens with getEntriesIterator(), the caller is
+     * responsible for holding the semaphore of the switching matrix while
+     * iterating and the remove() method of the iterator removes the current
+     * entry from the switching matrix.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param portIDs the ports whose switching entries are wanted.
+     * TSwitchingMatrixEntry.UNDEFINED can be used to obtain those entries
+     * whose incoming or outgoing port is undefined.
+     * @return the iterator over the switching entries that use any of the
+     * specified ports.
+     * @since 2.3
+     */
+    public Iterator<TSwitchingMatrixEntry> getEntriesIterator(int[] portIDs) {
+        LinkedHashSet<TSwitchingMatrixEntry> selectedEntries = new LinkedHashSet<>();
+        synchronized (this.entriesByPort) {
+            for (int portID : portIDs) {
+                LinkedHashSet<TSwitchingMatrixEntry> entriesOfPort = this.entriesByPort.get(portID);
+                if (entriesOfPort != null) {
+                    selectedEntries.addAll(entriesOfPort);
+                }
+            }
+        }
+        return new TPortEntriesIterator(selectedEntries.iterator());
+    }
+
+    /**
+     * This method checks whether there is any switching entry using the
+     * specified port as incoming, outgoing or backup outgoing port.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param portID the port to be checked. TSwitchingMatrixEntry.UNDEFINED
+     * can be used to check whether there are entries whose incoming or
+     * outgoing port is undefined.
+     * @return TRUE, if at least one switching entry uses the specified port.
+     * Otherwise, FALSE.
+     * @since 2.3
+     */
+    public boolean hasEntriesUsingPort(int portID) {
+        synchronized (this.entriesByPort) {
+            return this.entriesByPort.containsKey(portID);
+        }
+    }
+
+    /**
+     * This method updates the per-port index of the switching matrix after a
+     * port of the specified entry has been changed. It is invoked by the entry
+     * itself.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param switchingMatrixEntry the entry whose port has been changed.
+     * @param previousPortID the value of the port before being changed.
+     * @since 2.3
+     */
+    void updatePortIndex(TSwitchingMatrixEntry switchingMatrixEntry, int previousPortID) {
+        synchronized (this.entriesByPort) {
+            if (!switchingMatrixEntry.usesPort(previousPortID)) {
+                removeFromPortIndex(switchingMatrixEntry, previousPortID);
+            }
+            addToPortIndex(switchingMatrixEntry);
+        }
+    }
+
+    private void addToPortIndex(TSwitchingMatrixEntry switchingMatrixEntry) {
+        synchronized (this.entriesByPort) {
+            addToPortIndex(switchingMatrixEntry, switchingMatrixEntry.getIncomingPortID());
+            addToPortIndex(switchingMatrixEntry, switchingMatrixEntry.getOutgoingPortID());
+            if (switchingMatrixEntry.getBackupOutgoingPortID() != TSwitchingMatrixEntry.UNDEFINED) {
+                addToPortIndex(switchingMatrixEntry, switchingMatrixEntry.getBackupOutgoingPortID());
+            }
+        }
+    }
+
+    private void addToPortIndex(TSwitchingMatrixEntry switchingMatrixEntry, int portID) {
+        LinkedHashSet<TSwitchingMatrixEntry> entriesOfPort = this.entriesByPort.get(portID);
+        if (entriesOfPort == null) {
+            entriesOfPort = new LinkedHashSet<>();
+            this.entriesByPort.put(portID, entriesOfPort);
+        }
+        entriesOfPort.add(switchingMatrixEntry);
+    }
+
+    private void removeFromPortIndex(TSwitchingMatrixEntry switchingMatrixEntry) {
+        synchronized (this.entriesByPort) {
+            switchingMatrixEntry.setParentSwitchingMatrix(null);
+            removeFromPortIndex(switchingMatrixEntry, switchingMatrixEntry.getIncomingPortID());
+            removeFromPortIndex(switchingMatrixEntry, switchingMatrixEntry.getOutgoingPortID());
+            removeFromPortIndex(switchingMatrixEntry, switchingMatrixEntry.getBackupOutgoingPortID());
+        }
+    }
+
+    private void removeFromPortIndex(TSwitchingMatrixEntry switchingMatrixEntry, int portID) {
+        LinkedHashSet<TSwitchingMatrixEntry> entriesOfPort = this.entriesByPort.get(portID);
+        if (entriesOfPort != null) {
+            entriesOfPort.remove(switchingMatrixEntry);
+            if (entriesOfPort.isEmpty()) {
+                this.entriesByPort.remove(portID);
+            }
+        }
+    }
+
+    /**
+     * This inner class wraps the iterator of the switching matrix so that
+     * entries removed through it are also removed from the per-port index.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @version 2.3
+     */
+    private class TIndexedEntriesIterator implements Iterator<TSwitchingMatrixEntry> {
+
+        TIndexedEntriesIterator(Iterator<TSwitchingMatrixEntry> iterator) {
+            this.iterator = iterator;
+            this.currentEntry = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.iterator.hasNext();
+        }
+
+        @Override
+        public TSwitchingMatrixEntry next() {
+            this.currentEntry = this.iterator.next();
+            return this.currentEntry;
+        }
+
+        @Override
+        public void remove() {
+            this.iterator.remove();
+            if (this.currentEntry != null) {
+                removeFromPortIndex(this.currentEntry);
+            }
+        }
+
+        private final Iterator<TSwitchingMatrixEntry> iterator;
+        private TSwitchingMatrixEntry currentEntry;
+    }
+
+    /**
+     * This inner class iterates over a selection of switching entries obtained
+     * from the per-port index. Removing an entry through it removes the entry
+     * from the switching matrix and from the per-port index.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @version 2.3
+     */
+    private class TPortEntriesIterator implements Iterator<TSwitchingMatrixEntry> {
+
+        TPortEntriesIterator(Iterator<TSwitchingMatrixEntry> iterator) {
+            this.iterator = iterator;
+            this.currentEntry = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.iterator.hasNext();
+        }
+
+        @Override
+        public TSwitchingMatrixEntry next() {
+            this.currentEntry = this.iterator.next();
+            return this.currentEntry;
+        }
+
+        @Override
+        public void remove() {
+            if (this.currentEntry != null) {
+                switchingMatrix.remove(this.currentEntry);
+                removeFromPortIndex(this.currentEntry);
+                this.currentEntry = null;
+            }
+        }
+
+        private final Iterator<TSwitchingMatrixEntry> iterator;
+        private TSwitchingMatrixEntry currentEntry;
     }
 
     /**
@@ -441,12 +629,16 @@ public class TSwitchingMatrix {
         this.semaphore.setRed();
         Iterator<TSwitchingMatrixEntry> iterator = this.switchingMatrix.iterator();
         while (iterator.hasNext()) {
-            iterator.next();
+            iterator.next().setParentSwitchingMatrix(null);
             iterator.remove();
         }
+        synchronized (this.entriesByPort) {
+            this.entriesByPort.clear();
+        }
         this.semaphore.setGreen();
     }
 
     private LinkedList<TSwitchingMatrixEntry> switchingMatrix;
+    private final HashMap<Integer, LinkedHashSet<TSwitchingMatrixEntry>> entriesByPort;
     private TSemaphore semaphore;
 }
@@ -46,6 +46,7 @@ public class TSwitchingMatrixEntry {
         this.timeout = TSwitchingMatrixEntry.TIMEOUT;
         this.labelRequestAttempts = TSwitchingMatrixEntry.LABEL_REQUEST_ATTEMPTS;
         this.isRequestForBackupLSP = false;
+        this.parentSwitchingMatrix = null;
     }
 
     /**
@@ -249,7 +250,9 @@ public class TSwitchingMatrixEntry {
      * @since 2.0
      */
     public void setIncomingPortID(int incomingPortID) {
+        int previousPortID = this.incomingPortID;
         this.incomingPortID = incomingPortID;
+        updatePortIndex(previousPortID);
     }
 
     /**
@@ -293,7 +296,9 @@ public class TSwitchingMatrixEntry {
      * @since 2.0
      */
     public void setOutgoingPortID(int outgoingPortID) {
+        int previousPortID = this.outgoingPortID;
         this.outgoingPortID = outgoingPortID;
+        updatePortIndex(previousPortID);
     }
 
     /**
@@ -305,7 +310,9 @@ public class TSwitchingMatrixEntry {
      * @since 2.0
      */
     public void setBackupOutgoingPortID(int backupOutgoingPortID) {
+        int previousPortID = this.backupOutgoingPortID;
         this.backupOutgoingPortID = backupOutgoingPortID;
+        updatePortIndex(previousPortID);
     }
 
     /**
@@ -339,12 +346,55 @@ public class TSwitchingMatrixEntry {
      * @since 2.0
      */
     public void switchToBackupLSP() {
+        int previousOutgoingPortID = this.outgoingPortID;
+        int previousBackupOutgoingPortID = this.backupOutgoingPortID;
         this.outgoingPortID = this.backupOutgoingPortID;
         this.label = this.backupLabel;
         this.backupOutgoingPortID = TSwitchingMatrixEntry.UNDEFINED;
         this.backupLabel = TSwitchingMatrixEntry.UNDEFINED;
         //FIX: Avoid using harcoded values. Use class constant instead.
         this.isRequestForBackupLSP = false;
+        updatePortIndex(previousOutgoingPortID);
+        updatePortIndex(previousBackupOutgoingPortID);
+    }
+
+    /**
+     * This method checks whether this entry uses the specified port as
+     * incoming port, outgoing port or backup outgoing port. An undefined backup
+     * outgoing port is not taken into account because most entries do not
+     * have a backup LSP.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param portID the port to be checked.
+     * @return TRUE, if any of the ports of this entry is the specified one.
+     * Otherwise, FALSE.
+     * @since 2.3
+     */
+    public boolean usesPort(int portID) {
+        if ((this.incomingPortID == portID) || (this.outgoingPortID == portID)) {
+            return true;
+        }
+        return (this.backupOutgoingPortID != UNDEFINED) && (this.backupOutgoingPortID == portID);
+    }
+
+    /**
+     * This method sets the switching matrix this entry has been added to, so
+     * that the per-port index of that switching matrix can be kept up to date
+     * when the ports of this entry change.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param parentSwitchingMatrix the switching matrix that contains this
+     * entry, or NULL if this entry has been removed from it.
+     * @since 2.3
+     */
+    void setParentSwitchingMatrix(TSwitchingMatrix parentSwitchingMatrix) {
+        this.parentSwitchingMatrix = parentSwitchingMatrix;
+    }
+
+    private void updatePortIndex(int previousPortID) {
+        if (this.parentSwitchingMatrix != null) {
+            this.parentSwitchingMatrix.updatePortIndex(this, previousPortID);
+        }
     }
 
     /**
@@ -599,4 +649,5 @@ public class TSwitchingMatrixEntry {
     private boolean isRequestForBackupLSP;
     private int timeout;
     private int labelRequestAttempts;
+    private TSwitchingMatrix parentSwitchingMatrix;
 }
@@ -0,0 +1,121 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * This class implements a Java Flight Recorder event that records that an
+ * active node has requested the retransmission of a lost packet through
+ * GPSRP.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+@Name("com.manolodominguez.opensimmpls.GPSRPRequest")
+@Label("GPSRP Retransmission Request")
+@Category({"OpenSimMPLS", "GPSRP"})
+@Description("An active node has requested the retransmission of a lost "
+        + "packet through GPSRP.")
+@StackTrace(false)
+public class TGPSRPRequestEvent extends Event {
+
+    /**
+     * This method sets the identifier of the node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param nodeID the identifier of the node.
+     * @since 2.3
+     */
+    public void setNodeID(int nodeID) {
+        this.nodeID = nodeID;
+    }
+
+    /**
+     * This method sets the name of the node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param nodeName the name of the node.
+     * @since 2.3
+     */
+    public void setNodeName(String nodeName) {
+        this.nodeName = nodeName;
+    }
+
+    /**
+     * This method sets the global identifier of the flow of the lost packet.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param flowID the global identifier of the flow of the lost packet.
+     * @since 2.3
+     */
+    public void setFlowID(int flowID) {
+        this.flowID = flowID;
+    }
+
+    /**
+     * This method sets the global identifier of the lost packet.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packetID the global identifier of the lost packet.
+     * @since 2.3
+     */
+    public void setPacketID(int packetID) {
+        this.packetID = packetID;
+    }
+
+    /**
+     * This method sets the IPv4 address of the node the retransmission is
+     * requested to.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param targetIPv4Address the IPv4 address of the node the retransmission
+     * is requested to.
+     * @since 2.3
+     */
+    public void setTargetIPv4Address(String targetIPv4Address) {
+        this.targetIPv4Address = targetIPv4Address;
+    }
+
+    /**
+     * This method sets the port the request is sent through.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param outgoingPortID the port the request is sent through.
+     * @since 2.3
+     */
+    public void setOutgoingPortID(int outgoingPortID) {
+        this.outgoingPortID = outgoingPortID;
+    }
+
+    @Label("Node ID")
+    private int nodeID;
+    @Label("Node Name")
+    private String nodeName;
+    @Label("Flow ID")
+    private int flowID;
+    @Label("Packet ID")
+    private int packetID;
+    @Label("Target IPv4 Address")
+    private String targetIPv4Address;
+    @Label("Outgoing Port ID")
+    private int outgoingPortID;
+}
@@ -0,0 +1,78 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * This class implements a Java Flight Recorder event that records that an LSP
+ * established by TLDP has started using an internal link.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+@Name("com.manolodominguez.opensimmpls.LSPEstablished")
+@Label("LSP Established")
+@Category({"OpenSimMPLS", "TLDP"})
+@Description("An LSP established by TLDP has started using an internal link.")
+@StackTrace(false)
+public class TLSPEstablishedEvent extends Event {
+
+    /**
+     * This method sets the identifier of the link.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param linkID the identifier of the link.
+     * @since 2.3
+     */
+    public void setLinkID(int linkID) {
+        this.linkID = linkID;
+    }
+
+    /**
+     * This method sets the name of the link.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param linkName the name of the link.
+     * @since 2.3
+     */
+    public void setLinkName(String linkName) {
+        this.linkName = linkName;
+    }
+
+    /**
+     * This method sets the number of LSPs using the link after the change.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param numberOfLSPs the number of LSPs using the link after the change.
+     * @since 2.3
+     */
+    public void setNumberOfLSPs(int numberOfLSPs) {
+        this.numberOfLSPs = numberOfLSPs;
+    }
+
+    @Label("Link ID")
+    private int linkID;
+    @Label("Link Name")
+    private String linkName;
+    @Label("LSPs Using The Link")
+    private int numberOfLSPs;
+}
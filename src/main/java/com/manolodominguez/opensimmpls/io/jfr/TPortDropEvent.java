@@ -0,0 +1,106 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * This class implements a Java Flight Recorder event that records that a port
+ * has dropped a packet because it could not be queued.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+@Name("com.manolodominguez.opensimmpls.PortDrop")
+@Label("Port Drop")
+@Category({"OpenSimMPLS", "Ports"})
+@Description("A port has dropped a packet because it could not be queued.")
+@StackTrace(false)
+public class TPortDropEvent extends Event {
+
+    /**
+     * This method sets the identifier of the node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param nodeID the identifier of the node.
+     * @since 2.3
+     */
+    public void setNodeID(int nodeID) {
+        this.nodeID = nodeID;
+    }
+
+    /**
+     * This method sets the name of the node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param nodeName the name of the node.
+     * @since 2.3
+     */
+    public void setNodeName(String nodeName) {
+        this.nodeName = nodeName;
+    }
+
+    /**
+     * This method sets the identifier of the port.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param portID the identifier of the port.
+     * @since 2.3
+     */
+    public void setPortID(int portID) {
+        this.portID = portID;
+    }
+
+    /**
+     * This method sets the type of the packet, as defined in TAbstractPDU.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packetType the type of the packet, as defined in TAbstractPDU.
+     * @since 2.3
+     */
+    public void setPacketType(int packetType) {
+        this.packetType = packetType;
+    }
+
+    /**
+     * This method sets the size of the packet, in octets.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packetSize the size of the packet, in octets.
+     * @since 2.3
+     */
+    public void setPacketSize(int packetSize) {
+        this.packetSize = packetSize;
+    }
+
+    @Label("Node ID")
+    private int nodeID;
+    @Label("Node Name")
+    private String nodeName;
+    @Label("Port ID")
+    private int portID;
+    @Label("Packet Type")
+    private int packetType;
+    @Label("Packet Size")
+    @DataAmount
+    private int packetSize;
+}
@@ -0,0 +1,106 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This class implements a Java Flight Recorder event that records the
+ * computation of the next hop towards a node by one of the routing algorithms
+ * of the topology, Floyd-Warshall or RABAN.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+@Name("com.manolodominguez.opensimmpls.RouteComputation")
+@Label("Route Computation")
+@Category({"OpenSimMPLS", "Routing"})
+@Description("A computation of the next hop towards a node by a routing "
+        + "algorithm of the topology.")
+public class TRouteComputationEvent extends Event {
+
+    /**
+     * This method sets the name of the routing algorithm.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param algorithm the name of the routing algorithm.
+     * @since 2.3
+     */
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * This method sets the identifier of the origin node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param originNodeID the identifier of the origin node.
+     * @since 2.3
+     */
+    public void setOriginNodeID(int originNodeID) {
+        this.originNodeID = originNodeID;
+    }
+
+    /**
+     * This method sets the identifier of the target node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param targetNodeID the identifier of the target node.
+     * @since 2.3
+     */
+    public void setTargetNodeID(int targetNodeID) {
+        this.targetNodeID = targetNodeID;
+    }
+
+    /**
+     * This method sets the identifier of the next hop node, or
+     * TTopology.TARGET_UNREACHABLE.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param nextHopNodeID the identifier of the next hop node, or
+     * TTopology.TARGET_UNREACHABLE.
+     * @since 2.3
+     */
+    public void setNextHopNodeID(int nextHopNodeID) {
+        this.nextHopNodeID = nextHopNodeID;
+    }
+
+    /**
+     * This method sets the number of nodes of the topology.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param nodes the number of nodes of the topology.
+     * @since 2.3
+     */
+    public void setNodes(int nodes) {
+        this.nodes = nodes;
+    }
+
+    @Label("Algorithm")
+    private String algorithm;
+    @Label("Origin Node ID")
+    private int originNodeID;
+    @Label("Target Node ID")
+    private int targetNodeID;
+    @Label("Next Hop Node ID")
+    private int nextHopNodeID;
+    @Label("Nodes")
+    private int nodes;
+}
@@ -0,0 +1,82 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This class implements a Java Flight Recorder event that records a tick of
+ * the simulation, from the moment the timer sends timer events to nodes and
+ * links until all of them have consumed them. It allows relating what the JVM
+ * does (garbage collections, waits on the monitors of TSemaphore, which are
+ * recorded as jdk.JavaMonitorWait events) to the ticks of the simulation.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+@Name("com.manolodominguez.opensimmpls.Tick")
+@Label("Tick")
+@Category({"OpenSimMPLS", "Timer"})
+@Description("A tick of the simulation, from the moment timer events are "
+        + "sent to nodes and links until all of them have consumed them.")
+public class TTickEvent extends Event {
+
+    /**
+     * This method sets the time instant (in simulation terms) in which the
+     * tick finishes.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param timeInstant the time instant (in simulation terms) in which the
+     * tick finishes.
+     * @since 2.3
+     */
+    public void setTimeInstant(long timeInstant) {
+        this.timeInstant = timeInstant;
+    }
+
+    /**
+     * This method sets the number of nodes that receive timer events.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param nodes the number of nodes that receive timer events.
+     * @since 2.3
+     */
+    public void setNodes(int nodes) {
+        this.nodes = nodes;
+    }
+
+    /**
+     * This method sets the number of links that receive timer events.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param links the number of links that receive timer events.
+     * @since 2.3
+     */
+    public void setLinks(int links) {
+        this.links = links;
+    }
+
+    @Label("Time Instant")
+    private long timeInstant;
+    @Label("Nodes")
+    private int nodes;
+    @Label("Links")
+    private int links;
+}
@@ -0,0 +1,180 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.metrics;
+
+import java.util.List;
+import javax.management.MXBean;
+
+/**
+ * This interface defines the attributes and operations of the simulator
+ * metrics that are exposed as a JMX MXBean, so that they can be watched with
+ * any JMX console (as JConsole or VisualVM) while a scenario is being
+ * simulated. Times are wall times measured on the host, not simulation times.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+@MXBean
+public interface ISimulatorMetrics {
+
+    /**
+     * This method gets the title of the scenario whose simulation is
+     * measured.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the title of the scenario.
+     * @since 2.3
+     */
+    public String getScenarioTitle();
+
+    /**
+     * This method gets the number of ticks simulated since the counters were
+     * reset.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of ticks simulated.
+     * @since 2.3
+     */
+    public long getTicks();
+
+    /**
+     * This method gets the wall time spent simulating the latest tick.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the wall time of the latest tick, in nanoseconds.
+     * @since 2.3
+     */
+    public long getLastTickWallTimeInNs();
+
+    /**
+     * This method gets the mean wall time spent simulating a tick since the
+     * counters were reset.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the mean wall time of a tick, in nanoseconds.
+     * @since 2.3
+     */
+    public long getMeanTickWallTimeInNs();
+
+    /**
+     * This method gets the highest wall time spent simulating a tick since the
+     * counters were reset.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the highest wall time of a tick, in nanoseconds.
+     * @since 2.3
+     */
+    public long getMaxTickWallTimeInNs();
+
+    /**
+     * This method gets the number of ticks simulated per second of wall time,
+     * measured over the latest second of simulation.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of ticks per second.
+     * @since 2.3
+     */
+    public double getTicksPerSecond();
+
+    /**
+     * This method gets the number of threads started on the latest tick, one
+     * per node and per link.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of threads started on the latest tick.
+     * @since 2.3
+     */
+    public int getElementThreadsPerTick();
+
+    /**
+     * This method gets the fraction of the available processors that the
+     * threads of nodes and links kept busy during the latest tick.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the utilization of the processors by the element threads, from
+     * 0 to 1.
+     * @since 2.3
+     */
+    public double getElementThreadsUtilization();
+
+    /**
+     * This method gets the number of next hops computed by the routing
+     * algorithms of the topology since it was created.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of route computations.
+     * @since 2.3
+     */
+    public long getRouteComputations();
+
+    /**
+     * This method gets the mean wall time spent computing a next hop since the
+     * topology was created.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the mean wall time of a route computation, in nanoseconds.
+     * @since 2.3
+     */
+    public long getMeanRouteComputationTimeInNs();
+
+    /**
+     * This method gets the number of simulation events waiting to be
+     * delivered to their consumers.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of simulation events waiting to be delivered.
+     * @since 2.3
+     */
+    public int getPendingSimulationEvents();
+
+    /**
+     * This method gets the number of simulation events that can wait to be
+     * delivered before the simulation has to wait for their consumers.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the capacity of the buffer of simulation events.
+     * @since 2.3
+     */
+    public int getPendingSimulationEventsCapacity();
+
+    /**
+     * This method gets the number of simulation events delivered to their
+     * consumers, PACKET_ON_FLY events aside, since the simulation started.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of simulation events delivered.
+     * @since 2.3
+     */
+    public long getDeliveredSimulationEvents();
+
+    /**
+     * This method gets the metrics of every node of the topology, as they are
+     * at the moment of the call.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the metrics of every node.
+     * @since 2.3
+     */
+    public List<TNodeMetrics> getNodes();
+
+    /**
+     * This method sets the counters of ticks to zero.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public void resetCounters();
+}
@@ -0,0 +1,157 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.metrics;
+
+/**
+ * This class implements a snapshot of the metrics of a node, as exposed
+ * through JMX by the simulator metrics. Instances are immutable.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public class TNodeMetrics {
+
+    /**
+     * This is the constructor of the class. It creates a new snapshot of the
+     * metrics of a node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param nodeID the identifier of the node.
+     * @param name the name of the node.
+     * @param nodeType the type of the node, as defined in TNode.
+     * @param lastProcessingTimeInNs the wall time the node spent on the latest
+     * tick, in nanoseconds.
+     * @param processingTimeInNs the wall time the node has spent on all ticks,
+     * in nanoseconds.
+     * @param portsOccupancyInOctets the octets waiting in the ports of the
+     * node.
+     * @param congestionLevel the congestion level of the ports of the node, as
+     * a percentage.
+     * @param switchingMatrixEntries the number of entries of the switching
+     * matrix of the node, or 0 if the node does not have one.
+     * @since 2.3
+     */
+    public TNodeMetrics(int nodeID, String name, int nodeType, long lastProcessingTimeInNs, long processingTimeInNs, long portsOccupancyInOctets, long congestionLevel, int switchingMatrixEntries) {
+        this.nodeID = nodeID;
+        this.name = name;
+        this.nodeType = nodeType;
+        this.lastProcessingTimeInNs = lastProcessingTimeInNs;
+        this.processingTimeInNs = processingTimeInNs;
+        this.portsOccupancyInOctets = portsOccupancyInOctets;
+        this.congestionLevel = congestionLevel;
+        this.switchingMatrixEntries = switchingMatrixEntries;
+    }
+
+    /**
+     * This method gets the identifier of the node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the identifier of the node.
+     * @since 2.3
+     */
+    public int getNodeID() {
+        return this.nodeID;
+    }
+
+    /**
+     * This method gets the name of the node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the name of the node.
+     * @since 2.3
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * This method gets the type of the node, as defined in TNode.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the type of the node.
+     * @since 2.3
+     */
+    public int getNodeType() {
+        return this.nodeType;
+    }
+
+    /**
+     * This method gets the wall time the node spent on the latest tick.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the wall time of the latest tick, in nanoseconds.
+     * @since 2.3
+     */
+    public long getLastProcessingTimeInNs() {
+        return this.lastProcessingTimeInNs;
+    }
+
+    /**
+     * This method gets the wall time the node has spent on all ticks since it
+     * was created.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the wall time of all ticks, in nanoseconds.
+     * @since 2.3
+     */
+    public long getProcessingTimeInNs() {
+        return this.processingTimeInNs;
+    }
+
+    /**
+     * This method gets the octets waiting in the ports of the node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the occupancy of the ports of the node, in octets.
+     * @since 2.3
+     */
+    public long getPortsOccupancyInOctets() {
+        return this.portsOccupancyInOctets;
+    }
+
+    /**
+     * This method gets the congestion level of the ports of the node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the congestion level, as a percentage.
+     * @since 2.3
+     */
+    public long getCongestionLevel() {
+        return this.congestionLevel;
+    }
+
+    /**
+     * This method gets the number of entries of the switching matrix of the
+     * node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of entries of the switching matrix, or 0 if the node
+     * does not have one.
+     * @since 2.3
+     */
+    public int getSwitchingMatrixEntries() {
+        return this.switchingMatrixEntries;
+    }
+
+    private final int nodeID;
+    private final String name;
+    private final int nodeType;
+    private final long lastProcessingTimeInNs;
+    private final long processingTimeInNs;
+    private final long portsOccupancyInOctets;
+    private final long congestionLevel;
+    private final int switchingMatrixEntries;
+}
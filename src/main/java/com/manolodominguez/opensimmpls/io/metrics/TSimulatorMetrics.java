@@ -0,0 +1,488 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.metrics;
+
+import com.manolodominguez.opensimmpls.hardware.timer.ITickCompletionListener;
+import com.manolodominguez.opensimmpls.hardware.timer.TTimer;
+import com.manolodominguez.opensimmpls.hardware.tldp.TSwitchingMatrix;
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import com.manolodominguez.opensimmpls.scenario.TActiveLERNode;
+import com.manolodominguez.opensimmpls.scenario.TActiveLSRNode;
+import com.manolodominguez.opensimmpls.scenario.TLERNode;
+import com.manolodominguez.opensimmpls.scenario.TLSRNode;
+import com.manolodominguez.opensimmpls.scenario.TLink;
+import com.manolodominguez.opensimmpls.scenario.TNode;
+import com.manolodominguez.opensimmpls.scenario.TScenario;
+import com.manolodominguez.opensimmpls.scenario.TTopology;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventCounter;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventListener;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements a registry of metrics of the simulator internals for
+ * a scenario, exposed through JMX as an MXBean of the platform MBean server.
+ * Subscribed to the timer of the topology, after each tick it reads the wall
+ * time of the tick and of the thread of each node and link, measured by the
+ * timer and by the topology elements themselves, so the cost while simulating
+ * is a pass over the elements per tick. Everything else (port occupancies,
+ * switching matrices, routing and simulation events) is read only when a JMX
+ * client asks for it.
+ *
+ * Routes are not cached by the topology, so instead of a hit rate the number
+ * of route computations and their mean time are exposed: every one of them is
+ * a full run of the routing algorithm.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public class TSimulatorMetrics implements ISimulatorMetrics, ITickCompletionListener {
+
+    /**
+     * This is the constructor of the class. It creates a new registry of the
+     * metrics of the specified scenario. It has to be registered to be
+     * visible through JMX and updated while simulating.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param scenario the scenario whose simulation is measured.
+     * @throws IllegalArgumentException if the scenario is null.
+     * @since 2.3
+     */
+    public TSimulatorMetrics(TScenario scenario) {
+        this.translations = ResourceBundle.getBundle(AvailableBundles.T_SIMULATOR_METRICS.getPath());
+        if (scenario == null) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        this.scenario = scenario;
+        this.topology = scenario.getTopology();
+        this.timer = this.topology.getTimer();
+        this.simulationEventListener = scenario.getSimulation().getSimulationEventListener();
+        this.simulationEventCounter = scenario.getSimulation().getSimulationEventCounter();
+        this.availableProcessors = Runtime.getRuntime().availableProcessors();
+        this.objectName = null;
+        resetCounters();
+    }
+
+    /**
+     * This method registers this registry in the platform MBean server and
+     * subscribes it to the timer of the topology. If it cannot be registered,
+     * the error is logged and the simulation is not affected.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public synchronized void register() {
+        if (this.objectName != null) {
+            return;
+        }
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME_PREFIX + NEXT_INSTANCE_NUMBER.getAndIncrement());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            this.objectName = name;
+            this.timer.addTickCompletionListener(this);
+        } catch (JMException e) {
+            this.logger.error(this.translations.getString("registrationError"), e);
+        }
+    }
+
+    /**
+     * This method unsubscribes this registry from the timer of the topology
+     * and unregisters it from the platform MBean server.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public synchronized void unregister() {
+        if (this.objectName == null) {
+            return;
+        }
+        this.timer.removeTickCompletionListener(this);
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.objectName);
+        } catch (JMException e) {
+            this.logger.error(this.translations.getString("registrationError"), e);
+        }
+        this.objectName = null;
+    }
+
+    /**
+     * This method gets the name this registry has been registered with in the
+     * platform MBean server.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the name of the registry, or null if it is not registered.
+     * @since 2.3
+     */
+    public synchronized ObjectName getObjectName() {
+        return this.objectName;
+    }
+
+    /**
+     * This method updates the metrics of ticks with the tick that has just
+     * finished.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param timeInstant the time instant (in simulation terms) in which the
+     * tick has finished.
+     * @since 2.3
+     */
+    @Override
+    public synchronized void tickCompleted(long timeInstant) {
+        long tickWallTimeInNs = this.timer.getLastTickWallTimeInNs();
+        long busyTimeInNs = ZERO;
+        int elementThreads = ZERO;
+        Iterator<TNode> nodesIterator = this.topology.getNodesIterator();
+        while (nodesIterator.hasNext()) {
+            busyTimeInNs += nodesIterator.next().getLastProcessingTimeInNs();
+            elementThreads++;
+        }
+        Iterator<TLink> linksIterator = this.topology.getLinksIterator();
+        while (linksIterator.hasNext()) {
+            busyTimeInNs += linksIterator.next().getLastProcessingTimeInNs();
+            elementThreads++;
+        }
+        this.ticks++;
+        this.lastTickWallTimeInNs = tickWallTimeInNs;
+        this.ticksWallTimeInNs += tickWallTimeInNs;
+        if (tickWallTimeInNs > this.maxTickWallTimeInNs) {
+            this.maxTickWallTimeInNs = tickWallTimeInNs;
+        }
+        this.elementThreadsPerTick = elementThreads;
+        if (tickWallTimeInNs > ZERO) {
+            this.elementThreadsUtilization = (double) busyTimeInNs / ((double) tickWallTimeInNs * this.availableProcessors);
+        }
+        long nowInNs = System.nanoTime();
+        if (this.rateWindowTicks == ZERO) {
+            this.rateWindowStartInNs = nowInNs - tickWallTimeInNs;
+        }
+        this.rateWindowTicks++;
+        if ((nowInNs - this.rateWindowStartInNs) >= RATE_WINDOW_IN_NS) {
+            updateTicksPerSecond(nowInNs);
+        }
+    }
+
+    /**
+     * This method computes the ticks per second of the ticks of the simulation
+     * since the previous time they were computed, when the timer stops.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    @Override
+    public synchronized void timerStopped() {
+        if (this.rateWindowTicks > ZERO) {
+            updateTicksPerSecond(System.nanoTime());
+        }
+    }
+
+    /**
+     * This method computes the ticks per second of the ticks simulated since
+     * the previous time they were computed, and starts a new window of ticks.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param nowInNs the value of System.nanoTime() at the end of the window.
+     * @since 2.3
+     */
+    private void updateTicksPerSecond(long nowInNs) {
+        long windowInNs = nowInNs - this.rateWindowStartInNs;
+        if (windowInNs > ZERO) {
+            this.ticksPerSecond = (this.rateWindowTicks * NS_PER_SECOND) / windowInNs;
+        }
+        this.rateWindowTicks = ZERO;
+    }
+
+    /**
+     * This method gets the title of the scenario whose simulation is
+     * measured.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the title of the scenario.
+     * @since 2.3
+     */
+    @Override
+    public String getScenarioTitle() {
+        return this.scenario.getTitle();
+    }
+
+    /**
+     * This method gets the number of ticks simulated since the counters were
+     * reset.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of ticks simulated.
+     * @since 2.3
+     */
+    @Override
+    public long getTicks() {
+        return this.ticks;
+    }
+
+    /**
+     * This method gets the wall time spent simulating the latest tick.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the wall time of the latest tick, in nanoseconds.
+     * @since 2.3
+     */
+    @Override
+    public long getLastTickWallTimeInNs() {
+        return this.lastTickWallTimeInNs;
+    }
+
+    /**
+     * This method gets the mean wall time spent simulating a tick since the
+     * counters were reset.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the mean wall time of a tick, in nanoseconds.
+     * @since 2.3
+     */
+    @Override
+    public long getMeanTickWallTimeInNs() {
+        long ticksAux = this.ticks;
+        if (ticksAux == ZERO) {
+            return ZERO;
+        }
+        return this.ticksWallTimeInNs / ticksAux;
+    }
+
+    /**
+     * This method gets the highest wall time spent simulating a tick since the
+     * counters were reset.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the highest wall time of a tick, in nanoseconds.
+     * @since 2.3
+     */
+    @Override
+    public long getMaxTickWallTimeInNs() {
+        return this.maxTickWallTimeInNs;
+    }
+
+    /**
+     * This method gets the number of ticks simulated per second of wall time,
+     * measured over the latest second of simulation or, if the timer has
+     * stopped before, since the previous measure.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of ticks per second.
+     * @since 2.3
+     */
+    @Override
+    public double getTicksPerSecond() {
+        return this.ticksPerSecond;
+    }
+
+    /**
+     * This method gets the number of threads started on the latest tick, one
+     * per node and per link.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of threads started on the latest tick.
+     * @since 2.3
+     */
+    @Override
+    public int getElementThreadsPerTick() {
+        return this.elementThreadsPerTick;
+    }
+
+    /**
+     * This method gets the fraction of the available processors that the
+     * threads of nodes and links kept busy during the latest tick, as the sum
+     * of their wall times divided by the wall time of the tick and by the
+     * number of processors.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the utilization of the processors by the element threads, from
+     * 0 to 1.
+     * @since 2.3
+     */
+    @Override
+    public double getElementThreadsUtilization() {
+        return this.elementThreadsUtilization;
+    }
+
+    /**
+     * This method gets the number of next hops computed by the routing
+     * algorithms of the topology since it was created.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of route computations.
+     * @since 2.3
+     */
+    @Override
+    public long getRouteComputations() {
+        return this.topology.getNumberOfRouteComputations();
+    }
+
+    /**
+     * This method gets the mean wall time spent computing a next hop since the
+     * topology was created.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the mean wall time of a route computation, in nanoseconds.
+     * @since 2.3
+     */
+    @Override
+    public long getMeanRouteComputationTimeInNs() {
+        long routeComputations = this.topology.getNumberOfRouteComputations();
+        if (routeComputations == ZERO) {
+            return ZERO;
+        }
+        return this.topology.getRouteComputationsTimeInNs() / routeComputations;
+    }
+
+    /**
+     * This method gets the number of simulation events waiting to be
+     * delivered to their consumers.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of simulation events waiting to be delivered.
+     * @since 2.3
+     */
+    @Override
+    public int getPendingSimulationEvents() {
+        return this.simulationEventListener.getNumberOfPendingEvents();
+    }
+
+    /**
+     * This method gets the number of simulation events that can wait to be
+     * delivered before the simulation has to wait for their consumers.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the capacity of the buffer of simulation events.
+     * @since 2.3
+     */
+    @Override
+    public int getPendingSimulationEventsCapacity() {
+        return this.simulationEventListener.getPendingEventsCapacity();
+    }
+
+    /**
+     * This method gets the number of simulation events delivered to their
+     * consumers, PACKET_ON_FLY events aside, since the simulation started.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of simulation events delivered.
+     * @since 2.3
+     */
+    @Override
+    public long getDeliveredSimulationEvents() {
+        return this.simulationEventCounter.getTotalNumberOfEvents();
+    }
+
+    /**
+     * This method gets the metrics of every node of the topology, as they are
+     * at the moment of the call.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the metrics of every node.
+     * @since 2.3
+     */
+    @Override
+    public List<TNodeMetrics> getNodes() {
+        List<TNodeMetrics> nodesMetrics = new ArrayList<>();
+        Iterator<TNode> nodesIterator = this.topology.getNodesIterator();
+        while (nodesIterator.hasNext()) {
+            TNode node = nodesIterator.next();
+            TSwitchingMatrix switchingMatrix = getSwitchingMatrix(node);
+            int switchingMatrixEntries = ZERO;
+            if (switchingMatrix != null) {
+                switchingMatrixEntries = switchingMatrix.getNumberOfEntries();
+            }
+            nodesMetrics.add(new TNodeMetrics(node.getNodeID(), node.getName(), node.getNodeType(), node.getLastProcessingTimeInNs(), node.getProcessingTimeInNs(), node.getPorts().getPortSetOccupancy(), node.getPorts().getCongestionLevel(), switchingMatrixEntries));
+        }
+        return nodesMetrics;
+    }
+
+    /**
+     * This method gets the switching matrix of the specified node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param node the node.
+     * @return the switching matrix of the node, or null if the node does not
+     * have one.
+     * @since 2.3
+     */
+    private TSwitchingMatrix getSwitchingMatrix(TNode node) {
+        switch (node.getNodeType()) {
+            case TNode.LER:
+                return ((TLERNode) node).getSwitchingMatrix();
+            case TNode.ACTIVE_LER:
+                return ((TActiveLERNode) node).getSwitchingMatrix();
+            case TNode.LSR:
+                return ((TLSRNode) node).getSwitchingMatrix();
+            case TNode.ACTIVE_LSR:
+                return ((TActiveLSRNode) node).getSwitchingMatrix();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * This method sets the counters of ticks to zero, as when the registry
+     * was created.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    @Override
+    public final synchronized void resetCounters() {
+        this.ticks = ZERO;
+        this.lastTickWallTimeInNs = ZERO;
+        this.ticksWallTimeInNs = ZERO;
+        this.maxTickWallTimeInNs = ZERO;
+        this.ticksPerSecond = ZERO;
+        this.elementThreadsPerTick = ZERO;
+        this.elementThreadsUtilization = ZERO;
+        this.rateWindowStartInNs = ZERO;
+        this.rateWindowTicks = ZERO;
+    }
+
+    private final TScenario scenario;
+    private final TTopology topology;
+    private final TTimer timer;
+    private final TSimulationEventListener simulationEventListener;
+    private final TSimulationEventCounter simulationEventCounter;
+    private final int availableProcessors;
+    private ObjectName objectName;
+    private volatile long ticks;
+    private volatile long lastTickWallTimeInNs;
+    private volatile long ticksWallTimeInNs;
+    private volatile long maxTickWallTimeInNs;
+    private volatile double ticksPerSecond;
+    private volatile int elementThreadsPerTick;
+    private volatile double elementThreadsUtilization;
+    private long rateWindowStartInNs;
+    private long rateWindowTicks;
+    private final ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(TSimulatorMetrics.class);
+
+    private static final AtomicInteger NEXT_INSTANCE_NUMBER = new AtomicInteger(1);
+    private static final String OBJECT_NAME_PREFIX = "com.manolodominguez.opensimmpls:type=Simulator,id=";
+    private static final int ZERO = 0;
+    private static final long RATE_WINDOW_IN_NS = 1000000000L;
+    private static final double NS_PER_SECOND = 1000000000.0;
+}
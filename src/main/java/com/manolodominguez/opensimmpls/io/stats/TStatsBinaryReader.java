@@ -0,0 +1,247 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.stats;
+
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import com.manolodominguez.opensimmpls.scenario.TStatsTimeSeries;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ResourceBundle;
+
+/**
+ * This class implements a reader of the binary columnar files written by
+ * TStatsBinaryWriter. Only the index is read when the file is opened; the
+ * points of a series are read when requested, chunk by chunk.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public class TStatsBinaryReader implements Closeable {
+
+    /**
+     * This is the constructor of the class. It opens the specified file and
+     * reads its index.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param file the file to be read.
+     * @throws IOException if the file cannot be read or it is not a file
+     * written by TStatsBinaryWriter.
+     * @throws IllegalArgumentException if the file is null.
+     * @since 2.3
+     */
+    public TStatsBinaryReader(File file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException();
+        }
+        this.translations = ResourceBundle.getBundle(AvailableBundles.T_STATS_EXPORTER.getPath());
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            long size = this.channel.size();
+            if (size < HEADER_SIZE + TRAILER_SIZE) {
+                throw new IOException(this.translations.getString("badFormat"));
+            }
+            ByteBuffer header = read(ZERO, HEADER_SIZE);
+            if ((header.getInt() != TStatsBinaryWriter.MAGIC_NUMBER) || (header.getInt() != TStatsBinaryWriter.VERSION)) {
+                throw new IOException(this.translations.getString("badFormat"));
+            }
+            ByteBuffer trailer = read(size - TRAILER_SIZE, TRAILER_SIZE);
+            long indexPosition = trailer.getLong();
+            if ((trailer.getInt() != TStatsBinaryWriter.MAGIC_NUMBER) || (indexPosition < HEADER_SIZE) || (indexPosition > size - TRAILER_SIZE)) {
+                throw new IOException(this.translations.getString("badFormat"));
+            }
+            ByteBuffer index = read(indexPosition, (int) (size - TRAILER_SIZE - indexPosition));
+            int numberOfSeries = index.getInt();
+            this.datasetNumbers = new int[numberOfSeries];
+            this.nodeNames = new String[numberOfSeries];
+            this.seriesKeys = new String[numberOfSeries];
+            this.itemCounts = new int[numberOfSeries];
+            for (int seriesID = ZERO; seriesID < numberOfSeries; seriesID++) {
+                this.datasetNumbers[seriesID] = index.getInt();
+                this.nodeNames[seriesID] = getString(index);
+                this.seriesKeys[seriesID] = getString(index);
+            }
+            int numberOfChunks = index.getInt();
+            this.chunkSeriesIDs = new int[numberOfChunks];
+            this.chunkCounts = new int[numberOfChunks];
+            this.chunkPositions = new long[numberOfChunks];
+            for (int chunk = ZERO; chunk < numberOfChunks; chunk++) {
+                this.chunkSeriesIDs[chunk] = index.getInt();
+                this.chunkCounts[chunk] = index.getInt();
+                this.chunkPositions[chunk] = index.getLong();
+                this.itemCounts[this.chunkSeriesIDs[chunk]] += this.chunkCounts[chunk];
+            }
+        } catch (RuntimeException e) {
+            // A truncated or corrupted index.
+            this.channel.close();
+            throw new IOException(this.translations.getString("badFormat"), e);
+        } catch (IOException e) {
+            this.channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * This method gets the number of series stored in the file.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of series.
+     * @since 2.3
+     */
+    public int getNumberOfSeries() {
+        return this.nodeNames.length;
+    }
+
+    /**
+     * This method gets the name of the node the specified series belongs to.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param seriesID the identifier of the series.
+     * @return the name of the node.
+     * @since 2.3
+     */
+    public String getNodeName(int seriesID) {
+        return this.nodeNames[seriesID];
+    }
+
+    /**
+     * This method gets the number of the dataset of the node the specified
+     * series belongs to.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param seriesID the identifier of the series.
+     * @return the number of the dataset, from 1 to 6.
+     * @since 2.3
+     */
+    public int getDatasetNumber(int seriesID) {
+        return this.datasetNumbers[seriesID];
+    }
+
+    /**
+     * This method gets the name of the specified series.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param seriesID the identifier of the series.
+     * @return the name of the series.
+     * @since 2.3
+     */
+    public String getSeriesKey(int seriesID) {
+        return this.seriesKeys[seriesID];
+    }
+
+    /**
+     * This method gets the number of points of the specified series.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param seriesID the identifier of the series.
+     * @return the number of points.
+     * @since 2.3
+     */
+    public int getItemCount(int seriesID) {
+        return this.itemCounts[seriesID];
+    }
+
+    /**
+     * This method reads every point of the specified series into a new time
+     * series.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param seriesID the identifier of the series.
+     * @return a time series with the points of the series.
+     * @throws IOException if the file cannot be read.
+     * @since 2.3
+     */
+    public TStatsTimeSeries readSeries(int seriesID) throws IOException {
+        TStatsTimeSeries timeSeries = new TStatsTimeSeries(this.seriesKeys[seriesID]);
+        for (int chunk = ZERO; chunk < this.chunkSeriesIDs.length; chunk++) {
+            if (this.chunkSeriesIDs[chunk] != seriesID) {
+                continue;
+            }
+            int count = this.chunkCounts[chunk];
+            ByteBuffer points = read(this.chunkPositions[chunk], count * (Long.BYTES + Double.BYTES));
+            for (int i = ZERO; i < count; i++) {
+                timeSeries.add(points.getLong(i * Long.BYTES), points.getDouble((count * Long.BYTES) + (i * Double.BYTES)));
+            }
+        }
+        return timeSeries;
+    }
+
+    /**
+     * This method closes the file.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException if the file cannot be closed.
+     * @since 2.3
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * This method reads the specified region of the file.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param position the position of the first byte of the region.
+     * @param length the number of bytes of the region.
+     * @return a buffer with the bytes of the region, ready to be read.
+     * @throws IOException if the region cannot be read completely.
+     * @since 2.3
+     */
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (this.channel.read(buffer, position + buffer.position()) < ZERO) {
+                throw new IOException(this.translations.getString("badFormat"));
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * This method reads a string written as its length in bytes followed by
+     * its UTF-8 bytes.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param buffer the buffer the string is read from.
+     * @return the string.
+     * @since 2.3
+     */
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private final ResourceBundle translations;
+    private final FileChannel channel;
+    private int[] datasetNumbers;
+    private String[] nodeNames;
+    private String[] seriesKeys;
+    private int[] itemCounts;
+    private int[] chunkSeriesIDs;
+    private int[] chunkCounts;
+    private long[] chunkPositions;
+
+    private static final int ZERO = 0;
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final int TRAILER_SIZE = Long.BYTES + Integer.BYTES;
+}
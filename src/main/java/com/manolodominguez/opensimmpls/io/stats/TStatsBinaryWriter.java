@@ -0,0 +1,314 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.stats;
+
+import com.manolodominguez.opensimmpls.scenario.TStatsTimeSeries;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This class implements a writer that stores time series of statistics in a
+ * compact binary columnar file. Points are buffered per series, up to a
+ * maximum number of points for all of them; then every buffered series is
+ * written as a chunk, that holds the time instants of its points followed by
+ * their values. When the writer is closed, an index is appended with the
+ * description of each series and the position of each chunk, so that a
+ * reader can load a single series without reading the whole file.
+ *
+ * The layout of the file, with every number in big-endian order, is:
+ * <ul>
+ * <li>Header: the int MAGIC_NUMBER and the int VERSION.</li>
+ * <li>Chunks: for each one, its time instants as longs and then its values as
+ * doubles.</li>
+ * <li>Index: the number of series as an int and, for each series, its dataset
+ * number as an int and its node name and key as strings; then the number of
+ * chunks as an int and, for each chunk, the identifier of its series and its
+ * number of points as ints and its position as a long. Strings are written as
+ * an int with their length in bytes followed by their UTF-8 bytes.</li>
+ * <li>Trailer: the position of the index as a long and the int
+ * MAGIC_NUMBER.</li>
+ * </ul>
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public class TStatsBinaryWriter extends TStatsWriter {
+
+    /**
+     * This is the constructor of the class. It creates the specified file and
+     * writes the header, buffering up to DEFAULT_MAX_BUFFERED_POINTS points.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param file the file the statistics will be written to.
+     * @throws IOException if the file cannot be created.
+     * @throws IllegalArgumentException if the file is null.
+     * @since 2.3
+     */
+    public TStatsBinaryWriter(File file) throws IOException {
+        this(file, DEFAULT_MAX_BUFFERED_POINTS);
+    }
+
+    /**
+     * This is the constructor of the class. It creates the specified file and
+     * writes the header.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param file the file the statistics will be written to.
+     * @param maxBufferedPoints the number of points, of all series, that are
+     * buffered before being written as chunks.
+     * @throws IOException if the file cannot be created.
+     * @throws IllegalArgumentException if the file is null or the number of
+     * points is not positive.
+     * @since 2.3
+     */
+    public TStatsBinaryWriter(File file, int maxBufferedPoints) throws IOException {
+        super(file);
+        if (maxBufferedPoints < ONE) {
+            discardFile();
+            throw new IllegalArgumentException();
+        }
+        this.maxBufferedPoints = maxBufferedPoints;
+        this.nodeNames = new ArrayList<>();
+        this.datasetNumbers = new ArrayList<>();
+        this.seriesKeys = new ArrayList<>();
+        this.bufferedTimeInstants = new ArrayList<>();
+        this.bufferedValues = new ArrayList<>();
+        this.bufferedCounts = new int[INITIAL_CAPACITY];
+        this.bufferedPoints = ZERO;
+        this.chunkSeriesIDs = new int[INITIAL_CAPACITY];
+        this.chunkCounts = new int[INITIAL_CAPACITY];
+        this.chunkPositions = new long[INITIAL_CAPACITY];
+        this.chunkCount = ZERO;
+        this.closed = false;
+        putInt(MAGIC_NUMBER);
+        putInt(VERSION);
+    }
+
+    /**
+     * This method declares a new series.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param seriesID the identifier of the series, equal to the number of
+     * series declared before.
+     * @param nodeName the name of the node or link the series belongs to.
+     * @param datasetNumber the number of the dataset of the node the series
+     * belongs to, from 1 to 6.
+     * @param seriesKey the name of the series.
+     * @throws IllegalArgumentException if the identifier is not the expected
+     * one.
+     * @since 2.3
+     */
+    @Override
+    public void addSeries(int seriesID, String nodeName, int datasetNumber, String seriesKey) {
+        if (seriesID != this.nodeNames.size()) {
+            throw new IllegalArgumentException();
+        }
+        this.nodeNames.add(nodeName);
+        this.datasetNumbers.add(datasetNumber);
+        this.seriesKeys.add(seriesKey);
+        this.bufferedTimeInstants.add(new long[INITIAL_CAPACITY]);
+        this.bufferedValues.add(new double[INITIAL_CAPACITY]);
+        if (seriesID == this.bufferedCounts.length) {
+            this.bufferedCounts = Arrays.copyOf(this.bufferedCounts, seriesID * TWO);
+        }
+    }
+
+    /**
+     * This method buffers the specified points of a series, and writes every
+     * buffered point if the maximum number of buffered points is reached.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param seriesID the identifier of the series.
+     * @param timeSeries the series the points are taken from.
+     * @param fromIndex the index of the first point to be written.
+     * @param toIndex the index following the last point to be written.
+     * @throws IOException if the points cannot be written.
+     * @since 2.3
+     */
+    @Override
+    public void addPoints(int seriesID, TStatsTimeSeries timeSeries, int fromIndex, int toIndex) throws IOException {
+        long[] timeInstants = this.bufferedTimeInstants.get(seriesID);
+        double[] values = this.bufferedValues.get(seriesID);
+        for (int i = fromIndex; i < toIndex; i++) {
+            int count = this.bufferedCounts[seriesID];
+            if (count == timeInstants.length) {
+                timeInstants = Arrays.copyOf(timeInstants, count * TWO);
+                values = Arrays.copyOf(values, count * TWO);
+                this.bufferedTimeInstants.set(seriesID, timeInstants);
+                this.bufferedValues.set(seriesID, values);
+            }
+            timeInstants[count] = timeSeries.getTimeInstant(i);
+            values[count] = timeSeries.getValue(i);
+            this.bufferedCounts[seriesID] = count + ONE;
+            this.bufferedPoints++;
+            if (this.bufferedPoints >= this.maxBufferedPoints) {
+                writeChunks();
+            }
+        }
+    }
+
+    /**
+     * This method writes every buffered point, as a chunk per series, and
+     * then writes to the file everything that has been added so far.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException if the file cannot be written.
+     * @since 2.3
+     */
+    @Override
+    public void flush() throws IOException {
+        writeChunks();
+        super.flush();
+    }
+
+    /**
+     * This method writes every buffered point, the index and the trailer, and
+     * closes the file.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException if the file cannot be written.
+     * @since 2.3
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            writeChunks();
+            writeIndex();
+        } finally {
+            super.close();
+        }
+    }
+
+    /**
+     * This method closes the file without writing the index nor the trailer.
+     * It is used when the constructor fails after the file has been created,
+     * when the state needed by close() has not been initialized yet.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException if the file cannot be closed.
+     * @since 2.3
+     */
+    private void discardFile() throws IOException {
+        this.closed = true;
+        super.close();
+    }
+
+    /**
+     * This method writes the buffered points of each series as a chunk and
+     * adds the chunks to the index.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException if the file cannot be written.
+     * @since 2.3
+     */
+    private void writeChunks() throws IOException {
+        for (int seriesID = ZERO; seriesID < this.nodeNames.size(); seriesID++) {
+            int count = this.bufferedCounts[seriesID];
+            if (count == ZERO) {
+                continue;
+            }
+            if (this.chunkCount == this.chunkCounts.length) {
+                int newCapacity = this.chunkCount * TWO;
+                this.chunkSeriesIDs = Arrays.copyOf(this.chunkSeriesIDs, newCapacity);
+                this.chunkCounts = Arrays.copyOf(this.chunkCounts, newCapacity);
+                this.chunkPositions = Arrays.copyOf(this.chunkPositions, newCapacity);
+            }
+            this.chunkSeriesIDs[this.chunkCount] = seriesID;
+            this.chunkCounts[this.chunkCount] = count;
+            this.chunkPositions[this.chunkCount] = getPosition();
+            this.chunkCount++;
+            long[] timeInstants = this.bufferedTimeInstants.get(seriesID);
+            double[] values = this.bufferedValues.get(seriesID);
+            for (int i = ZERO; i < count; i++) {
+                putLong(timeInstants[i]);
+            }
+            for (int i = ZERO; i < count; i++) {
+                putDouble(values[i]);
+            }
+            this.bufferedCounts[seriesID] = ZERO;
+        }
+        this.bufferedPoints = ZERO;
+    }
+
+    /**
+     * This method writes the index and the trailer of the file.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException if the file cannot be written.
+     * @since 2.3
+     */
+    private void writeIndex() throws IOException {
+        long indexPosition = getPosition();
+        putInt(this.nodeNames.size());
+        for (int seriesID = ZERO; seriesID < this.nodeNames.size(); seriesID++) {
+            putInt(this.datasetNumbers.get(seriesID));
+            putString(this.nodeNames.get(seriesID));
+            putString(this.seriesKeys.get(seriesID));
+        }
+        putInt(this.chunkCount);
+        for (int chunk = ZERO; chunk < this.chunkCount; chunk++) {
+            putInt(this.chunkSeriesIDs[chunk]);
+            putInt(this.chunkCounts[chunk]);
+            putLong(this.chunkPositions[chunk]);
+        }
+        putLong(indexPosition);
+        putInt(MAGIC_NUMBER);
+    }
+
+    /**
+     * This method writes a string as its length in bytes followed by its
+     * UTF-8 bytes.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param value the string.
+     * @throws IOException if the file cannot be written.
+     * @since 2.3
+     */
+    private void putString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(bytes.length);
+        putBytes(bytes);
+    }
+
+    private final int maxBufferedPoints;
+    private final ArrayList<String> nodeNames;
+    private final ArrayList<Integer> datasetNumbers;
+    private final ArrayList<String> seriesKeys;
+    private final ArrayList<long[]> bufferedTimeInstants;
+    private final ArrayList<double[]> bufferedValues;
+    private int[] bufferedCounts;
+    private int bufferedPoints;
+    private int[] chunkSeriesIDs;
+    private int[] chunkCounts;
+    private long[] chunkPositions;
+    private int chunkCount;
+    private boolean closed;
+
+    public static final int MAGIC_NUMBER = 0x4F534D53;
+    public static final int VERSION = 1;
+    public static final int DEFAULT_MAX_BUFFERED_POINTS = 256 * 1024;
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int TWO = 2;
+    private static final int INITIAL_CAPACITY = 16;
+}
@@ -0,0 +1,137 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.stats;
+
+import com.manolodominguez.opensimmpls.scenario.TStatsTimeSeries;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * This class implements a writer that stores time series of statistics in a
+ * CSV file, encoded in UTF-8, with a row per point and the columns node,
+ * dataset, series, time (in nanoseconds) and value. Rows are written in the
+ * order points are added, so the points of a series are sorted by time but
+ * interleaved with those of other series.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public class TStatsCSVWriter extends TStatsWriter {
+
+    /**
+     * This is the constructor of the class. It creates the specified file and
+     * writes the header row.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param file the file the statistics will be written to.
+     * @throws IOException if the file cannot be created.
+     * @throws IllegalArgumentException if the file is null.
+     * @since 2.3
+     */
+    public TStatsCSVWriter(File file) throws IOException {
+        super(file);
+        this.rowPrefixes = new ArrayList<>();
+        this.number = new StringBuilder();
+        putBytes(HEADER.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * This method declares a new series. The first columns of its rows are
+     * encoded once here, so that writing a point only encodes numbers.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param seriesID the identifier of the series, equal to the number of
+     * series declared before.
+     * @param nodeName the name of the node or link the series belongs to.
+     * @param datasetNumber the number of the dataset of the node the series
+     * belongs to, from 1 to 6.
+     * @param seriesKey the name of the series.
+     * @throws IllegalArgumentException if the identifier is not the expected
+     * one.
+     * @since 2.3
+     */
+    @Override
+    public void addSeries(int seriesID, String nodeName, int datasetNumber, String seriesKey) {
+        if (seriesID != this.rowPrefixes.size()) {
+            throw new IllegalArgumentException();
+        }
+        String rowPrefix = quote(nodeName) + SEPARATOR + datasetNumber + SEPARATOR + quote(seriesKey) + SEPARATOR;
+        this.rowPrefixes.add(rowPrefix.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * This method writes a row for each of the specified points of a series.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param seriesID the identifier of the series.
+     * @param timeSeries the series the points are taken from.
+     * @param fromIndex the index of the first point to be written.
+     * @param toIndex the index following the last point to be written.
+     * @throws IOException if the points cannot be written.
+     * @since 2.3
+     */
+    @Override
+    public void addPoints(int seriesID, TStatsTimeSeries timeSeries, int fromIndex, int toIndex) throws IOException {
+        byte[] rowPrefix = this.rowPrefixes.get(seriesID);
+        for (int i = fromIndex; i < toIndex; i++) {
+            putBytes(rowPrefix);
+            this.number.setLength(ZERO);
+            this.number.append(timeSeries.getTimeInstant(i)).append(SEPARATOR);
+            double value = timeSeries.getValue(i);
+            // Counters are integral; they are written without decimals.
+            if ((value == Math.rint(value)) && (Math.abs(value) < MAX_EXACT_INTEGER)) {
+                this.number.append((long) value);
+            } else {
+                this.number.append(value);
+            }
+            this.number.append(END_OF_ROW);
+            for (int j = ZERO; j < this.number.length(); j++) {
+                // Numbers only contain ASCII characters.
+                putByte((byte) this.number.charAt(j));
+            }
+        }
+    }
+
+    /**
+     * This method quotes a field if it contains a separator, a quote or an end
+     * of line, as specified in RFC 4180.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param field the field.
+     * @return the field, quoted if needed.
+     * @since 2.3
+     */
+    private static String quote(String field) {
+        if ((field.indexOf(SEPARATOR) < ZERO) && (field.indexOf(QUOTE) < ZERO) && (field.indexOf(END_OF_ROW) < ZERO) && (field.indexOf(CARRIAGE_RETURN) < ZERO)) {
+            return field;
+        }
+        return QUOTE + field.replace(QUOTE, ESCAPED_QUOTE) + QUOTE;
+    }
+
+    private final ArrayList<byte[]> rowPrefixes;
+    private final StringBuilder number;
+
+    private static final int ZERO = 0;
+    private static final char SEPARATOR = ',';
+    private static final char END_OF_ROW = '\n';
+    private static final char CARRIAGE_RETURN = '\r';
+    private static final String QUOTE = "\"";
+    private static final String ESCAPED_QUOTE = "\"\"";
+    private static final double MAX_EXACT_INTEGER = 9007199254740992.0;
+    private static final String HEADER = "node,dataset,series,time_ns,value\n";
+}
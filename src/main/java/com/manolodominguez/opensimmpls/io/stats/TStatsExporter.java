@@ -0,0 +1,335 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.stats;
+
+import com.manolodominguez.opensimmpls.hardware.timer.ITickCompletionListener;
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import com.manolodominguez.opensimmpls.scenario.TLink;
+import com.manolodominguez.opensimmpls.scenario.TNode;
+import com.manolodominguez.opensimmpls.scenario.TStats;
+import com.manolodominguez.opensimmpls.scenario.TStatsTimeSeries;
+import com.manolodominguez.opensimmpls.scenario.TStatsXYDataset;
+import com.manolodominguez.opensimmpls.scenario.TTopology;
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.ResourceBundle;
+import org.jfree.data.general.AbstractDataset;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements an exporter that streams the time series of
+ * statistics of every node and link of a topology to one or more writers
+ * while the simulation is running. It is subscribed to the timer of the
+ * topology and, after each tick, it writes the points added to each series
+ * since the previous tick, so that the whole history of a simulation can be
+ * analysed offline with other tools. Only time series are exported; datasets
+ * by category are snapshots and are not.
+ *
+ * Exporting does not reduce the memory used by a simulation: series keep
+ * every point after it has been written, because the analysis charts, their
+ * aggregation levels and the exporter itself read them from there. The heap
+ * needed by a long simulation is the same with or without an exporter.
+ *
+ * If a writer fails, the error is logged and nothing else is exported, so
+ * that the simulation is not interrupted.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public class TStatsExporter implements ITickCompletionListener {
+
+    /**
+     * This is the constructor of the class. It creates a new exporter of the
+     * statistics of the specified topology. It has to be subscribed to the
+     * timer of the topology to export them while simulating.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param topology the topology whose statistics are exported.
+     * @param writers the writers the statistics are exported to.
+     * @throws IllegalArgumentException if the topology or any writer is null,
+     * or there are no writers.
+     * @since 2.3
+     */
+    public TStatsExporter(TTopology topology, TStatsWriter... writers) {
+        this.translations = ResourceBundle.getBundle(AvailableBundles.T_STATS_EXPORTER.getPath());
+        if ((topology == null) || (writers == null) || (writers.length == ZERO)) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        for (TStatsWriter writer : writers) {
+            if (writer == null) {
+                this.logger.error(this.translations.getString("badArgument"));
+                throw new IllegalArgumentException(this.translations.getString("badArgument"));
+            }
+        }
+        this.topology = topology;
+        this.writers = writers.clone();
+        this.exportedSeries = new IdentityHashMap<>();
+        this.nextSeriesID = ZERO;
+        this.exportedPoints = ZERO;
+        this.failed = false;
+    }
+
+    /**
+     * This method exports the points added to the series during the tick that
+     * has just finished.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param timeInstant the time instant (in simulation terms) in which the
+     * tick has finished.
+     * @since 2.3
+     */
+    @Override
+    public void tickCompleted(long timeInstant) {
+        exportNewPoints();
+    }
+
+    /**
+     * This method exports the points added to the series since the previous
+     * tick and writes everything to disk, so that files are complete up to
+     * this moment while the simulation is paused or finished.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    @Override
+    public void timerStopped() {
+        exportNewPoints();
+        flush();
+    }
+
+    /**
+     * This method writes the points added to every series of every node and
+     * every link since the previous call. Series that have not been exported
+     * before are declared to the writers first. It has to be called while
+     * nodes and links are not adding points to their series, as between
+     * ticks.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public synchronized void exportNewPoints() {
+        if (this.failed) {
+            return;
+        }
+        try {
+            Iterator<TNode> nodesIterator = this.topology.getNodesIterator();
+            while (nodesIterator.hasNext()) {
+                TNode node = nodesIterator.next();
+                exportNewPoints(node.getName(), node.getStats());
+            }
+            Iterator<TLink> linksIterator = this.topology.getLinksIterator();
+            while (linksIterator.hasNext()) {
+                TLink link = linksIterator.next();
+                exportNewPoints(link.getName(), link.getStats());
+            }
+        } catch (IOException e) {
+            this.logger.error(this.translations.getString("ioexceptionDescription"), e);
+            this.failed = true;
+        }
+    }
+
+    /**
+     * This method writes the points added to every series of the specified
+     * statistics since the previous call. Every dataset is visited, whether it
+     * is counted as available or not, as some statistics have time series
+     * that are not plotted.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param elementName the name of the node or link the statistics belong
+     * to.
+     * @param stats the statistics, or null.
+     * @throws IOException if any writer fails.
+     * @since 2.3
+     */
+    private void exportNewPoints(String elementName, TStats stats) throws IOException {
+        if (stats == null) {
+            return;
+        }
+        for (int datasetNumber = ONE; datasetNumber <= MAX_DATASETS; datasetNumber++) {
+            AbstractDataset dataset = getDataset(stats, datasetNumber);
+            if (dataset instanceof TStatsXYDataset) {
+                exportNewPoints(elementName, datasetNumber, (TStatsXYDataset) dataset);
+            }
+        }
+    }
+
+    /**
+     * This method writes the points added to every series of the specified
+     * dataset since the previous call.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param elementName the name of the node or link the dataset belongs to.
+     * @param datasetNumber the number of the dataset, from 1 to 6.
+     * @param dataset the dataset.
+     * @throws IOException if any writer fails.
+     * @since 2.3
+     */
+    private void exportNewPoints(String elementName, int datasetNumber, TStatsXYDataset dataset) throws IOException {
+        for (int i = ZERO; i < dataset.getAddedSeriesCount(); i++) {
+            TStatsTimeSeries timeSeries = dataset.getSeries(i);
+            int[] exported = this.exportedSeries.get(timeSeries);
+            if (exported == null) {
+                exported = new int[]{this.nextSeriesID, ZERO};
+                this.nextSeriesID++;
+                this.exportedSeries.put(timeSeries, exported);
+                for (TStatsWriter writer : this.writers) {
+                    writer.addSeries(exported[SERIES_ID], elementName, datasetNumber, timeSeries.getKey());
+                }
+            }
+            int itemCount = timeSeries.getItemCount();
+            if (itemCount > exported[EXPORTED_ITEM_COUNT]) {
+                for (TStatsWriter writer : this.writers) {
+                    writer.addPoints(exported[SERIES_ID], timeSeries, exported[EXPORTED_ITEM_COUNT], itemCount);
+                }
+                this.exportedPoints += itemCount - exported[EXPORTED_ITEM_COUNT];
+                exported[EXPORTED_ITEM_COUNT] = itemCount;
+            }
+        }
+    }
+
+    /**
+     * This method forgets which series have been exported. It has to be called
+     * when the scenario is reset, as statistics start again from scratch; the
+     * series of the new simulation are then declared to the writers as new
+     * series, after those of the previous one.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public synchronized void reset() {
+        this.exportedSeries.clear();
+    }
+
+    /**
+     * This method gets the dataset of the specified number.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param stats the statistics the dataset belongs to.
+     * @param datasetNumber the number of the dataset, from 1 to 6.
+     * @return the dataset, or null if it does not exist.
+     * @since 2.3
+     */
+    private static AbstractDataset getDataset(TStats stats, int datasetNumber) {
+        // FIX: do not use harcoded values. Use class constants instead.
+        switch (datasetNumber) {
+            case 1:
+                return stats.getDataset1();
+            case 2:
+                return stats.getDataset2();
+            case 3:
+                return stats.getDataset3();
+            case 4:
+                return stats.getDataset4();
+            case 5:
+                return stats.getDataset5();
+            case 6:
+                return stats.getDataset6();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * This method writes to disk everything that has been exported so far.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public synchronized void flush() {
+        if (this.failed) {
+            return;
+        }
+        try {
+            for (TStatsWriter writer : this.writers) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            this.logger.error(this.translations.getString("ioexceptionDescription"), e);
+            this.failed = true;
+        }
+    }
+
+    /**
+     * This method exports the points added since the previous tick and closes
+     * every writer. The exporter has to be unsubscribed from the timer before.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException if any writer fails while closing it, or has failed
+     * before.
+     * @since 2.3
+     */
+    public synchronized void close() throws IOException {
+        exportNewPoints();
+        IOException exception = null;
+        for (TStatsWriter writer : this.writers) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                if (exception == null) {
+                    exception = e;
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+        if (this.failed) {
+            throw new IOException(this.translations.getString("ioexceptionDescription"));
+        }
+    }
+
+    /**
+     * This method gets the number of points exported so far to each writer.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of points exported.
+     * @since 2.3
+     */
+    public synchronized long getExportedPoints() {
+        return this.exportedPoints;
+    }
+
+    /**
+     * This method checks whether a writer has failed, so that statistics are
+     * not being exported anymore.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TRUE, if a writer has failed. Otherwise, FALSE.
+     * @since 2.3
+     */
+    public synchronized boolean hasFailed() {
+        return this.failed;
+    }
+
+    private final TTopology topology;
+    private final TStatsWriter[] writers;
+    // For each series: its identifier and the number of points exported.
+    private final IdentityHashMap<TStatsTimeSeries, int[]> exportedSeries;
+    private int nextSeriesID;
+    private long exportedPoints;
+    private boolean failed;
+    private final ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(TStatsExporter.class);
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int MAX_DATASETS = 6;
+    private static final int SERIES_ID = 0;
+    private static final int EXPORTED_ITEM_COUNT = 1;
+}
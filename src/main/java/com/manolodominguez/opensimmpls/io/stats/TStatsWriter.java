@@ -0,0 +1,246 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.stats;
+
+import com.manolodominguez.opensimmpls.scenario.TStatsTimeSeries;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class is the base of the writers that store time series of statistics
+ * to disk while a simulation is running. Everything is written through a
+ * buffer of fixed size to a file channel, so writers never hold more than a
+ * bounded amount of data in memory, whatever the length of the simulation.
+ *
+ * Series have to be declared, with consecutive identifiers starting at 0,
+ * before their points are written. Writers have to be used from a single
+ * thread at a time.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public abstract class TStatsWriter implements Closeable {
+
+    /**
+     * This is the constructor of the class. It creates the specified file, or
+     * truncates it if it already exists.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param file the file the statistics will be written to.
+     * @throws IOException if the file cannot be created.
+     * @throws IllegalArgumentException if the file is null.
+     * @since 2.3
+     */
+    public TStatsWriter(File file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException();
+        }
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.writtenBytes = ZERO;
+    }
+
+    /**
+     * This method, when implemented, will declare a new series whose points
+     * will be written later.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param seriesID the identifier of the series, equal to the number of
+     * series declared before.
+     * @param nodeName the name of the node or link the series belongs to.
+     * @param datasetNumber the number of the dataset of the node the series
+     * belongs to, from 1 to 6.
+     * @param seriesKey the name of the series.
+     * @throws IOException if the series cannot be written.
+     * @since 2.3
+     */
+    public abstract void addSeries(int seriesID, String nodeName, int datasetNumber, String seriesKey) throws IOException;
+
+    /**
+     * This method, when implemented, will write the specified points of a
+     * series previously declared.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param seriesID the identifier of the series.
+     * @param timeSeries the series the points are taken from.
+     * @param fromIndex the index of the first point to be written.
+     * @param toIndex the index following the last point to be written.
+     * @throws IOException if the points cannot be written.
+     * @since 2.3
+     */
+    public abstract void addPoints(int seriesID, TStatsTimeSeries timeSeries, int fromIndex, int toIndex) throws IOException;
+
+    /**
+     * This method writes to the file everything that has been added so far.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException if the file cannot be written.
+     * @since 2.3
+     */
+    public void flush() throws IOException {
+        drainBuffer();
+    }
+
+    /**
+     * This method writes to the file everything that has been added so far
+     * and closes it. Subclasses that have to write something at the end of the
+     * file do it before calling this method.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException if the file cannot be written.
+     * @since 2.3
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.channel.isOpen()) {
+            try {
+                drainBuffer();
+            } finally {
+                this.channel.close();
+            }
+        }
+    }
+
+    /**
+     * This method gets the position of the file the next byte will be
+     * written to.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the position of the next byte, from the beginning of the file.
+     * @since 2.3
+     */
+    protected long getPosition() {
+        return this.writtenBytes + this.buffer.position();
+    }
+
+    /**
+     * This method puts a byte in the buffer, writing the buffer to the file
+     * first if it is full.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param value the byte.
+     * @throws IOException if the file cannot be written.
+     * @since 2.3
+     */
+    protected void putByte(byte value) throws IOException {
+        ensureRemaining(Byte.BYTES);
+        this.buffer.put(value);
+    }
+
+    /**
+     * This method puts an int in the buffer, writing the buffer to the file
+     * first if it is full.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param value the int.
+     * @throws IOException if the file cannot be written.
+     * @since 2.3
+     */
+    protected void putInt(int value) throws IOException {
+        ensureRemaining(Integer.BYTES);
+        this.buffer.putInt(value);
+    }
+
+    /**
+     * This method puts a long in the buffer, writing the buffer to the file
+     * first if it is full.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param value the long.
+     * @throws IOException if the file cannot be written.
+     * @since 2.3
+     */
+    protected void putLong(long value) throws IOException {
+        ensureRemaining(Long.BYTES);
+        this.buffer.putLong(value);
+    }
+
+    /**
+     * This method puts a double in the buffer, writing the buffer to the file
+     * first if it is full.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param value the double.
+     * @throws IOException if the file cannot be written.
+     * @since 2.3
+     */
+    protected void putDouble(double value) throws IOException {
+        ensureRemaining(Double.BYTES);
+        this.buffer.putDouble(value);
+    }
+
+    /**
+     * This method puts an array of bytes in the buffer, writing the buffer to
+     * the file as many times as needed.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param values the bytes.
+     * @throws IOException if the file cannot be written.
+     * @since 2.3
+     */
+    protected void putBytes(byte[] values) throws IOException {
+        int offset = ZERO;
+        while (offset < values.length) {
+            ensureRemaining(ONE);
+            int length = Math.min(this.buffer.remaining(), values.length - offset);
+            this.buffer.put(values, offset, length);
+            offset += length;
+        }
+    }
+
+    /**
+     * This method writes the buffer to the file if it has not room for the
+     * specified number of bytes.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param numberOfBytes the number of bytes that are going to be put.
+     * @throws IOException if the file cannot be written.
+     * @since 2.3
+     */
+    private void ensureRemaining(int numberOfBytes) throws IOException {
+        if (this.buffer.remaining() < numberOfBytes) {
+            drainBuffer();
+        }
+    }
+
+    /**
+     * This method writes the content of the buffer to the file and empties
+     * it.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException if the file cannot be written.
+     * @since 2.3
+     */
+    private void drainBuffer() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.writtenBytes += this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long writtenBytes;
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+}
@@ -38,6 +38,7 @@ public class TIPv4Header {
         this.IPv4OptionsField = new TIPv4OptionsField();
         // FIX: create and use a constant instead of this harcoded value.
         this.TTL = 255;
+        this.generationTimeInstant = UNKNOWN_GENERATION_TIME_INSTANT;
     }
 
     /**
@@ -156,8 +157,40 @@ public class TIPv4Header {
         return this.IPv4OptionsField;
     }
 
+    /**
+     * This method sets the time instant in which the packet carrying this IPv4
+     * header was generated. It is not a field of a real IPv4 header; it is
+     * carried here because the header is kept when the packet is encapsulated
+     * or decapsulated, so that the time the packet has been in transit can be
+     * measured at its destination.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param generationTimeInstant the time instant (in simulation terms) in
+     * which the packet was generated.
+     * @since 2.3
+     */
+    public void setGenerationTimeInstant(long generationTimeInstant) {
+        this.generationTimeInstant = generationTimeInstant;
+    }
+
+    /**
+     * This method gets the time instant in which the packet carrying this IPv4
+     * header was generated.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the time instant (in simulation terms) in which the packet was
+     * generated, or UNKNOWN_GENERATION_TIME_INSTANT if it has not been set.
+     * @since 2.3
+     */
+    public long getGenerationTimeInstant() {
+        return this.generationTimeInstant;
+    }
+
     private String originIP;
     private String targetIP;
     private int TTL;
     private TIPv4OptionsField IPv4OptionsField;
+    private long generationTimeInstant;
+
+    public static final long UNKNOWN_GENERATION_TIME_INSTANT = -1L;
 }
@@ -57,6 +57,9 @@ public class TMPLSPDU extends TAbstractPDU {
         // FIX: Define a class constant instead of using this harcoded value
         int auxTCPPayloadSize = this.tcpPayload.getSize() - 20;
         TMPLSPDU clonedMPLSPDU = new TMPLSPDU(auxID, auxOriginIP, auxTargetIP, auxTCPPayloadSize);
+        // The generation time instant is kept so that retransmitted copies
+        // account for the whole latency of the original packet.
+        clonedMPLSPDU.getIPv4Header().setGenerationTimeInstant(this.getIPv4Header().getGenerationTimeInstant());
         // "Guarentee of Service Support over MPLS using Active Techniques" 
         // proposal redefines the IPv4 Options field to track crossed active 
         // nodes. Therefore we inspect if this field is being use this way and 
@@ -66,6 +66,11 @@ public enum AvailableBundles {
     T_PORT_SET("tportset"),
     T_FIFO_PORT("tfifoport"),
     T_FIFO_PORT_SET("tfifoportset"),
+    T_ACTIVE_PORT_SET("tactiveportset"),
+    T_QUEUE_DISCIPLINE("tqueuediscipline"),
+    T_LINK_DELAY_LINE("tlinkdelayline"),
+    T_STATS_EXPORTER("tstatsexporter"),
+    T_SIMULATOR_METRICS("tsimulatormetrics"),
     T_ACTIVE_PORT("tactiveport"),
     T_ROTARY_ID_GENERATOR("trotaryidgenerator"),
     T_LONG_ID_GENERATOR("tlongidgenerator"),
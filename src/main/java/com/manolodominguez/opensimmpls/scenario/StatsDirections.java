@@ -0,0 +1,52 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+/**
+ * This enum lists the directions a packet can be counted in by the statistics
+ * of a node, each one mapped to the type of entry used by TStats.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public enum StatsDirections {
+    INCOMING(TStats.INCOMING),
+    OUTGOING(TStats.OUTGOING),
+    DISCARDED(TStats.BEING_DISCARDED);
+
+    private final int entryType;
+
+    /**
+     * This is the constructor of the enum. It will set the type of entry of
+     * each enum item.
+     *
+     * @param entryType the type of entry, as defined in TStats.
+     * @since 2.3
+     */
+    private StatsDirections(int entryType) {
+        this.entryType = entryType;
+    }
+
+    /**
+     * This method gets the type of entry corresponding to the enum's item.
+     *
+     * @return INCOMING, OUTGOING or BEING_DISCARDED, as defined in TStats.
+     * @since 2.3
+     */
+    public int getEntryType() {
+        return this.entryType;
+    }
+}
@@ -0,0 +1,63 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+/**
+ * This enum lists the classes of packets the statistics of a node count
+ * separately: the type of packet and, for packets with GoS, their GoS level.
+ * Items are sorted so that those of the same type of packet are consecutive
+ * and in ascending GoS level.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public enum StatsPacketClasses {
+    IPV4(TStats.IPV4),
+    IPV4_GOS1(TStats.IPV4_GOS1),
+    IPV4_GOS2(TStats.IPV4_GOS2),
+    IPV4_GOS3(TStats.IPV4_GOS3),
+    MPLS(TStats.MPLS),
+    MPLS_GOS1(TStats.MPLS_GOS1),
+    MPLS_GOS2(TStats.MPLS_GOS2),
+    MPLS_GOS3(TStats.MPLS_GOS3),
+    TLDP(TStats.TLDP),
+    GPSRP(TStats.GPSRP);
+
+    private final String seriesKey;
+
+    /**
+     * This is the constructor of the enum. It will set the name of the series
+     * of each enum item.
+     *
+     * @param seriesKey the name of the series of statistics of this class of
+     * packets, as shown in charts.
+     * @since 2.3
+     */
+    private StatsPacketClasses(String seriesKey) {
+        this.seriesKey = seriesKey;
+    }
+
+    /**
+     * This method gets the name of the series of statistics corresponding to
+     * the enum's item.
+     *
+     * @return the name of the series, as shown in charts.
+     * @since 2.3
+     */
+    public String getSeriesKey() {
+        return this.seriesKey;
+    }
+}
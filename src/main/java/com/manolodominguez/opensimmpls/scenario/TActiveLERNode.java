@@ -15,12 +15,14 @@
  */
 package com.manolodominguez.opensimmpls.scenario;
 
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketSent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketGenerated;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketDiscarded;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventNodeCongested;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketRouted;
 import java.awt.Point;
+import java.util.Arrays;
 import java.util.Iterator;
 import com.manolodominguez.opensimmpls.protocols.TGPSRPPDU;
 import com.manolodominguez.opensimmpls.protocols.TTLDPPDU;
@@ -45,6 +47,7 @@ import com.manolodominguez.opensimmpls.hardware.ports.TPortSet;
 import com.manolodominguez.opensimmpls.commons.EIDGeneratorOverflow;
 import com.manolodominguez.opensimmpls.commons.TIDGenerator;
 import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
+import com.manolodominguez.opensimmpls.io.jfr.TGPSRPRequestEvent;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
 import java.util.ResourceBundle;
 
@@ -238,7 +241,7 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
         this.gIdent.reset();
         this.gIdentLDP.reset();
         this.stats.reset();
-        this.stats.setStatsEnabled(this.isGeneratingStats());
+        this.installStats(this.stats);
         this.dmgp.reset();
         this.gpsrpRequests.reset();
         this.resetTicksWithoutEmitting();
@@ -271,6 +274,7 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
     public void receiveTimerEvent(TTimerEvent timerEvent) {
         this.setTickDurationInNs(timerEvent.getTickDurationInNs());
         this.setCurrentTimeInstant(timerEvent.getUpperLimit());
+        this.drainIngressQueues();
         if (this.getPorts().isThereAnyPacketToRoute()) {
             this.availableNanoseconds += timerEvent.getTickDurationInNs();
         } else {
@@ -292,7 +296,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
     public void run() {
         // Actions to be done during the timer tick.
         try {
-            this.generateSimulationEvent(new TSimulationEventNodeCongested(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), this.getPorts().getCongestionLevel()));
+            if (this.isSubscribedTo(TSimulationEvent.NODE_CONGESTED)) {
+                this.generateSimulationEvent(new TSimulationEventNodeCongested(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), this.getPorts().getCongestionLevel()));
+            }
         } catch (Exception e) {
             // FIX: this is not a good practice. Avoid.
             e.printStackTrace();
@@ -300,18 +306,67 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
         this.checkConnectivityStatus();
         this.decreaseCounters();
         this.routePackets();
-        this.stats.groupStatsByTimeInstant(this.getCurrentTimeInstant());
+        TStats statsObserver = this.getStatsObserver();
+        if (statsObserver != null) {
+            statsObserver.groupStatsByTimeInstant(this.getCurrentTimeInstant());
+        }
     }
 
     /**
      * This method check wether the connectivity to the neighbors nodes exists.
      * Let's say, this check whether a link of this node is down. If so, this
-     * method generates the corresponding event to notify the situation.
+     * method generates the corresponding event to notify the situation. Only
+     * switching entries using a port whose link has been notified as broken,
+     * or having an undefined incoming or outgoing port, are checked.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
     public void checkConnectivityStatus() {
+        int[] portsWithBrokenLinks = this.getPortsWithBrokenLinks();
+        checkSwitchingMatrixEntries(portsWithBrokenLinks);
+        this.gpsrpRequests.decreaseTimeout(this.getTickDurationInNs());
+        this.gpsrpRequests.updateEntries();
+        for (int portWithBrokenLink : portsWithBrokenLinks) {
+            this.gpsrpRequests.removeEntriesMatchingOutgoingPort(portWithBrokenLink);
+        }
+        this.gpsrpRequests.getMonitor().setRed();
+        Iterator gpsrpRequestsIterator = this.gpsrpRequests.getEntriesIterator();
+        int globalFlowID = 0;
+        int packetGoSGlobalUniqueID = 0;
+        String targetIPv4Address = null;
+        int outgoingPortAux = 0;
+        TGPSRPRequestEntry gpsrpRequestEntry = null;
+        while (gpsrpRequestsIterator.hasNext()) {
+            gpsrpRequestEntry = (TGPSRPRequestEntry) gpsrpRequestsIterator.next();
+            if (gpsrpRequestEntry.isRetriable()) {
+                globalFlowID = gpsrpRequestEntry.getFlowID();
+                packetGoSGlobalUniqueID = gpsrpRequestEntry.getPacketGoSGlobalUniqueIdentifier();
+                targetIPv4Address = gpsrpRequestEntry.getNextNearestCrossedActiveNodeIPv4();
+                outgoingPortAux = gpsrpRequestEntry.getOutgoingPortID();
+                this.requestGPSRP(globalFlowID, packetGoSGlobalUniqueID, targetIPv4Address, outgoingPortAux);
+            }
+            gpsrpRequestEntry.resetTimeoutAndDecreaseAttempts();
+        }
+        this.gpsrpRequests.getMonitor().setGreen();
+    }
+
+    /**
+     * This method checks the switching entries using a port whose link has
+     * been notified as broken, or having an undefined incoming or outgoing
+     * port, and withdraws or removes those that cannot be used any more.
+     * Nothing is done while all links are up and every entry has its ports.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param portsWithBrokenLinks the ports whose links are broken.
+     * @since 2.3
+     */
+    private void checkSwitchingMatrixEntries(int[] portsWithBrokenLinks) {
+        if ((portsWithBrokenLinks.length == 0) && (!this.switchingMatrix.hasEntriesUsingPort(TSwitchingMatrixEntry.UNDEFINED))) {
+            return;
+        }
+        int[] portsToBeChecked = Arrays.copyOf(portsWithBrokenLinks, portsWithBrokenLinks.length + 1);
+        portsToBeChecked[portsWithBrokenLinks.length] = TSwitchingMatrixEntry.UNDEFINED;
         boolean removeSwitchingMatrixEntry = false;
         TSwitchingMatrixEntry switchingMatrixEntry = null;
         // FIX: Avoid using harcoded values
@@ -322,10 +377,11 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
         TLink linkAux1 = null;
         TLink linkAux2 = null;
         this.switchingMatrix.getSemaphore().setRed();
-        Iterator switchingMatrixIterator = this.switchingMatrix.getEntriesIterator();
+        Iterator switchingMatrixIterator = this.switchingMatrix.getEntriesIterator(portsToBeChecked);
         while (switchingMatrixIterator.hasNext()) {
             switchingMatrixEntry = (TSwitchingMatrixEntry) switchingMatrixIterator.next();
             if (switchingMatrixEntry != null) {
+                removeSwitchingMatrixEntry = false;
                 portIDAux = switchingMatrixEntry.getBackupOutgoingPortID();
                 // FIX: Avoid using harcoded values
                 if ((portIDAux >= 0) && (portIDAux < this.ports.getNumberOfPorts())) {
@@ -404,42 +460,6 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
             }
         }
         this.switchingMatrix.getSemaphore().setGreen();
-        this.gpsrpRequests.decreaseTimeout(this.getTickDurationInNs());
-        this.gpsrpRequests.updateEntries();
-        int numberOfPorts = this.ports.getNumberOfPorts();
-        int i = 0;
-        TActivePort currentPort = null;
-        TLink linkOfPort = null;
-        for (i = 0; i < numberOfPorts; i++) {
-            currentPort = (TActivePort) this.ports.getPort(i);
-            if (currentPort != null) {
-                linkOfPort = currentPort.getLink();
-                if (linkOfPort != null) {
-                    if (linkOfPort.isBroken()) {
-                        this.gpsrpRequests.removeEntriesMatchingOutgoingPort(i);
-                    }
-                }
-            }
-        }
-        this.gpsrpRequests.getMonitor().setRed();
-        Iterator gpsrpRequestsIterator = this.gpsrpRequests.getEntriesIterator();
-        int globalFlowID = 0;
-        int packetGoSGlobalUniqueID = 0;
-        String targetIPv4Address = null;
-        int outgoingPortAux = 0;
-        TGPSRPRequestEntry gpsrpRequestEntry = null;
-        while (gpsrpRequestsIterator.hasNext()) {
-            gpsrpRequestEntry = (TGPSRPRequestEntry) gpsrpRequestsIterator.next();
-            if (gpsrpRequestEntry.isRetriable()) {
-                globalFlowID = gpsrpRequestEntry.getFlowID();
-                packetGoSGlobalUniqueID = gpsrpRequestEntry.getPacketGoSGlobalUniqueIdentifier();
-                targetIPv4Address = gpsrpRequestEntry.getNextNearestCrossedActiveNodeIPv4();
-                outgoingPortAux = gpsrpRequestEntry.getOutgoingPortID();
-                this.requestGPSRP(globalFlowID, packetGoSGlobalUniqueID, targetIPv4Address, outgoingPortAux);
-            }
-            gpsrpRequestEntry.resetTimeoutAndDecreaseAttempts();
-        }
-        this.gpsrpRequests.getMonitor().setGreen();
     }
 
     /**
@@ -456,12 +476,13 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
         boolean atLeastOnePacketRouted = false;
         int readPort = 0;
         TAbstractPDU packet = null;
-        int routeableOctectsWithCurrentNs = this.getMaxRouteableOctectsWithCurrentNs();
-        while (this.getPorts().canSwitchPacket(routeableOctectsWithCurrentNs)) {
+        int routedOctets = 0;
+        while (this.ports.getNextPackets(this.getMaxRouteableOctectsWithCurrentNs(), this.packetBatch) > 0) {
             atLeastOnePacketRouted = true;
-            packet = this.ports.getNextPacket();
-            readPort = this.ports.getReadPort();
-            if (packet != null) {
+            routedOctets = 0;
+            for (int i = 0; i < this.packetBatch.size(); i++) {
+                packet = this.packetBatch.getPacket(i);
+                readPort = this.packetBatch.getIncomingPortID(i);
                 // FIX: Convert to a switch statement
                 if (packet.getType() == TAbstractPDU.IPV4) {
                     handleIPv4Packet((TIPv4PDU) packet, readPort);
@@ -472,13 +493,15 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                 } else if (packet.getType() == TAbstractPDU.GPSRP) {
                     handleGPSRPPacket((TGPSRPPDU) packet, readPort);
                 } else {
-                    this.availableNanoseconds += getNsRequiredForAllOctets(packet.getSize());
                     this.discardPacket(packet);
+                    continue;
                 }
-                this.availableNanoseconds -= getNsRequiredForAllOctets(packet.getSize());
-                routeableOctectsWithCurrentNs = this.getMaxRouteableOctectsWithCurrentNs();
+                routedOctets += packet.getSize();
             }
+            // Discarded packets do not consume routing time.
+            this.availableNanoseconds -= this.getNsRequiredForAllOctets(routedOctets);
         }
+        this.packetBatch.clear();
         if (atLeastOnePacketRouted) {
             this.resetTicksWithoutEmitting();
         } else {
@@ -518,7 +541,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                 if (outgoingPort != null) {
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -548,7 +573,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
             if (outgoingPort != null) {
                 outgoingPort.putPacketOnLink(wantedPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                 try {
-                    this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), wantedPacket.getSubtype()));
+                    if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), wantedPacket.getSubtype()));
+                    }
                 } catch (Exception e) {
                     // FIX: this is not a good practice. Avoid.
                     e.printStackTrace();
@@ -634,8 +661,12 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                 gpsrpPacket.getGPSRPPayload().setGPSRPMessageType(TGPSRPPayload.RETRANSMISSION_REQUEST);
                 outgoingPort.putPacketOnLink(gpsrpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                 try {
-                    this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
-                    this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                    if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                        this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
+                    }
+                    if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                    }
                 } catch (Exception e) {
                     //FIX: This is not a good practice. Avoid.
                     e.printStackTrace();
@@ -675,9 +706,23 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
             gpsrpPacket.getGPSRPPayload().setPacketGoSGlobalUniqueID(packetGoSGlobalUniqueID);
             gpsrpPacket.getGPSRPPayload().setGPSRPMessageType(TGPSRPPayload.RETRANSMISSION_REQUEST);
             outgoingPort.putPacketOnLink(gpsrpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
+            TGPSRPRequestEvent gpsrpRequestEvent = new TGPSRPRequestEvent();
+            if (gpsrpRequestEvent.isEnabled()) {
+                gpsrpRequestEvent.setNodeID(this.getNodeID());
+                gpsrpRequestEvent.setNodeName(this.getName());
+                gpsrpRequestEvent.setFlowID(globalFlowID);
+                gpsrpRequestEvent.setPacketID(packetGoSGlobalUniqueID);
+                gpsrpRequestEvent.setTargetIPv4Address(targetIPv4Address);
+                gpsrpRequestEvent.setOutgoingPortID(outgoingPortID);
+                gpsrpRequestEvent.commit();
+            }
             try {
-                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
-                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
+                }
+                if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                }
             } catch (Exception e) {
                 //FIX: This is not a good practice. Avoid.
                 e.printStackTrace();
@@ -710,8 +755,12 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
             gpsrpPacket.getGPSRPPayload().setGPSRPMessageType(TGPSRPPayload.RETRANSMISION_NOT_POSSIBLE);
             outgoingPort.putPacketOnLink(gpsrpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
             try {
-                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
-                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
+                }
+                if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                }
             } catch (Exception e) {
                 //FIX: This is not a good practice. Avoid.
                 e.printStackTrace();
@@ -746,8 +795,12 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
             gpsrpPacket.getGPSRPPayload().setGPSRPMessageType(TGPSRPPayload.RETRANSMISION_OK);
             outgoingPort.putPacketOnLink(gpsrpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
             try {
-                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
-                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
+                }
+                if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                }
             } catch (Exception e) {
                 //FIX: This is not a good practice. Avoid.
                 e.printStackTrace();
@@ -830,9 +883,15 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                         mplsPacket.getIPv4Header().getOptionsField().setCrossedActiveNode(this.getIPv4Address());
                         this.dmgp.addPacket(mplsPacket);
                     }
+                    TStats statsObserver = this.getStatsObserver();
+                    if (statsObserver != null) {
+                        ((TActiveLERStats) statsObserver).addFlowIngressEntry(mplsPacket);
+                    }
                     outgoingPort.putPacketOnLink(mplsPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: Avoid this. This is not a good practice.
                         e.printStackTrace();
@@ -845,7 +904,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                     TPort outgoingPort = this.ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: Avoid this. This is not a good practice.
                         e.printStackTrace();
@@ -982,13 +1043,19 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                     }
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
                     }
                 } else if (operation == TSwitchingMatrixEntry.POP_LABEL) {
                     if (packet.getLabelStack().getTop().getBoS()) {
+                        TStats statsObserver = this.getStatsObserver();
+                        if (statsObserver != null) {
+                            ((TActiveLERStats) statsObserver).addFlowEgressEntry(packet);
+                        }
                         TIPv4PDU ipv4Packet = this.createIPv4Packet(packet, switchingMatrixEntry);
                         TPort outgoingPort = this.ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                         outgoingPort.putPacketOnLink(ipv4Packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
@@ -1001,7 +1068,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                         outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     }
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -1021,7 +1090,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                     }
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -1030,7 +1101,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                     TPort outgoingPort = this.ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -1557,8 +1630,12 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                         TPort outgoingPort = this.ports.getLocalPortConnectedToANodeWithIPv4Address(targetIPv4Address);
                         outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                            }
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             //FIX: this is not a good practice. Avoid.
                             e.printStackTrace();
@@ -1603,8 +1680,12 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                         TPort outgoingPort = this.ports.getLocalPortConnectedToANodeWithIPv4Address(targetIPv4Address);
                         outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                            }
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: this is not a good practice. Avoid.
                             e.printStackTrace();
@@ -1658,8 +1739,12 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                     TPort outgoingPort = this.ports.getPort(portID);
                     outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                        }
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        }
                     } catch (Exception e) {
                         // FIX: this is not a good practice. Avoid.
                         e.printStackTrace();
@@ -1708,8 +1793,12 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                     if (outgoingPort != null) {
                         outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                            }
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: this is not a good practice. Avoid.
                             e.printStackTrace();
@@ -1763,8 +1852,12 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                                     if (outgoingPort != null) {
                                         outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                                         try {
-                                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                                            if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                                            }
+                                            if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                                            }
                                         } catch (Exception e) {
                                             // FIX: this is ugly. Avoid.
                                             e.printStackTrace();
@@ -1824,8 +1917,12 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                     if (outgoingPort != null) {
                         outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                            }
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: this is ugly. Avoid.
                             e.printStackTrace();
@@ -1876,8 +1973,12 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                     if (outgoingPort != null) {
                         outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                            }
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: this is ugly. Avoid.
                             e.printStackTrace();
@@ -2194,7 +2295,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
         mplsPacket.getLabelStack().pushTop(mplsLabel);
         ipv4Packet = null;
         try {
-            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), mplsPacket.getSubtype(), mplsPacket.getSize()));
+            if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), mplsPacket.getSubtype(), mplsPacket.getSize()));
+            }
         } catch (Exception e) {
             // FIX: this is ugly. Avoid.
             e.printStackTrace();
@@ -2234,7 +2337,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
             ipv4Packet.setSubtype(TAbstractPDU.IPV4_GOS);
         }
         try {
-            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), ipv4Packet.getSubtype(), ipv4Packet.getSize()));
+            if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), ipv4Packet.getSubtype(), ipv4Packet.getSize()));
+            }
         } catch (Exception e) {
             // FIX: this is ugly. Avoid.
             e.printStackTrace();
@@ -2272,8 +2377,13 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
     @Override
     public void discardPacket(TAbstractPDU packet) {
         try {
-            this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
-            this.stats.addStatEntry(packet, TStats.BEING_DISCARDED);
+            if (this.isSubscribedTo(TSimulationEvent.PACKET_DISCARDED)) {
+                this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+            }
+            TStats statsObserver = this.getStatsObserver();
+            if (statsObserver != null) {
+                statsObserver.addStatEntry(packet, TStats.BEING_DISCARDED);
+            }
         } catch (Exception e) {
             // FIX: this is ugly. Avoid.
             e.printStackTrace();
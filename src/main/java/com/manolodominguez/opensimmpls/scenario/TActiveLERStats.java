@@ -15,19 +15,20 @@
  */
 package com.manolodominguez.opensimmpls.scenario;
 
+import com.manolodominguez.opensimmpls.commons.TStripedCounters;
 import com.manolodominguez.opensimmpls.protocols.TGPSRPPDU;
 import com.manolodominguez.opensimmpls.protocols.TGPSRPPayload;
 import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
 import org.jfree.data.category.DefaultCategoryDataset;
+import java.util.EnumSet;
 import org.jfree.data.general.AbstractDataset;
-import org.jfree.data.xy.XYSeries;
-import org.jfree.data.xy.XYSeriesCollection;
 
 /**
  * This class implements a statistics collector for an active LER.
  *
  * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
- * @version 2.0
+ * @version 2.3
  */
 public class TActiveLERStats extends TStats {
 
@@ -39,83 +40,13 @@ public class TActiveLERStats extends TStats {
      * @since 2.0
      */
     public TActiveLERStats() {
-        this.incomingPackets = new XYSeriesCollection();
-        this.outgoingPackets = new XYSeriesCollection();
-        this.discardedPackets = new XYSeriesCollection();
-        this.outgoingIPv4Packets = new XYSeries(TStats.IPV4);
-        this.outgoingIPv4GOS1Packets = new XYSeries(TStats.IPV4_GOS1);
-        this.outgoingIPv4GOS2Packets = new XYSeries(TStats.IPV4_GOS2);
-        this.outgoingIPv4GOS3Packets = new XYSeries(TStats.IPV4_GOS3);
-        this.outgoingMPLSPackets = new XYSeries(TStats.MPLS);
-        this.outgoingMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.outgoingMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.outgoingMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.outgoingTLDPPackets = new XYSeries(TStats.TLDP);
-        this.outgoingGPSRPPackets = new XYSeries(TStats.GPSRP);
-        this.incomingIPv4Packets = new XYSeries(TStats.IPV4);
-        this.incomingIPv4GOS1Packets = new XYSeries(TStats.IPV4_GOS1);
-        this.incomingIPv4GOS2Packets = new XYSeries(TStats.IPV4_GOS2);
-        this.incomingIPv4GOS3Packets = new XYSeries(TStats.IPV4_GOS3);
-        this.incomingMPLSPackets = new XYSeries(TStats.MPLS);
-        this.incomingMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.incomingMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.incomingMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.incomingTLDPPackets = new XYSeries(TStats.TLDP);
-        this.incomingGPSRPPackets = new XYSeries(TStats.GPSRP);
-        this.discardedIPv4Packets = new XYSeries(TStats.IPV4);
-        this.discardedIPv4GOS1Packets = new XYSeries(TStats.IPV4_GOS1);
-        this.discardedIPv4GOS2Packets = new XYSeries(TStats.IPV4_GOS2);
-        this.discardedIPv4GOS3Packets = new XYSeries(TStats.IPV4_GOS3);
-        this.discardedMPLSPackets = new XYSeries(TStats.MPLS);
-        this.discardedMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.discardedMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.discardedMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.discardedTLDPPackets = new XYSeries(TStats.TLDP);
-        this.discardedGPSRPPackets = new XYSeries(TStats.GPSRP);
-        // Temporary data to be consolidated -----------
-        // FIX: Do use class constants instead of hardcoded values.
-        this.incomingIPv4PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS1PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS2PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS3PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSPacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.incomingTLDPPacketsOfThisTimeInstant = 0;
-        this.incomingGPSRPPacketsOfThisTimeInstant = 0;
-        this.outgoingIPv4PacketsOfThisTimeInstant = 0;
-        this.outgoingIPv4GOS1PacketsOfThisTimeInstant = 0;
-        this.outgoingIPv4GOS2PacketsOfThisTimeInstant = 0;
-        this.outgoingIPv4GOS3PacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSPacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.outgoingTLDPPacketsOfThisTimeInstant = 0;
-        this.outgoingGPSRPPacketsOfThisTimeInstant = 0;
-        this.discardedIPv4PacketsOfThisTimeInstant = 0;
-        this.discardedIPv4GOS1PacketsOfThisTimeInstant = 0;
-        this.discardedIPv4GOS2PacketsOfThisTimeInstant = 0;
-        this.discardedIPv4GOS3PacketsOfThisTimeInstant = 0;
-        this.discardedMPLSPacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.discardedTLDPPacketsOfThisTimeInstant = 0;
-        this.discardedGPSRPPacketsOfThisTimeInstant = 0;
-        // ------------------------------------------
+        this.recoveryCounters = new TStripedCounters(NUMBER_OF_RECOVERY_COUNTERS);
+        this.counters = new TStatsCounters(EnumSet.allOf(StatsDirections.class), EnumSet.allOf(StatsPacketClasses.class));
+        this.flowCounters = new TFlowCounters();
         // FIX: Do use class constants instead of hardcoded values.
         this.retransmissionsManaged = new DefaultCategoryDataset();
-        this.retransmissionRequestsReceived = 0;
-        this.retransmissionsRealized = 0;
-        this.retransmisionsUnrealized = 0;
         // FIX: Do use class constants instead of hardcoded values.
         this.localRecoveriesManaged = new DefaultCategoryDataset();
-        this.GOSPacketsLost = 0;
-        this.retransmissionRequestsSent = 0;
-        this.GOSPacketsRecovered = 0;
-        this.GOSPacketsUnrecovered = 0;
     }
 
     /**
@@ -131,7 +62,7 @@ public class TActiveLERStats extends TStats {
      */
     @Override
     public AbstractDataset getDataset1() {
-        return this.incomingPackets;
+        return this.counters.getDataset(StatsDirections.INCOMING);
     }
 
     /**
@@ -147,7 +78,7 @@ public class TActiveLERStats extends TStats {
      */
     @Override
     public AbstractDataset getDataset2() {
-        return this.outgoingPackets;
+        return this.counters.getDataset(StatsDirections.OUTGOING);
     }
 
     /**
@@ -163,7 +94,7 @@ public class TActiveLERStats extends TStats {
      */
     @Override
     public AbstractDataset getDataset3() {
-        return this.discardedPackets;
+        return this.counters.getDataset(StatsDirections.DISCARDED);
     }
 
     /**
@@ -200,18 +131,81 @@ public class TActiveLERStats extends TStats {
 
     /**
      * This method returns the dataset #6 of the Active LER node associated to
-     * this TActiveLERStats node that can be represented in a GUI or used by any
-     * other statistics processor. There are not Dataset #6 in a TActiveLERStats
-     * so null is always returned.
+     * this TActiveLERStats that can be represented in a GUI or used by any other
+     * statistics processor. Dataset #6 contains the octets of each flow
+     * that is labeled in the LER (throughput) and the octets of payload of
+     * each flow that is unlabeled in it (goodput) during each tick. It is not counted by
+     * getNumberOfAvailableDatasets(), because it is not plotted in the
+     * analysis panel.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
-     * @return There are not Dataset #6 in a TActiveLERStats so null is
-     * returned.
-     * @since 2.0
+     * @return the dataset #6 of this TActiveLERStats, that contains the octets of
+     * each flow per tick.
+     * @since 2.3
      */
     @Override
     public AbstractDataset getDataset6() {
-        return null;
+        return this.flowCounters.getDataset();
+    }
+
+    /**
+     * This method counts an MPLS packet that has just been labeled and is
+     * going to be sent into its LSP, in the throughput of its flow. It has to
+     * be called always from the thread of the LER.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet the MPLS packet.
+     * @since 2.3
+     */
+    public void addFlowIngressEntry(TMPLSPDU packet) {
+        if (this.statsEnabled) {
+            this.flowCounters.addIngressPacket(packet);
+        }
+    }
+
+    /**
+     * This method counts an MPLS packet that has reached the end of its LSP,
+     * in the goodput of its flow. It has to be called always from the thread
+     * of the LER.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet the MPLS packet.
+     * @since 2.3
+     */
+    public void addFlowEgressEntry(TMPLSPDU packet) {
+        if (this.statsEnabled) {
+            this.flowCounters.addEgressPacket(packet);
+        }
+    }
+
+    /**
+     * This method gets the octets of the flow of the specified origin and
+     * target that have been labeled here, up to the latest grouping.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param originIPv4Address the IPv4 address of the origin of the flow.
+     * @param targetIPv4Address the IPv4 address of the target of the flow.
+     * @return the octets of the flow, or 0 if it is not labeled here.
+     * @since 2.3
+     */
+    public long getFlowThroughputOctets(String originIPv4Address, String targetIPv4Address) {
+        return this.flowCounters.getThroughputOctets(originIPv4Address, targetIPv4Address);
+    }
+
+    /**
+     * This method gets the octets of payload of the flow of the specified
+     * origin and target that have been unlabeled here, up to the latest
+     * grouping.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param originIPv4Address the IPv4 address of the origin of the flow.
+     * @param targetIPv4Address the IPv4 address of the target of the flow.
+     * @return the octets of payload of the flow, or 0 if it is not unlabeled
+     * here.
+     * @since 2.3
+     */
+    public long getFlowGoodputOctets(String originIPv4Address, String targetIPv4Address) {
+        return this.flowCounters.getGoodputOctets(originIPv4Address, targetIPv4Address);
     }
 
     /**
@@ -229,145 +223,57 @@ public class TActiveLERStats extends TStats {
     @Override
     public void addStatEntry(TAbstractPDU packet, int entryType) {
         if (this.statsEnabled) {
-            int packetType = packet.getSubtype();
-            // FIX: Do use class constants instead of hardcoded values.
-            int GOSLevel = 0;
-            // FIX: Use switch statement instead of such amount of nested ifs.
-            if (packetType == TAbstractPDU.TLDP) {
-                if (entryType == TStats.OUTGOING) {
-                    this.outgoingTLDPPacketsOfThisTimeInstant++;
-                } else if (entryType == TStats.BEING_DISCARDED) {
-                    this.discardedTLDPPacketsOfThisTimeInstant++;
-                } else if (entryType == TStats.INCOMING) {
-                    this.incomingTLDPPacketsOfThisTimeInstant++;
-                }
-            } else if (packetType == TAbstractPDU.GPSRP) {
-                TGPSRPPDU GPSRPPacket = (TGPSRPPDU) packet;
-                int messageType = GPSRPPacket.getGPSRPPayload().getGPSRPMessageType();
-                // FIX: Use switch statement instead of such amount of nested ifs.
-                if (messageType == TGPSRPPayload.RETRANSMISSION_REQUEST) {
-                    // Use switch statement instead of such amount of nested ifs.
-                    if (entryType == TStats.OUTGOING) {
-                        this.outgoingGPSRPPacketsOfThisTimeInstant++;
-                        this.retransmissionRequestsSent++;
-                    } else if (entryType == TStats.BEING_DISCARDED) {
-                        this.discardedGPSRPPacketsOfThisTimeInstant++;
-                    } else if (entryType == TStats.INCOMING) {
-                        this.incomingGPSRPPacketsOfThisTimeInstant++;
-                        this.retransmissionRequestsReceived++;
-                    }
-                } else if (messageType == TGPSRPPayload.RETRANSMISION_NOT_POSSIBLE) {
-                    // FIX: Use switch statement instead of such amount of nested ifs.
-                    if (entryType == TStats.OUTGOING) {
-                        this.outgoingGPSRPPacketsOfThisTimeInstant++;
-                        this.retransmisionsUnrealized++;
-                    } else if (entryType == TStats.BEING_DISCARDED) {
-                        this.discardedGPSRPPacketsOfThisTimeInstant++;
-                    } else if (entryType == TStats.INCOMING) {
-                        this.incomingGPSRPPacketsOfThisTimeInstant++;
-                        this.GOSPacketsUnrecovered++;
-                    }
-                } else if (messageType == TGPSRPPayload.RETRANSMISION_OK) {
-                    // FIX: Use switch statement instead of such amount of nested ifs.
-                    if (entryType == TStats.OUTGOING) {
-                        this.outgoingGPSRPPacketsOfThisTimeInstant++;
-                        this.retransmissionsRealized++;
-                    } else if (entryType == TStats.BEING_DISCARDED) {
-                        this.discardedGPSRPPacketsOfThisTimeInstant++;
-                    } else if (entryType == TStats.INCOMING) {
-                        this.incomingGPSRPPacketsOfThisTimeInstant++;
-                        this.GOSPacketsRecovered++;
-                    }
+            if (packet.getSubtype() == TAbstractPDU.GPSRP) {
+                addGPSRPStatEntry((TGPSRPPDU) packet, entryType);
+            } else {
+                if ((packet.getSubtype() == TAbstractPDU.MPLS_GOS) && (entryType == TStats.BEING_DISCARDED)) {
+                    this.recoveryCounters.increment(GOS_PACKETS_LOST_COUNTER);
                 }
-            } else if (packetType == TAbstractPDU.MPLS) {
-                // FIX: Use switch statement instead of such amount of nested ifs.
-                if (entryType == TStats.OUTGOING) {
-                    this.outgoingMPLSPacketsOfThisTimeInstant++;
-                } else if (entryType == TStats.BEING_DISCARDED) {
-                    this.discardedMPLSPacketsOfThisTimeInstant++;
-                } else if (entryType == TStats.INCOMING) {
-                    this.incomingMPLSPacketsOfThisTimeInstant++;
-                }
-            } else if (packetType == TAbstractPDU.MPLS_GOS) {
-                GOSLevel = packet.getIPv4Header().getOptionsField().getRequestedGoSLevel();
-                // FIX: Use switch statement instead of such amount of nested ifs.
+                this.counters.addStatEntry(packet, entryType);
+            }
+        }
+    }
+
+    /**
+     * This method takes into account the GPSRP packet passed as a parameter,
+     * updating both the packet counters and the counters of retransmissions
+     * and local recoveries, according to the type of GPSRP message.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param GPSRPPacket new GPSRP packet as a source of information to update
+     * stats.
+     * @param entryType INCOMING, OUTGOING o DISCARD, dependiendo on whether the
+     * packet is incoming, outgoing or being discarded.
+     * @since 2.3
+     */
+    private void addGPSRPStatEntry(TGPSRPPDU GPSRPPacket, int entryType) {
+        switch (GPSRPPacket.getGPSRPPayload().getGPSRPMessageType()) {
+            case TGPSRPPayload.RETRANSMISSION_REQUEST:
                 if (entryType == TStats.OUTGOING) {
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.outgoingMPLSPacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.outgoingMPLSGOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.outgoingMPLSGOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.outgoingMPLSGOS3PacketsOfThisTimeInstant++;
-                    }
-                } else if (entryType == TStats.BEING_DISCARDED) {
-                    this.GOSPacketsLost++;
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.discardedMPLSPacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.discardedMPLSGOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.discardedMPLSGOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.discardedMPLSGOS3PacketsOfThisTimeInstant++;
-                    }
+                    this.recoveryCounters.increment(RETRANSMISSION_REQUESTS_SENT_COUNTER);
                 } else if (entryType == TStats.INCOMING) {
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.incomingMPLSPacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.incomingMPLSGOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.incomingMPLSGOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.incomingMPLSGOS3PacketsOfThisTimeInstant++;
-                    }
+                    this.recoveryCounters.increment(RETRANSMISSION_REQUESTS_RECEIVED_COUNTER);
                 }
-            } else if (packetType == TAbstractPDU.IPV4) {
-                // FIX: Use switch statement instead of such amount of nested ifs.
+                break;
+            case TGPSRPPayload.RETRANSMISION_NOT_POSSIBLE:
                 if (entryType == TStats.OUTGOING) {
-                    this.outgoingIPv4PacketsOfThisTimeInstant++;
-                } else if (entryType == TStats.BEING_DISCARDED) {
-                    this.discardedIPv4PacketsOfThisTimeInstant++;
+                    this.recoveryCounters.increment(RETRANSMISSIONS_UNREALIZED_COUNTER);
                 } else if (entryType == TStats.INCOMING) {
-                    this.incomingIPv4PacketsOfThisTimeInstant++;
+                    this.recoveryCounters.increment(GOS_PACKETS_UNRECOVERED_COUNTER);
                 }
-            } else if (packetType == TAbstractPDU.IPV4_GOS) {
-                GOSLevel = packet.getIPv4Header().getOptionsField().getRequestedGoSLevel();
-                // FIX: Use switch statement instead of such amount of nested ifs.
+                break;
+            case TGPSRPPayload.RETRANSMISION_OK:
                 if (entryType == TStats.OUTGOING) {
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.outgoingIPv4PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.outgoingIPv4GOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.outgoingIPv4GOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.outgoingIPv4GOS3PacketsOfThisTimeInstant++;
-                    }
-                } else if (entryType == TStats.BEING_DISCARDED) {
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.discardedIPv4PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.discardedIPv4GOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.discardedIPv4GOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.discardedIPv4GOS3PacketsOfThisTimeInstant++;
-                    }
+                    this.recoveryCounters.increment(RETRANSMISSIONS_REALIZED_COUNTER);
                 } else if (entryType == TStats.INCOMING) {
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.incomingIPv4PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.incomingIPv4GOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.incomingIPv4GOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.incomingIPv4GOS3PacketsOfThisTimeInstant++;
-                    }
+                    this.recoveryCounters.increment(GOS_PACKETS_RECOVERED_COUNTER);
                 }
-            }
+                break;
+            default:
+                // Other GPSRP messages are not taken into account.
+                return;
         }
+        this.counters.addStatEntry(GPSRPPacket, entryType);
     }
 
     /**
@@ -393,81 +299,11 @@ public class TActiveLERStats extends TStats {
      */
     @Override
     public void reset() {
-        this.incomingPackets = new XYSeriesCollection();
-        this.outgoingPackets = new XYSeriesCollection();
-        this.discardedPackets = new XYSeriesCollection();
-        this.outgoingIPv4Packets = new XYSeries(TStats.IPV4);
-        this.outgoingIPv4GOS1Packets = new XYSeries(TStats.IPV4_GOS1);
-        this.outgoingIPv4GOS2Packets = new XYSeries(TStats.IPV4_GOS2);
-        this.outgoingIPv4GOS3Packets = new XYSeries(TStats.IPV4_GOS3);
-        this.outgoingMPLSPackets = new XYSeries(TStats.MPLS);
-        this.outgoingMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.outgoingMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.outgoingMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.outgoingTLDPPackets = new XYSeries(TStats.TLDP);
-        this.outgoingGPSRPPackets = new XYSeries(TStats.GPSRP);
-        this.incomingIPv4Packets = new XYSeries(TStats.IPV4);
-        this.incomingIPv4GOS1Packets = new XYSeries(TStats.IPV4_GOS1);
-        this.incomingIPv4GOS2Packets = new XYSeries(TStats.IPV4_GOS2);
-        this.incomingIPv4GOS3Packets = new XYSeries(TStats.IPV4_GOS3);
-        this.incomingMPLSPackets = new XYSeries(TStats.MPLS);
-        this.incomingMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.incomingMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.incomingMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.incomingTLDPPackets = new XYSeries(TStats.TLDP);
-        this.incomingGPSRPPackets = new XYSeries(TStats.GPSRP);
-        this.discardedIPv4Packets = new XYSeries(TStats.IPV4);
-        this.discardedIPv4GOS1Packets = new XYSeries(TStats.IPV4_GOS1);
-        this.discardedIPv4GOS2Packets = new XYSeries(TStats.IPV4_GOS2);
-        this.discardedIPv4GOS3Packets = new XYSeries(TStats.IPV4_GOS3);
-        this.discardedMPLSPackets = new XYSeries(TStats.MPLS);
-        this.discardedMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.discardedMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.discardedMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.discardedTLDPPackets = new XYSeries(TStats.TLDP);
-        this.discardedGPSRPPackets = new XYSeries(TStats.GPSRP);
-        // FIX: do not use harcoded values. Use class constants instead.
-        this.incomingIPv4PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS1PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS2PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS3PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSPacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.incomingTLDPPacketsOfThisTimeInstant = 0;
-        this.incomingGPSRPPacketsOfThisTimeInstant = 0;
-        this.outgoingIPv4PacketsOfThisTimeInstant = 0;
-        this.outgoingIPv4GOS1PacketsOfThisTimeInstant = 0;
-        this.outgoingIPv4GOS2PacketsOfThisTimeInstant = 0;
-        this.outgoingIPv4GOS3PacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSPacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.outgoingTLDPPacketsOfThisTimeInstant = 0;
-        this.outgoingGPSRPPacketsOfThisTimeInstant = 0;
-        this.discardedIPv4PacketsOfThisTimeInstant = 0;
-        this.discardedIPv4GOS1PacketsOfThisTimeInstant = 0;
-        this.discardedIPv4GOS2PacketsOfThisTimeInstant = 0;
-        this.discardedIPv4GOS3PacketsOfThisTimeInstant = 0;
-        this.discardedMPLSPacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.discardedTLDPPacketsOfThisTimeInstant = 0;
-        this.discardedGPSRPPacketsOfThisTimeInstant = 0;
+        this.counters.reset();
+        this.flowCounters.reset();
+        this.recoveryCounters.reset();
         this.retransmissionsManaged = new DefaultCategoryDataset();
-        // FIX: do not use harcoded values. Use class constants instead.
-        this.retransmissionRequestsReceived = 0;
-        this.retransmissionsRealized = 0;
-        this.retransmisionsUnrealized = 0;
         this.localRecoveriesManaged = new DefaultCategoryDataset();
-        // FIX: do not use harcoded values. Use class constants instead.
-        this.GOSPacketsLost = 0;
-        this.retransmissionRequestsSent = 0;
-        this.GOSPacketsRecovered = 0;
-        this.GOSPacketsUnrecovered = 0;
     }
 
     /**
@@ -485,404 +321,23 @@ public class TActiveLERStats extends TStats {
     @Override
     public void groupStatsByTimeInstant(long timeInstant) {
         if (this.statsEnabled) {
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingIPv4PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingIPv4Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingIPv4Packets.add(timeInstant - 1, 0);
-                    this.incomingIPv4Packets.add(timeInstant, this.incomingIPv4PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingIPv4Packets);
-                } else {
-                    this.incomingIPv4Packets.add(timeInstant, this.incomingIPv4PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingIPv4GOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingIPv4GOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingIPv4GOS1Packets.add(timeInstant - 1, 0);
-                    this.incomingIPv4GOS1Packets.add(timeInstant, this.incomingIPv4GOS1PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingIPv4GOS1Packets);
-                } else {
-                    this.incomingIPv4GOS1Packets.add(timeInstant, this.incomingIPv4GOS1PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingIPv4GOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingIPv4GOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingIPv4GOS2Packets.add(timeInstant - 1, 0);
-                    this.incomingIPv4GOS2Packets.add(timeInstant, this.incomingIPv4GOS2PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingIPv4GOS2Packets);
-                } else {
-                    this.incomingIPv4GOS2Packets.add(timeInstant, this.incomingIPv4GOS2PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingIPv4GOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingIPv4GOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingIPv4GOS3Packets.add(timeInstant - 1, 0);
-                    this.incomingIPv4GOS3Packets.add(timeInstant, this.incomingIPv4GOS3PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingIPv4GOS3Packets);
-                } else {
-                    this.incomingIPv4GOS3Packets.add(timeInstant, this.incomingIPv4GOS3PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingMPLSPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingMPLSPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingMPLSPackets.add(timeInstant - 1, 0);
-                    this.incomingMPLSPackets.add(timeInstant, this.incomingMPLSPacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingMPLSPackets);
-                } else {
-                    this.incomingMPLSPackets.add(timeInstant, this.incomingMPLSPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingMPLSGOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingMPLSGOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingMPLSGOS1Packets.add(timeInstant - 1, 0);
-                    this.incomingMPLSGOS1Packets.add(timeInstant, this.incomingMPLSGOS1PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingMPLSGOS1Packets);
-                } else {
-                    this.incomingMPLSGOS1Packets.add(timeInstant, this.incomingMPLSGOS1PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingMPLSGOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingMPLSGOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingMPLSGOS2Packets.add(timeInstant - 1, 0);
-                    this.incomingMPLSGOS2Packets.add(timeInstant, this.incomingMPLSGOS2PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingMPLSGOS2Packets);
-                } else {
-                    this.incomingMPLSGOS2Packets.add(timeInstant, this.incomingMPLSGOS2PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingMPLSGOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingMPLSGOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingMPLSGOS3Packets.add(timeInstant - 1, 0);
-                    this.incomingMPLSGOS3Packets.add(timeInstant, this.incomingMPLSGOS3PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingMPLSGOS3Packets);
-                } else {
-                    this.incomingMPLSGOS3Packets.add(timeInstant, this.incomingMPLSGOS3PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingTLDPPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingTLDPPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingTLDPPackets.add(timeInstant - 1, 0);
-                    this.incomingTLDPPackets.add(timeInstant, this.incomingTLDPPacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingTLDPPackets);
-                } else {
-                    this.incomingTLDPPackets.add(timeInstant, this.incomingTLDPPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingGPSRPPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingGPSRPPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingGPSRPPackets.add(timeInstant - 1, 0);
-                    this.incomingGPSRPPackets.add(timeInstant, this.incomingGPSRPPacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingGPSRPPackets);
-                } else {
-                    this.incomingGPSRPPackets.add(timeInstant, this.incomingGPSRPPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingIPv4PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingIPv4Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingIPv4Packets.add(timeInstant - 1, 0);
-                    this.outgoingIPv4Packets.add(timeInstant, this.outgoingIPv4PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingIPv4Packets);
-                } else {
-                    this.outgoingIPv4Packets.add(timeInstant, this.outgoingIPv4PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingIPv4GOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingIPv4GOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingIPv4GOS1Packets.add(timeInstant - 1, 0);
-                    this.outgoingIPv4GOS1Packets.add(timeInstant, this.outgoingIPv4GOS1PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingIPv4GOS1Packets);
-                } else {
-                    this.outgoingIPv4GOS1Packets.add(timeInstant, this.outgoingIPv4GOS1PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingIPv4GOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingIPv4GOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingIPv4GOS2Packets.add(timeInstant - 1, 0);
-                    this.outgoingIPv4GOS2Packets.add(timeInstant, this.outgoingIPv4GOS2PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingIPv4GOS2Packets);
-                } else {
-                    this.outgoingIPv4GOS2Packets.add(timeInstant, this.outgoingIPv4GOS2PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingIPv4GOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingIPv4GOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingIPv4GOS3Packets.add(timeInstant - 1, 0);
-                    this.outgoingIPv4GOS3Packets.add(timeInstant, this.outgoingIPv4GOS3PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingIPv4GOS3Packets);
-                } else {
-                    this.outgoingIPv4GOS3Packets.add(timeInstant, this.outgoingIPv4GOS3PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingMPLSPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingMPLSPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingMPLSPackets.add(timeInstant - 1, 0);
-                    this.outgoingMPLSPackets.add(timeInstant, this.outgoingMPLSPacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingMPLSPackets);
-                } else {
-                    this.outgoingMPLSPackets.add(timeInstant, this.outgoingMPLSPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingMPLSGOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingMPLSGOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingMPLSGOS1Packets.add(timeInstant - 1, 0);
-                    this.outgoingMPLSGOS1Packets.add(timeInstant, this.outgoingMPLSGOS1PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingMPLSGOS1Packets);
-                } else {
-                    this.outgoingMPLSGOS1Packets.add(timeInstant, this.outgoingMPLSGOS1PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingMPLSGOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingMPLSGOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingMPLSGOS2Packets.add(timeInstant - 1, 0);
-                    this.outgoingMPLSGOS2Packets.add(timeInstant, this.outgoingMPLSGOS2PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingMPLSGOS2Packets);
-                } else {
-                    this.outgoingMPLSGOS2Packets.add(timeInstant, this.outgoingMPLSGOS2PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingMPLSGOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingMPLSGOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingMPLSGOS3Packets.add(timeInstant - 1, 0);
-                    this.outgoingMPLSGOS3Packets.add(timeInstant, this.outgoingMPLSGOS3PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingMPLSGOS3Packets);
-                } else {
-                    this.outgoingMPLSGOS3Packets.add(timeInstant, this.outgoingMPLSGOS3PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingTLDPPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingTLDPPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingTLDPPackets.add(timeInstant - 1, 0);
-                    this.outgoingTLDPPackets.add(timeInstant, this.outgoingTLDPPacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingTLDPPackets);
-                } else {
-                    this.outgoingTLDPPackets.add(timeInstant, this.outgoingTLDPPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingGPSRPPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingGPSRPPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingGPSRPPackets.add(timeInstant - 1, 0);
-                    this.outgoingGPSRPPackets.add(timeInstant, this.outgoingGPSRPPacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingGPSRPPackets);
-                } else {
-                    this.outgoingGPSRPPackets.add(timeInstant, this.outgoingGPSRPPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedIPv4PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedIPv4Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedIPv4Packets.add(timeInstant - 1, 0);
-                    this.discardedIPv4Packets.add(timeInstant, this.discardedIPv4PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedIPv4Packets);
-                } else {
-                    this.discardedIPv4Packets.add(timeInstant, this.discardedIPv4PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedIPv4GOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedIPv4GOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedIPv4GOS1Packets.add(timeInstant - 1, 0);
-                    this.discardedIPv4GOS1Packets.add(timeInstant, this.discardedIPv4GOS1PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedIPv4GOS1Packets);
-                } else {
-                    this.discardedIPv4GOS1Packets.add(timeInstant, this.discardedIPv4GOS1PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedIPv4GOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedIPv4GOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedIPv4GOS2Packets.add(timeInstant - 1, 0);
-                    this.discardedIPv4GOS2Packets.add(timeInstant, this.discardedIPv4GOS2PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedIPv4GOS2Packets);
-                } else {
-                    this.discardedIPv4GOS2Packets.add(timeInstant, this.discardedIPv4GOS2PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedIPv4GOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedIPv4GOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedIPv4GOS3Packets.add(timeInstant - 1, 0);
-                    this.discardedIPv4GOS3Packets.add(timeInstant, this.discardedIPv4GOS3PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedIPv4GOS3Packets);
-                } else {
-                    this.discardedIPv4GOS3Packets.add(timeInstant, this.discardedIPv4GOS3PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedMPLSPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedMPLSPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedMPLSPackets.add(timeInstant - 1, 0);
-                    this.discardedMPLSPackets.add(timeInstant, this.discardedMPLSPacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedMPLSPackets);
-                } else {
-                    this.discardedMPLSPackets.add(timeInstant, this.discardedMPLSPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedMPLSGOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedMPLSGOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedMPLSGOS1Packets.add(timeInstant - 1, 0);
-                    this.discardedMPLSGOS1Packets.add(timeInstant, this.discardedMPLSGOS1PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedMPLSGOS1Packets);
-                } else {
-                    this.discardedMPLSGOS1Packets.add(timeInstant, this.discardedMPLSGOS1PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedMPLSGOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedMPLSGOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedMPLSGOS2Packets.add(timeInstant - 1, 0);
-                    this.discardedMPLSGOS2Packets.add(timeInstant, this.discardedMPLSGOS2PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedMPLSGOS2Packets);
-                } else {
-                    this.discardedMPLSGOS2Packets.add(timeInstant, this.discardedMPLSGOS2PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedMPLSGOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedMPLSGOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedMPLSGOS3Packets.add(timeInstant - 1, 0);
-                    this.discardedMPLSGOS3Packets.add(timeInstant, this.discardedMPLSGOS3PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedMPLSGOS3Packets);
-                } else {
-                    this.discardedMPLSGOS3Packets.add(timeInstant, this.discardedMPLSGOS3PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedTLDPPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedTLDPPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedTLDPPackets.add(timeInstant - 1, 0);
-                    this.discardedTLDPPackets.add(timeInstant, this.discardedTLDPPacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedTLDPPackets);
-                } else {
-                    this.discardedTLDPPackets.add(timeInstant, this.discardedTLDPPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedGPSRPPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedGPSRPPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedGPSRPPackets.add(timeInstant - 1, 0);
-                    this.discardedGPSRPPackets.add(timeInstant, this.discardedGPSRPPacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedGPSRPPackets);
-                } else {
-                    this.discardedGPSRPPackets.add(timeInstant, this.discardedGPSRPPacketsOfThisTimeInstant);
-                }
-            }
-
-            this.retransmissionsManaged.addValue(this.retransmissionRequestsReceived, TStats.RETRANSMISSION_REQUESTS_RECEIVED, "");
-            this.retransmissionsManaged.addValue(this.retransmissionsRealized, TStats.RETRANSMISSIONS_REALIZED, "");
-            this.retransmissionsManaged.addValue(this.retransmisionsUnrealized, TStats.RETRANSMISSIONS_UNREALIZED, "");
-            this.localRecoveriesManaged.addValue(this.GOSPacketsLost, TStats.GOS_PACKETS_LOST, "");
-            this.localRecoveriesManaged.addValue(this.retransmissionRequestsSent, TStats.RETRANSMISSION_REQUESTS_SENT, "");
-            this.localRecoveriesManaged.addValue(this.GOSPacketsRecovered, TStats.GOS_PACKETS_RECOVERED, "");
-            this.localRecoveriesManaged.addValue(this.GOSPacketsUnrecovered, TStats.GOS_PACKETS_UNRECOVERED, "");
-            int retransmissionRequestsStillUnanswered = (this.retransmissionRequestsSent - this.GOSPacketsRecovered - this.GOSPacketsUnrecovered);
+            this.counters.groupStatsByTimeInstant(timeInstant);
+            this.flowCounters.groupStatsByTimeInstant(timeInstant);
+            long retransmissionRequestsReceived = this.recoveryCounters.get(RETRANSMISSION_REQUESTS_RECEIVED_COUNTER);
+            long retransmissionsRealized = this.recoveryCounters.get(RETRANSMISSIONS_REALIZED_COUNTER);
+            long retransmisionsUnrealized = this.recoveryCounters.get(RETRANSMISSIONS_UNREALIZED_COUNTER);
+            long GOSPacketsLost = this.recoveryCounters.get(GOS_PACKETS_LOST_COUNTER);
+            long retransmissionRequestsSent = this.recoveryCounters.get(RETRANSMISSION_REQUESTS_SENT_COUNTER);
+            long GOSPacketsRecovered = this.recoveryCounters.get(GOS_PACKETS_RECOVERED_COUNTER);
+            long GOSPacketsUnrecovered = this.recoveryCounters.get(GOS_PACKETS_UNRECOVERED_COUNTER);
+            this.retransmissionsManaged.addValue(retransmissionRequestsReceived, TStats.RETRANSMISSION_REQUESTS_RECEIVED, "");
+            this.retransmissionsManaged.addValue(retransmissionsRealized, TStats.RETRANSMISSIONS_REALIZED, "");
+            this.retransmissionsManaged.addValue(retransmisionsUnrealized, TStats.RETRANSMISSIONS_UNREALIZED, "");
+            this.localRecoveriesManaged.addValue(GOSPacketsLost, TStats.GOS_PACKETS_LOST, "");
+            this.localRecoveriesManaged.addValue(retransmissionRequestsSent, TStats.RETRANSMISSION_REQUESTS_SENT, "");
+            this.localRecoveriesManaged.addValue(GOSPacketsRecovered, TStats.GOS_PACKETS_RECOVERED, "");
+            this.localRecoveriesManaged.addValue(GOSPacketsUnrecovered, TStats.GOS_PACKETS_UNRECOVERED, "");
+            long retransmissionRequestsStillUnanswered = (retransmissionRequestsSent - GOSPacketsRecovered - GOSPacketsUnrecovered);
             // FIX: do not use harcoded values. Use class constants instead.
             if (retransmissionRequestsStillUnanswered < 0) {
                 // FIX: do not use harcoded values. Use class constants instead.
@@ -958,90 +413,48 @@ public class TActiveLERStats extends TStats {
     }
 
     /**
-     * This method returns the title of dataset #6 of this TActiveLERStats node.
-     * There is not a dataset #6 in a TActiveLERStats so, null is always
-     * returned.
+     * This method returns the title of dataset #6 of this TActiveLERStats. In
+     * this case is a descriptive text about "octets per flow and tick".
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
-     * @return There is not a dataset #6 in a TActiveLERStats so, null is always
-     * returned.
-     * @since 2.0
+     * @return a descriptive text about "octets per flow and tick".
+     * @since 2.3
      */
     @Override
     public String getTitleOfDataset6() {
-        return null;
+        return TStats.OCTETS_BY_FLOW;
     }
 
-    private int incomingIPv4PacketsOfThisTimeInstant;
-    private int incomingIPv4GOS1PacketsOfThisTimeInstant;
-    private int incomingIPv4GOS2PacketsOfThisTimeInstant;
-    private int incomingIPv4GOS3PacketsOfThisTimeInstant;
-    private int incomingMPLSPacketsOfThisTimeInstant;
-    private int incomingMPLSGOS1PacketsOfThisTimeInstant;
-    private int incomingMPLSGOS2PacketsOfThisTimeInstant;
-    private int incomingMPLSGOS3PacketsOfThisTimeInstant;
-    private int incomingTLDPPacketsOfThisTimeInstant;
-    private int incomingGPSRPPacketsOfThisTimeInstant;
-    private int outgoingIPv4PacketsOfThisTimeInstant;
-    private int outgoingIPv4GOS1PacketsOfThisTimeInstant;
-    private int outgoingIPv4GOS2PacketsOfThisTimeInstant;
-    private int outgoingIPv4GOS3PacketsOfThisTimeInstant;
-    private int outgoingMPLSPacketsOfThisTimeInstant;
-    private int outgoingMPLSGOS1PacketsOfThisTimeInstant;
-    private int outgoingMPLSGOS2PacketsOfThisTimeInstant;
-    private int outgoingMPLSGOS3PacketsOfThisTimeInstant;
-    private int outgoingTLDPPacketsOfThisTimeInstant;
-    private int outgoingGPSRPPacketsOfThisTimeInstant;
-    private int discardedIPv4PacketsOfThisTimeInstant;
-    private int discardedIPv4GOS1PacketsOfThisTimeInstant;
-    private int discardedIPv4GOS2PacketsOfThisTimeInstant;
-    private int discardedIPv4GOS3PacketsOfThisTimeInstant;
-    private int discardedMPLSPacketsOfThisTimeInstant;
-    private int discardedMPLSGOS1PacketsOfThisTimeInstant;
-    private int discardedMPLSGOS2PacketsOfThisTimeInstant;
-    private int discardedMPLSGOS3PacketsOfThisTimeInstant;
-    private int discardedTLDPPacketsOfThisTimeInstant;
-    private int discardedGPSRPPacketsOfThisTimeInstant;
-    private XYSeriesCollection incomingPackets;
-    private XYSeriesCollection outgoingPackets;
-    private XYSeriesCollection discardedPackets;
-    private XYSeries incomingIPv4Packets;
-    private XYSeries incomingIPv4GOS1Packets;
-    private XYSeries incomingIPv4GOS2Packets;
-    private XYSeries incomingIPv4GOS3Packets;
-    private XYSeries incomingMPLSPackets;
-    private XYSeries incomingMPLSGOS1Packets;
-    private XYSeries incomingMPLSGOS2Packets;
-    private XYSeries incomingMPLSGOS3Packets;
-    private XYSeries incomingTLDPPackets;
-    private XYSeries incomingGPSRPPackets;
-    private XYSeries outgoingIPv4Packets;
-    private XYSeries outgoingIPv4GOS1Packets;
-    private XYSeries outgoingIPv4GOS2Packets;
-    private XYSeries outgoingIPv4GOS3Packets;
-    private XYSeries outgoingMPLSPackets;
-    private XYSeries outgoingMPLSGOS1Packets;
-    private XYSeries outgoingMPLSGOS2Packets;
-    private XYSeries outgoingMPLSGOS3Packets;
-    private XYSeries outgoingTLDPPackets;
-    private XYSeries outgoingGPSRPPackets;
-    private XYSeries discardedIPv4Packets;
-    private XYSeries discardedIPv4GOS1Packets;
-    private XYSeries discardedIPv4GOS2Packets;
-    private XYSeries discardedIPv4GOS3Packets;
-    private XYSeries discardedMPLSPackets;
-    private XYSeries discardedMPLSGOS1Packets;
-    private XYSeries discardedMPLSGOS2Packets;
-    private XYSeries discardedMPLSGOS3Packets;
-    private XYSeries discardedTLDPPackets;
-    private XYSeries discardedGPSRPPackets;
+    /**
+     * This method returns the title of the value axis of the specified
+     * dataset. Dataset #6 is measured in octets.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param datasetNumber the number of the dataset, from 1 to 6.
+     * @return the title of the value axis of the dataset.
+     * @since 2.3
+     */
+    @Override
+    public String getValueAxisTitleOfDataset(int datasetNumber) {
+        if (datasetNumber == FLOW_DATASET) {
+            return TStats.OCTETS;
+        }
+        return super.getValueAxisTitleOfDataset(datasetNumber);
+    }
+
+    private final TStatsCounters counters;
+    private final TFlowCounters flowCounters;
+    private final TStripedCounters recoveryCounters;
     private DefaultCategoryDataset retransmissionsManaged;
-    private int retransmissionRequestsReceived;
-    private int retransmissionsRealized;
-    private int retransmisionsUnrealized;
     private DefaultCategoryDataset localRecoveriesManaged;
-    private int GOSPacketsLost;
-    private int retransmissionRequestsSent;
-    private int GOSPacketsRecovered;
-    private int GOSPacketsUnrecovered;
+
+    private static final int RETRANSMISSION_REQUESTS_RECEIVED_COUNTER = 0;
+    private static final int RETRANSMISSIONS_REALIZED_COUNTER = 1;
+    private static final int RETRANSMISSIONS_UNREALIZED_COUNTER = 2;
+    private static final int GOS_PACKETS_LOST_COUNTER = 3;
+    private static final int RETRANSMISSION_REQUESTS_SENT_COUNTER = 4;
+    private static final int GOS_PACKETS_RECOVERED_COUNTER = 5;
+    private static final int GOS_PACKETS_UNRECOVERED_COUNTER = 6;
+    private static final int NUMBER_OF_RECOVERY_COUNTERS = 7;
+    private static final int FLOW_DATASET = 6;
 }
@@ -15,6 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.scenario;
 
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketSent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketGenerated;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketDiscarded;
@@ -43,6 +44,7 @@ import com.manolodominguez.opensimmpls.hardware.ports.TPort;
 import com.manolodominguez.opensimmpls.hardware.ports.TPortSet;
 import com.manolodominguez.opensimmpls.commons.TIDGenerator;
 import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
+import com.manolodominguez.opensimmpls.io.jfr.TGPSRPRequestEvent;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
 import java.util.ResourceBundle;
 
@@ -231,7 +233,7 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
         this.gIdent.reset();
         this.gIdentLDP.reset();
         this.stats.reset();
-        this.stats.setStatsEnabled(this.isGeneratingStats());
+        this.installStats(this.stats);
         this.dmgp.reset();
         this.gpsrpRequests.reset();
         this.resetTicksWithoutEmitting();
@@ -264,6 +266,7 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
     public void receiveTimerEvent(TTimerEvent timerEvent) {
         this.setTickDurationInNs(timerEvent.getTickDurationInNs());
         this.setCurrentTimeInstant(timerEvent.getUpperLimit());
+        this.drainIngressQueues();
         if (this.getPorts().isThereAnyPacketToSwitch()) {
             this.availableNanoseconds += timerEvent.getTickDurationInNs();
         } else {
@@ -284,7 +287,9 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
     public void run() {
         // Actions to be done during the timer tick.
         try {
-            this.generateSimulationEvent(new TSimulationEventNodeCongested(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), this.getPorts().getCongestionLevel()));
+            if (this.isSubscribedTo(TSimulationEvent.NODE_CONGESTED)) {
+                this.generateSimulationEvent(new TSimulationEventNodeCongested(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), this.getPorts().getCongestionLevel()));
+            }
         } catch (Exception e) {
             // FIX: this is not a good practice. Avoid.
             e.printStackTrace();
@@ -292,18 +297,64 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
         this.checkConnectivityStatus();
         this.decreaseCounters();
         this.switchPackets();
-        this.stats.groupStatsByTimeInstant(this.getCurrentTimeInstant());
+        TStats statsObserver = this.getStatsObserver();
+        if (statsObserver != null) {
+            statsObserver.groupStatsByTimeInstant(this.getCurrentTimeInstant());
+        }
     }
 
     /**
      * This method check wether the connectivity to the neighbors nodes exists.
      * Let's say, this check whether a link of this node is down. If so, this
-     * method generates the corresponding event to notify the situation.
+     * method generates the corresponding event to notify the situation. Only
+     * switching entries using a port whose link has been notified as broken
+     * are checked.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
     public void checkConnectivityStatus() {
+        int[] portsWithBrokenLinks = this.getPortsWithBrokenLinks();
+        checkSwitchingMatrixEntries(portsWithBrokenLinks);
+        this.gpsrpRequests.decreaseTimeout(this.getTickDurationInNs());
+        this.gpsrpRequests.updateEntries();
+        for (int portWithBrokenLink : portsWithBrokenLinks) {
+            this.gpsrpRequests.removeEntriesMatchingOutgoingPort(portWithBrokenLink);
+        }
+        this.gpsrpRequests.getMonitor().setRed();
+        Iterator gpsrpRequestsIterator = this.gpsrpRequests.getEntriesIterator();
+        int globalFlowID = 0;
+        int packetGoSGlobalUniqueID = 0;
+        String targetIPv4Address = null;
+        int outgoingPortAux = 0;
+        TGPSRPRequestEntry gpsrpRequestEntry = null;
+        while (gpsrpRequestsIterator.hasNext()) {
+            gpsrpRequestEntry = (TGPSRPRequestEntry) gpsrpRequestsIterator.next();
+            if (gpsrpRequestEntry.isRetriable()) {
+                globalFlowID = gpsrpRequestEntry.getFlowID();
+                packetGoSGlobalUniqueID = gpsrpRequestEntry.getPacketGoSGlobalUniqueIdentifier();
+                targetIPv4Address = gpsrpRequestEntry.getNextNearestCrossedActiveNodeIPv4();
+                outgoingPortAux = gpsrpRequestEntry.getOutgoingPortID();
+                this.requestGPSRP(globalFlowID, packetGoSGlobalUniqueID, targetIPv4Address, outgoingPortAux);
+            }
+            gpsrpRequestEntry.resetTimeoutAndDecreaseAttempts();
+        }
+        this.gpsrpRequests.getMonitor().setGreen();
+    }
+
+    /**
+     * This method checks the switching entries using a port whose link has
+     * been notified as broken, and withdraws or removes those that cannot be
+     * used any more. Nothing is done while all links are up.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param portsWithBrokenLinks the ports whose links are broken.
+     * @since 2.3
+     */
+    private void checkSwitchingMatrixEntries(int[] portsWithBrokenLinks) {
+        if (portsWithBrokenLinks.length == 0) {
+            return;
+        }
         TSwitchingMatrixEntry switchingMatrixEntry = null;
         // FIX: Avoid using harcoded values
         int portIDAux = 0;
@@ -312,7 +363,7 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
         TPort incomingPort = null;
         TLink linkAux = null;
         this.switchingMatrix.getSemaphore().setRed();
-        Iterator switchingMatrixIterator = this.switchingMatrix.getEntriesIterator();
+        Iterator switchingMatrixIterator = this.switchingMatrix.getEntriesIterator(portsWithBrokenLinks);
         while (switchingMatrixIterator.hasNext()) {
             switchingMatrixEntry = (TSwitchingMatrixEntry) switchingMatrixIterator.next();
             if (switchingMatrixEntry != null) {
@@ -371,42 +422,6 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
             }
         }
         this.switchingMatrix.getSemaphore().setGreen();
-        this.gpsrpRequests.decreaseTimeout(this.getTickDurationInNs());
-        this.gpsrpRequests.updateEntries();
-        int numberOfPorts = this.ports.getNumberOfPorts();
-        int i = 0;
-        TActivePort currentPort = null;
-        TLink linkOfPort = null;
-        for (i = 0; i < numberOfPorts; i++) {
-            currentPort = (TActivePort) this.ports.getPort(i);
-            if (currentPort != null) {
-                linkOfPort = currentPort.getLink();
-                if (linkOfPort != null) {
-                    if (linkOfPort.isBroken()) {
-                        this.gpsrpRequests.removeEntriesMatchingOutgoingPort(i);
-                    }
-                }
-            }
-        }
-        this.gpsrpRequests.getMonitor().setRed();
-        Iterator gpsrpRequestsIterator = this.gpsrpRequests.getEntriesIterator();
-        int globalFlowID = 0;
-        int packetGoSGlobalUniqueID = 0;
-        String targetIPv4Address = null;
-        int outgoingPortAux = 0;
-        TGPSRPRequestEntry gpsrpRequestEntry = null;
-        while (gpsrpRequestsIterator.hasNext()) {
-            gpsrpRequestEntry = (TGPSRPRequestEntry) gpsrpRequestsIterator.next();
-            if (gpsrpRequestEntry.isRetriable()) {
-                globalFlowID = gpsrpRequestEntry.getFlowID();
-                packetGoSGlobalUniqueID = gpsrpRequestEntry.getPacketGoSGlobalUniqueIdentifier();
-                targetIPv4Address = gpsrpRequestEntry.getNextNearestCrossedActiveNodeIPv4();
-                outgoingPortAux = gpsrpRequestEntry.getOutgoingPortID();
-                this.requestGPSRP(globalFlowID, packetGoSGlobalUniqueID, targetIPv4Address, outgoingPortAux);
-            }
-            gpsrpRequestEntry.resetTimeoutAndDecreaseAttempts();
-        }
-        this.gpsrpRequests.getMonitor().setGreen();
     }
 
     /**
@@ -424,12 +439,13 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
         // FIX: use class constant instead of hardcoded values
         int readPort = 0;
         TAbstractPDU packet = null;
-        int switchableOctectsWithCurrentNs = this.getMaxSwitchableOctectsWithCurrentNs();
-        while (this.getPorts().canSwitchPacket(switchableOctectsWithCurrentNs)) {
+        int switchedOctets = 0;
+        while (this.ports.getNextPackets(this.getMaxSwitchableOctectsWithCurrentNs(), this.packetBatch) > 0) {
             atLeastOnePacketSwitched = true;
-            packet = this.ports.getNextPacket();
-            readPort = this.ports.getReadPort();
-            if (packet != null) {
+            switchedOctets = 0;
+            for (int i = 0; i < this.packetBatch.size(); i++) {
+                packet = this.packetBatch.getPacket(i);
+                readPort = this.packetBatch.getIncomingPortID(i);
                 // FIX: Convert to a switch statement
                 if (packet.getType() == TAbstractPDU.TLDP) {
                     handleTLDPPacket((TTLDPPDU) packet, readPort);
@@ -438,13 +454,15 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                 } else if (packet.getType() == TAbstractPDU.GPSRP) {
                     handleGPSRPPacket((TGPSRPPDU) packet, readPort);
                 } else {
-                    this.availableNanoseconds += getNsRequiredForAllOctets(packet.getSize());
                     discardPacket(packet);
+                    continue;
                 }
-                this.availableNanoseconds -= getNsRequiredForAllOctets(packet.getSize());
-                switchableOctectsWithCurrentNs = this.getMaxSwitchableOctectsWithCurrentNs();
+                switchedOctets += packet.getSize();
             }
+            // Discarded packets do not consume switching time.
+            this.availableNanoseconds -= this.getNsRequiredForAllOctets(switchedOctets);
         }
+        this.packetBatch.clear();
         if (atLeastOnePacketSwitched) {
             this.resetTicksWithoutEmitting();
         } else {
@@ -484,7 +502,9 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                 if (outgoingPort != null) {
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -514,7 +534,9 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
             if (outgoingPort != null) {
                 outgoingPort.putPacketOnLink(wantedPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                 try {
-                    this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), wantedPacket.getSubtype()));
+                    if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), wantedPacket.getSubtype()));
+                    }
                 } catch (Exception e) {
                     // FIX: this is not a good practice. Avoid.
                     e.printStackTrace();
@@ -599,8 +621,12 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                 gpsrpPacket.getGPSRPPayload().setGPSRPMessageType(TGPSRPPayload.RETRANSMISSION_REQUEST);
                 outgoingPort.putPacketOnLink(gpsrpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                 try {
-                    this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
-                    this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                    if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                        this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
+                    }
+                    if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                    }
                 } catch (Exception e) {
                     //FIX: This is not a good practice. Avoid.
                     e.printStackTrace();
@@ -640,9 +666,23 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
             gpsrpPacket.getGPSRPPayload().setPacketGoSGlobalUniqueID(packetGlobalUniqueID);
             gpsrpPacket.getGPSRPPayload().setGPSRPMessageType(TGPSRPPayload.RETRANSMISSION_REQUEST);
             outgoingPort.putPacketOnLink(gpsrpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
+            TGPSRPRequestEvent gpsrpRequestEvent = new TGPSRPRequestEvent();
+            if (gpsrpRequestEvent.isEnabled()) {
+                gpsrpRequestEvent.setNodeID(this.getNodeID());
+                gpsrpRequestEvent.setNodeName(this.getName());
+                gpsrpRequestEvent.setFlowID(globalFlowID);
+                gpsrpRequestEvent.setPacketID(packetGlobalUniqueID);
+                gpsrpRequestEvent.setTargetIPv4Address(targetIPv4Address);
+                gpsrpRequestEvent.setOutgoingPortID(outgoingPortID);
+                gpsrpRequestEvent.commit();
+            }
             try {
-                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
-                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
+                }
+                if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                }
             } catch (Exception e) {
                 //FIX: This is not a good practice. Avoid.
                 e.printStackTrace();
@@ -675,8 +715,12 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
             gpsrpPacket.getGPSRPPayload().setGPSRPMessageType(TGPSRPPayload.RETRANSMISION_NOT_POSSIBLE);
             outgoingPort.putPacketOnLink(gpsrpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
             try {
-                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
-                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
+                }
+                if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                }
             } catch (Exception e) {
                 //FIX: This is not a good practice. Avoid.
                 e.printStackTrace();
@@ -711,8 +755,12 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
             gpsrpPacket.getGPSRPPayload().setGPSRPMessageType(TGPSRPPayload.RETRANSMISION_OK);
             outgoingPort.putPacketOnLink(gpsrpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
             try {
-                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
-                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
+                }
+                if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                }
             } catch (Exception e) {
                 //FIX: This is not a good practice. Avoid.
                 e.printStackTrace();
@@ -835,7 +883,9 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                     TPort outgoingPort = this.ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_SWITCHED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -850,7 +900,9 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                     TPort outgoingPort = this.ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_SWITCHED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -874,7 +926,9 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                         switchingMatrixEntry.setEntryAsForBackupLSP(false);
                     }
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_SWITCHED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -883,7 +937,9 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                     TPort outgoingPort = this.ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_SWITCHED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -1354,8 +1410,12 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                         TPort outgoingPort = this.ports.getLocalPortConnectedToANodeWithIPv4Address(targetIPv4Address);
                         outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                            }
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: this is not a good practice
                             e.printStackTrace();
@@ -1401,8 +1461,12 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                         TPort outgoingPort = this.ports.getLocalPortConnectedToANodeWithIPv4Address(targetIPv4Address);
                         outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                            }
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: This is not a good practice
                             e.printStackTrace();
@@ -1457,8 +1521,12 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                     TPort outgoingPort = this.ports.getPort(portID);
                     outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                        }
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice
                         e.printStackTrace();
@@ -1504,8 +1572,12 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                     outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     switchingMatrixEntry.setOutgoingPortID(outgoingPort.getPortID());
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                        }
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice
                         e.printStackTrace();
@@ -1559,8 +1631,12 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                                 if (outgoingBackupPort != null) {
                                     outgoingBackupPort.putPacketOnLink(newTLDPPacket, outgoingBackupPort.getLink().getDestinationOfTrafficSentBy(this));
                                     try {
-                                        this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                                        if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                                        }
+                                        if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                                        }
                                     } catch (Exception e) {
                                         // FIX: This is not a good practice
                                         e.printStackTrace();
@@ -1620,8 +1696,12 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                     if (outgoingPort != null) {
                         outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                            }
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: This is not a good practice
                             e.printStackTrace();
@@ -1672,8 +1752,12 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                     if (outgoingPort != null) {
                         outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                            }
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: This is not a good practice
                             e.printStackTrace();
@@ -1808,8 +1892,13 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
     @Override
     public void discardPacket(TAbstractPDU packet) {
         try {
-            this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
-            this.stats.addStatEntry(packet, TStats.BEING_DISCARDED);
+            if (this.isSubscribedTo(TSimulationEvent.PACKET_DISCARDED)) {
+                this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+            }
+            TStats statsObserver = this.getStatsObserver();
+            if (statsObserver != null) {
+                statsObserver.addStatEntry(packet, TStats.BEING_DISCARDED);
+            }
         } catch (Exception e) {
             // FIX: this is ugly. Avoid.
             e.printStackTrace();
@@ -15,6 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.scenario;
 
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventLinkBroken;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketDiscarded;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventLinkRecovered;
@@ -50,7 +51,6 @@ public class TExternalLink extends TLink implements ITimerEventListener, Runnabl
     public TExternalLink(int linkID, TLongIDGenerator longIDGenerator, TTopology topology) {
         super(linkID, longIDGenerator, topology);
         //FIX: Use class constants instead of harcoded values
-        this.stepLength = 0;
     }
 
     /**
@@ -79,7 +79,6 @@ public class TExternalLink extends TLink implements ITimerEventListener, Runnabl
     public void receiveTimerEvent(TTimerEvent timerEvent) {
         this.setTickDurationInNs(timerEvent.getTickDurationInNs());
         this.setCurrentTimeInstant(timerEvent.getUpperLimit());
-        this.stepLength = timerEvent.getTickDurationInNs();
         this.startOperation();
     }
 
@@ -95,29 +94,39 @@ public class TExternalLink extends TLink implements ITimerEventListener, Runnabl
     @Override
     public void setAsBrokenLink(boolean linkIsBroken) {
         this.linkIsBroken = linkIsBroken;
+        this.notifyLinkStatusToEndNodes(linkIsBroken);
         if (this.linkIsBroken) {
             try {
-                this.generateSimulationEvent(new TSimulationEventLinkBroken(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant()));
+                if (this.isSubscribedTo(TSimulationEvent.LINK_BROKEN)) {
+                    this.generateSimulationEvent(new TSimulationEventLinkBroken(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant()));
+                }
                 this.packetsInTransitEntriesLock.setRed();
                 TAbstractPDU packet = null;
                 TLinkBufferEntry bufferedPacketEntry = null;
-                Iterator bufferedPacketEntriesIterator = this.buffer.iterator();
+                Iterator<TLinkBufferEntry> bufferedPacketEntriesIterator = this.delayLine.getEntriesIterator();
                 while (bufferedPacketEntriesIterator.hasNext()) {
-                    bufferedPacketEntry = (TLinkBufferEntry) bufferedPacketEntriesIterator.next();
+                    bufferedPacketEntry = bufferedPacketEntriesIterator.next();
                     packet = bufferedPacketEntry.getPacket();
                     if (packet != null) {
+                        if (this.statsObserver != null) {
+                            this.statsObserver.addLostPacket(packet, bufferedPacketEntry.getPacketEnd());
+                        }
                         // FIX: do not use harcoded values. Use constants class
                         // instead
                         if (bufferedPacketEntry.getPacketEnd() == 1) {
-                            this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this.getTailEndNode(), this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_DISCARDED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this.getTailEndNode(), this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                            }
                             // FIX: do not use harcoded values. Use constants class
                             // instead
                         } else if (bufferedPacketEntry.getPacketEnd() == 2) {
-                            this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this.getHeadEndNode(), this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_DISCARDED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this.getHeadEndNode(), this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                            }
                         }
                     }
-                    bufferedPacketEntriesIterator.remove();
                 }
+                this.delayLine.clear();
                 this.packetsInTransitEntriesLock.setGreen();
             } catch (EIDGeneratorOverflow e) {
                 // FIX: this is not a good practice
@@ -125,7 +134,9 @@ public class TExternalLink extends TLink implements ITimerEventListener, Runnabl
             }
         } else {
             try {
-                this.generateSimulationEvent(new TSimulationEventLinkRecovered(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant()));
+                if (this.isSubscribedTo(TSimulationEvent.LINK_RECOVERED)) {
+                    this.generateSimulationEvent(new TSimulationEventLinkRecovered(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant()));
+                }
             } catch (EIDGeneratorOverflow e) {
                 // FIX: this is not a good practice
                 e.printStackTrace();
@@ -143,24 +154,31 @@ public class TExternalLink extends TLink implements ITimerEventListener, Runnabl
      */
     @Override
     public void run() {
-        this.updateTransitDelay();
-        this.advancePacketInTransit();
+        // Packets in transit are only reported when they are going to be
+        // painted. Their position is computed from their arrival time anyway.
+        if (this.isSubscribedTo(TSimulationEvent.PACKET_ON_FLY)) {
+            this.updateTransitDelay();
+        }
         this.deliverPacketsToDestination();
+        if (this.statsObserver != null) {
+            this.statsObserver.groupStatsByTimeInstant(this.getCurrentTimeInstant());
+        }
     }
 
     /**
      * This method pick up all packets in transit through this link and updates
-     * their remaining transit delay to the destination node.
+     * their remaining transit delay to the destination node, from the time
+     * instant each one reaches it.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
     public void updateTransitDelay() {
         this.packetsInTransitEntriesLock.setRed();
-        Iterator bufferedPacketEntriesIterator = this.buffer.iterator();
+        Iterator<TLinkBufferEntry> bufferedPacketEntriesIterator = this.delayLine.getEntriesIterator();
         while (bufferedPacketEntriesIterator.hasNext()) {
-            TLinkBufferEntry bufferedPacketEntry = (TLinkBufferEntry) bufferedPacketEntriesIterator.next();
-            bufferedPacketEntry.substractStepFromRemainingDelay(this.stepLength);
+            TLinkBufferEntry bufferedPacketEntry = bufferedPacketEntriesIterator.next();
+            bufferedPacketEntry.updateRemainingDelay(this.getCurrentTimeInstant());
             long transitPercentage = this.getCurrentTransitPercentage(bufferedPacketEntry.getTotalTransitDelay(), bufferedPacketEntry.getRemainingTransitDelay());
             // FIX: do not use harcoded values. Use constants class instead.
             if (bufferedPacketEntry.getPacketEnd() == 1) {
@@ -178,60 +196,34 @@ public class TExternalLink extends TLink implements ITimerEventListener, Runnabl
     }
 
     /**
-     * This method pick up all packets in transit through this link and advances
-     * them to the destination node. Also, it detects those packets that have
-     * already reached the target node.
+     * This method pick up all packets that have already reached the target node
+     * and deposits them in the corresponding port of that node. As packets are
+     * kept in the order they arrive, only those packets are visited.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
-    public void advancePacketInTransit() {
+    public void deliverPacketsToDestination() {
         this.packetsInTransitEntriesLock.setRed();
-        Iterator bufferedPacketEntriesIterator = this.buffer.iterator();
-        while (bufferedPacketEntriesIterator.hasNext()) {
-            TLinkBufferEntry bufferedPacketEntry = (TLinkBufferEntry) bufferedPacketEntriesIterator.next();
-            // FIX: Do not use harcoded values. Use constants class instead.
-            if (bufferedPacketEntry.getRemainingTransitDelay() <= 0) {
-                this.deliveredPacketEntriesLock.setRed();
-                this.deliveredPacketsBuffer.add(bufferedPacketEntry);
-                this.deliveredPacketEntriesLock.setGreen();
+        TLinkBufferEntry arrivedPacketEntry = this.delayLine.pollArrivedEntry(TLink.HEAD_END_NODE, this.getCurrentTimeInstant());
+        while (arrivedPacketEntry != null) {
+            if (this.statsObserver != null) {
+                this.statsObserver.addDeliveredPacket(arrivedPacketEntry.getPacket(), TLink.HEAD_END_NODE);
             }
+            this.getHeadEndNode().putPacket(arrivedPacketEntry.getPacket(), this.getHeadEndNodePortID());
+            arrivedPacketEntry = this.delayLine.pollArrivedEntry(TLink.HEAD_END_NODE, this.getCurrentTimeInstant());
         }
-        bufferedPacketEntriesIterator = this.buffer.iterator();
-        while (bufferedPacketEntriesIterator.hasNext()) {
-            TLinkBufferEntry bufferedPacketEntry = (TLinkBufferEntry) bufferedPacketEntriesIterator.next();
-            // FIX: Do not use harcoded values. Use constants class instead.
-            if (bufferedPacketEntry.getRemainingTransitDelay() <= 0) {
-                bufferedPacketEntriesIterator.remove();
+        arrivedPacketEntry = this.delayLine.pollArrivedEntry(TLink.TAIL_END_NODE, this.getCurrentTimeInstant());
+        while (arrivedPacketEntry != null) {
+            if (this.statsObserver != null) {
+                this.statsObserver.addDeliveredPacket(arrivedPacketEntry.getPacket(), TLink.TAIL_END_NODE);
             }
+            this.getTailEndNode().putPacket(arrivedPacketEntry.getPacket(), this.getTailEndNodePortID());
+            arrivedPacketEntry = this.delayLine.pollArrivedEntry(TLink.TAIL_END_NODE, this.getCurrentTimeInstant());
         }
         this.packetsInTransitEntriesLock.setGreen();
     }
 
-    /**
-     * This method pick up all packets that have already reached the target node
-     * and deposits them in the corresponding port of that node.
-     *
-     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
-     * @since 2.0
-     */
-    public void deliverPacketsToDestination() {
-        this.deliveredPacketEntriesLock.setRed();
-        Iterator deliveredPacketEntriesIterator = this.deliveredPacketsBuffer.iterator();
-        while (deliveredPacketEntriesIterator.hasNext()) {
-            TLinkBufferEntry deliveredBufferedPacketEntry = (TLinkBufferEntry) deliveredPacketEntriesIterator.next();
-            if (deliveredBufferedPacketEntry.getPacketEnd() == TLink.HEAD_END_NODE) {
-                TNode nodeAux = this.getHeadEndNode();
-                nodeAux.putPacket(deliveredBufferedPacketEntry.getPacket(), this.getHeadEndNodePortID());
-            } else {
-                TNode nodeAux = this.getTailEndNode();
-                nodeAux.putPacket(deliveredBufferedPacketEntry.getPacket(), this.getTailEndNodePortID());
-            }
-            deliveredPacketEntriesIterator.remove();
-        }
-        this.deliveredPacketEntriesLock.setGreen();
-    }
-
     /**
      * This method gets the weight of this link to be used in the global routing
      * algoritm.
@@ -362,19 +354,9 @@ public class TExternalLink extends TLink implements ITimerEventListener, Runnabl
     @Override
     public void reset() {
         this.packetsInTransitEntriesLock.setRed();
-        Iterator bufferedPacketEntriesIterator = this.buffer.iterator();
-        while (bufferedPacketEntriesIterator.hasNext()) {
-            bufferedPacketEntriesIterator.next();
-            bufferedPacketEntriesIterator.remove();
-        }
+        this.delayLine.clear();
         this.packetsInTransitEntriesLock.setGreen();
-        this.deliveredPacketEntriesLock.setRed();
-        Iterator deliveredPacketEntriesIterator = this.deliveredPacketsBuffer.iterator();
-        while (deliveredPacketEntriesIterator.hasNext()) {
-            deliveredPacketEntriesIterator.next();
-            deliveredPacketEntriesIterator.remove();
-        }
-        this.deliveredPacketEntriesLock.setGreen();
+        this.resetStats();
         this.setAsBrokenLink(false);
     }
 
@@ -395,5 +377,4 @@ public class TExternalLink extends TLink implements ITimerEventListener, Runnabl
         return this.getWeight();
     }
 
-    private long stepLength;
 }
@@ -0,0 +1,269 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import com.manolodominguez.opensimmpls.protocols.TIPv4Header;
+import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class implements the per flow octet counters shared by the statistics
+ * of every type of LER. A flow is identified by the origin and the target IPv4
+ * addresses of its packets, the same fields a LER classifies packets by to
+ * choose their FEC. Labels are not used, as they change at each hop and are
+ * not the same where a flow enters its LSP and where it leaves it. The
+ * throughput of a flow is counted where its packets are labeled, as octets of
+ * MPLS packets, and its goodput where they are unlabeled, as octets of TCP
+ * payload. Counting a packet costs two lookups in hash maps keyed by the
+ * address strings the packet already carries, so nothing is allocated but for
+ * the first packet of each flow.
+ *
+ * Counters are used only by the thread of their LER, so they are not
+ * synchronized.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public class TFlowCounters {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TFlowCounters without any flow.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public TFlowCounters() {
+        this.flowsByOrigin = new HashMap<>();
+        this.flows = new ArrayList<>();
+        reset();
+    }
+
+    /**
+     * This method counts an MPLS packet that has just been labeled and is
+     * going to be sent into its LSP.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet the MPLS packet.
+     * @since 2.3
+     */
+    public void addIngressPacket(TMPLSPDU packet) {
+        TFlow flow = getFlow(packet.getIPv4Header());
+        flow.throughputOctets += packet.getSize();
+        flow.isIngress = true;
+    }
+
+    /**
+     * This method counts an MPLS packet that has reached the end of its LSP
+     * and is going to be unlabeled.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet the MPLS packet.
+     * @since 2.3
+     */
+    public void addEgressPacket(TMPLSPDU packet) {
+        TFlow flow = getFlow(packet.getIPv4Header());
+        flow.goodputOctets += packet.getTCPPayload().getSize();
+        flow.isEgress = true;
+    }
+
+    /**
+     * This method gets the flow of the packets of the specified IPv4 header,
+     * creating it if it does not exist yet.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param header the IPv4 header of a packet.
+     * @return the flow.
+     * @since 2.3
+     */
+    private TFlow getFlow(TIPv4Header header) {
+        String originIPv4Address = header.getOriginIPv4Address();
+        String targetIPv4Address = header.getTailEndIPAddress();
+        Map<String, TFlow> flowsOfOrigin = this.flowsByOrigin.get(originIPv4Address);
+        if (flowsOfOrigin == null) {
+            flowsOfOrigin = new HashMap<>();
+            this.flowsByOrigin.put(originIPv4Address, flowsOfOrigin);
+        }
+        TFlow flow = flowsOfOrigin.get(targetIPv4Address);
+        if (flow == null) {
+            flow = new TFlow(originIPv4Address + DIRECTION_SEPARATOR + targetIPv4Address);
+            flowsOfOrigin.put(targetIPv4Address, flow);
+            this.flows.add(flow);
+        }
+        return flow;
+    }
+
+    /**
+     * This method adds the octets counted since the previous call to the
+     * throughput series of every flow that is labeled in this LER, and to the
+     * goodput series of every flow that is unlabeled in it, and sets the
+     * counters of the tick to zero. Series are added to the dataset the first
+     * time their flow is used, so ticks without traffic are recorded as zero. It has to be
+     * called always from the thread of the LER.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param timeInstant the time instant (in simulation terms) by wich the
+     * counters are grouped.
+     * @since 2.3
+     */
+    public void groupStatsByTimeInstant(long timeInstant) {
+        for (TFlow flow : this.flows) {
+            if (flow.isIngress) {
+                if (flow.throughputSeries == null) {
+                    flow.throughputSeries = new TStatsTimeSeries(flow.key + TYPE_PREFIX + TStats.THROUGHPUT + TYPE_SUFFIX);
+                    flow.throughputSeries.add(timeInstant - ONE, ZERO);
+                    this.dataset.addSeries(flow.throughputSeries);
+                }
+                flow.throughputSeries.add(timeInstant, flow.throughputOctets);
+                flow.totalThroughputOctets += flow.throughputOctets;
+                flow.throughputOctets = ZERO;
+            }
+            if (flow.isEgress) {
+                if (flow.goodputSeries == null) {
+                    flow.goodputSeries = new TStatsTimeSeries(flow.key + TYPE_PREFIX + TStats.GOODPUT + TYPE_SUFFIX);
+                    flow.goodputSeries.add(timeInstant - ONE, ZERO);
+                    this.dataset.addSeries(flow.goodputSeries);
+                }
+                flow.goodputSeries.add(timeInstant, flow.goodputOctets);
+                flow.totalGoodputOctets += flow.goodputOctets;
+                flow.goodputOctets = ZERO;
+            }
+        }
+    }
+
+    /**
+     * This method gets the octets of the flow of the specified origin and
+     * target that have been labeled, up to the latest grouping.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param originIPv4Address the IPv4 address of the origin of the flow.
+     * @param targetIPv4Address the IPv4 address of the target of the flow.
+     * @return the octets of the flow, or 0 if it is not known.
+     * @since 2.3
+     */
+    public long getThroughputOctets(String originIPv4Address, String targetIPv4Address) {
+        TFlow flow = findFlow(originIPv4Address, targetIPv4Address);
+        if (flow == null) {
+            return ZERO;
+        }
+        return flow.totalThroughputOctets;
+    }
+
+    /**
+     * This method gets the octets of payload of the flow of the specified
+     * origin and target that have been unlabeled, up to the latest grouping.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param originIPv4Address the IPv4 address of the origin of the flow.
+     * @param targetIPv4Address the IPv4 address of the target of the flow.
+     * @return the octets of payload of the flow, or 0 if it is not known.
+     * @since 2.3
+     */
+    public long getGoodputOctets(String originIPv4Address, String targetIPv4Address) {
+        TFlow flow = findFlow(originIPv4Address, targetIPv4Address);
+        if (flow == null) {
+            return ZERO;
+        }
+        return flow.totalGoodputOctets;
+    }
+
+    /**
+     * This method gets the flow of the specified origin and target, without
+     * creating it.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param originIPv4Address the IPv4 address of the origin of the flow.
+     * @param targetIPv4Address the IPv4 address of the target of the flow.
+     * @return the flow, or null if it is not known.
+     * @since 2.3
+     */
+    private TFlow findFlow(String originIPv4Address, String targetIPv4Address) {
+        Map<String, TFlow> flowsOfOrigin = this.flowsByOrigin.get(originIPv4Address);
+        if (flowsOfOrigin == null) {
+            return null;
+        }
+        return flowsOfOrigin.get(targetIPv4Address);
+    }
+
+    /**
+     * This method gets the dataset containing the throughput and goodput
+     * series of every flow.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the dataset.
+     * @since 2.3
+     */
+    public TStatsXYDataset getDataset() {
+        return this.dataset;
+    }
+
+    /**
+     * This method discards every flow and every time series, as in the moment
+     * of the instantiation.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public final void reset() {
+        this.flowsByOrigin.clear();
+        this.flows.clear();
+        this.dataset = new TStatsXYDataset();
+    }
+
+    /**
+     * This class keeps the counters and the series of a flow.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @version 2.3
+     */
+    private static class TFlow {
+
+        /**
+         * This is the constructor of the class. It creates a new instance of
+         * TFlow.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @param key the text that identifies the flow in the series.
+         * @since 2.3
+         */
+        TFlow(String key) {
+            this.key = key;
+        }
+
+        private final String key;
+        private boolean isIngress;
+        private boolean isEgress;
+        private long throughputOctets;
+        private long goodputOctets;
+        private long totalThroughputOctets;
+        private long totalGoodputOctets;
+        private TStatsTimeSeries throughputSeries;
+        private TStatsTimeSeries goodputSeries;
+    }
+
+    private final Map<String, Map<String, TFlow>> flowsByOrigin;
+    private final List<TFlow> flows;
+    private TStatsXYDataset dataset;
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final String DIRECTION_SEPARATOR = " -> ";
+    private static final String TYPE_PREFIX = " (";
+    private static final String TYPE_SUFFIX = ")";
+}
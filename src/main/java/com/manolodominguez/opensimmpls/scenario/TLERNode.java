@@ -15,6 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.scenario;
 
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketSent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketGenerated;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketDiscarded;
@@ -35,11 +36,13 @@ import com.manolodominguez.opensimmpls.hardware.tldp.TSwitchingMatrixEntry;
 import com.manolodominguez.opensimmpls.hardware.ports.TFIFOPortSet;
 import com.manolodominguez.opensimmpls.hardware.ports.TPort;
 import com.manolodominguez.opensimmpls.hardware.ports.TPortSet;
+import com.manolodominguez.opensimmpls.hardware.ports.TQueueDiscipline;
 import com.manolodominguez.opensimmpls.commons.EIDGeneratorOverflow;
 import com.manolodominguez.opensimmpls.commons.TIDGenerator;
 import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
 import java.awt.Point;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.ResourceBundle;
 
@@ -192,6 +195,29 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
         this.getPorts().setBufferSizeInMB(bufferSizeInMBytes);
     }
 
+    /**
+     * This method gets the queue discipline used by this LER's ports.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return one of the queue discipline types defined in TQueueDiscipline.
+     * @since 2.3
+     */
+    public int getQueueDiscipline() {
+        return ((TFIFOPortSet) this.getPorts()).getQueueDisciplineType();
+    }
+
+    /**
+     * This method sets the queue discipline used by this LER's ports.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param queueDiscipline one of the queue discipline types defined in
+     * TQueueDiscipline.
+     * @since 2.3
+     */
+    public void setQueueDiscipline(int queueDiscipline) {
+        ((TFIFOPortSet) this.getPorts()).setQueueDisciplineType(queueDiscipline);
+    }
+
     /**
      * This method restart the attributes of the class as in the creation of the
      * instance.
@@ -206,7 +232,7 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
         this.gIdent.reset();
         this.gIdentLDP.reset();
         this.stats.reset();
-        this.stats.setStatsEnabled(this.isGeneratingStats());
+        this.installStats(this.stats);
         this.resetTicksWithoutEmitting();
     }
 
@@ -236,6 +262,7 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
     public void receiveTimerEvent(TTimerEvent timerEvent) {
         this.setTickDurationInNs(timerEvent.getTickDurationInNs());
         this.setCurrentTimeInstant(timerEvent.getUpperLimit());
+        this.drainIngressQueues();
         if (this.getPorts().isThereAnyPacketToRoute()) {
             this.availableNanoseconds += timerEvent.getTickDurationInNs();
         } else {
@@ -256,7 +283,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
     public void run() {
         // Actions to be done during the timer tick.
         try {
-            this.generateSimulationEvent(new TSimulationEventNodeCongested(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), this.getPorts().getCongestionLevel()));
+            if (this.isSubscribedTo(TSimulationEvent.NODE_CONGESTED)) {
+                this.generateSimulationEvent(new TSimulationEventNodeCongested(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), this.getPorts().getCongestionLevel()));
+            }
         } catch (Exception e) {
             // FIX: this is not a good practice. Avoid.
             e.printStackTrace();
@@ -264,18 +293,29 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
         this.checkConnectivityStatus();
         this.decreaseCounters();
         this.routePackets();
-        this.stats.groupStatsByTimeInstant(this.getCurrentTimeInstant());
+        TStats statsObserver = this.getStatsObserver();
+        if (statsObserver != null) {
+            statsObserver.groupStatsByTimeInstant(this.getCurrentTimeInstant());
+        }
     }
 
     /**
      * This method check wether the connectivity to the neighbors nodes exists.
      * Let's say, this check whether a link of this node is down. If so, this
-     * method generates the corresponding event to notify the situation.
+     * method generates the corresponding event to notify the situation. Only
+     * switching entries using a port whose link has been notified as broken,
+     * or having an undefined incoming or outgoing port, are checked.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
     public void checkConnectivityStatus() {
+        int[] portsWithBrokenLinks = this.getPortsWithBrokenLinks();
+        if ((portsWithBrokenLinks.length == 0) && (!this.switchingMatrix.hasEntriesUsingPort(TSwitchingMatrixEntry.UNDEFINED))) {
+            return;
+        }
+        int[] portsToBeChecked = Arrays.copyOf(portsWithBrokenLinks, portsWithBrokenLinks.length + 1);
+        portsToBeChecked[portsWithBrokenLinks.length] = TSwitchingMatrixEntry.UNDEFINED;
         boolean removeSwitchingMatrixEntry = false;
         TSwitchingMatrixEntry switchingMatrixEntry = null;
         // FIX: Avoid using harcoded values
@@ -285,10 +325,11 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
         TLink linkAux1 = null;
         TLink linkAux2 = null;
         this.switchingMatrix.getSemaphore().setRed();
-        Iterator switchingMatrixIterator = switchingMatrix.getEntriesIterator();
+        Iterator switchingMatrixIterator = this.switchingMatrix.getEntriesIterator(portsToBeChecked);
         while (switchingMatrixIterator.hasNext()) {
             switchingMatrixEntry = (TSwitchingMatrixEntry) switchingMatrixIterator.next();
             if (switchingMatrixEntry != null) {
+                removeSwitchingMatrixEntry = false;
                 portIDAux = switchingMatrixEntry.getOutgoingPortID();
                 // FIX: Avoid using harcoded values
                 if ((portIDAux >= 0) && (portIDAux < this.ports.getNumberOfPorts())) {
@@ -368,12 +409,13 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
         boolean atLeastOnePacketRouted = false;
         int readPort = 0;
         TAbstractPDU packet = null;
-        int routeableOctectsWithCurrentNs = this.getMaxRouteableOctectsWithCurrentNs();
-        while (this.getPorts().canSwitchPacket(routeableOctectsWithCurrentNs)) {
+        int routedOctets = 0;
+        while (this.ports.getNextPackets(this.getMaxRouteableOctectsWithCurrentNs(), this.packetBatch) > 0) {
             atLeastOnePacketRouted = true;
-            packet = this.ports.getNextPacket();
-            readPort = this.ports.getReadPort();
-            if (packet != null) {
+            routedOctets = 0;
+            for (int i = 0; i < this.packetBatch.size(); i++) {
+                packet = this.packetBatch.getPacket(i);
+                readPort = this.packetBatch.getIncomingPortID(i);
                 // FIX: Convert to a switch statement
                 if (packet.getType() == TAbstractPDU.IPV4) {
                     this.handleIPv4Packet((TIPv4PDU) packet, readPort);
@@ -384,13 +426,15 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                 } else if (packet.getType() == TAbstractPDU.GPSRP) {
                     this.handleGPSRPPacket((TGPSRPPDU) packet, readPort);
                 } else {
-                    this.availableNanoseconds += this.getNsRequiredForAllOctets(packet.getSize());
                     this.discardPacket(packet);
+                    continue;
                 }
-                this.availableNanoseconds -= this.getNsRequiredForAllOctets(packet.getSize());
-                routeableOctectsWithCurrentNs = this.getMaxRouteableOctectsWithCurrentNs();
+                routedOctets += packet.getSize();
             }
+            // Discarded packets do not consume routing time.
+            this.availableNanoseconds -= this.getNsRequiredForAllOctets(routedOctets);
         }
+        this.packetBatch.clear();
         if (atLeastOnePacketRouted) {
             this.resetTicksWithoutEmitting();
         } else {
@@ -425,7 +469,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                 if (outgoingPort != null) {
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -486,9 +532,15 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                 } else if (operation == TSwitchingMatrixEntry.PUSH_LABEL) {
                     TPort outgoingPort = this.ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     TMPLSPDU mplsPacket = this.createMPLSPacket(packet, switchingMatrixEntry);
+                    TStats statsObserver = this.getStatsObserver();
+                    if (statsObserver != null) {
+                        ((TLERStats) statsObserver).addFlowIngressEntry(mplsPacket);
+                    }
                     outgoingPort.putPacketOnLink(mplsPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         e.printStackTrace();
                     }
@@ -500,7 +552,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                     TPort outgoingPort = this.ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: Avoid this. This is not a good practice.
                         e.printStackTrace();
@@ -629,13 +683,19 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                     TPort outgoingPort = this.ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
                     }
                 } else if (operation == TSwitchingMatrixEntry.POP_LABEL) {
                     if (packet.getLabelStack().getTop().getBoS()) {
+                        TStats statsObserver = this.getStatsObserver();
+                        if (statsObserver != null) {
+                            ((TLERStats) statsObserver).addFlowEgressEntry(packet);
+                        }
                         TIPv4PDU ipv4Packet = this.createIPv4Packet(packet, switchingMatrixEntry);
                         if (isLabeled) {
                             ipv4Packet.setSubtype(TAbstractPDU.IPV4_GOS);
@@ -651,7 +711,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                         outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     }
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -664,7 +726,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                     TPort outgoingPort = this.ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -673,7 +737,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                     TPort outgoingPort = this.ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -956,8 +1022,12 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                         TPort outgoingPort = this.ports.getLocalPortConnectedToANodeWithIPv4Address(targetIPv4Address);
                         outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                            }
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: this is not a good practice. Avoid.
                             e.printStackTrace();
@@ -1002,8 +1072,12 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                         TPort outgoingPort = ports.getLocalPortConnectedToANodeWithIPv4Address(targetIPv4Address);
                         outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                            }
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             //FIX: this is not a good practice. Avoid.
                             e.printStackTrace();
@@ -1054,8 +1128,12 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                     TPort outgoingPort = this.ports.getPort(portID);
                     outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                        }
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        }
                     } catch (Exception e) {
                         // FIX: this is not a good practice. Avoid.
                         e.printStackTrace();
@@ -1104,8 +1182,12 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                     if (outgoingPort != null) {
                         outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                            }
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: this is not a good practice. Avoid.
                             e.printStackTrace();
@@ -1158,8 +1240,12 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                     if (outgoingPort != null) {
                         outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                            }
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: this is ugly. Avoid.
                             e.printStackTrace();
@@ -1210,8 +1296,12 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                     if (outgoingPort != null) {
                         outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                            }
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: this is ugly. Avoid.
                             e.printStackTrace();
@@ -1520,7 +1610,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
         mplsPacket.getLabelStack().pushTop(mplsLabel);
         ipv4Packet = null;
         try {
-            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), mplsPacket.getSubtype(), mplsPacket.getSize()));
+            if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), mplsPacket.getSubtype(), mplsPacket.getSize()));
+            }
         } catch (Exception e) {
             // FIX: this is ugly. Avoid.
             e.printStackTrace();
@@ -1560,7 +1652,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
             ipv4Packet.setSubtype(TAbstractPDU.IPV4);
         }
         try {
-            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), ipv4Packet.getSubtype(), ipv4Packet.getSize()));
+            if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), ipv4Packet.getSubtype(), ipv4Packet.getSize()));
+            }
         } catch (Exception e) {
             // FIX: this is ugly. Avoid.
             e.printStackTrace();
@@ -1598,8 +1692,13 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
     @Override
     public void discardPacket(TAbstractPDU packet) {
         try {
-            this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
-            this.stats.addStatEntry(packet, TStats.BEING_DISCARDED);
+            if (this.isSubscribedTo(TSimulationEvent.PACKET_DISCARDED)) {
+                this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+            }
+            TStats statsObserver = this.getStatsObserver();
+            if (statsObserver != null) {
+                statsObserver.addStatEntry(packet, TStats.BEING_DISCARDED);
+            }
         } catch (Exception e) {
             // FIX: this is ugly. Avoid.
             e.printStackTrace();
@@ -1818,6 +1917,8 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
         serializedElement += "#";
         serializedElement += this.getPorts().getBufferSizeInMBytes();
         serializedElement += "#";
+        serializedElement += this.getQueueDiscipline();
+        serializedElement += "#";
         return serializedElement;
     }
 
@@ -1837,9 +1938,18 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
         // FIX: All fixed values in this method should be implemented as class
         // constants instead of harcoded values.
         String[] elementFields = serializedLER.split("#");
-        if (elementFields.length != 12) {
+        // Files saved before queue disciplines were available do not include
+        // the last field. FIFO is used for them.
+        if ((elementFields.length != 12) && (elementFields.length != 13)) {
             return false;
         }
+        int queueDisciplineAux = TQueueDiscipline.FIFO;
+        if (elementFields.length == 13) {
+            queueDisciplineAux = Integer.parseInt(elementFields[12]);
+            if (!TQueueDiscipline.isValidType(queueDisciplineAux)) {
+                return false;
+            }
+        }
         this.setNodeID(Integer.parseInt(elementFields[2]));
         this.setName(elementFields[3]);
         this.setIPv4Address(elementFields[4]);
@@ -1851,6 +1961,7 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
         this.setScreenPosition(new Point(posX + 24, posY + 24));
         this.routingPowerInMbps = Integer.parseInt(elementFields[10]);
         this.getPorts().setBufferSizeInMB(Integer.parseInt(elementFields[11]));
+        this.setQueueDiscipline(queueDisciplineAux);
         return true;
     }
 
@@ -15,6 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.scenario;
 
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketSent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketGenerated;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketDiscarded;
@@ -35,6 +36,7 @@ import com.manolodominguez.opensimmpls.hardware.tldp.TSwitchingMatrixEntry;
 import com.manolodominguez.opensimmpls.hardware.ports.TFIFOPortSet;
 import com.manolodominguez.opensimmpls.hardware.ports.TPort;
 import com.manolodominguez.opensimmpls.hardware.ports.TPortSet;
+import com.manolodominguez.opensimmpls.hardware.ports.TQueueDiscipline;
 import com.manolodominguez.opensimmpls.commons.TIDGenerator;
 import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
@@ -187,6 +189,29 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
         this.getPorts().setBufferSizeInMB(bufferSizeInMBytes);
     }
 
+    /**
+     * This method gets the queue discipline used by this LSR's ports.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return one of the queue discipline types defined in TQueueDiscipline.
+     * @since 2.3
+     */
+    public int getQueueDiscipline() {
+        return ((TFIFOPortSet) this.getPorts()).getQueueDisciplineType();
+    }
+
+    /**
+     * This method sets the queue discipline used by this LSR's ports.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param queueDiscipline one of the queue discipline types defined in
+     * TQueueDiscipline.
+     * @since 2.3
+     */
+    public void setQueueDiscipline(int queueDiscipline) {
+        ((TFIFOPortSet) this.getPorts()).setQueueDisciplineType(queueDiscipline);
+    }
+
     /**
      * This method restart the attributes of the class as in the creation of the
      * instance.
@@ -201,7 +226,7 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
         this.gIdent.reset();
         this.gIdentLDP.reset();
         this.stats.reset();
-        this.stats.setStatsEnabled(this.isGeneratingStats());
+        this.installStats(this.stats);
         this.resetTicksWithoutEmitting();
     }
 
@@ -231,6 +256,7 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
     public void receiveTimerEvent(TTimerEvent timerEvent) {
         this.setTickDurationInNs(timerEvent.getTickDurationInNs());
         this.setCurrentTimeInstant(timerEvent.getUpperLimit());
+        this.drainIngressQueues();
         if (this.getPorts().isThereAnyPacketToSwitch()) {
             this.availableNanoseconds += timerEvent.getTickDurationInNs();
         } else {
@@ -251,7 +277,9 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
     public void run() {
         // Actions to be done during the timer tick.
         try {
-            this.generateSimulationEvent(new TSimulationEventNodeCongested(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), this.getPorts().getCongestionLevel()));
+            if (this.isSubscribedTo(TSimulationEvent.NODE_CONGESTED)) {
+                this.generateSimulationEvent(new TSimulationEventNodeCongested(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), this.getPorts().getCongestionLevel()));
+            }
         } catch (Exception e) {
             // FIX: this is not a good practice. Avoid.
             e.printStackTrace();
@@ -259,19 +287,28 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
         this.checkConnectivityStatus();
         this.decreaseCounters();
         this.switchPackets();
-        this.stats.groupStatsByTimeInstant(this.getCurrentTimeInstant());
+        TStats statsObserver = this.getStatsObserver();
+        if (statsObserver != null) {
+            statsObserver.groupStatsByTimeInstant(this.getCurrentTimeInstant());
+        }
         // Acciones a llevar a cabo durante el tic.
     }
 
     /**
      * This method check wether the connectivity to the neighbors nodes exists.
      * Let's say, this check whether a link of this node is down. If so, this
-     * method generates the corresponding event to notify the situation.
+     * method generates the corresponding event to notify the situation. Only
+     * switching entries using a port whose link has been notified as broken
+     * are checked, so nothing is done while all links are up.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
     public void checkConnectivityStatus() {
+        int[] portsWithBrokenLinks = this.getPortsWithBrokenLinks();
+        if (portsWithBrokenLinks.length == 0) {
+            return;
+        }
         TSwitchingMatrixEntry switchingMatrixEntry = null;
         // FIX: Avoid using harcoded values
         int portIDAux = 0;
@@ -279,7 +316,7 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
         TPort incomingPort = null;
         TLink linkAux = null;
         this.switchingMatrix.getSemaphore().setRed();
-        Iterator switchingMatrixIterator = this.switchingMatrix.getEntriesIterator();
+        Iterator switchingMatrixIterator = this.switchingMatrix.getEntriesIterator(portsWithBrokenLinks);
         while (switchingMatrixIterator.hasNext()) {
             switchingMatrixEntry = (TSwitchingMatrixEntry) switchingMatrixIterator.next();
             if (switchingMatrixEntry != null) {
@@ -331,12 +368,13 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
         // FIX: use class constant instead of hardcoded values
         int readPort = 0;
         TAbstractPDU packet = null;
-        int switchableOctectsWithCurrentNs = this.getMaxSwitchableOctectsWithCurrentNs();
-        while (this.getPorts().canSwitchPacket(switchableOctectsWithCurrentNs)) {
+        int switchedOctets = 0;
+        while (this.ports.getNextPackets(this.getMaxSwitchableOctectsWithCurrentNs(), this.packetBatch) > 0) {
             atLeastOnePacketSwitched = true;
-            packet = this.ports.getNextPacket();
-            readPort = this.ports.getReadPort();
-            if (packet != null) {
+            switchedOctets = 0;
+            for (int i = 0; i < this.packetBatch.size(); i++) {
+                packet = this.packetBatch.getPacket(i);
+                readPort = this.packetBatch.getIncomingPortID(i);
                 // FIX: Convert to a switch statement
                 if (packet.getType() == TAbstractPDU.TLDP) {
                     handleTLDPPacket((TTLDPPDU) packet, readPort);
@@ -345,13 +383,15 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
                 } else if (packet.getType() == TAbstractPDU.GPSRP) {
                     handleGPSRPPacket((TGPSRPPDU) packet, readPort);
                 } else {
-                    this.availableNanoseconds += getNsRequiredForAllOctets(packet.getSize());
                     discardPacket(packet);
+                    continue;
                 }
-                this.availableNanoseconds -= getNsRequiredForAllOctets(packet.getSize());
-                switchableOctectsWithCurrentNs = this.getMaxSwitchableOctectsWithCurrentNs();
+                switchedOctets += packet.getSize();
             }
+            // Discarded packets do not consume switching time.
+            this.availableNanoseconds -= this.getNsRequiredForAllOctets(switchedOctets);
         }
+        this.packetBatch.clear();
         if (atLeastOnePacketSwitched) {
             this.resetTicksWithoutEmitting();
         } else {
@@ -386,7 +426,9 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
                 if (outgoingPort != null) {
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -500,7 +542,9 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
                     TPort outgoingPort = ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_SWITCHED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -513,7 +557,9 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
                     TPort outgoingPort = ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_SWITCHED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -532,7 +578,9 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
                         switchingMatrixEntry.setEntryAsForBackupLSP(false);
                     }
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_SWITCHED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -541,7 +589,9 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
                     TPort outgoingPort = ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_SWITCHED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -805,8 +855,12 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
                         TPort outgoingPort = ports.getLocalPortConnectedToANodeWithIPv4Address(targetIPv4Address);
                         outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                            }
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: this is not a good practice
                             e.printStackTrace();
@@ -852,8 +906,12 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
                         TPort outgoingPort = ports.getLocalPortConnectedToANodeWithIPv4Address(targetIPv4Address);
                         outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                            }
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: This is not a good practice
                             e.printStackTrace();
@@ -905,8 +963,12 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
                     TPort outgoingPort = ports.getPort(portID);
                     outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                        }
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice
                         e.printStackTrace();
@@ -951,8 +1013,12 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
                 if (outgoingPort != null) {
                     outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                        }
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice
                         e.printStackTrace();
@@ -1006,8 +1072,12 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
                         if (outgoingPort != null) {
                             outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                             try {
-                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                                if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                                    this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                                }
+                                if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                                    this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                                }
                             } catch (Exception e) {
                                 // FIX: This is not a good practice
                                 e.printStackTrace();
@@ -1059,8 +1129,12 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
                     if (outgoingPort != null) {
                         outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                            }
+                            if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: This is not a good practice
                             e.printStackTrace();
@@ -1194,8 +1268,13 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
     @Override
     public void discardPacket(TAbstractPDU packet) {
         try {
-            this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
-            this.stats.addStatEntry(packet, TStats.BEING_DISCARDED);
+            if (this.isSubscribedTo(TSimulationEvent.PACKET_DISCARDED)) {
+                this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+            }
+            TStats statsObserver = this.getStatsObserver();
+            if (statsObserver != null) {
+                statsObserver.addStatEntry(packet, TStats.BEING_DISCARDED);
+            }
         } catch (Exception e) {
             // FIX: this is ugly. Avoid.
             e.printStackTrace();
@@ -1361,6 +1440,8 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
         serializedElement += "#";
         serializedElement += this.getPorts().getBufferSizeInMBytes();
         serializedElement += "#";
+        serializedElement += this.getQueueDiscipline();
+        serializedElement += "#";
         return serializedElement;
     }
 
@@ -1380,9 +1461,18 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
         // FIX: All fixed values in this method should be implemented as class
         // constants instead of harcoded values.
         String[] elementFields = serializedLSR.split("#");
-        if (elementFields.length != 12) {
+        // Files saved before queue disciplines were available do not include
+        // the last field. FIFO is used for them.
+        if ((elementFields.length != 12) && (elementFields.length != 13)) {
             return false;
         }
+        int queueDisciplineAux = TQueueDiscipline.FIFO;
+        if (elementFields.length == 13) {
+            queueDisciplineAux = Integer.parseInt(elementFields[12]);
+            if (!TQueueDiscipline.isValidType(queueDisciplineAux)) {
+                return false;
+            }
+        }
         this.setNodeID(Integer.parseInt(elementFields[2]));
         this.setName(elementFields[3]);
         this.setIPv4Address(elementFields[4]);
@@ -1394,9 +1484,21 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
         this.setScreenPosition(new Point(posX + 24, posY + 24));
         this.switchingPowerInMbps = Integer.parseInt(elementFields[10]);
         this.getPorts().setBufferSizeInMB(Integer.parseInt(elementFields[11]));
+        this.setQueueDiscipline(queueDisciplineAux);
         return true;
     }
 
+    /**
+     * This method gets the switching matrix of the node.
+     *
+     * @return the switching matrix of this node.
+     * @since 2.3
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     */
+    public TSwitchingMatrix getSwitchingMatrix() {
+        return this.switchingMatrix;
+    }
+
     /**
      * This node gets the stats of this node.
      *
@@ -22,9 +22,6 @@ import com.manolodominguez.opensimmpls.hardware.ports.TPortSet;
 import com.manolodominguez.opensimmpls.commons.TSemaphore;
 import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
 import java.awt.Point;
-import java.util.Collections;
-import java.util.SortedSet;
-import java.util.TreeSet;
 
 /**
  * This class is an abstract class that will be implemented by subclasses. It is
@@ -57,12 +54,12 @@ public abstract class TLink extends TTopologyElement implements Comparable, ITim
         this.delay = 1;
         this.headEndNodePortID = -1;
         this.tailEndNodePortID = -1;
-        this.buffer = Collections.synchronizedSortedSet(new TreeSet<>());
-        this.deliveredPacketsBuffer = new TreeSet<>();
+        this.delayLine = new TLinkDelayLine();
         this.packetsInTransitEntriesLock = new TSemaphore();
-        this.deliveredPacketEntriesLock = new TSemaphore();
         this.topology = topology;
         this.linkIsBroken = false;
+        this.stats = new TLinkStats(this);
+        this.statsObserver = null;
     }
 
     /**
@@ -502,19 +499,29 @@ public abstract class TLink extends TTopologyElement implements Comparable, ITim
     }
 
     /**
-     * This method removes a packet from the link and delivers it to the
-     * corresponding node.
+     * This method puts a packet in transit through the link towards the
+     * corresponding node. The packet will reach that node once the link delay
+     * has elapsed since the current time instant of the node at the other end
+     * of the link, that is the one sending the packet.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
-     * @param packet packet that has reached the target node.
+     * @param packet packet that starts its travel through the link.
      * @param endNode TLink.TAIL_END_NODE or TLink.HEAD_END_NODE, depending on
      * whether the target node is connected to the tail end of the link or to
      * the head end, respectively. Links are full duplex.
      * @since 2.0
      */
     public void deliverPacketToNode(TAbstractPDU packet, int endNode) {
+        TNode sourceNode = this.tailEndNode;
+        if (endNode == TLink.TAIL_END_NODE) {
+            sourceNode = this.headEndNode;
+        }
+        long arrivalTime = sourceNode.getCurrentTimeInstant() + this.getDelay();
+        if (this.statsObserver != null) {
+            this.statsObserver.addSentPacket(packet, endNode);
+        }
         this.packetsInTransitEntriesLock.setRed();
-        this.buffer.add(new TLinkBufferEntry(packet, this.getDelay(), endNode));
+        this.delayLine.addEntry(new TLinkBufferEntry(packet, this.getDelay(), endNode, arrivalTime));
         this.packetsInTransitEntriesLock.setGreen();
     }
 
@@ -529,7 +536,7 @@ public abstract class TLink extends TTopologyElement implements Comparable, ITim
      */
     public int getNumberOfPacketInTransit() {
         this.packetsInTransitEntriesLock.setRed();
-        int numberOfPacketInTransit = this.buffer.size();
+        int numberOfPacketInTransit = this.delayLine.size();
         this.packetsInTransitEntriesLock.setGreen();
         return numberOfPacketInTransit;
     }
@@ -601,6 +608,41 @@ public abstract class TLink extends TTopologyElement implements Comparable, ITim
         return this.packetsInTransitEntriesLock;
     }
 
+    /**
+     * This method gets the statistics of this link.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the statistics of this link.
+     * @since 2.3
+     */
+    public TLinkStats getStats() {
+        return this.stats;
+    }
+
+    /**
+     * This method resets the statistics of this link and, if any of the end
+     * nodes is generating statistics, enables them and installs them as the
+     * observer of the packets and ticks of this link. Otherwise, packets and
+     * ticks are not accounted at all. As nodes are reset before links, it has
+     * to be called from reset().
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    protected void resetStats() {
+        this.stats.reset();
+        boolean endNodesGeneratingStats = false;
+        if ((this.headEndNode != null) && (this.tailEndNode != null)) {
+            endNodesGeneratingStats = this.headEndNode.isGeneratingStats() || this.tailEndNode.isGeneratingStats();
+        }
+        this.stats.setStatsEnabled(endNodesGeneratingStats);
+        if (endNodesGeneratingStats) {
+            this.statsObserver = this.stats;
+        } else {
+            this.statsObserver = null;
+        }
+    }
+
     /**
      * This method checks whether the node specified as an argument is the one
      * connected to he head end of the link or to the tail end of the link.
@@ -747,6 +789,25 @@ public abstract class TLink extends TTopologyElement implements Comparable, ITim
      */
     public abstract void setAsBrokenLink(boolean isBroken);
 
+    /**
+     * This method notifies both end nodes of the link that the link has been
+     * broken or recovered, so that they only have to check the connectivity of
+     * the switching entries related to the port the link is connected to.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param isBroken TRUE if the link has been broken. FALSE if it has been
+     * recovered.
+     * @since 2.3
+     */
+    protected void notifyLinkStatusToEndNodes(boolean isBroken) {
+        if (this.getHeadEndNode() != null) {
+            this.getHeadEndNode().notifyLinkStatusChange(this.getHeadEndNodePortID(), isBroken);
+        }
+        if (this.getTailEndNode() != null) {
+            this.getTailEndNode().notifyLinkStatusChange(this.getTailEndNodePortID(), isBroken);
+        }
+    }
+
     /**
      * This method sets default values for all attributes as if the instances is
      * created new. To be implemented by all subclasses.
@@ -771,12 +832,12 @@ public abstract class TLink extends TTopologyElement implements Comparable, ITim
     private boolean showName;
     private int delay;
 
-    protected SortedSet<TLinkBufferEntry> buffer;
-    protected TreeSet<TLinkBufferEntry> deliveredPacketsBuffer;
+    protected TLinkDelayLine delayLine;
     protected TSemaphore packetsInTransitEntriesLock;
-    protected TSemaphore deliveredPacketEntriesLock;
     protected TTopology topology;
     protected boolean linkIsBroken;
+    protected TLinkStats stats;
+    protected TLinkStats statsObserver;
 
     public static final int OK = 0;
     public static final int UNNAMED = 1;
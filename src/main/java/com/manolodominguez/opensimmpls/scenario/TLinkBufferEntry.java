@@ -45,6 +45,29 @@ public class TLinkBufferEntry implements Comparable {
         this.initialTotalTransitDelay = totalTransitDelay;
         this.packet = packet;
         this.packetEnd = packetEnd;
+        this.arrivalTime = totalTransitDelay;
+    }
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TLinkBufferEntry for a packet that reaches the target node at a given
+     * absolute time instant.
+     *
+     * @param packet A packet that start its travel through the link towards the
+     * corresponding end node.
+     * @param totalTransitDelay The total delay the packet will require to reach
+     * the target end node (in nanoseconds). Usually it is the link delay.
+     * @param packetEnd TLink.TAIL_END_NODE or TLink.HEAD_END_NODE, depending on
+     * whether the target node is connected to the tail end of the link or to
+     * the head end, respectively. Links are full duplex.
+     * @param arrivalTime The time instant the packet reaches the target end
+     * node (in nanoseconds).
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public TLinkBufferEntry(TAbstractPDU packet, long totalTransitDelay, int packetEnd, long arrivalTime) {
+        this(packet, totalTransitDelay, packetEnd);
+        this.arrivalTime = arrivalTime;
     }
 
     /**
@@ -147,6 +170,51 @@ public class TLinkBufferEntry implements Comparable {
         }
     }
 
+    /**
+     * This method gets the time instant the packet reaches the target node (in
+     * nanoseconds).
+     *
+     * @return the time instant the packet reaches the target node (in
+     * nanoseconds).
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public long getArrivalTime() {
+        return this.arrivalTime;
+    }
+
+    /**
+     * This method sets the time instant the packet reaches the target node (in
+     * nanoseconds).
+     *
+     * @param arrivalTime the time instant the packet reaches the target node
+     * (in nanoseconds).
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public void setArrivalTime(long arrivalTime) {
+        this.arrivalTime = arrivalTime;
+    }
+
+    /**
+     * This method updates the remaining transit delay of this packet from the
+     * time instant it reaches the target node. Once the remaining transit
+     * delay is zero, the packet can be delivered to the target node.
+     *
+     * @param currentTimeInstant the current time instant (in nanoseconds).
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public void updateRemainingDelay(long currentTimeInstant) {
+        this.remainingTransitDelay = this.arrivalTime - currentTimeInstant;
+        if (this.remainingTransitDelay < 0) {
+            this.remainingTransitDelay = 0;
+        }
+        if (this.remainingTransitDelay > this.initialTotalTransitDelay) {
+            this.remainingTransitDelay = this.initialTotalTransitDelay;
+        }
+    }
+
     /**
      * This method sets the node connected to the end of the link to wich the
      * packet inside this link buffer entry will be delivered. As links are
@@ -183,4 +251,5 @@ public class TLinkBufferEntry implements Comparable {
     private int packetEnd;
     private long remainingTransitDelay;
     private long initialTotalTransitDelay;
+    private long arrivalTime;
 }
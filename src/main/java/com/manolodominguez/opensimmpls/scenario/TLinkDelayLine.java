@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.ResourceBundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements the delay line of a full-duplex link. Packets in
+ * transit are kept in a FIFO queue per direction, ordered by their absolute
+ * arrival time. As the delay of a link is the same for every packet, packets
+ * never overtake each other, so arrivals are always at the head of the
+ * queues and can be collected without visiting the rest of packets in
+ * transit.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public class TLinkDelayLine {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TLinkDelayLine with no packets in transit.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public TLinkDelayLine() {
+        this.translations = ResourceBundle.getBundle(AvailableBundles.T_LINK_DELAY_LINE.getPath());
+        this.entriesTowardsHeadEnd = new ArrayDeque<>();
+        this.entriesTowardsTailEnd = new ArrayDeque<>();
+    }
+
+    /**
+     * This method inserts a new entry at the tail of the queue of the
+     * direction the packet is travelling to. If the arrival time of the entry
+     * is earlier than the arrival time of the latest packet in that direction,
+     * it is delayed until then, as packets cannot overtake each other.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param linkBufferEntry the entry containing the packet in transit.
+     * @since 2.3
+     */
+    public void addEntry(TLinkBufferEntry linkBufferEntry) {
+        if (linkBufferEntry == null) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        ArrayDeque<TLinkBufferEntry> entries = getEntries(linkBufferEntry.getPacketEnd());
+        TLinkBufferEntry latestEntry = entries.peekLast();
+        if ((latestEntry != null) && (linkBufferEntry.getArrivalTime() < latestEntry.getArrivalTime())) {
+            linkBufferEntry.setArrivalTime(latestEntry.getArrivalTime());
+        }
+        entries.addLast(linkBufferEntry);
+    }
+
+    /**
+     * This method removes and returns the entry at the head of the queue of
+     * the specified direction, if its packet has already reached the end of
+     * the link at the specified time instant.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packetEnd TLink.TAIL_END_NODE or TLink.HEAD_END_NODE, depending on
+     * the direction to be checked.
+     * @param currentTimeInstant the current time instant, in nanoseconds.
+     * @return the entry that has reached the end of the link, or NULL if no
+     * packet arrives at the specified time instant.
+     * @since 2.3
+     */
+    public TLinkBufferEntry pollArrivedEntry(int packetEnd, long currentTimeInstant) {
+        ArrayDeque<TLinkBufferEntry> entries = getEntries(packetEnd);
+        TLinkBufferEntry firstEntry = entries.peekFirst();
+        if ((firstEntry != null) && (firstEntry.getArrivalTime() <= currentTimeInstant)) {
+            return entries.pollFirst();
+        }
+        return null;
+    }
+
+    /**
+     * This method gets an iterator over the entries in transit in both
+     * directions. Entries in transit towards the head end of the link come
+     * first, from the earliest arrival to the latest one.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return an iterator over the entries in transit.
+     * @since 2.3
+     */
+    public Iterator<TLinkBufferEntry> getEntriesIterator() {
+        return new Iterator<TLinkBufferEntry>() {
+            @Override
+            public boolean hasNext() {
+                if (this.currentIterator.hasNext()) {
+                    return true;
+                }
+                if (this.currentIterator == this.headEndIterator) {
+                    this.currentIterator = this.tailEndIterator;
+                    return this.currentIterator.hasNext();
+                }
+                return false;
+            }
+
+            @Override
+            public TLinkBufferEntry next() {
+                if (!this.currentIterator.hasNext()) {
+                    this.currentIterator = this.tailEndIterator;
+                }
+                return this.currentIterator.next();
+            }
+
+            private final Iterator<TLinkBufferEntry> headEndIterator = entriesTowardsHeadEnd.iterator();
+            private final Iterator<TLinkBufferEntry> tailEndIterator = entriesTowardsTailEnd.iterator();
+            private Iterator<TLinkBufferEntry> currentIterator = this.headEndIterator;
+        };
+    }
+
+    /**
+     * This method gets the number of packets in transit in both directions.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of packets in transit.
+     * @since 2.3
+     */
+    public int size() {
+        return this.entriesTowardsHeadEnd.size() + this.entriesTowardsTailEnd.size();
+    }
+
+    /**
+     * This method removes all packets in transit in both directions.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public void clear() {
+        this.entriesTowardsHeadEnd.clear();
+        this.entriesTowardsTailEnd.clear();
+    }
+
+    /**
+     * This method gets the queue of entries in transit towards the specified
+     * end of the link.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packetEnd TLink.TAIL_END_NODE or TLink.HEAD_END_NODE.
+     * @return the queue of entries in transit in that direction.
+     * @since 2.3
+     */
+    private ArrayDeque<TLinkBufferEntry> getEntries(int packetEnd) {
+        if (packetEnd == TLink.HEAD_END_NODE) {
+            return this.entriesTowardsHeadEnd;
+        }
+        if (packetEnd == TLink.TAIL_END_NODE) {
+            return this.entriesTowardsTailEnd;
+        }
+        this.logger.error(this.translations.getString("argumentOutOfRange"));
+        throw new IllegalArgumentException(this.translations.getString("argumentOutOfRange"));
+    }
+
+    private final ArrayDeque<TLinkBufferEntry> entriesTowardsHeadEnd;
+    private final ArrayDeque<TLinkBufferEntry> entriesTowardsTailEnd;
+    private final ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(TLinkDelayLine.class);
+}
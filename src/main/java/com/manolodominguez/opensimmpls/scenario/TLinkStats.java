@@ -0,0 +1,510 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import com.manolodominguez.opensimmpls.commons.TStripedCounters;
+import com.manolodominguez.opensimmpls.hardware.ports.TPort;
+import com.manolodominguez.opensimmpls.hardware.ports.TPortSet;
+import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+import org.jfree.data.general.AbstractDataset;
+
+/**
+ * This class implements a statistics collector for a link. For each direction
+ * of the link it counts the octets that are put on the link, delivered to the
+ * other end or lost because the link breaks. Counters only grow, so each
+ * packet costs a single increment from whatever thread sends or delivers it,
+ * and the octets sent during a tick and the octets in transit are computed
+ * from them once per tick, when the number of packets waiting in the port of
+ * each end node is also sampled.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public class TLinkStats extends TStats {
+
+    /**
+     * This method is the constructor of the class. It creates a new instance of
+     * TLinkStats for the specified link.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param link the link whose statistics are collected.
+     * @throws IllegalArgumentException if the link is null.
+     * @since 2.3
+     */
+    public TLinkStats(TLink link) {
+        if (link == null) {
+            throw new IllegalArgumentException();
+        }
+        this.link = link;
+        this.counters = new TStripedCounters(NUMBER_OF_COUNTERS);
+        this.lastSentOctets = new long[NUMBER_OF_ENDS];
+        reset();
+    }
+
+    /**
+     * This method counts a packet that is put on the link towards the
+     * specified end. It can be called from any thread.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet the packet put on the link.
+     * @param endNode the end the packet travels to, TLink.HEAD_END_NODE or
+     * TLink.TAIL_END_NODE.
+     * @since 2.3
+     */
+    public void addSentPacket(TAbstractPDU packet, int endNode) {
+        if (this.statsEnabled) {
+            this.counters.add(getIndex(SENT_OCTETS, endNode), packet.getSize());
+        }
+    }
+
+    /**
+     * This method counts a packet that the link has delivered to the specified
+     * end. It can be called from any thread.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet the packet delivered.
+     * @param endNode the end the packet has been delivered to,
+     * TLink.HEAD_END_NODE or TLink.TAIL_END_NODE.
+     * @since 2.3
+     */
+    public void addDeliveredPacket(TAbstractPDU packet, int endNode) {
+        if (this.statsEnabled) {
+            this.counters.add(getIndex(DELIVERED_OCTETS, endNode), packet.getSize());
+        }
+    }
+
+    /**
+     * This method counts a packet that was travelling to the specified end and
+     * has been lost because the link has broken. It can be called from any
+     * thread.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet the packet lost.
+     * @param endNode the end the packet was travelling to,
+     * TLink.HEAD_END_NODE or TLink.TAIL_END_NODE.
+     * @since 2.3
+     */
+    public void addLostPacket(TAbstractPDU packet, int endNode) {
+        if (this.statsEnabled) {
+            this.counters.add(getIndex(LOST_OCTETS, endNode), packet.getSize());
+        }
+    }
+
+    /**
+     * This method gets the position of a counter in the striped counters.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param counter SENT_OCTETS, DELIVERED_OCTETS or LOST_OCTETS.
+     * @param endNode TLink.HEAD_END_NODE or TLink.TAIL_END_NODE.
+     * @return the position of the counter.
+     * @since 2.3
+     */
+    private static int getIndex(int counter, int endNode) {
+        return (counter * NUMBER_OF_ENDS) + (endNode - TLink.HEAD_END_NODE);
+    }
+
+    /**
+     * This method gets the octets that have been put on the link towards the
+     * specified end since the stats were reset.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param endNode TLink.HEAD_END_NODE or TLink.TAIL_END_NODE.
+     * @return the octets sent towards the specified end.
+     * @throws IllegalArgumentException if the end is not valid.
+     * @since 2.3
+     */
+    public long getSentOctets(int endNode) {
+        checkEndNode(endNode);
+        return this.counters.get(getIndex(SENT_OCTETS, endNode));
+    }
+
+    /**
+     * This method gets the octets that are travelling through the link towards
+     * the specified end, that is, those sent that have been neither delivered
+     * nor lost.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param endNode TLink.HEAD_END_NODE or TLink.TAIL_END_NODE.
+     * @return the octets in transit towards the specified end.
+     * @throws IllegalArgumentException if the end is not valid.
+     * @since 2.3
+     */
+    public long getOctetsInTransit(int endNode) {
+        checkEndNode(endNode);
+        return this.counters.get(getIndex(SENT_OCTETS, endNode)) - this.counters.get(getIndex(DELIVERED_OCTETS, endNode)) - this.counters.get(getIndex(LOST_OCTETS, endNode));
+    }
+
+    /**
+     * This method checks that the end passed as an argument is one of the
+     * ends of a link.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param endNode the end to be checked.
+     * @throws IllegalArgumentException if the end is not valid.
+     * @since 2.3
+     */
+    private static void checkEndNode(int endNode) {
+        if ((endNode != TLink.HEAD_END_NODE) && (endNode != TLink.TAIL_END_NODE)) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * This method returns the dataset #1 of the link associated to this
+     * TLinkStats that can be represented in a GUI or used by any other
+     * statistics processor. Dataset #1 contains the octets put on the link in
+     * each direction during each tick.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the dataset #1 of this TLinkStats, that contains the octets sent
+     * per tick.
+     * @since 2.3
+     */
+    @Override
+    public AbstractDataset getDataset1() {
+        return this.sentOctetsDataset;
+    }
+
+    /**
+     * This method returns the dataset #2 of the link associated to this
+     * TLinkStats that can be represented in a GUI or used by any other
+     * statistics processor. Dataset #2 contains the octets in transit in each
+     * direction at the end of each tick.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the dataset #2 of this TLinkStats, that contains the octets in
+     * transit.
+     * @since 2.3
+     */
+    @Override
+    public AbstractDataset getDataset2() {
+        return this.octetsInTransitDataset;
+    }
+
+    /**
+     * This method returns the dataset #3 of the link associated to this
+     * TLinkStats that can be represented in a GUI or used by any other
+     * statistics processor. Dataset #3 contains the packets waiting in the
+     * port of each end node that is connected to the link, at the end of each
+     * tick.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the dataset #3 of this TLinkStats, that contains the packets
+     * queued at both ends.
+     * @since 2.3
+     */
+    @Override
+    public AbstractDataset getDataset3() {
+        return this.queuedPacketsDataset;
+    }
+
+    /**
+     * This method returns the dataset #4 of the link associated to this
+     * TLinkStats. There are not Dataset #4 in a TLinkStats so null is always
+     * returned.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return There are not Dataset #4 in a TLinkStats so null is returned.
+     * @since 2.3
+     */
+    @Override
+    public AbstractDataset getDataset4() {
+        return null;
+    }
+
+    /**
+     * This method returns the dataset #5 of the link associated to this
+     * TLinkStats. There are not Dataset #5 in a TLinkStats so null is always
+     * returned.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return There are not Dataset #5 in a TLinkStats so null is returned.
+     * @since 2.3
+     */
+    @Override
+    public AbstractDataset getDataset5() {
+        return null;
+    }
+
+    /**
+     * This method returns the dataset #6 of the link associated to this
+     * TLinkStats. There are not Dataset #6 in a TLinkStats so null is always
+     * returned.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return There are not Dataset #6 in a TLinkStats so null is returned.
+     * @since 2.3
+     */
+    @Override
+    public AbstractDataset getDataset6() {
+        return null;
+    }
+
+    /**
+     * This method does nothing. Packets travelling through a link are counted
+     * by direction, through addSentPacket(), addDeliveredPacket() and
+     * addLostPacket().
+     *
+     * @param packet the packet.
+     * @param entryType INCOMING, OUTGOING o DISCARD.
+     * @since 2.3
+     */
+    @Override
+    public void addStatEntry(TAbstractPDU packet, int entryType) {
+        // Links do not count packets by class.
+    }
+
+    /**
+     * This method returns the number of datasets that are available in this
+     * TLinkStats.
+     *
+     * @return the number of available datasets in this TLinkStats that are 3.
+     * @since 2.3
+     */
+    @Override
+    public int getNumberOfAvailableDatasets() {
+        return NUMBER_OF_DATASETS;
+    }
+
+    /**
+     * This method reset all the values and attribues of this TLinkStats as in
+     * the moment of its instantiation. It has to be called while no packet is
+     * being sent through the link.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    @Override
+    public final void reset() {
+        this.counters.reset();
+        for (int i = ZERO; i < NUMBER_OF_ENDS; i++) {
+            this.lastSentOctets[i] = ZERO;
+        }
+        this.sentOctetsSeries = null;
+        this.octetsInTransitSeries = null;
+        this.queuedPacketsSeries = null;
+        this.sentOctetsDataset = new TStatsXYDataset();
+        this.octetsInTransitDataset = new TStatsXYDataset();
+        this.queuedPacketsDataset = new TStatsXYDataset();
+    }
+
+    /**
+     * This method adds to the time series of this TLinkStats the octets sent
+     * in each direction since the previous call, the octets in transit and the
+     * packets waiting in the ports of both end nodes. Series are created, and
+     * named after the end nodes, the first time this method is called. It has
+     * to be called always from the thread of the link.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param timeInstant the time instant (in simulation terms) by wich the
+     * latest data are grouped.
+     * @since 2.3
+     */
+    @Override
+    public void groupStatsByTimeInstant(long timeInstant) {
+        if (!this.statsEnabled) {
+            return;
+        }
+        TNode headEndNode = this.link.getHeadEndNode();
+        TNode tailEndNode = this.link.getTailEndNode();
+        if ((headEndNode == null) || (tailEndNode == null)) {
+            return;
+        }
+        if (this.sentOctetsSeries == null) {
+            createSeries(headEndNode, tailEndNode);
+        }
+        for (int endNode = TLink.HEAD_END_NODE; endNode <= TLink.TAIL_END_NODE; endNode++) {
+            int end = endNode - TLink.HEAD_END_NODE;
+            long sentOctets = this.counters.get(getIndex(SENT_OCTETS, endNode));
+            this.sentOctetsSeries[end].add(timeInstant, sentOctets - this.lastSentOctets[end]);
+            this.lastSentOctets[end] = sentOctets;
+            this.octetsInTransitSeries[end].add(timeInstant, getOctetsInTransit(endNode));
+        }
+        this.queuedPacketsSeries[ZERO].add(timeInstant, getNumberOfQueuedPackets(headEndNode, this.link.getHeadEndNodePortID()));
+        this.queuedPacketsSeries[ONE].add(timeInstant, getNumberOfQueuedPackets(tailEndNode, this.link.getTailEndNodePortID()));
+    }
+
+    /**
+     * This method creates the time series of this TLinkStats and adds them to
+     * their datasets. Directions are named after the node they start from and
+     * the node they end at, in this order.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param headEndNode the node at the head end of the link.
+     * @param tailEndNode the node at the tail end of the link.
+     * @since 2.3
+     */
+    private void createSeries(TNode headEndNode, TNode tailEndNode) {
+        String[] directionKeys = new String[NUMBER_OF_ENDS];
+        directionKeys[ZERO] = tailEndNode.getName() + DIRECTION_SEPARATOR + headEndNode.getName();
+        directionKeys[ONE] = headEndNode.getName() + DIRECTION_SEPARATOR + tailEndNode.getName();
+        this.sentOctetsSeries = new TStatsTimeSeries[NUMBER_OF_ENDS];
+        this.octetsInTransitSeries = new TStatsTimeSeries[NUMBER_OF_ENDS];
+        this.queuedPacketsSeries = new TStatsTimeSeries[NUMBER_OF_ENDS];
+        for (int i = ZERO; i < NUMBER_OF_ENDS; i++) {
+            this.sentOctetsSeries[i] = new TStatsTimeSeries(directionKeys[i]);
+            this.sentOctetsDataset.addSeries(this.sentOctetsSeries[i]);
+            this.octetsInTransitSeries[i] = new TStatsTimeSeries(directionKeys[i]);
+            this.octetsInTransitDataset.addSeries(this.octetsInTransitSeries[i]);
+        }
+        this.queuedPacketsSeries[ZERO] = new TStatsTimeSeries(headEndNode.getName());
+        this.queuedPacketsDataset.addSeries(this.queuedPacketsSeries[ZERO]);
+        this.queuedPacketsSeries[ONE] = new TStatsTimeSeries(tailEndNode.getName());
+        this.queuedPacketsDataset.addSeries(this.queuedPacketsSeries[ONE]);
+    }
+
+    /**
+     * This method gets the number of packets waiting to be switched in the
+     * specified port of a node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param node the node.
+     * @param portID the identifier of the port.
+     * @return the number of packets waiting in the port, or 0 if the node has
+     * not such port.
+     * @since 2.3
+     */
+    private static int getNumberOfQueuedPackets(TNode node, int portID) {
+        TPortSet ports = node.getPorts();
+        if ((ports == null) || (portID < ZERO) || (portID >= ports.getNumberOfPorts())) {
+            return ZERO;
+        }
+        TPort port = ports.getPort(portID);
+        if (port == null) {
+            return ZERO;
+        }
+        return port.getNumberOfPackets();
+    }
+
+    /**
+     * This method returns the title of dataset #1 of this TLinkStats. In this
+     * case is a descriptive text about "octets sent per tick".
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return a descriptive text about "octets sent per tick".
+     * @since 2.3
+     */
+    @Override
+    public String getTitleOfDataset1() {
+        return TStats.OCTETS_SENT_PER_TICK;
+    }
+
+    /**
+     * This method returns the title of dataset #2 of this TLinkStats. In this
+     * case is a descriptive text about "octets in transit".
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return a descriptive text about "octets in transit".
+     * @since 2.3
+     */
+    @Override
+    public String getTitleOfDataset2() {
+        return TStats.OCTETS_IN_TRANSIT;
+    }
+
+    /**
+     * This method returns the title of dataset #3 of this TLinkStats. In this
+     * case is a descriptive text about "packets queued at link ends".
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return a descriptive text about "packets queued at link ends".
+     * @since 2.3
+     */
+    @Override
+    public String getTitleOfDataset3() {
+        return TStats.PACKETS_QUEUED_AT_LINK_ENDS;
+    }
+
+    /**
+     * This method returns the title of dataset #4 of this TLinkStats. There is
+     * not a dataset #4 in a TLinkStats so, null is always returned.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return There is not a dataset #4 in a TLinkStats so, null is always
+     * returned.
+     * @since 2.3
+     */
+    @Override
+    public String getTitleOfDataset4() {
+        return null;
+    }
+
+    /**
+     * This method returns the title of dataset #5 of this TLinkStats. There is
+     * not a dataset #5 in a TLinkStats so, null is always returned.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return There is not a dataset #5 in a TLinkStats so, null is always
+     * returned.
+     * @since 2.3
+     */
+    @Override
+    public String getTitleOfDataset5() {
+        return null;
+    }
+
+    /**
+     * This method returns the title of dataset #6 of this TLinkStats. There is
+     * not a dataset #6 in a TLinkStats so, null is always returned.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return There is not a dataset #6 in a TLinkStats so, null is always
+     * returned.
+     * @since 2.3
+     */
+    @Override
+    public String getTitleOfDataset6() {
+        return null;
+    }
+
+    /**
+     * This method returns the title of the value axis of the specified
+     * dataset. Datasets #1 and #2 are measured in octets and dataset #3 in
+     * packets.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param datasetNumber the number of the dataset, from 1 to 6.
+     * @return the title of the value axis of the dataset.
+     * @since 2.3
+     */
+    @Override
+    public String getValueAxisTitleOfDataset(int datasetNumber) {
+        if (datasetNumber < NUMBER_OF_DATASETS) {
+            return TStats.OCTETS;
+        }
+        return TStats.NUMBER_OF_PACKETS;
+    }
+
+    private final TLink link;
+    private final TStripedCounters counters;
+    private final long[] lastSentOctets;
+    private TStatsTimeSeries[] sentOctetsSeries;
+    private TStatsTimeSeries[] octetsInTransitSeries;
+    private TStatsTimeSeries[] queuedPacketsSeries;
+    private TStatsXYDataset sentOctetsDataset;
+    private TStatsXYDataset octetsInTransitDataset;
+    private TStatsXYDataset queuedPacketsDataset;
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int NUMBER_OF_ENDS = 2;
+    private static final int SENT_OCTETS = 0;
+    private static final int DELIVERED_OCTETS = 1;
+    private static final int LOST_OCTETS = 2;
+    private static final int NUMBER_OF_COUNTERS = 3 * NUMBER_OF_ENDS;
+    private static final int NUMBER_OF_DATASETS = 3;
+    private static final String DIRECTION_SEPARATOR = " -> ";
+}
@@ -19,10 +19,11 @@ import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
 import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
 import com.manolodominguez.opensimmpls.hardware.timer.TTimerEvent;
 import com.manolodominguez.opensimmpls.hardware.timer.ITimerEventListener;
+import com.manolodominguez.opensimmpls.hardware.ports.TPacketBatch;
 import com.manolodominguez.opensimmpls.hardware.ports.TPortSet;
-import com.manolodominguez.opensimmpls.commons.TSemaphore;
 import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
 import java.awt.Point;
+import java.util.BitSet;
 
 /**
  * This class implements a node of the topology. It is an abstract class that
@@ -55,9 +56,11 @@ public abstract class TNode extends TTopologyElement implements Comparable, ITim
         this.showName = false;
         this.ipv4Address = ipv4Address;
         this.ports = null;
-        this.lock = new TSemaphore();
+        this.packetBatch = new TPacketBatch();
+        this.portsWithBrokenLinks = new BitSet();
         this.topology = topology;
         this.generateStatistics = false;
+        this.statsObserver = null;
         this.availableNanoseconds = 0;
         this.tickNanoseconds = 0;
         this.ticksWithoutEmittingBeforeAlert = 0;
@@ -300,17 +303,77 @@ public abstract class TNode extends TTopologyElement implements Comparable, ITim
     public abstract void setPorts(int numPorts);
 
     /**
-     * This method put a packet in the incoming port of the node.
+     * This method put a packet in the incoming port of the node. It does not
+     * block: the packet is put in the lock-free ingress queue of the port and
+     * will be stored in the port buffer when the node drains its ingress
+     * queues at the start of its next tick.
      *
      * @param packet Packet that arrives the node.
      * @param portID Port ID of port of this node where the packet is put.
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
-    public synchronized void putPacket(TAbstractPDU packet, int portID) {
-        lock.setRed();
-        this.ports.getPort(portID).addPacket(packet);
-        lock.setGreen();
+    public void putPacket(TAbstractPDU packet, int portID) {
+        this.ports.getPort(portID).enqueueIngressPacket(packet);
+    }
+
+    /**
+     * This method moves the packets delivered by links since the previous tick
+     * to the buffers of the ports of this node. Each node invokes it at the
+     * start of its tick, when no link is delivering packets.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    protected void drainIngressQueues() {
+        this.ports.drainIngressQueues();
+    }
+
+    /**
+     * This method is invoked by a link connected to the node each time the link
+     * is broken or recovered.
+     *
+     * @param portID Port ID of the port of this node the link is connected to.
+     * @param linkIsBroken TRUE, if the link has been broken. FALSE, if it has
+     * been recovered.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public void notifyLinkStatusChange(int portID, boolean linkIsBroken) {
+        if (portID >= 0) {
+            synchronized (this.portsWithBrokenLinks) {
+                this.portsWithBrokenLinks.set(portID, linkIsBroken);
+            }
+        }
+    }
+
+    /**
+     * This method gets the ports of this node whose links are currently
+     * broken. Ports whose link has been disconnected or is no longer broken
+     * are forgotten.
+     *
+     * @return the port IDs of the ports whose links are broken. An empty array
+     * if all links are up.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    protected int[] getPortsWithBrokenLinks() {
+        synchronized (this.portsWithBrokenLinks) {
+            if (this.portsWithBrokenLinks.isEmpty()) {
+                return NO_PORTS;
+            }
+            for (int portID = this.portsWithBrokenLinks.nextSetBit(0); portID >= 0; portID = this.portsWithBrokenLinks.nextSetBit(portID + 1)) {
+                if ((this.ports == null) || (portID >= this.ports.getNumberOfPorts())) {
+                    this.portsWithBrokenLinks.clear(portID);
+                } else {
+                    TLink link = this.ports.getPort(portID).getLink();
+                    if ((link == null) || (!link.isBroken())) {
+                        this.portsWithBrokenLinks.clear(portID);
+                    }
+                }
+            }
+            return this.portsWithBrokenLinks.stream().toArray();
+        }
     }
 
     /**
@@ -512,6 +575,41 @@ public abstract class TNode extends TTopologyElement implements Comparable, ITim
      */
     public abstract TStats getStats();
 
+    /**
+     * This method gets the stats of this node if they are installed as the
+     * observer of its packets and ticks, that is, if the node was generating
+     * statistics when they were installed. Ports and nodes account packets and
+     * ticks only through this method, so a node that does not generate
+     * statistics pays a null check instead of a call for each of them.
+     *
+     * @return The stats of this node, or null if they are not installed.
+     * @since 2.3
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     */
+    public TStats getStatsObserver() {
+        return this.statsObserver;
+    }
+
+    /**
+     * This method enables the stats passed as an argument and installs them as
+     * the observer of the packets and ticks of this node if the node has to
+     * generate statistics. Otherwise, it disables them and uninstalls them.
+     * Subclasses have to call it with their stats whenever they are reset or
+     * configured, while the simulation is not running.
+     *
+     * @param stats The stats of this node.
+     * @since 2.3
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     */
+    protected void installStats(TStats stats) {
+        stats.setStatsEnabled(this.generateStatistics);
+        if (this.generateStatistics) {
+            this.statsObserver = stats;
+        } else {
+            this.statsObserver = null;
+        }
+    }
+
     /**
      * This method restart the attributes of the class as in the creation of the
      * instance. It has to be implemented by all subclasses.
@@ -544,18 +642,22 @@ public abstract class TNode extends TTopologyElement implements Comparable, ITim
 
     public static final int MAX_TICKS_WITHOUT_EMITTING_BEFORE_ALERTING = 25;
 
+    private static final int[] NO_PORTS = new int[0];
+
     private int nodeID;
     private int selected;
     private String name;
     private Point screenPosition;
     private boolean showName;
     private String ipv4Address;
-    private TSemaphore lock;
+    private final BitSet portsWithBrokenLinks;
     private boolean generateStatistics;
+    private TStats statsObserver;
     // FIX: Do not use harcoded values. Use class constant.
     private int ticksWithoutEmittingBeforeAlert = 0;
 
     protected TPortSet ports;
+    protected final TPacketBatch packetBatch;
     protected TTopology topology;
     protected int tickNanoseconds;
 }
@@ -16,7 +16,9 @@
 package com.manolodominguez.opensimmpls.scenario;
 
 import com.manolodominguez.opensimmpls.gui.simulator.JSimulationPanel;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventCounter;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventListener;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventTracer;
 
 /**
  * This class implements a container of simulation events that also link the
@@ -40,6 +42,8 @@ public class TSimulation {
     public TSimulation(TScenario scenario) {
         this.parentScenario = scenario;
         this.simulationEventListener = new TSimulationEventListener();
+        this.simulationEventCounter = new TSimulationEventCounter();
+        this.simulationEventTracer = new TSimulationEventTracer();
         // FIX: Use class constants instead of harcoded values.
         this.simulationLengthInNs = 500;
         this.simulationTickDurationInNs = 1;
@@ -47,7 +51,9 @@ public class TSimulation {
 
     /**
      * This method sets the simulation panel that will be the place where visual
-     * representation of simulation events will happen.
+     * representation of simulation events will happen. While there is a
+     * simulation panel, simulation events are also counted and, if the TRACE
+     * level is enabled for TSimulationEventTracer, written to the log.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @param simulationPanel the simulation panel that will be the place where
@@ -56,6 +62,15 @@ public class TSimulation {
      */
     public void setSimulationPanel(JSimulationPanel simulationPanel) {
         this.simulationEventListener.setSimulationPanel(simulationPanel);
+        if (simulationPanel != null) {
+            this.simulationEventListener.addBatchConsumer(this.simulationEventCounter);
+            if (this.simulationEventTracer.isEnabled()) {
+                this.simulationEventListener.addBatchConsumer(this.simulationEventTracer);
+            }
+        } else {
+            this.simulationEventListener.removeBatchConsumer(this.simulationEventCounter);
+            this.simulationEventListener.removeBatchConsumer(this.simulationEventTracer);
+        }
     }
 
     /**
@@ -67,6 +82,7 @@ public class TSimulation {
      */
     public void reset() {
         this.simulationEventListener.reset();
+        this.simulationEventCounter.reset();
     }
 
     /**
@@ -164,9 +180,23 @@ public class TSimulation {
         return this.simulationEventListener;
     }
 
+    /**
+     * This methods gets the counter of the simulation events that have been
+     * delivered, by subtype.
+     *
+     * @return the counter of simulation events.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public TSimulationEventCounter getSimulationEventCounter() {
+        return this.simulationEventCounter;
+    }
+
     private long simulationLengthInNs;
     private long simulationTickDurationInNs;
 
     private TScenario parentScenario;
     private TSimulationEventListener simulationEventListener;
+    private TSimulationEventCounter simulationEventCounter;
+    private TSimulationEventTracer simulationEventTracer;
 }
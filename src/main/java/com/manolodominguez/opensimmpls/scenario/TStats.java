@@ -221,7 +221,25 @@ public abstract class TStats {
      */
     public abstract void reset();
 
-    protected boolean statsEnabled;
+    /**
+     * This method gets the title of the axis of values of the specified
+     * dataset. By default, datasets #1 to #3 are series of numbers of packets
+     * and the rest are numbers by category; subclasses whose datasets hold
+     * other magnitudes override this method.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param datasetNumber the number of the dataset, from 1 to 6.
+     * @return a descriptive text about the values of the dataset.
+     * @since 2.3
+     */
+    public String getValueAxisTitleOfDataset(int datasetNumber) {
+        if (datasetNumber <= LAST_TIME_SERIES_DATASET) {
+            return TStats.NUMBER_OF_PACKETS;
+        }
+        return TStats.NUMBER;
+    }
+
+    protected volatile boolean statsEnabled;
 
     // Strings related to stats.
     public static final String IPV4 = java.util.ResourceBundle.getBundle("com/manolodominguez/opensimmpls/resources/translations/translations").getString("TEstadisticas.IPv4");
@@ -255,9 +273,22 @@ public abstract class TStats {
     public static final String GOS_PACKETS_RECOVERED = java.util.ResourceBundle.getBundle("com/manolodominguez/opensimmpls/resources/translations/translations").getString("TEstadisticas.Paquetes_GoS_recuperados");
     public static final String GOS_PACKETS_UNRECOVERED = java.util.ResourceBundle.getBundle("com/manolodominguez/opensimmpls/resources/translations/translations").getString("TEstadisticas.Paquetes_GoS_no_recuperados");
     public static final String DESCRIPTION = java.util.ResourceBundle.getBundle("com/manolodominguez/opensimmpls/resources/translations/translations").getString("TEstadisticas.Descripcion");
+    public static final String PACKETS_LATENCY = java.util.ResourceBundle.getBundle("com/manolodominguez/opensimmpls/resources/translations/translations").getString("TEstadisticas.Latencia_de_paquetes");
+    public static final String PACKETS_JITTER = java.util.ResourceBundle.getBundle("com/manolodominguez/opensimmpls/resources/translations/translations").getString("TEstadisticas.Jitter_de_paquetes");
+    public static final String LATENCY_BY_FLOW = java.util.ResourceBundle.getBundle("com/manolodominguez/opensimmpls/resources/translations/translations").getString("TEstadisticas.Latencia_por_flujo");
+    public static final String LATENCY_NS = java.util.ResourceBundle.getBundle("com/manolodominguez/opensimmpls/resources/translations/translations").getString("TEstadisticas.Latencia_ns");
+    public static final String JITTER_NS = java.util.ResourceBundle.getBundle("com/manolodominguez/opensimmpls/resources/translations/translations").getString("TEstadisticas.Jitter_ns");
+    public static final String OCTETS_SENT_PER_TICK = java.util.ResourceBundle.getBundle("com/manolodominguez/opensimmpls/resources/translations/translations").getString("TEstadisticas.Octetos_enviados_por_tic");
+    public static final String OCTETS_IN_TRANSIT = java.util.ResourceBundle.getBundle("com/manolodominguez/opensimmpls/resources/translations/translations").getString("TEstadisticas.Octetos_en_transito");
+    public static final String PACKETS_QUEUED_AT_LINK_ENDS = java.util.ResourceBundle.getBundle("com/manolodominguez/opensimmpls/resources/translations/translations").getString("TEstadisticas.Paquetes_en_cola_en_extremos");
+    public static final String OCTETS = java.util.ResourceBundle.getBundle("com/manolodominguez/opensimmpls/resources/translations/translations").getString("TEstadisticas.Octetos");
+    public static final String OCTETS_BY_FLOW = java.util.ResourceBundle.getBundle("com/manolodominguez/opensimmpls/resources/translations/translations").getString("TEstadisticas.Octetos_por_flujo");
+    public static final String THROUGHPUT = java.util.ResourceBundle.getBundle("com/manolodominguez/opensimmpls/resources/translations/translations").getString("TEstadisticas.Caudal");
+    public static final String GOODPUT = java.util.ResourceBundle.getBundle("com/manolodominguez/opensimmpls/resources/translations/translations").getString("TEstadisticas.Caudal_util");
 
     // Constants related to packet status
     public static final int INCOMING = -1;
     public static final int OUTGOING = -2;
     public static final int BEING_DISCARDED = -3;
+    private static final int LAST_TIME_SERIES_DATASET = 3;
 }
@@ -0,0 +1,256 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import com.manolodominguez.opensimmpls.commons.TStripedCounters;
+import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+import java.util.Set;
+
+/**
+ * This class implements the packet counters shared by the statistics of every
+ * type of node. Each combination of direction (incoming, outgoing, discarded)
+ * and class of packet (type of packet and GoS level) is mapped to a position
+ * of a flat array of counters, so that counting a packet is a single
+ * increment. The time series of a combination, and its place in the dataset
+ * of its direction, are only created when packets of that combination are
+ * counted for the first time.
+ *
+ * Packets are counted by whatever thread delivers, sends or discards them, so
+ * counters are striped: each thread increments its own cells, without locks,
+ * and cells are added up when the counters are grouped by time instant.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public class TStatsCounters {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TStatsCounters that only counts the specified directions and classes of
+     * packets; any other packet is ignored.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param directions the directions to be counted.
+     * @param packetClasses the classes of packets to be counted.
+     * @throws IllegalArgumentException if any argument is null.
+     * @since 2.3
+     */
+    public TStatsCounters(Set<StatsDirections> directions, Set<StatsPacketClasses> packetClasses) {
+        if ((directions == null) || (packetClasses == null)) {
+            throw new IllegalArgumentException();
+        }
+        this.trackedCounters = new boolean[NUMBER_OF_DIRECTIONS * NUMBER_OF_PACKET_CLASSES];
+        for (StatsDirections direction : directions) {
+            for (StatsPacketClasses packetClass : packetClasses) {
+                this.trackedCounters[getIndex(direction.ordinal(), packetClass.ordinal())] = true;
+            }
+        }
+        this.counters = new TStripedCounters(NUMBER_OF_DIRECTIONS * NUMBER_OF_PACKET_CLASSES);
+        this.timeSeries = new TStatsTimeSeries[NUMBER_OF_DIRECTIONS * NUMBER_OF_PACKET_CLASSES];
+        this.datasets = new TStatsXYDataset[NUMBER_OF_DIRECTIONS];
+        reset();
+    }
+
+    /**
+     * This method counts the packet passed as an argument in the specified
+     * direction, if both the direction and the class of the packet are being
+     * counted. It can be called from any thread.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet the packet to be counted.
+     * @param entryType INCOMING, OUTGOING or BEING_DISCARDED, as defined in
+     * TStats.
+     * @return true, if the packet has been counted. Otherwise, false.
+     * @since 2.3
+     */
+    public boolean addStatEntry(TAbstractPDU packet, int entryType) {
+        // Entry types are consecutive negative values: -1, -2 and -3.
+        int direction = TStats.INCOMING - entryType;
+        if ((direction < ZERO) || (direction >= NUMBER_OF_DIRECTIONS)) {
+            return false;
+        }
+        int packetClass = getPacketClass(packet);
+        if (packetClass < ZERO) {
+            return false;
+        }
+        int index = getIndex(direction, packetClass);
+        if (!this.trackedCounters[index]) {
+            return false;
+        }
+        this.counters.increment(index);
+        return true;
+    }
+
+    /**
+     * This method gets the position of the class of the specified packet in
+     * StatsPacketClasses.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet the packet.
+     * @return the ordinal of the class of the packet, or -1 if the packet does
+     * not belong to any class.
+     * @since 2.3
+     */
+    private static int getPacketClass(TAbstractPDU packet) {
+        switch (packet.getSubtype()) {
+            case TAbstractPDU.IPV4:
+                return IPV4_CLASS;
+            case TAbstractPDU.IPV4_GOS:
+                return getGoSPacketClass(IPV4_CLASS, packet);
+            case TAbstractPDU.MPLS:
+                return MPLS_CLASS;
+            case TAbstractPDU.MPLS_GOS:
+                return getGoSPacketClass(MPLS_CLASS, packet);
+            case TAbstractPDU.TLDP:
+                return TLDP_CLASS;
+            case TAbstractPDU.GPSRP:
+                return GPSRP_CLASS;
+            default:
+                return NO_CLASS;
+        }
+    }
+
+    /**
+     * This method gets the position of the class of the specified packet with
+     * GoS in StatsPacketClasses, according to its GoS level.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param firstPacketClass the ordinal of the class of the same type of
+     * packet without GoS.
+     * @param packet the packet.
+     * @return the ordinal of the class of the packet, or -1 if its GoS level
+     * is not valid.
+     * @since 2.3
+     */
+    private static int getGoSPacketClass(int firstPacketClass, TAbstractPDU packet) {
+        int GoSLevel = packet.getIPv4Header().getOptionsField().getRequestedGoSLevel();
+        if ((GoSLevel < ZERO) || (GoSLevel >= GOS_LEVEL_OFFSETS.length)) {
+            return NO_CLASS;
+        }
+        return firstPacketClass + GOS_LEVEL_OFFSETS[GoSLevel];
+    }
+
+    /**
+     * This method gets the position of the counter of the specified direction
+     * and class of packet.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param direction the ordinal of the direction.
+     * @param packetClass the ordinal of the class of packet.
+     * @return the position of the counter.
+     * @since 2.3
+     */
+    private static int getIndex(int direction, int packetClass) {
+        return (direction * NUMBER_OF_PACKET_CLASSES) + packetClass;
+    }
+
+    /**
+     * This method adds the value of every counter that has counted any packet
+     * to its time series, at the time instant passed as an argument. Counters
+     * keep their values, so series show the accumulated number of packets.
+     * Series are added to the dataset of their direction the first time they
+     * get a value, in the order of their classes of packets. It has to be
+     * called always from the same thread.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param timeInstant the time instant (in simulation terms) by wich the
+     * counters are grouped.
+     * @since 2.3
+     */
+    public void groupStatsByTimeInstant(long timeInstant) {
+        for (int index = ZERO; index < this.trackedCounters.length; index++) {
+            if (!this.trackedCounters[index]) {
+                continue;
+            }
+            long counter = this.counters.get(index);
+            if (counter > ZERO) {
+                TStatsTimeSeries series = this.timeSeries[index];
+                if (series == null) {
+                    series = new TStatsTimeSeries(PACKET_CLASSES[index % NUMBER_OF_PACKET_CLASSES].getSeriesKey());
+                    series.add(timeInstant - ONE, ZERO);
+                    series.add(timeInstant, counter);
+                    this.timeSeries[index] = series;
+                    this.datasets[index / NUMBER_OF_PACKET_CLASSES].addSeries(series);
+                } else {
+                    series.add(timeInstant, counter);
+                }
+            }
+        }
+    }
+
+    /**
+     * This method gets the dataset containing the time series of the
+     * specified direction.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param direction the direction.
+     * @return the dataset of the direction.
+     * @since 2.3
+     */
+    public TStatsXYDataset getDataset(StatsDirections direction) {
+        return this.datasets[direction.ordinal()];
+    }
+
+    /**
+     * This method gets the number of packets counted in the specified
+     * direction and class of packet.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param direction the direction.
+     * @param packetClass the class of packet.
+     * @return the number of packets counted.
+     * @since 2.3
+     */
+    public long getCount(StatsDirections direction, StatsPacketClasses packetClass) {
+        return this.counters.get(getIndex(direction.ordinal(), packetClass.ordinal()));
+    }
+
+    /**
+     * This method sets every counter to zero and discards every time series,
+     * as in the moment of the instantiation.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public final void reset() {
+        this.counters.reset();
+        for (int index = ZERO; index < this.timeSeries.length; index++) {
+            this.timeSeries[index] = null;
+        }
+        for (int direction = ZERO; direction < NUMBER_OF_DIRECTIONS; direction++) {
+            this.datasets[direction] = new TStatsXYDataset();
+        }
+    }
+
+    private final boolean[] trackedCounters;
+    private final TStripedCounters counters;
+    private final TStatsTimeSeries[] timeSeries;
+    private final TStatsXYDataset[] datasets;
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int NO_CLASS = -1;
+    private static final StatsPacketClasses[] PACKET_CLASSES = StatsPacketClasses.values();
+    private static final int NUMBER_OF_PACKET_CLASSES = PACKET_CLASSES.length;
+    private static final int NUMBER_OF_DIRECTIONS = StatsDirections.values().length;
+    private static final int IPV4_CLASS = StatsPacketClasses.IPV4.ordinal();
+    private static final int MPLS_CLASS = StatsPacketClasses.MPLS.ordinal();
+    private static final int TLDP_CLASS = StatsPacketClasses.TLDP.ordinal();
+    private static final int GPSRP_CLASS = StatsPacketClasses.GPSRP.ordinal();
+    // Offset of the class of each GoS level from the class without GoS,
+    // indexed by the EXP_LEVEL* constants of TAbstractPDU.
+    private static final int[] GOS_LEVEL_OFFSETS = {0, 1, 2, 3, 0, 1, 2, 3};
+}
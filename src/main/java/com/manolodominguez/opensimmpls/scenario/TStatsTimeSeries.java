@@ -0,0 +1,340 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import java.util.Arrays;
+
+/**
+ * This class implements a time series of statistics, stored in two growable
+ * columns of primitive values: time instants and values. Points are appended
+ * by a single thread of the simulation, without creating any object, and can
+ * be read at the same time from any other thread, as the GUI; readers only
+ * see points that have been completely written.
+ *
+ * Besides the points themselves, the series maintains aggregates of them at
+ * power-of-two resolutions: at level n, each bucket summarizes 2^n
+ * consecutive points with their minimum, maximum and sum. Levels are created
+ * when the series grows long enough to need them and are updated with every
+ * new point, so that charts can plot a number of buckets bounded by their
+ * width instead of every point of a long simulation.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public class TStatsTimeSeries {
+
+    /**
+     * This is the constructor of the class. It creates a new empty time
+     * series.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param key the name of the series, as shown in the legend of charts.
+     * @since 2.3
+     */
+    public TStatsTimeSeries(String key) {
+        this.key = key;
+        this.timeInstants = new long[INITIAL_CAPACITY];
+        this.values = new double[INITIAL_CAPACITY];
+        this.itemCount = ZERO;
+        this.minTimeInstants = new long[MAX_LEVELS + ONE][];
+        this.minValues = new double[MAX_LEVELS + ONE][];
+        this.maxTimeInstants = new long[MAX_LEVELS + ONE][];
+        this.maxValues = new double[MAX_LEVELS + ONE][];
+        this.sums = new double[MAX_LEVELS + ONE][];
+        this.levelCount = ZERO;
+    }
+
+    /**
+     * This method gets the name of the series.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the name of the series.
+     * @since 2.3
+     */
+    public String getKey() {
+        return this.key;
+    }
+
+    /**
+     * This method appends a new point at the end of the series. It has to be
+     * called always from the same thread.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param timeInstant the time instant of the point, in nanoseconds.
+     * @param value the value of the point.
+     * @since 2.3
+     */
+    public void add(long timeInstant, double value) {
+        int index = this.itemCount;
+        if (index == this.timeInstants.length) {
+            int newCapacity = index * TWO;
+            this.timeInstants = Arrays.copyOf(this.timeInstants, newCapacity);
+            this.values = Arrays.copyOf(this.values, newCapacity);
+        }
+        this.timeInstants[index] = timeInstant;
+        this.values[index] = value;
+        for (int level = ONE; level <= this.levelCount; level++) {
+            aggregate(level, index, timeInstant, value);
+        }
+        // Publishing the new count makes the point, and the aggregates it has
+        // been added to, visible to readers.
+        this.itemCount = index + ONE;
+        int nextLevel = this.levelCount + ONE;
+        if ((nextLevel <= MAX_LEVELS) && (this.itemCount >= (((long) MIN_BUCKETS_PER_LEVEL) << nextLevel))) {
+            for (int i = ZERO; i < this.itemCount; i++) {
+                aggregate(nextLevel, i, this.timeInstants[i], this.values[i]);
+            }
+            this.levelCount = nextLevel;
+        }
+    }
+
+    /**
+     * This method adds the specified point to the bucket it belongs to in the
+     * specified aggregation level.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param level the aggregation level.
+     * @param index the index of the point.
+     * @param timeInstant the time instant of the point, in nanoseconds.
+     * @param value the value of the point.
+     * @since 2.3
+     */
+    private void aggregate(int level, int index, long timeInstant, double value) {
+        int bucket = index >> level;
+        if ((index & ((ONE << level) - ONE)) == ZERO) {
+            if ((this.sums[level] == null) || (bucket == this.sums[level].length)) {
+                int newCapacity = Math.max(INITIAL_CAPACITY, bucket * TWO);
+                this.minTimeInstants[level] = copyOf(this.minTimeInstants[level], newCapacity);
+                this.minValues[level] = copyOf(this.minValues[level], newCapacity);
+                this.maxTimeInstants[level] = copyOf(this.maxTimeInstants[level], newCapacity);
+                this.maxValues[level] = copyOf(this.maxValues[level], newCapacity);
+                this.sums[level] = copyOf(this.sums[level], newCapacity);
+            }
+            this.minTimeInstants[level][bucket] = timeInstant;
+            this.minValues[level][bucket] = value;
+            this.maxTimeInstants[level][bucket] = timeInstant;
+            this.maxValues[level][bucket] = value;
+            this.sums[level][bucket] = value;
+        } else {
+            if (value < this.minValues[level][bucket]) {
+                this.minTimeInstants[level][bucket] = timeInstant;
+                this.minValues[level][bucket] = value;
+            }
+            if (value > this.maxValues[level][bucket]) {
+                this.maxTimeInstants[level][bucket] = timeInstant;
+                this.maxValues[level][bucket] = value;
+            }
+            this.sums[level][bucket] += value;
+        }
+    }
+
+    /**
+     * This method copies the specified array into a new one with the
+     * specified capacity, or creates it if it does not exist yet.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param array the array to be copied, or null.
+     * @param newCapacity the capacity of the new array.
+     * @return the new array.
+     * @since 2.3
+     */
+    private static long[] copyOf(long[] array, int newCapacity) {
+        if (array == null) {
+            return new long[newCapacity];
+        }
+        return Arrays.copyOf(array, newCapacity);
+    }
+
+    /**
+     * This method copies the specified array into a new one with the
+     * specified capacity, or creates it if it does not exist yet.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param array the array to be copied, or null.
+     * @param newCapacity the capacity of the new array.
+     * @return the new array.
+     * @since 2.3
+     */
+    private static double[] copyOf(double[] array, int newCapacity) {
+        if (array == null) {
+            return new double[newCapacity];
+        }
+        return Arrays.copyOf(array, newCapacity);
+    }
+
+    /**
+     * This method gets the number of points of the series.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of points of the series.
+     * @since 2.3
+     */
+    public int getItemCount() {
+        return this.itemCount;
+    }
+
+    /**
+     * This method gets the time instant of the specified point.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param index the index of the point, lower than getItemCount().
+     * @return the time instant of the point, in nanoseconds.
+     * @since 2.3
+     */
+    public long getTimeInstant(int index) {
+        return this.timeInstants[index];
+    }
+
+    /**
+     * This method gets the value of the specified point.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param index the index of the point, lower than getItemCount().
+     * @return the value of the point.
+     * @since 2.3
+     */
+    public double getValue(int index) {
+        return this.values[index];
+    }
+
+    /**
+     * This method gets the number of aggregation levels the series has at
+     * this moment. Levels go from 1, where each bucket summarizes 2 points, to
+     * the returned value; level 0 stands for the points themselves.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the highest aggregation level available.
+     * @since 2.3
+     */
+    public int getLevelCount() {
+        return this.levelCount;
+    }
+
+    /**
+     * This method gets the number of buckets of the specified aggregation
+     * level that summarize a given number of points and are complete, that
+     * is, those that will not change when new points are added.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param level the aggregation level, between 1 and getLevelCount().
+     * @param itemCount a number of points, not greater than getItemCount().
+     * @return the number of complete buckets.
+     * @since 2.3
+     */
+    public static int getCompleteBucketCount(int level, int itemCount) {
+        return itemCount >> level;
+    }
+
+    /**
+     * This method gets the number of points summarized by the specified bucket.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param level the aggregation level, between 1 and getLevelCount().
+     * @param bucket the index of the bucket.
+     * @return the number of points of the bucket.
+     * @since 2.3
+     */
+    public int getBucketItemCount(int level, int bucket) {
+        long firstIndex = ((long) bucket) << level;
+        return (int) Math.max(ZERO, Math.min(ONE << level, this.itemCount - firstIndex));
+    }
+
+    /**
+     * This method gets the time instant of the lowest point of the specified
+     * bucket.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param level the aggregation level, between 1 and getLevelCount().
+     * @param bucket the index of the bucket.
+     * @return the time instant of the lowest point, in nanoseconds.
+     * @since 2.3
+     */
+    public long getBucketMinTimeInstant(int level, int bucket) {
+        return this.minTimeInstants[level][bucket];
+    }
+
+    /**
+     * This method gets the value of the lowest point of the specified bucket.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param level the aggregation level, between 1 and getLevelCount().
+     * @param bucket the index of the bucket.
+     * @return the minimum value of the bucket.
+     * @since 2.3
+     */
+    public double getBucketMinValue(int level, int bucket) {
+        return this.minValues[level][bucket];
+    }
+
+    /**
+     * This method gets the time instant of the highest point of the specified
+     * bucket.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param level the aggregation level, between 1 and getLevelCount().
+     * @param bucket the index of the bucket.
+     * @return the time instant of the highest point, in nanoseconds.
+     * @since 2.3
+     */
+    public long getBucketMaxTimeInstant(int level, int bucket) {
+        return this.maxTimeInstants[level][bucket];
+    }
+
+    /**
+     * This method gets the value of the highest point of the specified bucket.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param level the aggregation level, between 1 and getLevelCount().
+     * @param bucket the index of the bucket.
+     * @return the maximum value of the bucket.
+     * @since 2.3
+     */
+    public double getBucketMaxValue(int level, int bucket) {
+        return this.maxValues[level][bucket];
+    }
+
+    /**
+     * This method gets the sum of the values of the points of the specified
+     * bucket.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param level the aggregation level, between 1 and getLevelCount().
+     * @param bucket the index of the bucket.
+     * @return the sum of the values of the bucket.
+     * @since 2.3
+     */
+    public double getBucketSum(int level, int bucket) {
+        return this.sums[level][bucket];
+    }
+
+    private final String key;
+    private volatile long[] timeInstants;
+    private volatile double[] values;
+    private volatile int itemCount;
+    private final long[][] minTimeInstants;
+    private final double[][] minValues;
+    private final long[][] maxTimeInstants;
+    private final double[][] maxValues;
+    private final double[][] sums;
+    private volatile int levelCount;
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int TWO = 2;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MIN_BUCKETS_PER_LEVEL = 64;
+    private static final int MAX_LEVELS = 24;
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.jfree.data.DomainOrder;
+import org.jfree.data.xy.AbstractXYDataset;
+
+/**
+ * This class implements a XY dataset that can be plotted by JFreeChart,
+ * backed by a set of TStatsTimeSeries. The simulation appends points to the
+ * series without notifying anybody; the dataset only exposes the points that
+ * were available the last time it was refreshed, and notifies charts when
+ * refreshed, so that they are only updated when they are being shown and
+ * nothing is copied or boxed to do it.
+ *
+ * The number of points plotted for each series can be limited, usually to a
+ * value derived from the width of the chart. When a series has more points
+ * than that, the dataset plots the lowest and the highest point of each
+ * bucket of the coarsest-but-sufficient aggregation level of the series,
+ * instead of the points themselves.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+@SuppressWarnings("serial")
+public class TStatsXYDataset extends AbstractXYDataset {
+
+    /**
+     * This is the constructor of the class. It creates a new dataset without
+     * series.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public TStatsXYDataset() {
+        this.series = new CopyOnWriteArrayList<>();
+        this.refreshedItemCounts = new int[ZERO];
+        this.refreshedLevels = new int[ZERO];
+        this.plottedItemCounts = new int[ZERO];
+        this.tailTimeInstants = new long[ZERO][];
+        this.tailValues = new double[ZERO][];
+        this.maxPlottedItemCount = Integer.MAX_VALUE;
+    }
+
+    /**
+     * This method sets the maximum number of points that will be plotted for
+     * each series from the next refresh on.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param maxPlottedItemCount the maximum number of points per series.
+     * @throws IllegalArgumentException if the number of points is lower than
+     * 2.
+     * @since 2.3
+     */
+    public void setMaxPlottedItemCount(int maxPlottedItemCount) {
+        if (maxPlottedItemCount < TWO) {
+            throw new IllegalArgumentException();
+        }
+        this.maxPlottedItemCount = maxPlottedItemCount;
+    }
+
+    /**
+     * This method gets the maximum number of points that are plotted for each
+     * series.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the maximum number of points per series.
+     * @since 2.3
+     */
+    public int getMaxPlottedItemCount() {
+        return this.maxPlottedItemCount;
+    }
+
+    /**
+     * This method adds a new series to the dataset. It can be called from the
+     * simulation; the series will be visible after the next refresh.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param timeSeries the series to be added.
+     * @since 2.3
+     */
+    public void addSeries(TStatsTimeSeries timeSeries) {
+        this.series.add(timeSeries);
+    }
+
+    /**
+     * This method makes visible every series and point added since the last
+     * refresh, choosing again the aggregation level plotted for each series,
+     * and, if anything has changed, notifies listeners, as charts, that the
+     * dataset has changed. It has to be called from the event dispatch
+     * thread.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public void refresh() {
+        int seriesCount = this.series.size();
+        boolean changed = seriesCount != this.refreshedItemCounts.length;
+        int[] itemCounts = Arrays.copyOf(this.refreshedItemCounts, seriesCount);
+        int[] levels = Arrays.copyOf(this.refreshedLevels, seriesCount);
+        for (int i = ZERO; i < seriesCount; i++) {
+            TStatsTimeSeries timeSeries = this.series.get(i);
+            int itemCount = timeSeries.getItemCount();
+            int level = selectLevel(timeSeries, itemCount);
+            if ((itemCount != itemCounts[i]) || (level != levels[i])) {
+                itemCounts[i] = itemCount;
+                levels[i] = level;
+                changed = true;
+            }
+        }
+        if (changed) {
+            int[] plotted = new int[seriesCount];
+            long[][] tailInstants = new long[seriesCount][];
+            double[][] tailValuesOfSeries = new double[seriesCount][];
+            for (int i = ZERO; i < seriesCount; i++) {
+                plotted[i] = itemCounts[i];
+                if (levels[i] > ZERO) {
+                    int completeBuckets = TStatsTimeSeries.getCompleteBucketCount(levels[i], itemCounts[i]);
+                    plotted[i] = completeBuckets * TWO;
+                    int firstTailIndex = completeBuckets << levels[i];
+                    if (firstTailIndex < itemCounts[i]) {
+                        // The last bucket is still growing, so it is summarized
+                        // from the points, that do not change any more.
+                        tailInstants[i] = new long[TWO];
+                        tailValuesOfSeries[i] = new double[TWO];
+                        summarizeTail(this.series.get(i), firstTailIndex, itemCounts[i], tailInstants[i], tailValuesOfSeries[i]);
+                        plotted[i] += TWO;
+                    }
+                }
+            }
+            this.refreshedItemCounts = itemCounts;
+            this.refreshedLevels = levels;
+            this.plottedItemCounts = plotted;
+            this.tailTimeInstants = tailInstants;
+            this.tailValues = tailValuesOfSeries;
+            fireDatasetChanged();
+        }
+    }
+
+    /**
+     * This method selects the finest aggregation level of the specified series
+     * whose number of plotted points is not greater than the maximum, or the
+     * coarsest one available if none is fine enough.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param timeSeries the series.
+     * @param itemCount the number of points of the series being plotted.
+     * @return the aggregation level to be plotted; 0 for the points
+     * themselves.
+     * @since 2.3
+     */
+    private int selectLevel(TStatsTimeSeries timeSeries, int itemCount) {
+        int levelCount = timeSeries.getLevelCount();
+        int level = ZERO;
+        long plotted = itemCount;
+        while ((plotted > this.maxPlottedItemCount) && (level < levelCount)) {
+            level++;
+            // Two points, the lowest and the highest, for each bucket.
+            plotted = ((((long) itemCount) + (ONE << level) - ONE) >> level) * TWO;
+        }
+        return level;
+    }
+
+    /**
+     * This method computes the lowest and the highest points of a range of
+     * points of the specified series, in the order they were added.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param timeSeries the series.
+     * @param fromIndex the index of the first point of the range.
+     * @param toIndex the index following the last point of the range.
+     * @param timeInstants the array where both time instants are stored.
+     * @param values the array where both values are stored.
+     * @since 2.3
+     */
+    private void summarizeTail(TStatsTimeSeries timeSeries, int fromIndex, int toIndex, long[] timeInstants, double[] values) {
+        int minIndex = fromIndex;
+        int maxIndex = fromIndex;
+        for (int i = fromIndex + ONE; i < toIndex; i++) {
+            if (timeSeries.getValue(i) < timeSeries.getValue(minIndex)) {
+                minIndex = i;
+            }
+            if (timeSeries.getValue(i) > timeSeries.getValue(maxIndex)) {
+                maxIndex = i;
+            }
+        }
+        int firstIndex = Math.min(minIndex, maxIndex);
+        int secondIndex = Math.max(minIndex, maxIndex);
+        timeInstants[ZERO] = timeSeries.getTimeInstant(firstIndex);
+        values[ZERO] = timeSeries.getValue(firstIndex);
+        timeInstants[ONE] = timeSeries.getTimeInstant(secondIndex);
+        values[ONE] = timeSeries.getValue(secondIndex);
+    }
+
+    /**
+     * This method gets the aggregation level that is being plotted for the
+     * specified series.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param seriesIndex the position of the series.
+     * @return the aggregation level; 0 if every point is plotted.
+     * @since 2.3
+     */
+    public int getPlottedLevel(int seriesIndex) {
+        return this.refreshedLevels[seriesIndex];
+    }
+
+    /**
+     * This method gets the number of series that have been added to the
+     * dataset, including those that will not be visible until the next
+     * refresh. It can be called from any thread.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of series added to the dataset.
+     * @since 2.3
+     */
+    public int getAddedSeriesCount() {
+        return this.series.size();
+    }
+
+    /**
+     * This method gets the series of the dataset in the specified position.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param seriesIndex the position of the series.
+     * @return the series in the specified position.
+     * @since 2.3
+     */
+    public TStatsTimeSeries getSeries(int seriesIndex) {
+        return this.series.get(seriesIndex);
+    }
+
+    @Override
+    public int getSeriesCount() {
+        return this.refreshedItemCounts.length;
+    }
+
+    @Override
+    public Comparable getSeriesKey(int seriesIndex) {
+        return this.series.get(seriesIndex).getKey();
+    }
+
+    @Override
+    public int getItemCount(int seriesIndex) {
+        return this.plottedItemCounts[seriesIndex];
+    }
+
+    @Override
+    public DomainOrder getDomainOrder() {
+        return DomainOrder.ASCENDING;
+    }
+
+    @Override
+    public double getXValue(int seriesIndex, int itemIndex) {
+        int level = this.refreshedLevels[seriesIndex];
+        TStatsTimeSeries timeSeries = this.series.get(seriesIndex);
+        if (level == ZERO) {
+            return timeSeries.getTimeInstant(itemIndex);
+        }
+        int bucket = itemIndex / TWO;
+        if (bucket == TStatsTimeSeries.getCompleteBucketCount(level, this.refreshedItemCounts[seriesIndex])) {
+            return this.tailTimeInstants[seriesIndex][itemIndex % TWO];
+        }
+        if (isMinFirst(timeSeries, level, bucket) == ((itemIndex % TWO) == ZERO)) {
+            return timeSeries.getBucketMinTimeInstant(level, bucket);
+        }
+        return timeSeries.getBucketMaxTimeInstant(level, bucket);
+    }
+
+    @Override
+    public double getYValue(int seriesIndex, int itemIndex) {
+        int level = this.refreshedLevels[seriesIndex];
+        TStatsTimeSeries timeSeries = this.series.get(seriesIndex);
+        if (level == ZERO) {
+            return timeSeries.getValue(itemIndex);
+        }
+        int bucket = itemIndex / TWO;
+        if (bucket == TStatsTimeSeries.getCompleteBucketCount(level, this.refreshedItemCounts[seriesIndex])) {
+            return this.tailValues[seriesIndex][itemIndex % TWO];
+        }
+        if (isMinFirst(timeSeries, level, bucket) == ((itemIndex % TWO) == ZERO)) {
+            return timeSeries.getBucketMinValue(level, bucket);
+        }
+        return timeSeries.getBucketMaxValue(level, bucket);
+    }
+
+    /**
+     * This method checks whether the lowest point of a bucket was added
+     * before its highest point, so that both are plotted in order.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param timeSeries the series.
+     * @param level the aggregation level.
+     * @param bucket the index of the bucket.
+     * @return true, if the lowest point goes first. Otherwise, false.
+     * @since 2.3
+     */
+    private boolean isMinFirst(TStatsTimeSeries timeSeries, int level, int bucket) {
+        return timeSeries.getBucketMinTimeInstant(level, bucket) <= timeSeries.getBucketMaxTimeInstant(level, bucket);
+    }
+
+    @Override
+    public Number getX(int seriesIndex, int itemIndex) {
+        return getXValue(seriesIndex, itemIndex);
+    }
+
+    @Override
+    public Number getY(int seriesIndex, int itemIndex) {
+        return getYValue(seriesIndex, itemIndex);
+    }
+
+    private final CopyOnWriteArrayList<TStatsTimeSeries> series;
+    private int[] refreshedItemCounts;
+    private int[] refreshedLevels;
+    private int[] plottedItemCounts;
+    private long[][] tailTimeInstants;
+    private double[][] tailValues;
+    private int maxPlottedItemCount;
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int TWO = 2;
+}
@@ -21,6 +21,7 @@ import com.manolodominguez.opensimmpls.commons.TIPv4AddressGenerator;
 import com.manolodominguez.opensimmpls.commons.TSemaphore;
 import com.manolodominguez.opensimmpls.commons.TIDGenerator;
 import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
+import com.manolodominguez.opensimmpls.io.jfr.TRouteComputationEvent;
 import java.awt.Point;
 import java.util.Iterator;
 import java.util.TreeSet;
@@ -54,6 +55,8 @@ public class TTopology {
         this.ipv4AddressGenerator = new TIPv4AddressGenerator();
         this.floydWarshallAlgorithmLock = new TSemaphore();
         this.rabanAlgorithmLock = new TSemaphore();
+        this.numberOfRouteComputations = 0;
+        this.routeComputationsTimeInNs = 0;
     }
 
     /**
@@ -847,6 +850,9 @@ public class TTopology {
      * @since 2.0
      */
     public synchronized int getFloydWarshallNextHopID(int originNodeID, int targetNodeID) {
+        long computationStartInNs = System.nanoTime();
+        TRouteComputationEvent routeComputationEvent = new TRouteComputationEvent();
+        routeComputationEvent.begin();
         this.floydWarshallAlgorithmLock.setRed();
         int currentNumberOfNodes = this.nodes.size();
         int tmpOrigin = 0;
@@ -936,6 +942,8 @@ public class TTopology {
         } else {
             nextHop = equivalenceMatrix[nextHop];
         }
+        accountRouteComputation(computationStartInNs);
+        commitRouteComputationEvent(routeComputationEvent, FLOYD_WARSHALL, originNodeID, targetNodeID, nextHop, currentNumberOfNodes);
         this.floydWarshallAlgorithmLock.setGreen();
         return nextHop;
     }
@@ -1049,6 +1057,9 @@ public class TTopology {
      * @since 2.0
      */
     public synchronized int getRABANNextHopID(int originNodeID, int targetNodeID) {
+        long computationStartInNs = System.nanoTime();
+        TRouteComputationEvent routeComputationEvent = new TRouteComputationEvent();
+        routeComputationEvent.begin();
         this.rabanAlgorithmLock.setRed();
         int currentNumberOfNodes = this.nodes.size();
         int tmpOrigin = 0;
@@ -1132,6 +1143,8 @@ public class TTopology {
         } else {
             nextHop = equivalenceMatrix[nextHop];
         }
+        accountRouteComputation(computationStartInNs);
+        commitRouteComputationEvent(routeComputationEvent, RABAN, originNodeID, targetNodeID, nextHop, currentNumberOfNodes);
         this.rabanAlgorithmLock.setGreen();
         return nextHop;
     }
@@ -1158,6 +1171,9 @@ public class TTopology {
      * @since 2.0
      */
     public synchronized int getNextHopIDUsingRABAN(int originNodeID, int targetNodeID, int nodeToAvoidID) {
+        long computationStartInNs = System.nanoTime();
+        TRouteComputationEvent routeComputationEvent = new TRouteComputationEvent();
+        routeComputationEvent.begin();
         this.rabanAlgorithmLock.setRed();
         int currentNumberOfNodes = this.nodes.size();
         int tmpOrigin = 0;
@@ -1253,10 +1269,78 @@ public class TTopology {
         } else {
             nextHop = equivalenceMatrix[nextHop];
         }
+        accountRouteComputation(computationStartInNs);
+        commitRouteComputationEvent(routeComputationEvent, RABAN, originNodeID, targetNodeID, nextHop, currentNumberOfNodes);
         this.rabanAlgorithmLock.setGreen();
         return nextHop;
     }
 
+    /**
+     * This method counts a route computation that has just finished, and the
+     * time spent on it. It has to be called from a synchronized method.
+     *
+     * @param computationStartInNs the value of System.nanoTime() when the
+     * route computation started.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    private void accountRouteComputation(long computationStartInNs) {
+        this.routeComputationsTimeInNs += System.nanoTime() - computationStartInNs;
+        this.numberOfRouteComputations++;
+    }
+
+    /**
+     * This method records a route computation that has just finished as a
+     * Java Flight Recorder event, if such events are being recorded.
+     *
+     * @param routeComputationEvent the event, begun when the route computation
+     * started.
+     * @param algorithm the name of the routing algorithm.
+     * @param originNodeID node ID of the origin node.
+     * @param targetNodeID node ID of the target/destination node.
+     * @param nextHopNodeID node ID of the next hop node, or
+     * TTopology.TARGET_UNREACHABLE.
+     * @param numberOfNodes the number of nodes of the topology.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    private void commitRouteComputationEvent(TRouteComputationEvent routeComputationEvent, String algorithm, int originNodeID, int targetNodeID, int nextHopNodeID, int numberOfNodes) {
+        routeComputationEvent.end();
+        if (routeComputationEvent.shouldCommit()) {
+            routeComputationEvent.setAlgorithm(algorithm);
+            routeComputationEvent.setOriginNodeID(originNodeID);
+            routeComputationEvent.setTargetNodeID(targetNodeID);
+            routeComputationEvent.setNextHopNodeID(nextHopNodeID);
+            routeComputationEvent.setNodes(numberOfNodes);
+            routeComputationEvent.commit();
+        }
+    }
+
+    /**
+     * This method gets the number of next hops computed by Floyd-Warshall or
+     * RABAN algorithms since this topology was created. Routes are not cached,
+     * so each query to the routing methods runs the whole algorithm.
+     *
+     * @return the number of route computations.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public long getNumberOfRouteComputations() {
+        return this.numberOfRouteComputations;
+    }
+
+    /**
+     * This method gets the wall time spent computing next hops by
+     * Floyd-Warshall or RABAN algorithms since this topology was created.
+     *
+     * @return the time spent on route computations, in nanoseconds.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public long getRouteComputationsTimeInNs() {
+        return this.routeComputationsTimeInNs;
+    }
+
     public static final long INFINITE_WEIGHT = 9223372036854775806L;
     public static final long VERY_HIGH_WEIGHT = (long) INFINITE_WEIGHT / 2;
     public static final int TARGET_UNREACHABLE = -1;
@@ -1270,4 +1354,9 @@ public class TTopology {
     private TIPv4AddressGenerator ipv4AddressGenerator;
     private TSemaphore floydWarshallAlgorithmLock;
     private TSemaphore rabanAlgorithmLock;
+    private volatile long numberOfRouteComputations;
+    private volatile long routeComputationsTimeInNs;
+
+    private static final String FLOYD_WARSHALL = "Floyd-Warshall";
+    private static final String RABAN = "RABAN";
 }
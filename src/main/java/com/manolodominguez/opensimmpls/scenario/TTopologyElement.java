@@ -54,6 +54,18 @@ public abstract class TTopologyElement implements ITimerEventListener, Runnable
         this.wellConfigured = false;
         this.currentTimeInstant = 0;
         this.tickDurationInNs = 0;
+        this.lastProcessingTimeInNs = 0;
+        this.processingTimeInNs = 0;
+        this.timedOperation = new Runnable() {
+            @Override
+            public void run() {
+                long operationStartInNs = System.nanoTime();
+                TTopologyElement.this.run();
+                long operationTimeInNs = System.nanoTime() - operationStartInNs;
+                lastProcessingTimeInNs = operationTimeInNs;
+                processingTimeInNs += operationTimeInNs;
+            }
+        };
         this.translations = ResourceBundle.getBundle(AvailableBundles.T_TOPOLOGY_ELEMENT.getPath());
     }
 
@@ -211,21 +223,46 @@ public abstract class TTopologyElement implements ITimerEventListener, Runnable
 
     /**
      * This method starts the independent thread that governs the topology
-     * element.
+     * element, measuring the wall time it spends on the operation.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
     public synchronized void startOperation() {
         if (elementThread == null) {
-            elementThread = new Thread(this);
+            elementThread = new Thread(this.timedOperation);
             this.elementThread.start();
         } else if (!elementThread.isAlive()) {
-            elementThread = new Thread(this);
+            elementThread = new Thread(this.timedOperation);
             this.elementThread.start();
         }
     }
 
+    /**
+     * This method gets the wall time the thread of this topology element
+     * spent on its latest operation, that is, on the latest timer event it
+     * has consumed.
+     *
+     * @return the wall time of the latest operation, in nanoseconds.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public long getLastProcessingTimeInNs() {
+        return this.lastProcessingTimeInNs;
+    }
+
+    /**
+     * This method gets the wall time the thread of this topology element has
+     * spent on all its operations since the element was created.
+     *
+     * @return the wall time of all operations, in nanoseconds.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public long getProcessingTimeInNs() {
+        return this.processingTimeInNs;
+    }
+
     /**
      * This method is used to syncronize the thread of the topology element with
      * those of the rest of elements and with the main thread so that the
@@ -291,6 +328,25 @@ public abstract class TTopologyElement implements ITimerEventListener, Runnable
         }
     }
 
+    /**
+     * This method checks whether the simulation event listener of this
+     * topology element wants events of the specified subtype. It has to be
+     * checked before creating a simulation event, so that events nobody is
+     * going to consume are never allocated.
+     *
+     * @param eventSubtype the event subtype, as defined in TSimulationEvent.
+     * @return TRUE, if events of the specified subtype are wanted. Otherwise,
+     * FALSE.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public boolean isSubscribedTo(int eventSubtype) {
+        if (this.simulationEventsListener != null) {
+            return this.simulationEventsListener.isSubscribedTo(eventSubtype);
+        }
+        return false;
+    }
+
     /**
      * This is an abstract method that once implemented will check whether the
      * topology element is alive or not.
@@ -402,6 +458,9 @@ public abstract class TTopologyElement implements ITimerEventListener, Runnable
     private int elementType;
     private boolean markForDeletionAsTimerEventListener;
     private Thread elementThread;
+    private final Runnable timedOperation;
+    private volatile long lastProcessingTimeInNs;
+    private volatile long processingTimeInNs;
     public TSimulationEventListener simulationEventsListener;
     public TLongIDGenerator eventIdentifierGenerator;
     // FIX: put this attribute as private, not protected.
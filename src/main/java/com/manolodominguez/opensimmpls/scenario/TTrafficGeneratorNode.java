@@ -15,6 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.scenario;
 
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketSent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketGenerated;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketDiscarded;
@@ -77,7 +78,7 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
         this.stats = new TTrafficGeneratorStats();
         // FIX: This method is overridable. Avoid using this method to update
         // the number of ports or make it final.
-        this.stats.setStatsEnabled(this.isGeneratingStats());
+        this.installStats(this.stats);
         this.translations = ResourceBundle.getBundle(AvailableBundles.T_TRAFFIC_GENERATOR_NODE.getPath());
     }
 
@@ -326,6 +327,7 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
     public void receiveTimerEvent(TTimerEvent timerEvent) {
         this.setTickDurationInNs(timerEvent.getTickDurationInNs());
         this.setCurrentTimeInstant(timerEvent.getUpperLimit());
+        this.drainIngressQueues();
         this.availableNanoseconds += timerEvent.getTickDurationInNs();
         this.startOperation();
     }
@@ -342,7 +344,9 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
     public void run() {
         // Actions to be done during the timer tick.
         try {
-            this.generateSimulationEvent(new TSimulationEventNodeCongested(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), 0));
+            if (this.isSubscribedTo(TSimulationEvent.NODE_CONGESTED)) {
+                this.generateSimulationEvent(new TSimulationEventNodeCongested(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), 0));
+            }
         } catch (Exception e) {
             // FIX: this is not a good practice. Avoid.
             e.printStackTrace();
@@ -359,7 +363,10 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
         } else {
             this.increaseTicksWithoutEmitting();
         }
-        this.stats.groupStatsByTimeInstant(this.getCurrentTimeInstant());
+        TStats statsObserver = this.getStatsObserver();
+        if (statsObserver != null) {
+            statsObserver.groupStatsByTimeInstant(this.getCurrentTimeInstant());
+        }
     }
 
     /**
@@ -437,6 +444,7 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
                 emptyPacket = createEmptyPacket();
                 packetWithPayload = this.addDataToEmptyPacket(emptyPacket);
                 if (packetWithPayload != null) {
+                    packetWithPayload.getIPv4Header().setGenerationTimeInstant(this.getCurrentTimeInstant());
                     try {
                         // FIX: avoid using harcoded values. Use class constants instead.
                         int packetType = 0;
@@ -447,8 +455,12 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
                             TIPv4PDU ipv4Packet = (TIPv4PDU) packetWithPayload;
                             packetType = ipv4Packet.getSubtype();
                         }
-                        this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packetType, packetWithPayload.getSize()));
-                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packetType));
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_GENERATED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packetType, packetWithPayload.getSize()));
+                        }
+                        if (this.isSubscribedTo(TSimulationEvent.PACKET_SENT)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packetType));
+                        }
                     } catch (Exception e) {
                         // FIX: this is not a good practice. Avoid.
                         e.printStackTrace();
@@ -710,8 +722,13 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
     @Override
     public void discardPacket(TAbstractPDU packet) {
         try {
-            this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
-            this.stats.addStatEntry(packet, TStats.BEING_DISCARDED);
+            if (this.isSubscribedTo(TSimulationEvent.PACKET_DISCARDED)) {
+                this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+            }
+            TStats statsObserver = this.getStatsObserver();
+            if (statsObserver != null) {
+                statsObserver.addStatEntry(packet, TStats.BEING_DISCARDED);
+            }
         } catch (Exception e) {
             // FIX: This is ugly. Avoid.
             e.printStackTrace();
@@ -942,7 +959,7 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
         this.packetGoSdentifierGenerator.reset();
         this.ports.reset();
         this.stats.reset();
-        this.stats.setStatsEnabled(this.isGeneratingStats());
+        this.installStats(this.stats);
         this.resetTicksWithoutEmitting();
     }
 
@@ -15,6 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.scenario;
 
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketReceived;
 import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
 import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
@@ -70,7 +71,7 @@ public class TTrafficSinkNode extends TNode implements ITimerEventListener, Runn
     public void reset() {
         this.ports.reset();
         this.stats.reset();
-        this.stats.setStatsEnabled(this.isGeneratingStats());
+        this.installStats(this.stats);
     }
 
     /**
@@ -96,6 +97,7 @@ public class TTrafficSinkNode extends TNode implements ITimerEventListener, Runn
     public void receiveTimerEvent(TTimerEvent timerEvent) {
         this.setTickDurationInNs(timerEvent.getTickDurationInNs());
         this.setCurrentTimeInstant(timerEvent.getUpperLimit());
+        this.drainIngressQueues();
         this.startOperation();
     }
 
@@ -111,7 +113,10 @@ public class TTrafficSinkNode extends TNode implements ITimerEventListener, Runn
     public void run() {
         // Actions to during the duration of the tick.
         receivePackets();
-        this.stats.groupStatsByTimeInstant(this.getCurrentTimeInstant());
+        TStats statsObserver = this.getStatsObserver();
+        if (statsObserver != null) {
+            statsObserver.groupStatsByTimeInstant(this.getCurrentTimeInstant());
+        }
     }
 
     /**
@@ -131,18 +136,18 @@ public class TTrafficSinkNode extends TNode implements ITimerEventListener, Runn
         if (incomingPort != null) {
             while (incomingPort.thereIsAPacketWaiting()) {
                 incomingPacket = incomingPort.getPacket();
-                try {
-                    eventID = this.eventIdentifierGenerator.getNextIdentifier();
-                } catch (Exception e) {
-                    // FIX: This is ugly
-                    e.printStackTrace();
-                }
-                // FIX: The following line has no effects as the method called
-                // does nothing. Check whether it is needed or not. If needed, 
-                // do not use harcoded values. Use class constants instead.
+                // FIX: do not use harcoded values. Use class constants instead.
                 this.accountPacket(incomingPacket, true);
-                packetReceivedEvent = new TSimulationEventPacketReceived(this, eventID, this.getCurrentTimeInstant(), eventType, incomingPacket.getSize());
-                this.simulationEventsListener.captureSimulationEvents(packetReceivedEvent);
+                if (this.isSubscribedTo(TSimulationEvent.PACKET_RECEIVED)) {
+                    try {
+                        eventID = this.eventIdentifierGenerator.getNextIdentifier();
+                    } catch (Exception e) {
+                        // FIX: This is ugly
+                        e.printStackTrace();
+                    }
+                    packetReceivedEvent = new TSimulationEventPacketReceived(this, eventID, this.getCurrentTimeInstant(), eventType, incomingPacket.getSize());
+                    this.simulationEventsListener.captureSimulationEvents(packetReceivedEvent);
+                }
                 incomingPacket = null;
             }
         }
@@ -150,6 +155,8 @@ public class TTrafficSinkNode extends TNode implements ITimerEventListener, Runn
 
     /**
      * This method register in the stats of this the node a new received packet.
+     * The latency of incoming packets, from the time instant they were
+     * generated to the current one, is recorded for their flow.
      *
      * @param packet Packet to be registered.
      * @param isIncomingPacket TRUE, if the packet is an incoming packet.
@@ -157,18 +164,10 @@ public class TTrafficSinkNode extends TNode implements ITimerEventListener, Runn
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
-    // FIX: This method does nothing. Check whether it is needed or not.
     public void accountPacket(TAbstractPDU packet, boolean isIncomingPacket) {
-        if (isIncomingPacket) {
-            if (packet.getSubtype() == TAbstractPDU.MPLS) {
-            } else if (packet.getSubtype() == TAbstractPDU.MPLS_GOS) {
-            } else if (packet.getSubtype() == TAbstractPDU.IPV4) {
-            } else if (packet.getSubtype() == TAbstractPDU.IPV4_GOS) {
-            }
-        } else if (packet.getSubtype() == TAbstractPDU.MPLS) {
-        } else if (packet.getSubtype() == TAbstractPDU.MPLS_GOS) {
-        } else if (packet.getSubtype() == TAbstractPDU.IPV4) {
-        } else if (packet.getSubtype() == TAbstractPDU.IPV4_GOS) {
+        TStats statsObserver = this.getStatsObserver();
+        if (isIncomingPacket && (statsObserver != null)) {
+            ((TTrafficSinkStats) statsObserver).addLatencyEntry(packet, this.getCurrentTimeInstant());
         }
     }
 
@@ -265,7 +264,7 @@ public class TTrafficSinkNode extends TNode implements ITimerEventListener, Runn
         }
         // FIX: use class constants instead of harcoded values.
         this.setWellConfigured(true);
-        this.stats.setStatsEnabled(this.isGeneratingStats());
+        this.installStats(this.stats);
         return TTrafficSinkNode.OK;
     }
 
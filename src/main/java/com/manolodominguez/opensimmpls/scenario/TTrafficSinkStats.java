@@ -15,16 +15,25 @@
  */
 package com.manolodominguez.opensimmpls.scenario;
 
+import com.manolodominguez.opensimmpls.commons.TLatencyHistogram;
 import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+import com.manolodominguez.opensimmpls.protocols.TIPv4Header;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jfree.data.category.DefaultCategoryDataset;
 import org.jfree.data.general.AbstractDataset;
-import org.jfree.data.xy.XYSeries;
-import org.jfree.data.xy.XYSeriesCollection;
 
 /**
- * This class implements a statistics collector for a receiver node.
+ * This class implements a statistics collector for a receiver node. Besides
+ * counting incoming packets, it records the latency of every packet that
+ * carries its generation time instant, per flow (origin and GoS level), in
+ * histograms of fixed size, and computes their percentiles and jitter.
  *
  * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
- * @version 2.0
+ * @version 2.3
  */
 public class TTrafficSinkStats extends TStats {
 
@@ -36,28 +45,11 @@ public class TTrafficSinkStats extends TStats {
      * @since 2.0
      */
     public TTrafficSinkStats() {
-        this.incomingPackets = new XYSeriesCollection();
-        this.incomingIPv4Packets = new XYSeries(TStats.IPV4);
-        this.incomingIPv4GOS1Packets = new XYSeries(TStats.IPV4_GOS1);
-        this.incomingIPv4GOS2Packets = new XYSeries(TStats.IPV4_GOS2);
-        this.incomingIPv4GOS3Packets = new XYSeries(TStats.IPV4_GOS3);
-        this.incomingMPLSPackets = new XYSeries(TStats.MPLS);
-        this.incomingMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.incomingMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.incomingMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.incomingGPSRPPackets = new XYSeries(TStats.GPSRP);
-        // Temporary data to be consolidated -----------
-        // FIX: Do use class constants instead of hardcoded values.
-        this.incomingIPv4PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS1PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS2PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS3PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSPacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.incomingGPSRPPacketsOfThisTimeInstant = 0;
-        // ------------------------------------------
+        this.counters = new TStatsCounters(EnumSet.of(StatsDirections.INCOMING), EnumSet.complementOf(EnumSet.of(StatsPacketClasses.TLDP)));
+        this.allFlowsHistogram = new TLatencyHistogram();
+        this.flowsByOrigin = new HashMap<>();
+        this.updatedFlows = new ArrayList<>();
+        resetLatencies();
     }
 
     /**
@@ -73,49 +65,55 @@ public class TTrafficSinkStats extends TStats {
      */
     @Override
     public AbstractDataset getDataset1() {
-        return this.incomingPackets;
+        return this.counters.getDataset(StatsDirections.INCOMING);
     }
 
     /**
      * This method returns the dataset #2 of the receiver nodeassociated to this
      * TReceiverStats that can be represented in a GUI or used by any other
-     * statistics processor. Dataset #2 for receiver nodes is always null.
+     * statistics processor. Dataset #2 contains the percentiles 50, 99 and
+     * 99.9 of the latency of all received packets along the time.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
-     * @return for receiver nodes is always null.
-     * @since 2.0
+     * @return the dataset #2 of this TReceiverStats, that contains the
+     * latency of received packets.
+     * @since 2.3
      */
     @Override
     public AbstractDataset getDataset2() {
-        return null;
+        return this.latencyDataset;
     }
 
     /**
      * This method returns the dataset #3 of the receiver nodeassociated to this
      * TReceiverStats that can be represented in a GUI or used by any other
-     * statistics processor. Dataset #3 for receiver nodes is always null.
+     * statistics processor. Dataset #3 contains the jitter of each flow along
+     * the time.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
-     * @return for receiver nodes is always null.
-     * @since 2.0
+     * @return the dataset #3 of this TReceiverStats, that contains the jitter
+     * of each flow.
+     * @since 2.3
      */
     @Override
     public AbstractDataset getDataset3() {
-        return null;
+        return this.jitterDataset;
     }
 
     /**
      * This method returns the dataset #4 of the receiver nodeassociated to this
      * TReceiverStats that can be represented in a GUI or used by any other
-     * statistics processor. Dataset #4 for receiver nodes is always null.
+     * statistics processor. Dataset #4 contains the current percentiles 50, 99
+     * and 99.9 of the latency of each flow.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
-     * @return for receiver nodes is always null.
-     * @since 2.0
+     * @return the dataset #4 of this TReceiverStats, that contains the
+     * latency of each flow.
+     * @since 2.3
      */
     @Override
     public AbstractDataset getDataset4() {
-        return null;
+        return this.latencyByFlowDataset;
     }
 
     /**
@@ -161,64 +159,141 @@ public class TTrafficSinkStats extends TStats {
     @Override
     public void addStatEntry(TAbstractPDU packet, int entryType) {
         if (this.statsEnabled) {
-            int packetType = packet.getSubtype();
-            // FIX: Do use class constants instead of hardcoded values.
-            int GOSLevel = 0;
-            // FIX: Use switch statement instead of such amount of nested ifs.
-            if (packetType == TAbstractPDU.GPSRP) {
-                if (entryType == TStats.INCOMING) {
-                    this.incomingGPSRPPacketsOfThisTimeInstant++;
-                }
-            } else if (packetType == TAbstractPDU.MPLS) {
-                if (entryType == TStats.INCOMING) {
-                    this.incomingMPLSPacketsOfThisTimeInstant++;
-                }
-            } else if (packetType == TAbstractPDU.MPLS_GOS) {
-                GOSLevel = packet.getIPv4Header().getOptionsField().getRequestedGoSLevel();
-                if (entryType == TStats.INCOMING) {
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.incomingMPLSPacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.incomingMPLSGOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.incomingMPLSGOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.incomingMPLSGOS3PacketsOfThisTimeInstant++;
-                    }
-                }
-            } else if (packetType == TAbstractPDU.IPV4) {
-                if (entryType == TStats.INCOMING) {
-                    this.incomingIPv4PacketsOfThisTimeInstant++;
-                }
-            } else if (packetType == TAbstractPDU.IPV4_GOS) {
-                GOSLevel = packet.getIPv4Header().getOptionsField().getRequestedGoSLevel();
-                if (entryType == TStats.INCOMING) {
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.incomingIPv4PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.incomingIPv4GOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.incomingIPv4GOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.incomingIPv4GOS3PacketsOfThisTimeInstant++;
-                    }
-                }
+            this.counters.addStatEntry(packet, entryType);
+        }
+    }
+
+    /**
+     * This method records the latency of a received packet, that is, the time
+     * elapsed since it was generated, in the histograms of its flow. Packets
+     * that do not carry their generation time instant are ignored. It has to
+     * be called always from the thread of the receiver node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet the received packet.
+     * @param arrivalTimeInstant the time instant (in simulation terms) in which
+     * the packet has been received.
+     * @since 2.3
+     */
+    public void addLatencyEntry(TAbstractPDU packet, long arrivalTimeInstant) {
+        if (this.statsEnabled) {
+            TIPv4Header header = packet.getIPv4Header();
+            long generationTimeInstant = header.getGenerationTimeInstant();
+            if ((generationTimeInstant == TIPv4Header.UNKNOWN_GENERATION_TIME_INSTANT) || (arrivalTimeInstant < generationTimeInstant)) {
+                return;
+            }
+            long latency = arrivalTimeInstant - generationTimeInstant;
+            TFlow flow = getFlow(header.getOriginIPv4Address(), getGoSLevel(header.getOptionsField().getRequestedGoSLevel()));
+            flow.histogram.record(latency);
+            if (!flow.updated) {
+                flow.updated = true;
+                this.updatedFlows.add(flow);
             }
+            this.allFlowsHistogram.record(latency);
         }
     }
 
+    /**
+     * This method gets the flow of the specified origin and GoS level,
+     * creating it if it does not exist yet.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param originIPv4Address the IPv4 address of the origin of the flow.
+     * @param GoSLevel the GoS level of the flow, from 0 to 3.
+     * @return the flow.
+     * @since 2.3
+     */
+    private TFlow getFlow(String originIPv4Address, int GoSLevel) {
+        TFlow[] flowsOfOrigin = this.flowsByOrigin.get(originIPv4Address);
+        if (flowsOfOrigin == null) {
+            flowsOfOrigin = new TFlow[NUMBER_OF_GOS_LEVELS];
+            this.flowsByOrigin.put(originIPv4Address, flowsOfOrigin);
+        }
+        TFlow flow = flowsOfOrigin[GoSLevel];
+        if (flow == null) {
+            flow = new TFlow(originIPv4Address + FLOW_KEY_GOS_PREFIX + GoSLevel + FLOW_KEY_SUFFIX);
+            flowsOfOrigin[GoSLevel] = flow;
+        }
+        return flow;
+    }
+
+    /**
+     * This method gets the GoS level, from 0 to 3, that corresponds to the GoS
+     * level requested by a packet, whether it uses a backup LSP or not.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param requestedGoSLevel one of the EXP_LEVEL* constants of
+     * TAbstractPDU.
+     * @return the GoS level, or 0 if the requested one is unknown.
+     * @since 2.3
+     */
+    private static int getGoSLevel(int requestedGoSLevel) {
+        if ((requestedGoSLevel < ZERO) || (requestedGoSLevel > TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
+            return ZERO;
+        }
+        return requestedGoSLevel % NUMBER_OF_GOS_LEVELS;
+    }
+
+    /**
+     * This method gets the specified percentile of the latency of the packets
+     * of the flow of the specified origin and GoS level.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param originIPv4Address the IPv4 address of the origin of the flow.
+     * @param GoSLevel the GoS level of the flow, from 0 to 3.
+     * @param percentile the percentile, between 0 and 100.
+     * @return the latency of the percentile, in nanoseconds, or 0 if no packet
+     * of the flow has been received.
+     * @throws IllegalArgumentException if the GoS level or the percentile are
+     * out of range.
+     * @since 2.3
+     */
+    public long getLatencyPercentile(String originIPv4Address, int GoSLevel, double percentile) {
+        if ((GoSLevel < ZERO) || (GoSLevel >= NUMBER_OF_GOS_LEVELS)) {
+            throw new IllegalArgumentException();
+        }
+        TFlow[] flowsOfOrigin = this.flowsByOrigin.get(originIPv4Address);
+        if ((flowsOfOrigin == null) || (flowsOfOrigin[GoSLevel] == null)) {
+            return ZERO;
+        }
+        return flowsOfOrigin[GoSLevel].histogram.getPercentile(percentile);
+    }
+
+    /**
+     * This method gets the jitter of the packets of the flow of the specified
+     * origin and GoS level, as defined in RFC 3550.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param originIPv4Address the IPv4 address of the origin of the flow.
+     * @param GoSLevel the GoS level of the flow, from 0 to 3.
+     * @return the jitter, in nanoseconds, or 0 if less than two packets of the
+     * flow have been received.
+     * @throws IllegalArgumentException if the GoS level is out of range.
+     * @since 2.3
+     */
+    public double getJitter(String originIPv4Address, int GoSLevel) {
+        if ((GoSLevel < ZERO) || (GoSLevel >= NUMBER_OF_GOS_LEVELS)) {
+            throw new IllegalArgumentException();
+        }
+        TFlow[] flowsOfOrigin = this.flowsByOrigin.get(originIPv4Address);
+        if ((flowsOfOrigin == null) || (flowsOfOrigin[GoSLevel] == null)) {
+            return ZERO;
+        }
+        return flowsOfOrigin[GoSLevel].histogram.getJitter();
+    }
+
     /**
      * This method returns the number of datasets that are available in this
      * TReceiverStats.
      *
      * @return the number of available datasets in this TReceiverStats that are
-     * 1.
+     * 4.
      * @since 2.0
      */
     @Override
     public int getNumberOfAvailableDatasets() {
         // FIX: do not use harcoded values. Use class constants instead.
-        return 1;
+        return 4;
     }
 
     /**
@@ -230,26 +305,25 @@ public class TTrafficSinkStats extends TStats {
      */
     @Override
     public void reset() {
-        this.incomingPackets = new XYSeriesCollection();
-        this.incomingIPv4Packets = new XYSeries(TStats.IPV4);
-        this.incomingIPv4GOS1Packets = new XYSeries(TStats.IPV4_GOS1);
-        this.incomingIPv4GOS2Packets = new XYSeries(TStats.IPV4_GOS2);
-        this.incomingIPv4GOS3Packets = new XYSeries(TStats.IPV4_GOS3);
-        this.incomingMPLSPackets = new XYSeries(TStats.MPLS);
-        this.incomingMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.incomingMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.incomingMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.incomingGPSRPPackets = new XYSeries(TStats.GPSRP);
-        // FIX: do not use harcoded values. Use class constants instead.
-        this.incomingIPv4PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS1PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS2PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS3PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSPacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.incomingGPSRPPacketsOfThisTimeInstant = 0;
+        this.counters.reset();
+        resetLatencies();
+    }
+
+    /**
+     * This method discards every latency recorded and every dataset derived
+     * from them, as in the moment of the instantiation.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    private void resetLatencies() {
+        this.allFlowsHistogram.reset();
+        this.flowsByOrigin.clear();
+        this.updatedFlows.clear();
+        this.latencySeries = null;
+        this.latencyDataset = new TStatsXYDataset();
+        this.jitterDataset = new TStatsXYDataset();
+        this.latencyByFlowDataset = new DefaultCategoryDataset();
     }
 
     /**
@@ -267,123 +341,49 @@ public class TTrafficSinkStats extends TStats {
     @Override
     public void groupStatsByTimeInstant(long timeInstant) {
         if (this.statsEnabled) {
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (incomingIPv4PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (incomingIPv4Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingIPv4Packets.add(timeInstant - 1, 0);
-                    this.incomingIPv4Packets.add(timeInstant, incomingIPv4PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(incomingIPv4Packets);
-                } else {
-                    this.incomingIPv4Packets.add(timeInstant, incomingIPv4PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (incomingIPv4GOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (incomingIPv4GOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingIPv4GOS1Packets.add(timeInstant - 1, 0);
-                    this.incomingIPv4GOS1Packets.add(timeInstant, incomingIPv4GOS1PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(incomingIPv4GOS1Packets);
-                } else {
-                    this.incomingIPv4GOS1Packets.add(timeInstant, incomingIPv4GOS1PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (incomingIPv4GOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (incomingIPv4GOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingIPv4GOS2Packets.add(timeInstant - 1, 0);
-                    this.incomingIPv4GOS2Packets.add(timeInstant, incomingIPv4GOS2PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(incomingIPv4GOS2Packets);
-                } else {
-                    this.incomingIPv4GOS2Packets.add(timeInstant, incomingIPv4GOS2PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (incomingIPv4GOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (incomingIPv4GOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingIPv4GOS3Packets.add(timeInstant - 1, 0);
-                    this.incomingIPv4GOS3Packets.add(timeInstant, incomingIPv4GOS3PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(incomingIPv4GOS3Packets);
-                } else {
-                    this.incomingIPv4GOS3Packets.add(timeInstant, incomingIPv4GOS3PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (incomingMPLSPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (incomingMPLSPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingMPLSPackets.add(timeInstant - 1, 0);
-                    this.incomingMPLSPackets.add(timeInstant, incomingMPLSPacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(incomingMPLSPackets);
-                } else {
-                    this.incomingMPLSPackets.add(timeInstant, incomingMPLSPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (incomingMPLSGOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (incomingMPLSGOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingMPLSGOS1Packets.add(timeInstant - 1, 0);
-                    this.incomingMPLSGOS1Packets.add(timeInstant, incomingMPLSGOS1PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(incomingMPLSGOS1Packets);
-                } else {
-                    this.incomingMPLSGOS1Packets.add(timeInstant, incomingMPLSGOS1PacketsOfThisTimeInstant);
-                }
-            }
+            this.counters.groupStatsByTimeInstant(timeInstant);
+            groupLatenciesByTimeInstant(timeInstant);
+        }
+    }
 
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (incomingMPLSGOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (incomingMPLSGOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingMPLSGOS2Packets.add(timeInstant - 1, 0);
-                    this.incomingMPLSGOS2Packets.add(timeInstant, incomingMPLSGOS2PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(incomingMPLSGOS2Packets);
-                } else {
-                    this.incomingMPLSGOS2Packets.add(timeInstant, incomingMPLSGOS2PacketsOfThisTimeInstant);
-                }
+    /**
+     * This method adds the current latency percentiles of all received
+     * packets, and the current jitter of every flow that has received packets
+     * since the previous call, to their time series, and updates the latency
+     * percentiles of those flows. Flows are added to the datasets the first
+     * time they receive a packet.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param timeInstant the time instant (in simulation terms) by wich the
+     * latencies are grouped.
+     * @since 2.3
+     */
+    private void groupLatenciesByTimeInstant(long timeInstant) {
+        if (this.updatedFlows.isEmpty()) {
+            return;
+        }
+        if (this.latencySeries == null) {
+            this.latencySeries = new TStatsTimeSeries[PERCENTILES.length];
+            for (int i = ZERO; i < PERCENTILES.length; i++) {
+                this.latencySeries[i] = new TStatsTimeSeries(PERCENTILE_KEYS[i]);
+                this.latencyDataset.addSeries(this.latencySeries[i]);
             }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (incomingMPLSGOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (incomingMPLSGOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingMPLSGOS3Packets.add(timeInstant - 1, 0);
-                    this.incomingMPLSGOS3Packets.add(timeInstant, incomingMPLSGOS3PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(incomingMPLSGOS3Packets);
-                } else {
-                    this.incomingMPLSGOS3Packets.add(timeInstant, incomingMPLSGOS3PacketsOfThisTimeInstant);
-                }
+        }
+        for (int i = ZERO; i < PERCENTILES.length; i++) {
+            this.latencySeries[i].add(timeInstant, this.allFlowsHistogram.getPercentile(PERCENTILES[i]));
+        }
+        for (TFlow flow : this.updatedFlows) {
+            if (flow.jitterSeries == null) {
+                flow.jitterSeries = new TStatsTimeSeries(flow.key);
+                this.jitterDataset.addSeries(flow.jitterSeries);
             }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (incomingGPSRPPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (incomingGPSRPPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingGPSRPPackets.add(timeInstant - 1, 0);
-                    this.incomingGPSRPPackets.add(timeInstant, incomingGPSRPPacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(incomingGPSRPPackets);
-                } else {
-                    this.incomingGPSRPPackets.add(timeInstant, incomingGPSRPPacketsOfThisTimeInstant);
-                }
+            flow.jitterSeries.add(timeInstant, flow.histogram.getJitter());
+            for (int i = ZERO; i < PERCENTILES.length; i++) {
+                this.latencyByFlowDataset.setValue(flow.histogram.getPercentile(PERCENTILES[i]), PERCENTILE_KEYS[i], flow.key);
             }
+            flow.updated = false;
         }
+        this.updatedFlows.clear();
     }
 
     /**
@@ -400,45 +400,42 @@ public class TTrafficSinkStats extends TStats {
     }
 
     /**
-     * This method returns the title of dataset #2 of this TReceiverStats. There
-     * is not a dataset #2 in a TReceiverStats so, null is always returned.
+     * This method returns the title of dataset #2 of this TReceiverStats. In
+     * this case is a descriptive text about "packets latency".
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
-     * @return There is not a dataset #2 in a TReceiverStats so, null is always
-     * returned.
-     * @since 2.0
+     * @return a descriptive text about "packets latency".
+     * @since 2.3
      */
     @Override
     public String getTitleOfDataset2() {
-        return null;
+        return TStats.PACKETS_LATENCY;
     }
 
     /**
-     * This method returns the title of dataset #3 of this TReceiverStats. There
-     * is not a dataset #3 in a TReceiverStats so, null is always returned.
+     * This method returns the title of dataset #3 of this TReceiverStats. In
+     * this case is a descriptive text about "packets jitter".
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
-     * @return There is not a dataset #3 in a TReceiverStats so, null is always
-     * returned.
-     * @since 2.0
+     * @return a descriptive text about "packets jitter".
+     * @since 2.3
      */
     @Override
     public String getTitleOfDataset3() {
-        return null;
+        return TStats.PACKETS_JITTER;
     }
 
     /**
-     * This method returns the title of dataset #4 of this TReceiverStats. There
-     * is not a dataset #4 in a TReceiverStats so, null is always returned.
+     * This method returns the title of dataset #4 of this TReceiverStats. In
+     * this case is a descriptive text about "latency by flow".
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
-     * @return There is not a dataset #4 in a TReceiverStats so, null is always
-     * returned.
-     * @since 2.0
+     * @return a descriptive text about "latency by flow".
+     * @since 2.3
      */
     @Override
     public String getTitleOfDataset4() {
-        return null;
+        return TStats.LATENCY_BY_FLOW;
     }
 
     /**
@@ -469,23 +466,75 @@ public class TTrafficSinkStats extends TStats {
         return null;
     }
 
-    private int incomingIPv4PacketsOfThisTimeInstant;
-    private int incomingIPv4GOS1PacketsOfThisTimeInstant;
-    private int incomingIPv4GOS2PacketsOfThisTimeInstant;
-    private int incomingIPv4GOS3PacketsOfThisTimeInstant;
-    private int incomingMPLSPacketsOfThisTimeInstant;
-    private int incomingMPLSGOS1PacketsOfThisTimeInstant;
-    private int incomingMPLSGOS2PacketsOfThisTimeInstant;
-    private int incomingMPLSGOS3PacketsOfThisTimeInstant;
-    private int incomingGPSRPPacketsOfThisTimeInstant;
-    private XYSeriesCollection incomingPackets;
-    private XYSeries incomingIPv4Packets;
-    private XYSeries incomingIPv4GOS1Packets;
-    private XYSeries incomingIPv4GOS2Packets;
-    private XYSeries incomingIPv4GOS3Packets;
-    private XYSeries incomingMPLSPackets;
-    private XYSeries incomingMPLSGOS1Packets;
-    private XYSeries incomingMPLSGOS2Packets;
-    private XYSeries incomingMPLSGOS3Packets;
-    private XYSeries incomingGPSRPPackets;
+    /**
+     * This method returns the title of the axis of values of the specified
+     * dataset of this TReceiverStats: latencies for datasets #2 and #4, jitter
+     * for dataset #3 and number of packets for dataset #1.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param datasetNumber the number of the dataset, from 1 to 6.
+     * @return a descriptive text about the values of the dataset.
+     * @since 2.3
+     */
+    @Override
+    public String getValueAxisTitleOfDataset(int datasetNumber) {
+        switch (datasetNumber) {
+            case LATENCY_DATASET:
+            case LATENCY_BY_FLOW_DATASET:
+                return TStats.LATENCY_NS;
+            case JITTER_DATASET:
+                return TStats.JITTER_NS;
+            default:
+                return super.getValueAxisTitleOfDataset(datasetNumber);
+        }
+    }
+
+    /**
+     * This class holds the latencies recorded for a flow of packets, that is,
+     * those received from the same origin with the same GoS level.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @version 2.3
+     */
+    private static class TFlow {
+
+        /**
+         * This is the constructor of the class. It creates a new flow without
+         * any latency recorded.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @param key the name of the flow, as shown in charts.
+         * @since 2.3
+         */
+        TFlow(String key) {
+            this.key = key;
+            this.histogram = new TLatencyHistogram();
+            this.jitterSeries = null;
+            this.updated = false;
+        }
+
+        private final String key;
+        private final TLatencyHistogram histogram;
+        private TStatsTimeSeries jitterSeries;
+        private boolean updated;
+    }
+
+    private final TStatsCounters counters;
+    private final TLatencyHistogram allFlowsHistogram;
+    private final Map<String, TFlow[]> flowsByOrigin;
+    private final List<TFlow> updatedFlows;
+    private TStatsTimeSeries[] latencySeries;
+    private TStatsXYDataset latencyDataset;
+    private TStatsXYDataset jitterDataset;
+    private DefaultCategoryDataset latencyByFlowDataset;
+
+    private static final int ZERO = 0;
+    private static final int NUMBER_OF_GOS_LEVELS = 4;
+    private static final int LATENCY_DATASET = 2;
+    private static final int JITTER_DATASET = 3;
+    private static final int LATENCY_BY_FLOW_DATASET = 4;
+    private static final String FLOW_KEY_GOS_PREFIX = " (GoS ";
+    private static final String FLOW_KEY_SUFFIX = ")";
+    private static final double[] PERCENTILES = {50.0, 99.0, 99.9};
+    private static final String[] PERCENTILE_KEYS = {"p50", "p99", "p99.9"};
 }
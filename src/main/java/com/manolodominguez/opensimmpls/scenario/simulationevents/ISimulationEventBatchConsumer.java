@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario.simulationevents;
+
+/**
+ * This interface has to be implemented by classes that want to receive
+ * simulation events in batches from a TSimulationEventListener, instead of
+ * one by one from the threads of the simulation.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public interface ISimulationEventBatchConsumer {
+
+    /**
+     * This method, when implemented, will receive a batch of simulation
+     * events, in the same order they were captured. It is always called from
+     * the dispatching thread of the TSimulationEventListener. The array is
+     * reused for the next batch, so it must not be kept.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     * @param simulationEvents the array containing the batch of simulation
+     * events.
+     * @param numberOfEvents the number of simulation events of the batch, at
+     * the beginning of the array.
+     */
+    public void consumeSimulationEvents(TSimulationEvent[] simulationEvents, int numberOfEvents);
+
+    /**
+     * This method, when implemented, will get the event subtypes this consumer
+     * wants to receive. The listener is subscribed to them while the consumer
+     * is registered. Bit N of the mask set to 1 means that events of subtype N
+     * (as defined in TSimulationEvent) are wanted.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     * @return the subscription mask of this consumer.
+     */
+    public long getWantedEventSubtypes();
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario.simulationevents;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class implements a batch consumer of simulation events that counts how
+ * many events of each subtype have been delivered. PACKET_ON_FLY events are
+ * only used to animate the simulation, so they are not wanted.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public class TSimulationEventCounter implements ISimulationEventBatchConsumer {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TSimulationEventCounter with every counter set to zero.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public TSimulationEventCounter() {
+        this.eventsBySubtype = new AtomicLongArray(NUMBER_OF_SUBTYPES);
+    }
+
+    /**
+     * This method counts each simulation event of the batch under its
+     * subtype.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param simulationEvents the array containing the batch of simulation
+     * events.
+     * @param numberOfEvents the number of simulation events of the batch.
+     * @since 2.3
+     */
+    @Override
+    public void consumeSimulationEvents(TSimulationEvent[] simulationEvents, int numberOfEvents) {
+        for (int i = ZERO; i < numberOfEvents; i++) {
+            this.eventsBySubtype.incrementAndGet(simulationEvents[i].getSubtype());
+        }
+    }
+
+    /**
+     * This method gets the event subtypes this consumer wants to receive,
+     * that is, all of them but PACKET_ON_FLY.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the subscription mask of this consumer.
+     * @since 2.3
+     */
+    @Override
+    public long getWantedEventSubtypes() {
+        return TSimulationEventListener.ALL_EVENT_SUBTYPES & ~(ONE << TSimulationEvent.PACKET_ON_FLY);
+    }
+
+    /**
+     * This method gets the number of delivered events of the specified
+     * subtype.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param eventSubtype the event subtype, as defined in TSimulationEvent.
+     * @return the number of delivered events of the specified subtype.
+     * @since 2.3
+     */
+    public long getNumberOfEvents(int eventSubtype) {
+        return this.eventsBySubtype.get(eventSubtype);
+    }
+
+    /**
+     * This method gets the number of delivered events of any subtype.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of delivered events.
+     * @since 2.3
+     */
+    public long getTotalNumberOfEvents() {
+        long totalNumberOfEvents = ZERO;
+        for (int i = ZERO; i < NUMBER_OF_SUBTYPES; i++) {
+            totalNumberOfEvents += this.eventsBySubtype.get(i);
+        }
+        return totalNumberOfEvents;
+    }
+
+    /**
+     * This method sets every counter to zero, as when created by the
+     * constructor.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public void reset() {
+        for (int i = ZERO; i < NUMBER_OF_SUBTYPES; i++) {
+            this.eventsBySubtype.set(i, ZERO);
+        }
+    }
+
+    private final AtomicLongArray eventsBySubtype;
+
+    // One bit of the subscription mask for each subtype.
+    private static final int NUMBER_OF_SUBTYPES = Long.SIZE;
+    private static final long ONE = 1L;
+    private static final int ZERO = 0;
+}
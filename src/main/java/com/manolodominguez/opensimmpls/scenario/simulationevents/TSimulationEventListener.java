@@ -15,14 +15,20 @@
  */
 package com.manolodominguez.opensimmpls.scenario.simulationevents;
 
-import java.util.Iterator;
-import java.util.TreeSet;
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
 import com.manolodominguez.opensimmpls.gui.simulator.JSimulationPanel;
+import com.manolodominguez.opensimmpls.commons.TConcurrentRingBuffer;
 import com.manolodominguez.opensimmpls.commons.TSemaphore;
 
 /**
  * This class implements a simulation event listener that will receive
- * simulation events.
+ * simulation events. Events captured from the threads of the simulation are
+ * published in a pre-allocated ring buffer, without locking, and a single
+ * dispatching thread delivers them in batches to the registered batch
+ * consumers: the simulation panel, that paints them, and also the counter and
+ * the tracer of simulation events.
  *
  * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
  * @version 2.0
@@ -37,106 +43,235 @@ public class TSimulationEventListener implements ISimulationEventListener {
      * @since 2.0
      */
     public TSimulationEventListener() {
-        this.simulationEventsBuffer = new TreeSet();
+        this.simulationEventsBuffer = new TConcurrentRingBuffer<>(EVENTS_BUFFER_CAPACITY);
+        this.simulationEventsBatch = new TSimulationEvent[EVENTS_BATCH_SIZE];
         this.eventsSemaphore = new TSemaphore();
+        this.batchConsumers = new CopyOnWriteArrayList<>();
+        this.dispatcherThread = null;
+        this.dispatcherWaiting = false;
         this.simulationPanel = null;
+        this.subscribedEventSubtypes = NO_EVENT_SUBTYPES;
     }
 
     /**
      * This method establishes the simulation panel where collected simulation
      * events will be displayed. It connects the generated events to the GUI.
+     * The simulation panel consumes every event subtype, so setting it
+     * subscribes this listener to all of them and removing it (NULL) leaves
+     * only the event subtypes wanted by the rest of consumers.
      *
      * @since 2.0
      * @param simulationPanel The simulation panel where collected simulation
      * events will be displayed.
      */
     public synchronized void setSimulationPanel(JSimulationPanel simulationPanel) {
+        if (this.simulationPanel != null) {
+            this.removeBatchConsumer(this.simulationPanel);
+        }
         this.simulationPanel = simulationPanel;
+        if (simulationPanel != null) {
+            this.addBatchConsumer(simulationPanel);
+        }
+    }
+
+    /**
+     * This method registers a new consumer that will receive, in batches,
+     * every simulation event captured by this listener. This listener is
+     * subscribed to the event subtypes wanted by the consumer.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param batchConsumer the consumer to be registered.
+     * @since 2.3
+     */
+    public synchronized void addBatchConsumer(ISimulationEventBatchConsumer batchConsumer) {
+        if (!this.batchConsumers.contains(batchConsumer)) {
+            this.batchConsumers.add(batchConsumer);
+        }
+        this.subscribedEventSubtypes |= batchConsumer.getWantedEventSubtypes();
+        if (this.dispatcherThread == null) {
+            this.dispatcherThread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    dispatchSimulationEvents();
+                }
+            }, DISPATCHER_THREAD_NAME);
+            this.dispatcherThread.setDaemon(true);
+            this.dispatcherThread.start();
+        }
+    }
+
+    /**
+     * This method unregisters a consumer, so that it does not receive
+     * simulation events anymore. This listener stays subscribed only to the
+     * event subtypes wanted by the rest of consumers.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param batchConsumer the consumer to be unregistered.
+     * @since 2.3
+     */
+    public synchronized void removeBatchConsumer(ISimulationEventBatchConsumer batchConsumer) {
+        this.batchConsumers.remove(batchConsumer);
+        long wantedEventSubtypes = NO_EVENT_SUBTYPES;
+        for (ISimulationEventBatchConsumer remainingBatchConsumer : this.batchConsumers) {
+            wantedEventSubtypes |= remainingBatchConsumer.getWantedEventSubtypes();
+        }
+        this.subscribedEventSubtypes = wantedEventSubtypes;
+    }
+
+    /**
+     * This method sets the whole subscription mask of this listener. Bit N of
+     * the mask set to 1 means that events of subtype N (as defined in
+     * TSimulationEvent) are wanted.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param subscribedEventSubtypes the subscription mask.
+     * @since 2.3
+     */
+    public synchronized void setSubscribedEventSubtypes(long subscribedEventSubtypes) {
+        this.subscribedEventSubtypes = subscribedEventSubtypes;
+    }
+
+    /**
+     * This method gets the whole subscription mask of this listener. Bit N of
+     * the mask set to 1 means that events of subtype N (as defined in
+     * TSimulationEvent) are wanted.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the subscription mask.
+     * @since 2.3
+     */
+    public long getSubscribedEventSubtypes() {
+        return this.subscribedEventSubtypes;
+    }
+
+    /**
+     * This method subscribes this listener to the specified event subtype.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param eventSubtype the event subtype, as defined in TSimulationEvent.
+     * @since 2.3
+     */
+    public synchronized void subscribe(int eventSubtype) {
+        this.subscribedEventSubtypes |= (ONE << eventSubtype);
+    }
+
+    /**
+     * This method unsubscribes this listener from the specified event subtype.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param eventSubtype the event subtype, as defined in TSimulationEvent.
+     * @since 2.3
+     */
+    public synchronized void unsubscribe(int eventSubtype) {
+        this.subscribedEventSubtypes &= ~(ONE << eventSubtype);
+    }
+
+    /**
+     * This method checks whether events of the specified subtype are wanted.
+     * Producers check it before creating an event, so that unwanted events
+     * are never allocated. PACKET_ON_FLY events, by far the most numerous
+     * ones, are only wanted when the simulation panel is painting them.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param eventSubtype the event subtype, as defined in TSimulationEvent.
+     * @return TRUE, if events of the specified subtype are wanted. Otherwise,
+     * FALSE.
+     * @since 2.3
+     */
+    public boolean isSubscribedTo(int eventSubtype) {
+        if ((this.subscribedEventSubtypes & (ONE << eventSubtype)) == NO_EVENT_SUBTYPES) {
+            return false;
+        }
+        if (eventSubtype == TSimulationEvent.PACKET_ON_FLY) {
+            JSimulationPanel simulationPanelAux = this.simulationPanel;
+            return (simulationPanelAux != null) && simulationPanelAux.isPaintingPacketsOnFly();
+        }
+        return true;
     }
 
     /**
-     * This method, when implemented, will capture simulation events. It also
-     * delivers them to the simulation panel to be displayed.
+     * This method captures simulation events and publishes them to be
+     * delivered to the registered batch consumers. It can be called from any
+     * thread without locking. If the consumers are behind and the buffer is
+     * full, the calling thread waits until there is room for the event.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      * @param simulationEvent The simulation event received.
      */
     @Override
-    public synchronized void captureSimulationEvents(TSimulationEvent simulationEvent) {
-        // FIX: If nothing different is done... is it neccesary a switch?
-        switch (simulationEvent.getSubtype()) {
-            case TSimulationEvent.PACKET_GENERATED: {
-                this.simulationPanel.addEvent(simulationEvent);
-                break;
-            }
-            case TSimulationEvent.PACKET_SENT: {
-                this.simulationPanel.addEvent(simulationEvent);
-                break;
-            }
-            case TSimulationEvent.PACKET_RECEIVED: {
-                this.simulationPanel.addEvent(simulationEvent);
-                break;
-            }
-            case TSimulationEvent.PACKET_SWITCHED: {
-                this.simulationPanel.addEvent(simulationEvent);
-                break;
-            }
-            case TSimulationEvent.PACKET_DISCARDED: {
-                this.simulationPanel.addEvent(simulationEvent);
-                break;
-            }
-            case TSimulationEvent.PACKET_ON_FLY: {
-                this.simulationPanel.addEvent(simulationEvent);
-                break;
-            }
-            case TSimulationEvent.PACKET_ROUTED: {
-                this.simulationPanel.addEvent(simulationEvent);
-                break;
-            }
-            case TSimulationEvent.LSP_ESTABLISHED: {
-                this.simulationPanel.addEvent(simulationEvent);
-                break;
-            }
-            case TSimulationEvent.LSP_REMOVED: {
-                this.simulationPanel.addEvent(simulationEvent);
-                break;
-            }
-            case TSimulationEvent.LABEL_ASSIGNED: {
-                this.simulationPanel.addEvent(simulationEvent);
-                break;
-            }
-            case TSimulationEvent.LABEL_DENIED: {
-                this.simulationPanel.addEvent(simulationEvent);
-                break;
-            }
-            case TSimulationEvent.LABEL_REMOVED: {
-                this.simulationPanel.addEvent(simulationEvent);
-                break;
-            }
-            case TSimulationEvent.LABEL_RECEIVED: {
-                this.simulationPanel.addEvent(simulationEvent);
-                break;
-            }
-            case TSimulationEvent.LABEL_REQUESTED: {
-                this.simulationPanel.addEvent(simulationEvent);
-                break;
-            }
-            case TSimulationEvent.NODE_CONGESTED: {
-                this.simulationPanel.addEvent(simulationEvent);
-                break;
+    public void captureSimulationEvents(TSimulationEvent simulationEvent) {
+        if (this.batchConsumers.isEmpty()) {
+            return;
+        }
+        this.simulationEventsBuffer.put(simulationEvent);
+        if (this.dispatcherWaiting) {
+            Thread dispatcherThreadAux = this.dispatcherThread;
+            if (dispatcherThreadAux != null) {
+                LockSupport.unpark(dispatcherThreadAux);
             }
-            case TSimulationEvent.LINK_BROKEN: {
-                this.simulationPanel.addEvent(simulationEvent);
-                break;
+        }
+    }
+
+    /**
+     * This method is run by the dispatching thread. It takes the simulation
+     * events published in the buffer, in batches, and delivers each batch to
+     * every registered consumer. It finishes when there are no consumers left.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    private void dispatchSimulationEvents() {
+        while (true) {
+            this.eventsSemaphore.setRed();
+            int numberOfEvents = this.simulationEventsBuffer.drainTo(this.simulationEventsBatch);
+            if (numberOfEvents > ZERO) {
+                for (ISimulationEventBatchConsumer batchConsumer : this.batchConsumers) {
+                    batchConsumer.consumeSimulationEvents(this.simulationEventsBatch, numberOfEvents);
+                }
+                Arrays.fill(this.simulationEventsBatch, ZERO, numberOfEvents, null);
             }
-            case TSimulationEvent.LINK_RECOVERED: {
-                this.simulationPanel.addEvent(simulationEvent);
-                break;
+            this.eventsSemaphore.setGreen();
+            if (numberOfEvents == ZERO) {
+                synchronized (this) {
+                    if (this.batchConsumers.isEmpty()) {
+                        this.dispatcherThread = null;
+                        return;
+                    }
+                }
+                this.dispatcherWaiting = true;
+                if (this.simulationEventsBuffer.isEmpty()) {
+                    LockSupport.parkNanos(DISPATCHER_IDLE_WAIT_IN_NS);
+                }
+                this.dispatcherWaiting = false;
             }
         }
     }
 
+    /**
+     * This method gets the number of simulation events captured that have not
+     * been delivered to the batch consumers yet.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of simulation events waiting to be delivered.
+     * @since 2.3
+     */
+    public int getNumberOfPendingEvents() {
+        return this.simulationEventsBuffer.getSize();
+    }
+
+    /**
+     * This method gets the number of simulation events that can wait to be
+     * delivered before the threads capturing new ones have to wait.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the capacity of the buffer of simulation events.
+     * @since 2.3
+     */
+    public int getPendingEventsCapacity() {
+        return this.simulationEventsBuffer.getCapacity();
+    }
+
     /**
      * This method reset to value of the class attributes to their original
      * values, as when created by the constructor.
@@ -147,15 +282,27 @@ public class TSimulationEventListener implements ISimulationEventListener {
      */
     public void reset() {
         this.eventsSemaphore.setRed();
-        Iterator iterator = this.simulationEventsBuffer.iterator();
-        while (iterator.hasNext()) {
-            iterator.next();
-            iterator.remove();
+        while (this.simulationEventsBuffer.drainTo(this.simulationEventsBatch) > ZERO) {
+            Arrays.fill(this.simulationEventsBatch, null);
         }
         this.eventsSemaphore.setGreen();
     }
 
-    private TSemaphore eventsSemaphore;
-    private TreeSet simulationEventsBuffer;
-    private JSimulationPanel simulationPanel;
+    private final TSemaphore eventsSemaphore;
+    private final TConcurrentRingBuffer<TSimulationEvent> simulationEventsBuffer;
+    private final TSimulationEvent[] simulationEventsBatch;
+    private final CopyOnWriteArrayList<ISimulationEventBatchConsumer> batchConsumers;
+    private volatile Thread dispatcherThread;
+    private volatile boolean dispatcherWaiting;
+    private volatile JSimulationPanel simulationPanel;
+    private volatile long subscribedEventSubtypes;
+
+    public static final long ALL_EVENT_SUBTYPES = -1L;
+    public static final long NO_EVENT_SUBTYPES = 0L;
+    private static final long ONE = 1L;
+    private static final int ZERO = 0;
+    private static final int EVENTS_BUFFER_CAPACITY = 8192;
+    private static final int EVENTS_BATCH_SIZE = 256;
+    private static final long DISPATCHER_IDLE_WAIT_IN_NS = 10000000L;
+    private static final String DISPATCHER_THREAD_NAME = "TSimulationEventListener";
 }
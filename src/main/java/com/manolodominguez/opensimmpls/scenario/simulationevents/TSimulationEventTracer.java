@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario.simulationevents;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements a batch consumer of simulation events that writes
+ * every delivered event, with the time instant when it happened, to the log
+ * at TRACE level. It is only worth registering while that level is enabled
+ * for this class.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.3
+ */
+public class TSimulationEventTracer implements ISimulationEventBatchConsumer {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TSimulationEventTracer.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.3
+     */
+    public TSimulationEventTracer() {
+    }
+
+    /**
+     * This method checks whether traced simulation events will be written to
+     * the log or not.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TRUE, if the TRACE level is enabled for this class. Otherwise,
+     * FALSE.
+     * @since 2.3
+     */
+    public boolean isEnabled() {
+        return this.logger.isTraceEnabled();
+    }
+
+    /**
+     * This method writes each simulation event of the batch to the log.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param simulationEvents the array containing the batch of simulation
+     * events.
+     * @param numberOfEvents the number of simulation events of the batch.
+     * @since 2.3
+     */
+    @Override
+    public void consumeSimulationEvents(TSimulationEvent[] simulationEvents, int numberOfEvents) {
+        if (!this.logger.isTraceEnabled()) {
+            return;
+        }
+        for (int i = ZERO; i < numberOfEvents; i++) {
+            this.logger.trace("{} ns {}", simulationEvents[i].getInstant(), simulationEvents[i]);
+        }
+    }
+
+    /**
+     * This method gets the event subtypes this consumer wants to receive, that
+     * is, all of them.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the subscription mask of this consumer.
+     * @since 2.3
+     */
+    @Override
+    public long getWantedEventSubtypes() {
+        return TSimulationEventListener.ALL_EVENT_SUBTYPES;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(TSimulationEventTracer.class);
+
+    private static final int ZERO = 0;
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.commons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TConcurrentRingBufferTest {
+
+    public TConcurrentRingBufferTest() {
+    }
+
+    /**
+     * Test of constructor method, of class TConcurrentRingBuffer.
+     */
+    @Test
+    public void testConstructor() {
+        System.out.println("Test constructor");
+        TConcurrentRingBuffer<Integer> instance = new TConcurrentRingBuffer<>(100);
+        assertTrue(instance.isEmpty());
+        assertEquals(128, instance.getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> {
+            new TConcurrentRingBuffer<Integer>(0);
+        });
+    }
+
+    /**
+     * Test of put and drainTo methods, of class TConcurrentRingBuffer, when
+     * the buffer wraps around.
+     */
+    @Test
+    public void testPutAndDrainTo() {
+        System.out.println("Test put() and drainTo()");
+        TConcurrentRingBuffer<Integer> instance = new TConcurrentRingBuffer<>(4);
+        Integer[] batch = new Integer[3];
+        int nextToPut = 0;
+        int nextToDrain = 0;
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 4; i++) {
+                instance.put(nextToPut++);
+            }
+            assertFalse(instance.isEmpty());
+            int numberOfElements = instance.drainTo(batch);
+            while (numberOfElements > 0) {
+                for (int i = 0; i < numberOfElements; i++) {
+                    assertEquals(nextToDrain++, batch[i]);
+                }
+                numberOfElements = instance.drainTo(batch);
+            }
+            assertTrue(instance.isEmpty());
+        }
+        assertEquals(nextToPut, nextToDrain);
+    }
+
+    /**
+     * Test of put method, of class TConcurrentRingBuffer, when several threads
+     * write at the same time and the buffer gets full.
+     */
+    @Test
+    public void testPutFromSeveralThreads() throws InterruptedException {
+        System.out.println("Test put() from several threads");
+        final int numberOfProducers = 4;
+        final int elementsPerProducer = 20000;
+        TConcurrentRingBuffer<Integer> instance = new TConcurrentRingBuffer<>(64);
+        Thread[] producers = new Thread[numberOfProducers];
+        for (int p = 0; p < numberOfProducers; p++) {
+            final int producerID = p;
+            producers[p] = new Thread(() -> {
+                for (int i = 0; i < elementsPerProducer; i++) {
+                    instance.put((producerID * elementsPerProducer) + i);
+                }
+            });
+            producers[p].start();
+        }
+        int[] nextExpected = new int[numberOfProducers];
+        Integer[] batch = new Integer[16];
+        int received = 0;
+        while (received < (numberOfProducers * elementsPerProducer)) {
+            int numberOfElements = instance.drainTo(batch);
+            for (int i = 0; i < numberOfElements; i++) {
+                int producerID = batch[i] / elementsPerProducer;
+                // Elements of each producer are received in order.
+                assertEquals(nextExpected[producerID]++, batch[i] % elementsPerProducer);
+            }
+            received += numberOfElements;
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        assertTrue(instance.isEmpty());
+    }
+
+    /**
+     * Test of getSize method, of class TConcurrentRingBuffer.
+     */
+    @Test
+    public void testGetSize() {
+        System.out.println("Test getSize()");
+        TConcurrentRingBuffer<Integer> instance = new TConcurrentRingBuffer<>(4);
+        Integer[] batch = new Integer[2];
+        assertEquals(0, instance.getSize());
+        for (int i = 0; i < 3; i++) {
+            instance.put(i);
+        }
+        assertEquals(3, instance.getSize());
+        instance.drainTo(batch);
+        assertEquals(1, instance.getSize());
+        instance.drainTo(batch);
+        assertEquals(0, instance.getSize());
+    }
+}
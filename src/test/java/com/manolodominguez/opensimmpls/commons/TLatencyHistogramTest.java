@@ -0,0 +1,167 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.commons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TLatencyHistogramTest {
+
+    public TLatencyHistogramTest() {
+    }
+
+    /**
+     * Test of constructor method, of class TLatencyHistogram.
+     */
+    @Test
+    public void testConstructor() {
+        System.out.println("Test constructor");
+        TLatencyHistogram instance = new TLatencyHistogram();
+        assertEquals(0, instance.getCount());
+        assertEquals(0, instance.getMin());
+        assertEquals(0, instance.getMax());
+        assertEquals(0.0, instance.getMean());
+        assertEquals(0.0, instance.getJitter());
+        assertEquals(0, instance.getPercentile(99.0));
+    }
+
+    /**
+     * Test of record method, of class TLatencyHistogram.
+     */
+    @Test
+    public void testRecord() {
+        System.out.println("Test record()");
+        TLatencyHistogram instance = new TLatencyHistogram();
+        instance.record(10);
+        instance.record(30);
+        instance.record(20);
+        assertEquals(3, instance.getCount());
+        assertEquals(10, instance.getMin());
+        assertEquals(30, instance.getMax());
+        assertEquals(20.0, instance.getMean());
+        assertThrows(IllegalArgumentException.class, () -> {
+            instance.record(-1);
+        });
+        instance.record(0);
+        instance.record(Long.MAX_VALUE);
+        assertEquals(0, instance.getMin());
+        assertEquals(Long.MAX_VALUE, instance.getMax());
+    }
+
+    /**
+     * Test of getPercentile method, of class TLatencyHistogram.
+     */
+    @Test
+    public void testGetPercentile() {
+        System.out.println("Test getPercentile()");
+        TLatencyHistogram instance = new TLatencyHistogram();
+        // Small values have a bucket each, so percentiles are exact.
+        for (int i = 1; i <= 50; i++) {
+            instance.record(i);
+        }
+        assertEquals(25, instance.getPercentile(50.0));
+        assertEquals(50, instance.getPercentile(99.0));
+        assertEquals(1, instance.getPercentile(0.0));
+        assertEquals(50, instance.getPercentile(100.0));
+        assertThrows(IllegalArgumentException.class, () -> {
+            instance.getPercentile(100.1);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            instance.getPercentile(-1.0);
+        });
+        // Large values are approximated with a bounded relative error.
+        instance.reset();
+        for (long i = 1; i <= 100000; i++) {
+            instance.record(i * 1000);
+        }
+        assertRelativeError(50000000, instance.getPercentile(50.0));
+        assertRelativeError(99000000, instance.getPercentile(99.0));
+        assertRelativeError(99900000, instance.getPercentile(99.9));
+        assertEquals(100000000, instance.getPercentile(100.0));
+    }
+
+    private static void assertRelativeError(long expected, long actual) {
+        assertTrue(actual >= expected);
+        assertTrue((actual - expected) <= (expected / 32));
+    }
+
+    /**
+     * Test of getBucket and getBucketUpperBound methods, of class
+     * TLatencyHistogram.
+     */
+    @Test
+    public void testBuckets() {
+        System.out.println("Test getBucket() and getBucketUpperBound()");
+        int previousBucket = 0;
+        for (long latency = 0; latency < 100000; latency++) {
+            int bucket = TLatencyHistogram.getBucket(latency);
+            assertTrue((bucket == previousBucket) || (bucket == (previousBucket + 1)));
+            assertTrue(latency <= TLatencyHistogram.getBucketUpperBound(bucket));
+            if (bucket > 0) {
+                assertTrue(latency > TLatencyHistogram.getBucketUpperBound(bucket - 1));
+            }
+            previousBucket = bucket;
+        }
+        int lastBucket = TLatencyHistogram.getBucket(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, TLatencyHistogram.getBucketUpperBound(lastBucket));
+        assertTrue(lastBucket < 2048);
+    }
+
+    /**
+     * Test of getJitter method, of class TLatencyHistogram.
+     */
+    @Test
+    public void testGetJitter() {
+        System.out.println("Test getJitter()");
+        TLatencyHistogram instance = new TLatencyHistogram();
+        instance.record(1000);
+        assertEquals(0.0, instance.getJitter());
+        instance.record(1160);
+        assertEquals(10.0, instance.getJitter());
+        instance.record(1160);
+        assertEquals(9.375, instance.getJitter());
+        // Constant latencies make the jitter tend to zero.
+        for (int i = 0; i < 1000; i++) {
+            instance.record(5000);
+        }
+        assertTrue(instance.getJitter() < 1.0);
+    }
+
+    /**
+     * Test of reset method, of class TLatencyHistogram.
+     */
+    @Test
+    public void testReset() {
+        System.out.println("Test reset()");
+        TLatencyHistogram instance = new TLatencyHistogram();
+        instance.record(100);
+        instance.record(300);
+        instance.reset();
+        assertEquals(0, instance.getCount());
+        assertEquals(0, instance.getMax());
+        assertEquals(0.0, instance.getJitter());
+        assertEquals(0, instance.getPercentile(50.0));
+        instance.record(7);
+        assertEquals(7, instance.getMin());
+        assertEquals(0.0, instance.getJitter());
+    }
+}
@@ -0,0 +1,126 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.commons;
+
+import java.util.NoSuchElementException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TRingBufferTest {
+
+    public TRingBufferTest() {
+    }
+
+    /**
+     * Test of constructor method, of class TRingBuffer.
+     */
+    @Test
+    public void testConstructor() {
+        System.out.println("Test constructor");
+        TRingBuffer<Integer> instance = new TRingBuffer<>();
+        assertTrue(instance.isEmpty());
+        assertEquals(0, instance.size());
+    }
+
+    /**
+     * Test of addLast and removeFirst methods, of class TRingBuffer, when the
+     * buffer has to grow while wrapped around.
+     */
+    @Test
+    public void testAddLastAndRemoveFirstWhenGrowing() {
+        System.out.println("Test addLast() and removeFirst() when growing");
+        TRingBuffer<Integer> instance = new TRingBuffer<>();
+        int nextToAdd = 0;
+        int nextToRemove = 0;
+        for (int i = 0; i < 10; i++) {
+            instance.addLast(nextToAdd++);
+        }
+        for (int i = 0; i < 7; i++) {
+            assertEquals(nextToRemove++, instance.removeFirst());
+        }
+        for (int i = 0; i < 100; i++) {
+            instance.addLast(nextToAdd++);
+        }
+        assertEquals(nextToAdd - nextToRemove, instance.size());
+        assertEquals(nextToRemove + 5, instance.get(5));
+        while (!instance.isEmpty()) {
+            assertEquals(nextToRemove, instance.getFirst());
+            assertEquals(nextToRemove++, instance.removeFirst());
+        }
+        assertEquals(nextToAdd, nextToRemove);
+    }
+
+    /**
+     * Test of removeFirst method, of class TRingBuffer, when empty.
+     */
+    @Test
+    public void testRemoveFirstWhenEmpty() {
+        System.out.println("Test removeFirst() when empty");
+        TRingBuffer<Integer> instance = new TRingBuffer<>();
+        assertThrows(NoSuchElementException.class, () -> {
+            instance.removeFirst(); // Should throw an exception
+        });
+    }
+
+    /**
+     * Test of getFirst method, of class TRingBuffer, when empty.
+     */
+    @Test
+    public void testGetFirstWhenEmpty() {
+        System.out.println("Test getFirst() when empty");
+        TRingBuffer<Integer> instance = new TRingBuffer<>();
+        assertThrows(NoSuchElementException.class, () -> {
+            instance.getFirst(); // Should throw an exception
+        });
+    }
+
+    /**
+     * Test of get method, of class TRingBuffer, when out of range.
+     */
+    @Test
+    public void testGetWhenOutOfRange() {
+        System.out.println("Test get() when out of range");
+        TRingBuffer<Integer> instance = new TRingBuffer<>();
+        instance.addLast(1);
+        assertThrows(IndexOutOfBoundsException.class, () -> {
+            instance.get(1); // Should throw an exception
+        });
+    }
+
+    /**
+     * Test of clear method, of class TRingBuffer.
+     */
+    @Test
+    public void testClear() {
+        System.out.println("Test clear()");
+        TRingBuffer<Integer> instance = new TRingBuffer<>();
+        for (int i = 0; i < 20; i++) {
+            instance.addLast(i);
+        }
+        instance.clear();
+        assertTrue(instance.isEmpty());
+        instance.addLast(7);
+        assertFalse(instance.isEmpty());
+        assertEquals(7, instance.getFirst());
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.commons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TStripedCountersTest {
+
+    public TStripedCountersTest() {
+    }
+
+    /**
+     * Test of constructor method, of class TStripedCounters.
+     */
+    @Test
+    public void testConstructor() {
+        System.out.println("Test constructor");
+        TStripedCounters instance = new TStripedCounters(5);
+        assertEquals(5, instance.getNumberOfCounters());
+        assertTrue(instance.getNumberOfStripes() >= 1);
+        assertEquals(0, Integer.bitCount(instance.getNumberOfStripes()) - 1);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, instance.get(i));
+        }
+        assertThrows(IllegalArgumentException.class, () -> {
+            new TStripedCounters(0);
+        });
+    }
+
+    /**
+     * Test of increment, add, get and reset methods, of class
+     * TStripedCounters.
+     */
+    @Test
+    public void testIncrementAndGet() {
+        System.out.println("Test increment(), add(), get() and reset()");
+        TStripedCounters instance = new TStripedCounters(3);
+        instance.increment(0);
+        instance.increment(0);
+        instance.add(2, 40);
+        assertEquals(2, instance.get(0));
+        assertEquals(0, instance.get(1));
+        assertEquals(40, instance.get(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> {
+            instance.increment(3);
+        });
+        assertThrows(IndexOutOfBoundsException.class, () -> {
+            instance.get(-1);
+        });
+        instance.reset();
+        assertEquals(0, instance.get(0));
+        assertEquals(0, instance.get(2));
+    }
+
+    /**
+     * Test of increment method, of class TStripedCounters, when several
+     * threads update the same counters at the same time.
+     */
+    @Test
+    public void testConcurrentIncrement() throws InterruptedException {
+        System.out.println("Test concurrent increment()");
+        final TStripedCounters instance = new TStripedCounters(2);
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100000; i++) {
+                    instance.increment(i & 1);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(400000, instance.get(0));
+        assertEquals(400000, instance.get(1));
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.gui.utils;
+
+import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
+import com.manolodominguez.opensimmpls.scenario.TLSRNode;
+import com.manolodominguez.opensimmpls.scenario.TScenario;
+import com.manolodominguez.opensimmpls.scenario.TTopology;
+import java.awt.Point;
+import java.awt.Rectangle;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TLevelOfDetailTest {
+
+    public TLevelOfDetailTest() {
+    }
+
+    // Nodes are painted as 48x48 icons; up to 200 visible nodes, covering
+    // up to a quarter of the visible area, are painted with full detail.
+    private static final int NODE_ICON_SIZE = 48;
+    private static final int MAX_DETAILED_NODES = 200;
+    private static final int VISIBLE_AREA_SIZE = 480;
+    // 25 icons of 48x48 cover exactly a quarter of a 480x480 area.
+    private static final int MAX_NODES_IN_VISIBLE_AREA = 25;
+
+    // The position of a node is the top left corner of its icon; it is set
+    // through the center of the icon.
+    private static TLSRNode addNode(TTopology topology, int nodeID, int x, int y) {
+        TLSRNode node = new TLSRNode(nodeID, "10.0.0." + nodeID, new TLongIDGenerator(), topology);
+        node.setScreenPosition(new Point(x + (NODE_ICON_SIZE / 2), y + (NODE_ICON_SIZE / 2)));
+        topology.addNode(node);
+        return node;
+    }
+
+    private static TTopology createTopology(int numberOfNodes) {
+        TTopology topology = new TTopology(new TScenario());
+        for (int i = 1; i <= numberOfNodes; i++) {
+            addNode(topology, i, 0, 0);
+        }
+        return topology;
+    }
+
+    /**
+     * Test of constructor, of class TLevelOfDetail.
+     */
+    @Test
+    public void testConstructor() {
+        System.out.println("Test constructor");
+        TLevelOfDetail instance = new TLevelOfDetail();
+        assertFalse(instance.isSimplified());
+        assertNull(instance.getVisibleArea());
+    }
+
+    /**
+     * Test of update method, of class TLevelOfDetail, at the maximum number
+     * of nodes painted with full detail when the whole topology is painted.
+     */
+    @Test
+    public void testUpdateAtMaxDetailedNodes() {
+        System.out.println("Test update() at the maximum number of detailed nodes");
+        TLevelOfDetail instance = new TLevelOfDetail();
+        TTopology topology = createTopology(MAX_DETAILED_NODES);
+        instance.update(topology, null);
+        assertFalse(instance.isSimplified());
+        assertNull(instance.getVisibleArea());
+        // One more node and nodes are painted as shapes and packets in
+        // transit aggregated per link.
+        addNode(topology, MAX_DETAILED_NODES + 1, 0, 0);
+        instance.update(topology, null);
+        assertTrue(instance.isSimplified());
+        // An empty visible area is the same as no visible area.
+        instance.update(topology, new Rectangle());
+        assertNull(instance.getVisibleArea());
+        assertTrue(instance.isSimplified());
+    }
+
+    /**
+     * Test of update method, of class TLevelOfDetail, at the maximum share of
+     * the visible area that node icons may cover with full detail.
+     */
+    @Test
+    public void testUpdateAtMaxNodesCoverage() {
+        System.out.println("Test update() at the maximum coverage of the visible area");
+        TLevelOfDetail instance = new TLevelOfDetail();
+        Rectangle visibleArea = new Rectangle(0, 0, VISIBLE_AREA_SIZE, VISIBLE_AREA_SIZE);
+        TTopology topology = createTopology(MAX_NODES_IN_VISIBLE_AREA);
+        instance.update(topology, visibleArea);
+        assertFalse(instance.isSimplified());
+        addNode(topology, MAX_NODES_IN_VISIBLE_AREA + 1, 0, 0);
+        instance.update(topology, visibleArea);
+        assertTrue(instance.isSimplified());
+        // The same nodes in a larger area are painted with full detail again.
+        instance.update(topology, new Rectangle(0, 0, VISIBLE_AREA_SIZE * 2, VISIBLE_AREA_SIZE));
+        assertFalse(instance.isSimplified());
+        // Without visible area, only the number of nodes matters.
+        instance.update(topology, null);
+        assertFalse(instance.isSimplified());
+    }
+
+    /**
+     * Test of update method, of class TLevelOfDetail, when some nodes are out
+     * of the visible area.
+     */
+    @Test
+    public void testUpdateIgnoresHiddenNodes() {
+        System.out.println("Test update() ignores nodes out of the visible area");
+        TLevelOfDetail instance = new TLevelOfDetail();
+        Rectangle visibleArea = new Rectangle(0, 0, VISIBLE_AREA_SIZE, VISIBLE_AREA_SIZE);
+        TTopology topology = createTopology(MAX_NODES_IN_VISIBLE_AREA);
+        TLSRNode hiddenNode = addNode(topology, MAX_NODES_IN_VISIBLE_AREA + 1, VISIBLE_AREA_SIZE * 4, 0);
+        instance.update(topology, visibleArea);
+        assertFalse(instance.isVisible(hiddenNode));
+        assertFalse(instance.isSimplified());
+    }
+
+    /**
+     * Test of isVisible method, of class TLevelOfDetail, at the edges of the
+     * visible area, that is extended by a margin of one node icon.
+     */
+    @Test
+    public void testIsVisibleAtTheMargin() {
+        System.out.println("Test isVisible() at the margin of the visible area");
+        TLevelOfDetail instance = new TLevelOfDetail();
+        TTopology topology = new TTopology(new TScenario());
+        TLSRNode lastVisibleNode = addNode(topology, 1, VISIBLE_AREA_SIZE + NODE_ICON_SIZE - 1, 0);
+        TLSRNode firstHiddenNode = addNode(topology, 2, VISIBLE_AREA_SIZE + NODE_ICON_SIZE, 0);
+        TLSRNode leftHiddenNode = addNode(topology, 3, -NODE_ICON_SIZE * 2, 0);
+        instance.update(topology, new Rectangle(0, 0, VISIBLE_AREA_SIZE, VISIBLE_AREA_SIZE));
+        assertEquals(new Rectangle(-NODE_ICON_SIZE, -NODE_ICON_SIZE, VISIBLE_AREA_SIZE + (NODE_ICON_SIZE * 2), VISIBLE_AREA_SIZE + (NODE_ICON_SIZE * 2)), instance.getVisibleArea());
+        assertTrue(instance.isVisible(lastVisibleNode));
+        assertFalse(instance.isVisible(firstHiddenNode));
+        assertFalse(instance.isVisible(leftHiddenNode));
+        assertTrue(instance.isVisible(new Point(VISIBLE_AREA_SIZE + NODE_ICON_SIZE - 1, 0)));
+        assertFalse(instance.isVisible(new Point(VISIBLE_AREA_SIZE + NODE_ICON_SIZE, 0)));
+        // Without visible area, everything is painted.
+        instance.update(topology, null);
+        assertTrue(instance.isVisible(firstHiddenNode));
+    }
+}
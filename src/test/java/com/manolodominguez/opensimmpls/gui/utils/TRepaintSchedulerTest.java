@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.gui.utils;
+
+import java.lang.reflect.InvocationTargetException;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TRepaintSchedulerTest {
+
+    public TRepaintSchedulerTest() {
+    }
+
+    /**
+     * Test of constructor, of class TRepaintScheduler, when the component is
+     * null.
+     */
+    @Test
+    public void testConstructorWhenComponentIsNull() {
+        System.out.println("Test constructor when component is null");
+        assertThrows(IllegalArgumentException.class, () -> {
+            TRepaintScheduler instance = new TRepaintScheduler(null, TRepaintScheduler.DEFAULT_FRAMES_PER_SECOND); // Should throw an exception
+        });
+    }
+
+    /**
+     * Test of setMaxFramesPerSecond method, of class TRepaintScheduler.
+     */
+    @Test
+    public void testSetMaxFramesPerSecond() {
+        System.out.println("Test setMaxFramesPerSecond()");
+        TRepaintScheduler instance = new TRepaintScheduler(new JPanel(), TRepaintScheduler.DEFAULT_FRAMES_PER_SECOND);
+        instance.setMaxFramesPerSecond(10);
+        assertEquals(10, instance.getMaxFramesPerSecond());
+        assertEquals(100, instance.getFrameIntervalInMs());
+        assertThrows(IllegalArgumentException.class, () -> {
+            instance.setMaxFramesPerSecond(0); // Should throw an exception
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            instance.setMaxFramesPerSecond(TRepaintScheduler.MAX_FRAMES_PER_SECOND + 1); // Should throw an exception
+        });
+    }
+
+    /**
+     * Test of requestRepaint method, of class TRepaintScheduler. Requests made
+     * before the next frame is due are coalesced into it.
+     */
+    @Test
+    public void testRequestRepaintCoalescesRequests() throws InterruptedException, InvocationTargetException {
+        System.out.println("Test requestRepaint() coalesces requests");
+        TRepaintScheduler instance = new TRepaintScheduler(new JPanel(), TRepaintScheduler.DEFAULT_FRAMES_PER_SECOND);
+        for (int i = 0; i < 100; i++) {
+            instance.requestRepaint();
+        }
+        waitForPendingFrames(instance);
+        assertEquals(1, instance.getPaintedFrames());
+        assertEquals(99, instance.getDroppedFrames());
+    }
+
+    /**
+     * Test of requestRepaint method, of class TRepaintScheduler. The component
+     * is never painted more often than the maximum frame rate.
+     */
+    @Test
+    public void testRequestRepaintDoesNotExceedMaxFramesPerSecond() throws InterruptedException, InvocationTargetException {
+        System.out.println("Test requestRepaint() does not exceed max. frames per second");
+        TRepaintScheduler instance = new TRepaintScheduler(new JPanel(), 10);
+        long startTimestampInNs = System.nanoTime();
+        int requests = 0;
+        while ((System.nanoTime() - startTimestampInNs) < 500000000L) {
+            instance.requestRepaint();
+            requests++;
+            Thread.sleep(2);
+        }
+        waitForPendingFrames(instance);
+        long elapsedTimeInMs = (System.nanoTime() - startTimestampInNs) / 1000000L;
+        // One frame each 100 ms at most, plus the first one.
+        assertTrue(instance.getPaintedFrames() <= (elapsedTimeInMs / 100) + 1);
+        assertTrue(instance.getPaintedFrames() >= 1);
+        assertEquals(requests, instance.getPaintedFrames() + instance.getDroppedFrames());
+    }
+
+    /**
+     * Test of resetStatistics method, of class TRepaintScheduler.
+     */
+    @Test
+    public void testResetStatistics() throws InterruptedException, InvocationTargetException {
+        System.out.println("Test resetStatistics()");
+        TRepaintScheduler instance = new TRepaintScheduler(new JPanel(), TRepaintScheduler.DEFAULT_FRAMES_PER_SECOND);
+        instance.requestRepaint();
+        instance.requestRepaint();
+        instance.addDroppedFrames(5);
+        waitForPendingFrames(instance);
+        instance.resetStatistics();
+        assertEquals(0, instance.getPaintedFrames());
+        assertEquals(0, instance.getDroppedFrames());
+    }
+
+    // Waits until the frame that may be scheduled has been painted in the
+    // event dispatch thread.
+    private void waitForPendingFrames(TRepaintScheduler instance) throws InterruptedException, InvocationTargetException {
+        Thread.sleep(instance.getFrameIntervalInMs() * 3L);
+        SwingUtilities.invokeAndWait(() -> {
+        });
+    }
+}
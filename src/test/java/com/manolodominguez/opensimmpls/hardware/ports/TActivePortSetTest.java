@@ -0,0 +1,167 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.ports;
+
+import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
+import com.manolodominguez.opensimmpls.protocols.TMPLSLabel;
+import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
+import com.manolodominguez.opensimmpls.scenario.TActiveLSRNode;
+import com.manolodominguez.opensimmpls.scenario.TScenario;
+import com.manolodominguez.opensimmpls.scenario.TTopology;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author manolodd
+ */
+public class TActivePortSetTest {
+
+    public TActivePortSetTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Test of getNextPackets method, of class TActivePortSet.
+     */
+    @Test
+    public void testGetNextPacketsWhenEmpty() {
+        System.out.println("Test getNextPackets");
+        TScenario scenario = new TScenario();
+        TTopology topology = new TTopology(scenario);
+        TActiveLSRNode node = new TActiveLSRNode(1, "10.0.0.1", new TLongIDGenerator(), topology);
+        TActivePortSet instance = new TActivePortSet(8, node);
+        TPacketBatch packetBatch = new TPacketBatch();
+        assertEquals(0, instance.getNextPackets(10240, packetBatch));
+        assertEquals(0, packetBatch.size());
+    }
+
+    /**
+     * Test of getNextPackets method, of class TActivePortSet.
+     */
+    @Test
+    public void testGetNextPackets() {
+        System.out.println("Test getNextPackets");
+        TScenario scenario = new TScenario();
+        TTopology topology = new TTopology(scenario);
+        TActiveLSRNode node = new TActiveLSRNode(1, "10.0.0.1", new TLongIDGenerator(), topology);
+        TActivePortSet instance = new TActivePortSet(8, node);
+        instance.setUnlimitedBuffer(true);
+        TMPLSPDU firstPacket = createLabelledPacket(1, "10.0.0.2");
+        TMPLSPDU secondPacket = createLabelledPacket(2, "10.0.0.2");
+        TMPLSPDU thirdPacket = createLabelledPacket(3, "10.0.0.3");
+        instance.getPort(0).addPacket(firstPacket);
+        instance.getPort(0).addPacket(secondPacket);
+        instance.getPort(1).addPacket(thirdPacket);
+        TPacketBatch packetBatch = new TPacketBatch();
+        // Only two packets fit in the budget.
+        int budget = firstPacket.getSize() + secondPacket.getSize();
+        int readPackets = 0;
+        int iterations = 0;
+        while ((readPackets < 3) && (iterations < 10)) {
+            int readOctets = 0;
+            readPackets += instance.getNextPackets(budget, packetBatch);
+            for (int i = 0; i < packetBatch.size(); i++) {
+                readOctets += packetBatch.getPacket(i).getSize();
+            }
+            assertTrue(readOctets <= budget);
+            iterations++;
+        }
+        assertEquals(3, readPackets);
+        assertFalse(instance.isThereAnyPacketToSwitch());
+    }
+
+    /**
+     * Test of getNextPackets method, of class TActivePortSet.
+     */
+    @Test
+    public void testGetNextPacketsWhenBudgetIsTooLow() {
+        System.out.println("Test getNextPackets");
+        TScenario scenario = new TScenario();
+        TTopology topology = new TTopology(scenario);
+        TActiveLSRNode node = new TActiveLSRNode(1, "10.0.0.1", new TLongIDGenerator(), topology);
+        TActivePortSet instance = new TActivePortSet(8, node);
+        instance.setUnlimitedBuffer(true);
+        TMPLSPDU packet = createLabelledPacket(1, "10.0.0.2");
+        instance.getPort(0).addPacket(packet);
+        TPacketBatch packetBatch = new TPacketBatch();
+        assertEquals(0, instance.getNextPackets(packet.getSize() - 1, packetBatch));
+        // The packet that did not fit is not lost.
+        assertEquals(1, instance.getNextPackets(packet.getSize(), packetBatch));
+        assertSame(packet, packetBatch.getPacket(0));
+    }
+
+    /**
+     * Test of getNextPackets method, of class TActivePortSet.
+     */
+    @Test
+    public void testGetNextPacketsWhenNegativeBudget() {
+        System.out.println("Test getNextPackets");
+        TScenario scenario = new TScenario();
+        TTopology topology = new TTopology(scenario);
+        TActiveLSRNode node = new TActiveLSRNode(1, "10.0.0.1", new TLongIDGenerator(), topology);
+        TActivePortSet instance = new TActivePortSet(8, node);
+        TPacketBatch packetBatch = new TPacketBatch();
+        assertThrows(IllegalArgumentException.class, () -> {
+            instance.getNextPackets(-1, packetBatch); // Should throw an exception
+        });
+    }
+
+    /**
+     * Test of getNextPackets method, of class TActivePortSet.
+     */
+    @Test
+    public void testGetNextPacketsWhenNullBatch() {
+        System.out.println("Test getNextPackets");
+        TScenario scenario = new TScenario();
+        TTopology topology = new TTopology(scenario);
+        TActiveLSRNode node = new TActiveLSRNode(1, "10.0.0.1", new TLongIDGenerator(), topology);
+        TActivePortSet instance = new TActivePortSet(8, node);
+        assertThrows(IllegalArgumentException.class, () -> {
+            instance.getNextPackets(10240, null); // Should throw an exception
+        });
+    }
+
+    private TMPLSPDU createLabelledPacket(long id, String originIP) {
+        TMPLSPDU mplsPacket = new TMPLSPDU(id, originIP, "10.0.0.1", 1024);
+        TMPLSLabel mplsLabel = new TMPLSLabel();
+        mplsLabel.setBoS(true);
+        mplsLabel.setEXP(0);
+        mplsLabel.setLabel(50); // A valid and unreserved label
+        mplsLabel.setTTL(mplsPacket.getIPv4Header().getTTL());
+        mplsPacket.getLabelStack().pushTop(mplsLabel);
+        return mplsPacket;
+    }
+}
@@ -955,6 +955,60 @@ public class TActivePortTest {
         });
     }
 
+    /**
+     * Test of getPacket method, of class TActivePort, checking the order in
+     * which the prioritized Round Robin algorithm reads the packets of several
+     * priorities.
+     */
+    @Test
+    public void testGetPacketInPrioritizedRoundRobinOrder() {
+        System.out.println("Test getPacket");
+        TScenario scenario = new TScenario();
+        TTopology topology = new TTopology(scenario);
+        TActiveLSRNode node = new TActiveLSRNode(1, "10.0.0.1", new TLongIDGenerator(), topology);
+        TActivePortSet portSet = new TActivePortSet(8, node);
+        portSet.setUnlimitedBuffer(true);
+        TActivePort port0 = (TActivePort) portSet.getPort(0);
+        TActivePort port1 = (TActivePort) portSet.getPort(1);
+        // Port 0: packets 1-3 with priority 0, 4-7 with priority 1 and 8-11
+        // with priority 2.
+        for (long id = 1; id <= 3; id++) {
+            port0.reEnqueuePacket(createPrioritizedPacket(id, TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP));
+        }
+        for (long id = 4; id <= 7; id++) {
+            port0.reEnqueuePacket(createPrioritizedPacket(id, TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP));
+        }
+        for (long id = 8; id <= 11; id++) {
+            port0.reEnqueuePacket(createPrioritizedPacket(id, TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP));
+        }
+        // Port 1: packets 21-30 with priority 7 and 31-32 with priority 0.
+        for (long id = 21; id <= 30; id++) {
+            port1.reEnqueuePacket(createPrioritizedPacket(id, TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP));
+        }
+        for (long id = 31; id <= 32; id++) {
+            port1.reEnqueuePacket(createPrioritizedPacket(id, TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP));
+        }
+        // -1 means that the selection has not chosen any packet because a
+        // new Round Robin cicle has started too far from the next non empty
+        // buffer. Buffer N is read N+1 times per cicle at most.
+        long[] expectedOrderOfPort0 = {1, 4, 8, 5, 9, 10, -1, 2, 6, 11, 7, -1, 3};
+        long[] expectedOrderOfPort1 = {31, 21, 22, 23, 24, 25, 26, 27, 28, -1, 32, 29, 30};
+        long[] orderOfPort0 = new long[expectedOrderOfPort0.length];
+        long[] orderOfPort1 = new long[expectedOrderOfPort1.length];
+        // Reads from both ports are interleaved, so each port has to keep
+        // its own Round Robin cicle.
+        for (int i = 0; i < expectedOrderOfPort0.length; i++) {
+            orderOfPort0[i] = readNextPacketID(port0);
+            orderOfPort1[i] = readNextPacketID(port1);
+        }
+        assertArrayEquals(expectedOrderOfPort0, orderOfPort0);
+        assertArrayEquals(expectedOrderOfPort1, orderOfPort1);
+        assertEquals(0, port0.getNumberOfPackets());
+        assertEquals(0, port1.getNumberOfPackets());
+        assertEquals(-1, port0.getNextPacketPriority());
+        assertEquals(-1, port1.getNextPacketPriority());
+    }
+
     /**
      * Test of canSwitchPacket method, of class TActivePort.
      */
@@ -1219,4 +1273,22 @@ public class TActivePortTest {
         }
         assertTrue(worksFine);
     }
+
+    private TMPLSPDU createPrioritizedPacket(long id, int exp) {
+        TMPLSPDU mplsPacket = new TMPLSPDU(id, "10.0.0.2", "10.0.0.1", 1024);
+        TMPLSLabel mplsLabel = new TMPLSLabel();
+        mplsLabel.setBoS(true);
+        mplsLabel.setEXP(exp);
+        mplsLabel.setLabel(1); // A reserved label
+        mplsLabel.setTTL(mplsPacket.getIPv4Header().getTTL());
+        mplsPacket.getLabelStack().pushTop(mplsLabel);
+        return mplsPacket;
+    }
+
+    private long readNextPacketID(TActivePort port) {
+        if (port.getNextPacketPriority() == -1) {
+            return -1;
+        }
+        return port.getPacket().getID();
+    }
 }
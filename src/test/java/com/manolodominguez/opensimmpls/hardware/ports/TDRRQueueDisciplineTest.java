@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.ports;
+
+import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
+import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
+import com.manolodominguez.opensimmpls.scenario.TLSRNode;
+import com.manolodominguez.opensimmpls.scenario.TScenario;
+import com.manolodominguez.opensimmpls.scenario.TTopology;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TDRRQueueDisciplineTest {
+
+    public TDRRQueueDisciplineTest() {
+    }
+
+    /**
+     * Test of constructor method, of class TDRRQueueDiscipline.
+     */
+    @Test
+    public void testConstructorWhenNumberOfPortsIsNegative() {
+        System.out.println("Test constructor");
+        assertThrows(IllegalArgumentException.class, () -> {
+            new TDRRQueueDiscipline(-1);
+        });
+    }
+
+    /**
+     * Test of getNextPortToRead method, of class TDRRQueueDiscipline. A port
+     * with small packets has to be read until its quantum is exhausted before
+     * moving to the next port.
+     */
+    @Test
+    public void testGetNextPortToRead() {
+        System.out.println("Test getNextPortToRead()");
+        TScenario scenario = new TScenario();
+        TTopology topology = new TTopology(scenario);
+        TLSRNode node = new TLSRNode(1, "10.0.0.1", new TLongIDGenerator(), topology);
+        TFIFOPortSet instance = new TFIFOPortSet(8, node);
+        instance.setQueueDisciplineType(TQueueDiscipline.DRR);
+        // 500 octets each one.
+        TMPLSPDU smallPacket = new TMPLSPDU(1, "10.0.0.2", "10.0.0.3", 460);
+        // 1500 octets each one.
+        TMPLSPDU bigPacket = new TMPLSPDU(2, "10.0.0.2", "10.0.0.3", 1460);
+        for (int i = 0; i < 3; i++) {
+            instance.getPort(0).reEnqueuePacket(smallPacket);
+        }
+        for (int i = 0; i < 2; i++) {
+            instance.getPort(1).reEnqueuePacket(bigPacket);
+        }
+        TPacketBatch packetBatch = new TPacketBatch();
+        assertEquals(5, instance.getNextPackets(Integer.MAX_VALUE, packetBatch));
+        int[] expectedPortIDs = {0, 0, 0, 1, 1};
+        for (int i = 0; i < expectedPortIDs.length; i++) {
+            assertEquals(expectedPortIDs[i], packetBatch.getIncomingPortID(i));
+        }
+        assertEquals(0, instance.getNextPackets(Integer.MAX_VALUE, packetBatch));
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.hardware.ports;
 
+import com.manolodominguez.opensimmpls.commons.EIDGeneratorOverflow;
 import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
 import com.manolodominguez.opensimmpls.gui.simulator.JSimulationPanel;
 import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
@@ -704,6 +705,26 @@ public class TFIFOPortTest {
         assertTrue(worksFine);
     }
 
+    /**
+     * Test of addPacket method, of class TFIFOPort, when nobody is subscribed
+     * to simulation events.
+     */
+    @Test
+    public void testAddPacketWithoutSubscribers() throws EIDGeneratorOverflow {
+        System.out.println("test addPacket without subscribers");
+        TScenario scenario = new TScenario();  //Creates an scenario
+        TTopology topology = new TTopology(scenario); //Creates a topology
+        TLongIDGenerator eventIdentifierGenerator = new TLongIDGenerator();
+        TLSRNode tailEndNode = new TLSRNode(2, "10.0.0.2", eventIdentifierGenerator, topology); //Creates a node
+        tailEndNode.setName("Dummy tail end node name");
+        topology.addNode(tailEndNode); // Adds tail end node to the topology
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        tailEndNode.getPorts().getPort(0).addPacket(mplsPacket);
+        assertEquals(1, tailEndNode.getPorts().getPort(0).getNumberOfPackets());
+        // No event identifier has been allocated.
+        assertEquals(new TLongIDGenerator().getNextIdentifier(), eventIdentifierGenerator.getNextIdentifier());
+    }
+
     /**
      * Test of addPacket method, of class TFIFOPort.
      */
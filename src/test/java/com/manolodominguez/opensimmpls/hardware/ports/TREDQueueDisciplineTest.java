@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.ports;
+
+import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
+import com.manolodominguez.opensimmpls.protocols.TTLDPPDU;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TREDQueueDisciplineTest {
+
+    public TREDQueueDisciplineTest() {
+    }
+
+    /**
+     * Test of admitPacket method, of class TREDQueueDiscipline, when the
+     * buffer is empty.
+     */
+    @Test
+    public void testAdmitPacketWhenBufferIsEmpty() {
+        System.out.println("Test admitPacket() when buffer is empty");
+        TREDQueueDiscipline instance = new TREDQueueDiscipline();
+        TMPLSPDU packet = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(instance.admitPacket(packet, 0, 1048576));
+        }
+        assertEquals(0.0, instance.getAverageOccupancy());
+    }
+
+    /**
+     * Test of admitPacket method, of class TREDQueueDiscipline, when the
+     * average occupancy is over the maximum threshold.
+     */
+    @Test
+    public void testAdmitPacketWhenAverageIsOverMaxThreshold() {
+        System.out.println("Test admitPacket() when average is over max. threshold");
+        TREDQueueDiscipline instance = new TREDQueueDiscipline();
+        TMPLSPDU packet = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        for (int i = 0; i < 5000; i++) {
+            instance.admitPacket(packet, 1000000, 1048576);
+        }
+        assertTrue(instance.getAverageOccupancy() > 0.75 * 1048576);
+        assertFalse(instance.admitPacket(packet, 1000000, 1048576));
+        // Signalling packets are never discarded early.
+        assertTrue(instance.admitPacket(new TTLDPPDU(2, "10.0.0.1", "10.0.0.2"), 1000000, 1048576));
+    }
+
+    /**
+     * Test of reset method, of class TREDQueueDiscipline.
+     */
+    @Test
+    public void testReset() {
+        System.out.println("Test reset()");
+        TREDQueueDiscipline instance = new TREDQueueDiscipline();
+        TMPLSPDU packet = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        instance.admitPacket(packet, 1000000, 1048576);
+        instance.reset();
+        assertEquals(0.0, instance.getAverageOccupancy());
+    }
+
+    /**
+     * Test of admitPacket method, of class TREDQueueDiscipline. Early
+     * discards are the same from run to run and after a reset.
+     */
+    @Test
+    public void testAdmitPacketIsReproducible() {
+        System.out.println("Test admitPacket() is reproducible");
+        TREDQueueDiscipline instance1 = new TREDQueueDiscipline();
+        TREDQueueDiscipline instance2 = new TREDQueueDiscipline();
+        TMPLSPDU packet = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        boolean[] decisions = new boolean[5000];
+        for (int i = 0; i < decisions.length; i++) {
+            decisions[i] = instance1.admitPacket(packet, 600000, 1048576);
+            assertEquals(decisions[i], instance2.admitPacket(packet, 600000, 1048576));
+        }
+        instance1.reset();
+        for (int i = 0; i < decisions.length; i++) {
+            assertEquals(decisions[i], instance1.admitPacket(packet, 600000, 1048576));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.ports;
+
+import com.manolodominguez.opensimmpls.protocols.TMPLSLabel;
+import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
+import com.manolodominguez.opensimmpls.protocols.TTLDPPDU;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TWREDQueueDisciplineTest {
+
+    public TWREDQueueDisciplineTest() {
+    }
+
+    /**
+     * Test of getType method, of class TWREDQueueDiscipline.
+     */
+    @Test
+    public void testGetType() {
+        System.out.println("Test getType()");
+        TWREDQueueDiscipline instance = new TWREDQueueDiscipline();
+        assertEquals(TQueueDiscipline.WRED, instance.getType());
+    }
+
+    /**
+     * Test of admitPacket method, of class TWREDQueueDiscipline, when the
+     * average occupancy is between the minimum thresholds of GoS levels 0 and
+     * 3.
+     */
+    @Test
+    public void testAdmitPacketBetweenMinThresholds() {
+        System.out.println("Test admitPacket() between min. thresholds of GoS levels");
+        TWREDQueueDiscipline instance = new TWREDQueueDiscipline();
+        // Average occupancy over the min. threshold of GoS 0 (25%) and below
+        // the min. threshold of GoS 3 (70%).
+        long occupancy = (long) (0.60 * BUFFER_SIZE);
+        setAverageOccupancy(instance, occupancy);
+        TMPLSPDU gos0Packet = createGoSPacket(0);
+        TMPLSPDU gos3Packet = createGoSPacket(3);
+        int gos0Discards = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (!instance.admitPacket(gos0Packet, occupancy, BUFFER_SIZE)) {
+                gos0Discards++;
+            }
+            assertTrue(instance.admitPacket(gos3Packet, occupancy, BUFFER_SIZE));
+        }
+        assertTrue(gos0Discards > 0);
+    }
+
+    /**
+     * Test of admitPacket method, of class TWREDQueueDiscipline, when the
+     * average occupancy is over the maximum threshold of GoS level 0 but
+     * below the maximum threshold of GoS level 3.
+     */
+    @Test
+    public void testAdmitPacketBetweenMaxThresholds() {
+        System.out.println("Test admitPacket() between max. thresholds of GoS levels");
+        TWREDQueueDiscipline instance = new TWREDQueueDiscipline();
+        // Average occupancy over the max. threshold of GoS 0 (75%) and below
+        // the max. threshold of GoS 3 (90%).
+        long occupancy = (long) (0.78 * BUFFER_SIZE);
+        setAverageOccupancy(instance, occupancy);
+        TMPLSPDU gos0Packet = createGoSPacket(0);
+        TMPLSPDU gos3Packet = createGoSPacket(3);
+        int gos3Admissions = 0;
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(instance.admitPacket(gos0Packet, occupancy, BUFFER_SIZE));
+            if (instance.admitPacket(gos3Packet, occupancy, BUFFER_SIZE)) {
+                gos3Admissions++;
+            }
+        }
+        assertTrue(gos3Admissions > 0);
+    }
+
+    /**
+     * Test of admitPacket method, of class TWREDQueueDiscipline. Packets
+     * requesting a higher GoS level are discarded less often.
+     */
+    @Test
+    public void testAdmitPacketDiscardsLessWhenHigherGoS() {
+        System.out.println("Test admitPacket() discards less when higher GoS");
+        long occupancy = (long) (0.72 * BUFFER_SIZE);
+        int[] discards = new int[4];
+        for (int gosLevel = 0; gosLevel < 4; gosLevel++) {
+            TWREDQueueDiscipline instance = new TWREDQueueDiscipline();
+            setAverageOccupancy(instance, occupancy);
+            TMPLSPDU packet = createGoSPacket(gosLevel);
+            for (int i = 0; i < 5000; i++) {
+                if (!instance.admitPacket(packet, occupancy, BUFFER_SIZE)) {
+                    discards[gosLevel]++;
+                }
+            }
+        }
+        assertTrue(discards[0] > discards[1]);
+        assertTrue(discards[1] > discards[2]);
+        assertTrue(discards[2] > discards[3]);
+    }
+
+    // Signalling packets are never discarded early, so they move the average
+    // occupancy without any random decision.
+    private void setAverageOccupancy(TWREDQueueDiscipline instance, long occupancy) {
+        TTLDPPDU signallingPacket = new TTLDPPDU(1, "10.0.0.1", "10.0.0.2");
+        for (int i = 0; i < 10000; i++) {
+            instance.admitPacket(signallingPacket, occupancy, BUFFER_SIZE);
+        }
+    }
+
+    private TMPLSPDU createGoSPacket(int gosLevel) {
+        TMPLSPDU packet = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSLabel gosLabel = new TMPLSLabel();
+        gosLabel.setBoS(true);
+        gosLabel.setEXP(gosLevel);
+        gosLabel.setLabel(1); // Label used to mark the requested GoS level
+        gosLabel.setTTL(packet.getIPv4Header().getTTL());
+        packet.getLabelStack().pushTop(gosLabel);
+        return packet;
+    }
+
+    private static final long BUFFER_SIZE = 1048576;
+}
@@ -0,0 +1,124 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.tldp;
+
+import java.util.Iterator;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TSwitchingMatrixTest {
+
+    public TSwitchingMatrixTest() {
+    }
+
+    private TSwitchingMatrixEntry createEntry(int incomingPortID, int outgoingPortID) {
+        TSwitchingMatrixEntry entry = new TSwitchingMatrixEntry();
+        entry.setIncomingPortID(incomingPortID);
+        entry.setOutgoingPortID(outgoingPortID);
+        return entry;
+    }
+
+    private int countEntries(Iterator<TSwitchingMatrixEntry> iterator) {
+        int numberOfEntries = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            numberOfEntries++;
+        }
+        return numberOfEntries;
+    }
+
+    /**
+     * Test of getEntriesIterator(int[]) method, of class TSwitchingMatrix.
+     */
+    @Test
+    public void testGetEntriesIteratorByPort() {
+        System.out.println("Test getEntriesIterator(int[])");
+        TSwitchingMatrix instance = new TSwitchingMatrix();
+        TSwitchingMatrixEntry entry1 = createEntry(0, 1);
+        TSwitchingMatrixEntry entry2 = createEntry(1, 2);
+        TSwitchingMatrixEntry entry3 = createEntry(3, 4);
+        instance.addEntry(entry1);
+        instance.addEntry(entry2);
+        instance.addEntry(entry3);
+        assertEquals(2, countEntries(instance.getEntriesIterator(new int[]{1})));
+        assertEquals(2, countEntries(instance.getEntriesIterator(new int[]{0, 1})));
+        Iterator<TSwitchingMatrixEntry> iterator = instance.getEntriesIterator(new int[]{4});
+        assertSame(entry3, iterator.next());
+        assertFalse(iterator.hasNext());
+        assertEquals(0, countEntries(instance.getEntriesIterator(new int[]{5})));
+    }
+
+    /**
+     * Test of getEntriesIterator(int[]) method, of class TSwitchingMatrix,
+     * when ports of an entry change after being added.
+     */
+    @Test
+    public void testGetEntriesIteratorByPortWhenPortsChange() {
+        System.out.println("Test getEntriesIterator(int[]) when ports change");
+        TSwitchingMatrix instance = new TSwitchingMatrix();
+        TSwitchingMatrixEntry entry = createEntry(0, TSwitchingMatrixEntry.UNDEFINED);
+        instance.addEntry(entry);
+        assertTrue(instance.hasEntriesUsingPort(TSwitchingMatrixEntry.UNDEFINED));
+        entry.setOutgoingPortID(2);
+        assertFalse(instance.hasEntriesUsingPort(TSwitchingMatrixEntry.UNDEFINED));
+        assertTrue(instance.hasEntriesUsingPort(2));
+        entry.setBackupOutgoingPortID(3);
+        entry.switchToBackupLSP();
+        assertTrue(instance.hasEntriesUsingPort(3));
+        assertFalse(instance.hasEntriesUsingPort(2));
+    }
+
+    /**
+     * Test of remove method of the iterators, of class TSwitchingMatrix.
+     */
+    @Test
+    public void testIteratorsRemove() {
+        System.out.println("Test remove() of iterators");
+        TSwitchingMatrix instance = new TSwitchingMatrix();
+        instance.addEntry(createEntry(0, 1));
+        instance.addEntry(createEntry(2, 3));
+        Iterator<TSwitchingMatrixEntry> iterator = instance.getEntriesIterator(new int[]{1});
+        iterator.next();
+        iterator.remove();
+        assertEquals(1, instance.getNumberOfEntries());
+        assertFalse(instance.hasEntriesUsingPort(0));
+        iterator = instance.getEntriesIterator();
+        iterator.next();
+        iterator.remove();
+        assertEquals(0, instance.getNumberOfEntries());
+        assertFalse(instance.hasEntriesUsingPort(2));
+    }
+
+    /**
+     * Test of reset method, of class TSwitchingMatrix.
+     */
+    @Test
+    public void testReset() {
+        System.out.println("Test reset()");
+        TSwitchingMatrix instance = new TSwitchingMatrix();
+        instance.addEntry(createEntry(0, 1));
+        instance.reset();
+        assertEquals(0, instance.getNumberOfEntries());
+        assertFalse(instance.hasEntriesUsingPort(0));
+    }
+}
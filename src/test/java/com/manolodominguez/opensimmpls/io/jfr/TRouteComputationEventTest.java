@@ -0,0 +1,75 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.jfr;
+
+import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
+import com.manolodominguez.opensimmpls.scenario.TLSRNode;
+import com.manolodominguez.opensimmpls.scenario.TScenario;
+import com.manolodominguez.opensimmpls.scenario.TTopology;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TRouteComputationEventTest {
+
+    public TRouteComputationEventTest() {
+    }
+
+    /**
+     * Test of the event recorded by TTopology when it computes a next hop.
+     */
+    @Test
+    public void testRecording() throws Exception {
+        System.out.println("Test recording");
+        TScenario scenario = new TScenario();
+        TTopology topology = scenario.getTopology();
+        topology.addNode(new TLSRNode(1, "10.0.0.1", new TLongIDGenerator(), topology));
+        topology.addNode(new TLSRNode(2, "10.0.0.2", new TLongIDGenerator(), topology));
+        Path file = Files.createTempFile("opensimmpls", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable(EVENT_NAME);
+                recording.start();
+                topology.getFloydWarshallNextHopID(1, 2);
+                topology.getRABANNextHopID(1, 2);
+                recording.stop();
+                recording.dump(file);
+            }
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            events.removeIf(event -> !event.getEventType().getName().equals(EVENT_NAME));
+            assertEquals(2, events.size());
+            assertEquals("Floyd-Warshall", events.get(0).getString("algorithm"));
+            assertEquals("RABAN", events.get(1).getString("algorithm"));
+            assertEquals(1, events.get(0).getInt("originNodeID"));
+            assertEquals(2, events.get(0).getInt("targetNodeID"));
+            assertEquals(TTopology.TARGET_UNREACHABLE, events.get(0).getInt("nextHopNodeID"));
+            assertEquals(2, events.get(0).getInt("nodes"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static final String EVENT_NAME = "com.manolodominguez.opensimmpls.RouteComputation";
+}
@@ -0,0 +1,127 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.metrics;
+
+import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
+import com.manolodominguez.opensimmpls.scenario.TLSRNode;
+import com.manolodominguez.opensimmpls.scenario.TNode;
+import com.manolodominguez.opensimmpls.scenario.TScenario;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TSimulatorMetricsTest {
+
+    public TSimulatorMetricsTest() {
+    }
+
+    /**
+     * Creates a scenario with a single LSR.
+     */
+    private TScenario createScenario() {
+        TScenario scenario = new TScenario();
+        scenario.setTitle("Metrics");
+        TLSRNode node = new TLSRNode(1, "10.0.0.1", new TLongIDGenerator(), scenario.getTopology());
+        node.setName("LSR");
+        scenario.getTopology().addNode(node);
+        return scenario;
+    }
+
+    /**
+     * Test of constructor method, of class TSimulatorMetrics.
+     */
+    @Test
+    public void testConstructor() {
+        System.out.println("Test constructor");
+        TSimulatorMetrics instance = new TSimulatorMetrics(createScenario());
+        assertEquals(0, instance.getTicks());
+        assertEquals(0, instance.getMeanTickWallTimeInNs());
+        assertEquals(0, instance.getRouteComputations());
+        assertNull(instance.getObjectName());
+        assertThrows(IllegalArgumentException.class, () -> {
+            new TSimulatorMetrics(null);
+        });
+    }
+
+    /**
+     * Test of tickCompleted and resetCounters methods, of class
+     * TSimulatorMetrics.
+     */
+    @Test
+    public void testTickCompleted() {
+        System.out.println("Test tickCompleted()");
+        TSimulatorMetrics instance = new TSimulatorMetrics(createScenario());
+        instance.tickCompleted(1);
+        instance.tickCompleted(2);
+        assertEquals(2, instance.getTicks());
+        assertEquals(1, instance.getElementThreadsPerTick());
+        instance.timerStopped();
+        assertTrue(instance.getTicksPerSecond() >= 0);
+        instance.resetCounters();
+        assertEquals(0, instance.getTicks());
+        assertEquals(0, instance.getElementThreadsPerTick());
+    }
+
+    /**
+     * Test of getNodes method, of class TSimulatorMetrics.
+     */
+    @Test
+    public void testGetNodes() {
+        System.out.println("Test getNodes()");
+        TSimulatorMetrics instance = new TSimulatorMetrics(createScenario());
+        List<TNodeMetrics> nodes = instance.getNodes();
+        assertEquals(1, nodes.size());
+        assertEquals(1, nodes.get(0).getNodeID());
+        assertEquals("LSR", nodes.get(0).getName());
+        assertEquals(TNode.LSR, nodes.get(0).getNodeType());
+        assertEquals(0, nodes.get(0).getSwitchingMatrixEntries());
+    }
+
+    /**
+     * Test of register and unregister methods, of class TSimulatorMetrics.
+     */
+    @Test
+    public void testRegister() throws Exception {
+        System.out.println("Test register()");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        TSimulatorMetrics instance = new TSimulatorMetrics(createScenario());
+        instance.register();
+        ObjectName objectName = instance.getObjectName();
+        assertNotNull(objectName);
+        assertTrue(server.isRegistered(objectName));
+        assertEquals("Metrics", server.getAttribute(objectName, "ScenarioTitle"));
+        assertEquals(0L, server.getAttribute(objectName, "Ticks"));
+        CompositeData[] nodes = (CompositeData[]) server.getAttribute(objectName, "Nodes");
+        assertEquals(1, nodes.length);
+        assertEquals("LSR", nodes[0].get("name"));
+        instance.unregister();
+        assertNull(instance.getObjectName());
+        assertFalse(server.isRegistered(objectName));
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.stats;
+
+import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
+import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
+import com.manolodominguez.opensimmpls.scenario.TLSRNode;
+import com.manolodominguez.opensimmpls.scenario.TScenario;
+import com.manolodominguez.opensimmpls.scenario.TStats;
+import com.manolodominguez.opensimmpls.scenario.TTopology;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TStatsExporterTest {
+
+    public TStatsExporterTest() {
+    }
+
+    @TempDir
+    File temporaryFolder;
+
+    private static TLSRNode createNode(TTopology topology) {
+        TLSRNode node = new TLSRNode(1, "10.0.0.1", new TLongIDGenerator(), topology);
+        node.setName("LSR 1");
+        node.setGenerateStats(true);
+        // Stats are enabled when the node is reset.
+        node.reset();
+        topology.addNode(node);
+        return node;
+    }
+
+    private static void addIncomingPacket(TStats stats, long timeInstant) {
+        stats.addStatEntry(new TMPLSPDU(1, "10.0.0.2", "10.0.0.1", 100), TStats.INCOMING);
+        stats.groupStatsByTimeInstant(timeInstant);
+    }
+
+    /**
+     * Test of constructor, of class TStatsExporter.
+     */
+    @Test
+    public void testConstructor() throws IOException {
+        System.out.println("Test constructor");
+        TTopology topology = new TTopology(new TScenario());
+        TStatsCSVWriter writer = new TStatsCSVWriter(new File(this.temporaryFolder, "stats.csv"));
+        assertThrows(IllegalArgumentException.class, () -> {
+            new TStatsExporter(null, writer);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            new TStatsExporter(topology);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            new TStatsExporter(topology, writer, null);
+        });
+        writer.close();
+    }
+
+    /**
+     * Test of exportNewPoints and reset methods, of class TStatsExporter.
+     */
+    @Test
+    public void testExportAfterReset() throws IOException {
+        System.out.println("Test exportNewPoints() and reset()");
+        File file = new File(this.temporaryFolder, "stats.csv");
+        TTopology topology = new TTopology(new TScenario());
+        TLSRNode node = createNode(topology);
+        TStatsExporter instance = new TStatsExporter(topology, new TStatsCSVWriter(file));
+        addIncomingPacket(node.getStats(), 0);
+        addIncomingPacket(node.getStats(), 1);
+        instance.exportNewPoints();
+        // A series starts with a zero just before its first value.
+        assertEquals(3, instance.getExportedPoints());
+        // Nothing new since the previous export.
+        instance.exportNewPoints();
+        assertEquals(3, instance.getExportedPoints());
+        // The scenario is reset: statistics start again with new series.
+        node.reset();
+        instance.reset();
+        addIncomingPacket(node.getStats(), 0);
+        instance.exportNewPoints();
+        assertEquals(5, instance.getExportedPoints());
+        instance.close();
+        assertFalse(instance.hasFailed());
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertEquals(6, lines.size());
+        assertEquals(lines.get(1), lines.get(4));
+        assertEquals(lines.get(2), lines.get(5));
+    }
+
+    /**
+     * Test of constructor, of class TStatsBinaryWriter, when the number of
+     * buffered points is not valid.
+     */
+    @Test
+    public void testBinaryWriterWithBadBufferSize() {
+        System.out.println("Test TStatsBinaryWriter constructor with a bad buffer size");
+        File file = new File(this.temporaryFolder, "stats.bin");
+        assertThrows(IllegalArgumentException.class, () -> {
+            new TStatsBinaryWriter(file, 0);
+        });
+        assertEquals(0, file.length());
+    }
+}
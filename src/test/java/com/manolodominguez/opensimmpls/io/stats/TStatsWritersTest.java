@@ -0,0 +1,162 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.stats;
+
+import com.manolodominguez.opensimmpls.scenario.TStatsTimeSeries;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TStatsWritersTest {
+
+    public TStatsWritersTest() {
+    }
+
+    @TempDir
+    File temporaryFolder;
+
+    private static TStatsTimeSeries createSeries(String key, int numberOfPoints, double valueFactor) {
+        TStatsTimeSeries timeSeries = new TStatsTimeSeries(key);
+        for (int i = 0; i < numberOfPoints; i++) {
+            timeSeries.add(i * 1000L, i * valueFactor);
+        }
+        return timeSeries;
+    }
+
+    /**
+     * Test of TStatsCSVWriter class.
+     */
+    @Test
+    public void testCSVWriter() throws IOException {
+        System.out.println("Test TStatsCSVWriter");
+        File file = new File(this.temporaryFolder, "stats.csv");
+        TStatsTimeSeries timeSeries1 = createSeries("MPLS", 3, 2.0);
+        TStatsTimeSeries timeSeries2 = createSeries("p99", 2, 0.5);
+        TStatsCSVWriter instance = new TStatsCSVWriter(file);
+        instance.addSeries(0, "LER 1", 1, "MPLS");
+        instance.addSeries(1, "Sink, \"main\"", 2, "p99");
+        assertThrows(IllegalArgumentException.class, () -> {
+            instance.addSeries(3, "LER 1", 1, "IP");
+        });
+        instance.addPoints(0, timeSeries1, 0, 2);
+        instance.addPoints(1, timeSeries2, 0, 2);
+        instance.addPoints(0, timeSeries1, 2, 3);
+        instance.close();
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertEquals(6, lines.size());
+        assertEquals("node,dataset,series,time_ns,value", lines.get(0));
+        assertEquals("LER 1,1,MPLS,0,0", lines.get(1));
+        assertEquals("LER 1,1,MPLS,1000,2", lines.get(2));
+        assertEquals("\"Sink, \"\"main\"\"\",2,p99,0,0", lines.get(3));
+        assertEquals("\"Sink, \"\"main\"\"\",2,p99,1000,0.5", lines.get(4));
+        assertEquals("LER 1,1,MPLS,2000,4", lines.get(5));
+    }
+
+    /**
+     * Test of TStatsBinaryWriter and TStatsBinaryReader classes.
+     */
+    @Test
+    public void testBinaryWriterAndReader() throws IOException {
+        System.out.println("Test TStatsBinaryWriter and TStatsBinaryReader");
+        File file = new File(this.temporaryFolder, "stats.bin");
+        TStatsTimeSeries timeSeries1 = createSeries("MPLS", 10000, 1.0);
+        TStatsTimeSeries timeSeries2 = createSeries("Jitter", 5000, 0.25);
+        TStatsTimeSeries timeSeries3 = createSeries("GPSRP", 0, 1.0);
+        // A small buffer, so that series are split into several chunks.
+        TStatsBinaryWriter instance = new TStatsBinaryWriter(file, 1000);
+        instance.addSeries(0, "LSR Ñ", 1, "MPLS");
+        instance.addSeries(1, "Sink", 3, "Jitter");
+        instance.addSeries(2, "LSR Ñ", 1, "GPSRP");
+        for (int i = 0; i < 5000; i++) {
+            instance.addPoints(0, timeSeries1, i * 2, (i * 2) + 2);
+            instance.addPoints(1, timeSeries2, i, i + 1);
+            if (i == 2500) {
+                instance.flush();
+            }
+        }
+        instance.close();
+        TStatsBinaryReader reader = new TStatsBinaryReader(file);
+        assertEquals(3, reader.getNumberOfSeries());
+        assertEquals("LSR Ñ", reader.getNodeName(0));
+        assertEquals(3, reader.getDatasetNumber(1));
+        assertEquals("GPSRP", reader.getSeriesKey(2));
+        assertEquals(10000, reader.getItemCount(0));
+        assertEquals(5000, reader.getItemCount(1));
+        assertEquals(0, reader.getItemCount(2));
+        for (int seriesID = 0; seriesID < 3; seriesID++) {
+            TStatsTimeSeries expected = (seriesID == 0) ? timeSeries1 : ((seriesID == 1) ? timeSeries2 : timeSeries3);
+            TStatsTimeSeries read = reader.readSeries(seriesID);
+            assertEquals(expected.getKey(), read.getKey());
+            assertEquals(expected.getItemCount(), read.getItemCount());
+            for (int i = 0; i < expected.getItemCount(); i++) {
+                assertEquals(expected.getTimeInstant(i), read.getTimeInstant(i));
+                assertEquals(expected.getValue(i), read.getValue(i));
+            }
+        }
+        reader.close();
+        // Besides the index, the file only holds the header and 16 bytes per
+        // point.
+        assertEquals((15000 * 16) + 8, file.length() - getIndexAndTrailerSize(file));
+    }
+
+    private static long getIndexAndTrailerSize(File file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        long indexPosition = java.nio.ByteBuffer.wrap(bytes, bytes.length - 12, 8).getLong();
+        return bytes.length - indexPosition;
+    }
+
+    /**
+     * Test of TStatsBinaryReader class, when the file is not valid.
+     */
+    @Test
+    public void testBinaryReaderWithBadFile() throws IOException {
+        System.out.println("Test TStatsBinaryReader with bad files");
+        File file = new File(this.temporaryFolder, "bad.bin");
+        try (FileOutputStream output = new FileOutputStream(file)) {
+            output.write("node,dataset,series,time_ns,value\n".getBytes(StandardCharsets.UTF_8));
+        }
+        assertThrows(IOException.class, () -> {
+            new TStatsBinaryReader(file);
+        });
+        File truncatedFile = new File(this.temporaryFolder, "truncated.bin");
+        TStatsBinaryWriter instance = new TStatsBinaryWriter(truncatedFile);
+        instance.addSeries(0, "LER", 1, "MPLS");
+        instance.addPoints(0, createSeries("MPLS", 100, 1.0), 0, 100);
+        instance.flush();
+        // The index is not written until the writer is closed.
+        assertThrows(IOException.class, () -> {
+            new TStatsBinaryReader(truncatedFile);
+        });
+        instance.close();
+        TStatsBinaryReader reader = new TStatsBinaryReader(truncatedFile);
+        assertEquals(100, reader.getItemCount(0));
+        reader.close();
+        assertThrows(IllegalArgumentException.class, () -> {
+            new TStatsBinaryWriter(new File(this.temporaryFolder, "other.bin"), 0);
+        });
+    }
+}
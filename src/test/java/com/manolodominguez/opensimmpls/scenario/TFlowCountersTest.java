@@ -0,0 +1,94 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TFlowCountersTest {
+
+    public TFlowCountersTest() {
+    }
+
+    /**
+     * Test of addIngressPacket method, of class TFlowCounters.
+     */
+    @Test
+    public void testAddIngressPacket() {
+        System.out.println("Test addIngressPacket()");
+        TFlowCounters instance = new TFlowCounters();
+        TMPLSPDU packet = new TMPLSPDU(1, "10.0.0.1", "10.0.0.9", 100);
+        instance.addIngressPacket(packet);
+        instance.addIngressPacket(packet);
+        // Totals are updated when counters are grouped.
+        assertEquals(0, instance.getThroughputOctets("10.0.0.1", "10.0.0.9"));
+        instance.groupStatsByTimeInstant(10);
+        assertEquals(2 * packet.getSize(), instance.getThroughputOctets("10.0.0.1", "10.0.0.9"));
+        assertEquals(0, instance.getGoodputOctets("10.0.0.1", "10.0.0.9"));
+        assertEquals(0, instance.getThroughputOctets("10.0.0.9", "10.0.0.1"));
+    }
+
+    /**
+     * Test of addEgressPacket method, of class TFlowCounters.
+     */
+    @Test
+    public void testAddEgressPacket() {
+        System.out.println("Test addEgressPacket()");
+        TFlowCounters instance = new TFlowCounters();
+        TMPLSPDU packet = new TMPLSPDU(1, "10.0.0.1", "10.0.0.9", 100);
+        instance.addEgressPacket(packet);
+        instance.groupStatsByTimeInstant(10);
+        assertEquals(packet.getTCPPayload().getSize(), instance.getGoodputOctets("10.0.0.1", "10.0.0.9"));
+        assertEquals(0, instance.getThroughputOctets("10.0.0.1", "10.0.0.9"));
+    }
+
+    /**
+     * Test of groupStatsByTimeInstant method, of class TFlowCounters.
+     */
+    @Test
+    public void testGroupStatsByTimeInstant() {
+        System.out.println("Test groupStatsByTimeInstant()");
+        TFlowCounters instance = new TFlowCounters();
+        TMPLSPDU packet = new TMPLSPDU(1, "10.0.0.1", "10.0.0.9", 100);
+        instance.addIngressPacket(packet);
+        instance.groupStatsByTimeInstant(10);
+        instance.groupStatsByTimeInstant(20);
+        instance.addIngressPacket(packet);
+        instance.addEgressPacket(new TMPLSPDU(2, "10.0.0.2", "10.0.0.1", 50));
+        instance.groupStatsByTimeInstant(30);
+        TStatsXYDataset dataset = instance.getDataset();
+        dataset.refresh();
+        assertEquals(2, dataset.getSeriesCount());
+        assertEquals("10.0.0.1 -> 10.0.0.9 (" + TStats.THROUGHPUT + ")", dataset.getSeriesKey(0));
+        assertEquals("10.0.0.2 -> 10.0.0.1 (" + TStats.GOODPUT + ")", dataset.getSeriesKey(1));
+        // Series start at zero and ticks without traffic are recorded.
+        TStatsTimeSeries throughput = dataset.getSeries(0);
+        assertEquals(4, throughput.getItemCount());
+        assertEquals(9, throughput.getTimeInstant(0));
+        assertEquals(0.0, throughput.getValue(0));
+        assertEquals(packet.getSize(), throughput.getValue(1));
+        assertEquals(0.0, throughput.getValue(2));
+        assertEquals(packet.getSize(), throughput.getValue(3));
+        instance.reset();
+        assertEquals(0, instance.getDataset().getAddedSeriesCount());
+        assertEquals(0, instance.getThroughputOctets("10.0.0.1", "10.0.0.9"));
+    }
+}
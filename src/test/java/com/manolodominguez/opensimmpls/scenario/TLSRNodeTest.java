@@ -0,0 +1,54 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TLSRNodeTest {
+
+    public TLSRNodeTest() {
+    }
+
+    /**
+     * Test of getStatsObserver method, of class TLSRNode.
+     */
+    @Test
+    public void testGetStatsObserver() {
+        System.out.println("Test getStatsObserver()");
+        TScenario scenario = new TScenario();
+        TTopology topology = new TTopology(scenario);
+        TLSRNode instance = new TLSRNode(1, "10.0.0.1", new TLongIDGenerator(), topology);
+        instance.reset();
+        assertNull(instance.getStatsObserver());
+        assertNotNull(instance.getStats());
+        instance.setGenerateStats(true);
+        // Stats are installed when the node is reset.
+        assertNull(instance.getStatsObserver());
+        instance.reset();
+        assertSame(instance.getStats(), instance.getStatsObserver());
+        instance.setGenerateStats(false);
+        instance.reset();
+        assertNull(instance.getStatsObserver());
+    }
+}
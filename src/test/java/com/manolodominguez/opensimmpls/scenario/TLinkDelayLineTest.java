@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
+import java.util.Iterator;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TLinkDelayLineTest {
+
+    public TLinkDelayLineTest() {
+    }
+
+    /**
+     * Test of addEntry method, of class TLinkDelayLine.
+     */
+    @Test
+    public void testAddEntryWhenEntryIsNull() {
+        System.out.println("Test addEntry() when entry is null");
+        TLinkDelayLine instance = new TLinkDelayLine();
+        assertThrows(IllegalArgumentException.class, () -> {
+            instance.addEntry(null);
+        });
+    }
+
+    /**
+     * Test of addEntry method, of class TLinkDelayLine, when the packet end is
+     * not valid.
+     */
+    @Test
+    public void testAddEntryWhenPacketEndIsOutOfRange() {
+        System.out.println("Test addEntry() when packet end is out of range");
+        TLinkDelayLine instance = new TLinkDelayLine();
+        TMPLSPDU packet = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        assertThrows(IllegalArgumentException.class, () -> {
+            instance.addEntry(new TLinkBufferEntry(packet, 100, 0, 100));
+        });
+    }
+
+    /**
+     * Test of pollArrivedEntry method, of class TLinkDelayLine. Only entries
+     * whose arrival time has been reached are returned, in order and
+     * independently for each direction.
+     */
+    @Test
+    public void testPollArrivedEntry() {
+        System.out.println("Test pollArrivedEntry()");
+        TLinkDelayLine instance = new TLinkDelayLine();
+        TLinkBufferEntry firstEntry = new TLinkBufferEntry(new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024), 100, TLink.HEAD_END_NODE, 100);
+        TLinkBufferEntry secondEntry = new TLinkBufferEntry(new TMPLSPDU(2, "10.0.0.1", "10.0.0.2", 1024), 100, TLink.HEAD_END_NODE, 200);
+        TLinkBufferEntry thirdEntry = new TLinkBufferEntry(new TMPLSPDU(3, "10.0.0.2", "10.0.0.1", 1024), 100, TLink.TAIL_END_NODE, 150);
+        instance.addEntry(firstEntry);
+        instance.addEntry(secondEntry);
+        instance.addEntry(thirdEntry);
+        assertEquals(3, instance.size());
+        assertNull(instance.pollArrivedEntry(TLink.HEAD_END_NODE, 99));
+        assertSame(firstEntry, instance.pollArrivedEntry(TLink.HEAD_END_NODE, 150));
+        assertNull(instance.pollArrivedEntry(TLink.HEAD_END_NODE, 150));
+        assertSame(thirdEntry, instance.pollArrivedEntry(TLink.TAIL_END_NODE, 150));
+        assertSame(secondEntry, instance.pollArrivedEntry(TLink.HEAD_END_NODE, 300));
+        assertEquals(0, instance.size());
+    }
+
+    /**
+     * Test of addEntry method, of class TLinkDelayLine, when an entry would
+     * overtake the latest one in the same direction.
+     */
+    @Test
+    public void testAddEntryDoesNotOvertake() {
+        System.out.println("Test addEntry() does not overtake");
+        TLinkDelayLine instance = new TLinkDelayLine();
+        TLinkBufferEntry firstEntry = new TLinkBufferEntry(new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024), 100, TLink.HEAD_END_NODE, 200);
+        TLinkBufferEntry secondEntry = new TLinkBufferEntry(new TMPLSPDU(2, "10.0.0.1", "10.0.0.2", 1024), 50, TLink.HEAD_END_NODE, 150);
+        instance.addEntry(firstEntry);
+        instance.addEntry(secondEntry);
+        assertEquals(200, secondEntry.getArrivalTime());
+        assertSame(firstEntry, instance.pollArrivedEntry(TLink.HEAD_END_NODE, 200));
+        assertSame(secondEntry, instance.pollArrivedEntry(TLink.HEAD_END_NODE, 200));
+    }
+
+    /**
+     * Test of getEntriesIterator method, of class TLinkDelayLine.
+     */
+    @Test
+    public void testGetEntriesIterator() {
+        System.out.println("Test getEntriesIterator()");
+        TLinkDelayLine instance = new TLinkDelayLine();
+        assertFalse(instance.getEntriesIterator().hasNext());
+        TLinkBufferEntry firstEntry = new TLinkBufferEntry(new TMPLSPDU(1, "10.0.0.2", "10.0.0.1", 1024), 100, TLink.TAIL_END_NODE, 100);
+        TLinkBufferEntry secondEntry = new TLinkBufferEntry(new TMPLSPDU(2, "10.0.0.1", "10.0.0.2", 1024), 100, TLink.HEAD_END_NODE, 200);
+        instance.addEntry(firstEntry);
+        instance.addEntry(secondEntry);
+        Iterator<TLinkBufferEntry> iterator = instance.getEntriesIterator();
+        assertTrue(iterator.hasNext());
+        assertSame(secondEntry, iterator.next());
+        assertSame(firstEntry, iterator.next());
+        assertFalse(iterator.hasNext());
+        instance.clear();
+        assertEquals(0, instance.size());
+    }
+}
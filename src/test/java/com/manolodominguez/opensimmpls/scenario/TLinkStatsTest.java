@@ -0,0 +1,152 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
+import com.manolodominguez.opensimmpls.protocols.TIPv4PDU;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TLinkStatsTest {
+
+    public TLinkStatsTest() {
+    }
+
+    private static TInternalLink createLink() {
+        TScenario scenario = new TScenario();
+        TTopology topology = new TTopology(scenario);
+        TLSRNode headEndNode = new TLSRNode(1, "10.0.0.1", new TLongIDGenerator(), topology);
+        headEndNode.setName("A");
+        TLSRNode tailEndNode = new TLSRNode(2, "10.0.0.2", new TLongIDGenerator(), topology);
+        tailEndNode.setName("B");
+        TInternalLink link = new TInternalLink(1, new TLongIDGenerator(), topology);
+        link.setHeadEndNode(headEndNode);
+        link.setHeadEndNodePortID(0);
+        link.setTailEndNode(tailEndNode);
+        link.setTailEndNodePortID(0);
+        // Link stats are installed when any end node generates stats.
+        headEndNode.setGenerateStats(true);
+        link.reset();
+        return link;
+    }
+
+    /**
+     * Test of addSentPacket, addDeliveredPacket and addLostPacket methods, of
+     * class TLinkStats.
+     */
+    @Test
+    public void testOctetsInTransit() {
+        System.out.println("Test addSentPacket(), addDeliveredPacket() and addLostPacket()");
+        TInternalLink link = createLink();
+        TLinkStats instance = link.getStats();
+        TIPv4PDU packet = new TIPv4PDU(1, "10.0.0.1", "10.0.0.2", 100);
+        int size = packet.getSize();
+        instance.addSentPacket(packet, TLink.TAIL_END_NODE);
+        instance.addSentPacket(packet, TLink.TAIL_END_NODE);
+        instance.addSentPacket(packet, TLink.HEAD_END_NODE);
+        assertEquals(2 * size, instance.getSentOctets(TLink.TAIL_END_NODE));
+        assertEquals(2 * size, instance.getOctetsInTransit(TLink.TAIL_END_NODE));
+        assertEquals(size, instance.getOctetsInTransit(TLink.HEAD_END_NODE));
+        instance.addDeliveredPacket(packet, TLink.TAIL_END_NODE);
+        instance.addLostPacket(packet, TLink.HEAD_END_NODE);
+        assertEquals(size, instance.getOctetsInTransit(TLink.TAIL_END_NODE));
+        assertEquals(0, instance.getOctetsInTransit(TLink.HEAD_END_NODE));
+        assertEquals(size, instance.getSentOctets(TLink.HEAD_END_NODE));
+        assertThrows(IllegalArgumentException.class, () -> {
+            instance.getSentOctets(0);
+        });
+    }
+
+    /**
+     * Test of the statistics of a link while packets travel through it.
+     */
+    @Test
+    public void testPacketsThroughTheLink() {
+        System.out.println("Test statistics of packets travelling through a link");
+        TInternalLink link = createLink();
+        TLinkStats instance = link.getStats();
+        TIPv4PDU packet = new TIPv4PDU(1, "10.0.0.1", "10.0.0.2", 100);
+        int size = packet.getSize();
+        link.deliverPacketToNode(packet, TLink.TAIL_END_NODE);
+        link.setCurrentTimeInstant(0);
+        instance.groupStatsByTimeInstant(0);
+        assertEquals(size, instance.getOctetsInTransit(TLink.TAIL_END_NODE));
+        link.setCurrentTimeInstant(1);
+        link.deliverPacketsToDestination();
+        link.getTailEndNode().getPorts().drainIngressQueues();
+        instance.groupStatsByTimeInstant(1);
+        assertEquals(0, instance.getOctetsInTransit(TLink.TAIL_END_NODE));
+        TStatsXYDataset sentOctets = (TStatsXYDataset) instance.getDataset1();
+        sentOctets.refresh();
+        assertEquals(2, sentOctets.getSeriesCount());
+        assertEquals("A -> B", sentOctets.getSeriesKey(1));
+        assertEquals(size, sentOctets.getSeries(1).getValue(0));
+        assertEquals(0.0, sentOctets.getSeries(1).getValue(1));
+        TStatsXYDataset octetsInTransit = (TStatsXYDataset) instance.getDataset2();
+        octetsInTransit.refresh();
+        assertEquals(size, octetsInTransit.getSeries(1).getValue(0));
+        assertEquals(0.0, octetsInTransit.getSeries(1).getValue(1));
+        // The packet waits to be switched in the port of the tail end node.
+        TStatsXYDataset queuedPackets = (TStatsXYDataset) instance.getDataset3();
+        queuedPackets.refresh();
+        assertEquals("B", queuedPackets.getSeriesKey(1));
+        assertEquals(1.0, queuedPackets.getSeries(1).getValue(1));
+        assertNull(instance.getDataset4());
+        assertEquals(3, instance.getNumberOfAvailableDatasets());
+    }
+
+    /**
+     * Test of the statistics of a link when it breaks.
+     */
+    @Test
+    public void testBrokenLink() {
+        System.out.println("Test statistics of a broken link");
+        TInternalLink link = createLink();
+        TLinkStats instance = link.getStats();
+        TIPv4PDU packet = new TIPv4PDU(1, "10.0.0.1", "10.0.0.2", 100);
+        link.deliverPacketToNode(packet, TLink.HEAD_END_NODE);
+        assertEquals(packet.getSize(), instance.getOctetsInTransit(TLink.HEAD_END_NODE));
+        link.setAsBrokenLink(true);
+        assertEquals(0, instance.getOctetsInTransit(TLink.HEAD_END_NODE));
+        assertEquals(packet.getSize(), instance.getSentOctets(TLink.HEAD_END_NODE));
+    }
+
+    /**
+     * Test of reset method, of class TLinkStats.
+     */
+    @Test
+    public void testReset() {
+        System.out.println("Test reset()");
+        TInternalLink link = createLink();
+        TLinkStats instance = link.getStats();
+        link.deliverPacketToNode(new TIPv4PDU(1, "10.0.0.1", "10.0.0.2", 100), TLink.TAIL_END_NODE);
+        instance.groupStatsByTimeInstant(0);
+        instance.reset();
+        assertEquals(0, instance.getSentOctets(TLink.TAIL_END_NODE));
+        assertEquals(0, ((TStatsXYDataset) instance.getDataset1()).getAddedSeriesCount());
+        // Nodes at both ends do not generate statistics.
+        link.getHeadEndNode().setGenerateStats(false);
+        link.reset();
+        link.deliverPacketToNode(new TIPv4PDU(2, "10.0.0.1", "10.0.0.2", 100), TLink.TAIL_END_NODE);
+        assertEquals(0, instance.getSentOctets(TLink.TAIL_END_NODE));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
+import com.manolodominguez.opensimmpls.protocols.TTLDPPDU;
+import java.util.EnumSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TStatsCountersTest {
+
+    public TStatsCountersTest() {
+    }
+
+    /**
+     * Test of the constructor of class TStatsCounters.
+     */
+    @Test
+    public void testConstructor() {
+        System.out.println("Test constructor");
+        assertThrows(IllegalArgumentException.class, () -> {
+            new TStatsCounters(null, EnumSet.allOf(StatsPacketClasses.class));
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            new TStatsCounters(EnumSet.allOf(StatsDirections.class), null);
+        });
+    }
+
+    /**
+     * Test of addStatEntry method, of class TStatsCounters. Only the tracked
+     * directions and classes of packets are counted.
+     */
+    @Test
+    public void testAddStatEntry() {
+        System.out.println("Test addStatEntry()");
+        TStatsCounters instance = new TStatsCounters(EnumSet.of(StatsDirections.OUTGOING), EnumSet.range(StatsPacketClasses.MPLS, StatsPacketClasses.MPLS_GOS3));
+        TMPLSPDU packet = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 100);
+        assertTrue(instance.addStatEntry(packet, TStats.OUTGOING));
+        assertFalse(instance.addStatEntry(packet, TStats.INCOMING));
+        packet.setSubtype(TAbstractPDU.MPLS_GOS);
+        packet.getIPv4Header().getOptionsField().setRequestedGoSLevel(TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP);
+        assertTrue(instance.addStatEntry(packet, TStats.OUTGOING));
+        assertTrue(instance.addStatEntry(packet, TStats.OUTGOING));
+        assertFalse(instance.addStatEntry(new TTLDPPDU(2, "10.0.0.1", "10.0.0.2"), TStats.OUTGOING));
+        assertEquals(1, instance.getCount(StatsDirections.OUTGOING, StatsPacketClasses.MPLS));
+        assertEquals(2, instance.getCount(StatsDirections.OUTGOING, StatsPacketClasses.MPLS_GOS2));
+        assertEquals(0, instance.getCount(StatsDirections.INCOMING, StatsPacketClasses.MPLS));
+        assertEquals(0, instance.getCount(StatsDirections.OUTGOING, StatsPacketClasses.TLDP));
+    }
+
+    /**
+     * Test of groupStatsByTimeInstant method, of class TStatsCounters. Series
+     * are only created for counters that have counted any packet.
+     */
+    @Test
+    public void testGroupStatsByTimeInstant() {
+        System.out.println("Test groupStatsByTimeInstant()");
+        TStatsCounters instance = new TStatsCounters(EnumSet.allOf(StatsDirections.class), EnumSet.allOf(StatsPacketClasses.class));
+        instance.groupStatsByTimeInstant(10);
+        instance.addStatEntry(new TTLDPPDU(1, "10.0.0.1", "10.0.0.2"), TStats.BEING_DISCARDED);
+        instance.groupStatsByTimeInstant(20);
+        instance.addStatEntry(new TTLDPPDU(2, "10.0.0.1", "10.0.0.2"), TStats.BEING_DISCARDED);
+        instance.groupStatsByTimeInstant(30);
+        TStatsXYDataset dataset = instance.getDataset(StatsDirections.DISCARDED);
+        dataset.refresh();
+        assertEquals(1, dataset.getSeriesCount());
+        assertEquals(TStats.TLDP, dataset.getSeriesKey(0));
+        assertEquals(3, dataset.getItemCount(0));
+        assertEquals(19.0, dataset.getXValue(0, 0));
+        assertEquals(0.0, dataset.getYValue(0, 0));
+        assertEquals(1.0, dataset.getYValue(0, 1));
+        assertEquals(2.0, dataset.getYValue(0, 2));
+        instance.getDataset(StatsDirections.INCOMING).refresh();
+        assertEquals(0, instance.getDataset(StatsDirections.INCOMING).getSeriesCount());
+        instance.reset();
+        assertEquals(0, instance.getCount(StatsDirections.DISCARDED, StatsPacketClasses.TLDP));
+        instance.getDataset(StatsDirections.DISCARDED).refresh();
+        assertEquals(0, instance.getDataset(StatsDirections.DISCARDED).getSeriesCount());
+    }
+}
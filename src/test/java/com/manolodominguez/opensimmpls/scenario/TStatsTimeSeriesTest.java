@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TStatsTimeSeriesTest {
+
+    public TStatsTimeSeriesTest() {
+    }
+
+    /**
+     * Test of getKey method, of class TStatsTimeSeries.
+     */
+    @Test
+    public void testGetKey() {
+        System.out.println("Test getKey()");
+        TStatsTimeSeries instance = new TStatsTimeSeries(TStats.MPLS);
+        assertEquals(TStats.MPLS, instance.getKey());
+        assertEquals(0, instance.getItemCount());
+    }
+
+    /**
+     * Test of add method, of class TStatsTimeSeries. Points are kept in
+     * order beyond the initial capacity of the columns.
+     */
+    @Test
+    public void testAdd() {
+        System.out.println("Test add()");
+        TStatsTimeSeries instance = new TStatsTimeSeries(TStats.MPLS);
+        for (int i = 0; i < 1000; i++) {
+            instance.add(i * 10L, i / 2.0);
+        }
+        assertEquals(1000, instance.getItemCount());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i * 10L, instance.getTimeInstant(i));
+            assertEquals(i / 2.0, instance.getValue(i));
+        }
+    }
+
+    /**
+     * Test of the aggregation levels of class TStatsTimeSeries. Buckets
+     * summarize 2^level consecutive points.
+     */
+    @Test
+    public void testAggregationLevels() {
+        System.out.println("Test aggregation levels");
+        TStatsTimeSeries instance = new TStatsTimeSeries(TStats.MPLS);
+        for (int i = 0; i < 100000; i++) {
+            instance.add(i, i % 7);
+        }
+        assertTrue(instance.getLevelCount() > 0);
+        for (int level = 1; level <= instance.getLevelCount(); level++) {
+            int bucketSize = 1 << level;
+            for (int bucket = 0; bucket < TStatsTimeSeries.getCompleteBucketCount(level, instance.getItemCount()); bucket += 13) {
+                double min = Double.MAX_VALUE;
+                double max = -Double.MAX_VALUE;
+                double sum = 0;
+                for (int i = bucket * bucketSize; i < (bucket + 1) * bucketSize; i++) {
+                    min = Math.min(min, instance.getValue(i));
+                    max = Math.max(max, instance.getValue(i));
+                    sum += instance.getValue(i);
+                }
+                assertEquals(min, instance.getBucketMinValue(level, bucket));
+                assertEquals(max, instance.getBucketMaxValue(level, bucket));
+                assertEquals(sum, instance.getBucketSum(level, bucket));
+                assertEquals(min, instance.getValue((int) instance.getBucketMinTimeInstant(level, bucket)));
+                assertEquals(max, instance.getValue((int) instance.getBucketMaxTimeInstant(level, bucket)));
+                assertEquals(bucketSize, instance.getBucketItemCount(level, bucket));
+            }
+        }
+    }
+}
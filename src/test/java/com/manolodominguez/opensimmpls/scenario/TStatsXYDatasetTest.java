@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TStatsXYDatasetTest {
+
+    public TStatsXYDatasetTest() {
+    }
+
+    /**
+     * Test of refresh method, of class TStatsXYDataset. Series and points
+     * added to the dataset are not visible until it is refreshed, and
+     * listeners are only notified when there is something new.
+     */
+    @Test
+    public void testRefresh() {
+        System.out.println("Test refresh()");
+        TStatsXYDataset instance = new TStatsXYDataset();
+        AtomicInteger notifications = new AtomicInteger(0);
+        instance.addChangeListener(new DatasetChangeListener() {
+            @Override
+            public void datasetChanged(DatasetChangeEvent event) {
+                notifications.incrementAndGet();
+            }
+        });
+        TStatsTimeSeries series = new TStatsTimeSeries(TStats.MPLS);
+        series.add(9, 0);
+        series.add(10, 3);
+        instance.addSeries(series);
+        assertEquals(0, instance.getSeriesCount());
+        instance.refresh();
+        assertEquals(1, notifications.get());
+        assertEquals(1, instance.getSeriesCount());
+        assertEquals(TStats.MPLS, instance.getSeriesKey(0));
+        assertEquals(2, instance.getItemCount(0));
+        assertEquals(10.0, instance.getXValue(0, 1));
+        assertEquals(3.0, instance.getYValue(0, 1));
+        series.add(20, 5);
+        assertEquals(2, instance.getItemCount(0));
+        instance.refresh();
+        assertEquals(2, notifications.get());
+        assertEquals(3, instance.getItemCount(0));
+        instance.refresh();
+        assertEquals(2, notifications.get());
+    }
+
+    /**
+     * Test of setMaxPlottedItemCount method, of class TStatsXYDataset. Long
+     * series are plotted as the lowest and highest points of each bucket of
+     * an aggregation level, in ascending order.
+     */
+    @Test
+    public void testSetMaxPlottedItemCount() {
+        System.out.println("Test setMaxPlottedItemCount()");
+        TStatsXYDataset instance = new TStatsXYDataset();
+        TStatsTimeSeries series = new TStatsTimeSeries(TStats.MPLS);
+        for (int i = 0; i < 100001; i++) {
+            series.add(i, Math.sin(i / 100.0));
+        }
+        instance.addSeries(series);
+        instance.refresh();
+        assertEquals(0, instance.getPlottedLevel(0));
+        assertEquals(100001, instance.getItemCount(0));
+        instance.setMaxPlottedItemCount(2000);
+        instance.refresh();
+        assertTrue(instance.getPlottedLevel(0) > 0);
+        assertTrue(instance.getItemCount(0) <= 2000);
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        for (int i = 0; i < instance.getItemCount(0); i++) {
+            if (i > 0) {
+                assertTrue(instance.getXValue(0, i) >= instance.getXValue(0, i - 1));
+            }
+            min = Math.min(min, instance.getYValue(0, i));
+            max = Math.max(max, instance.getYValue(0, i));
+        }
+        assertEquals(100000.0, instance.getXValue(0, instance.getItemCount(0) - 1));
+        assertEquals(-1.0, min, 0.0001);
+        assertEquals(1.0, max, 0.0001);
+        assertThrows(IllegalArgumentException.class, () -> {
+            instance.setMaxPlottedItemCount(1);
+        });
+    }
+}
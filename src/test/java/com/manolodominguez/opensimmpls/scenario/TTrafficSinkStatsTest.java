@@ -0,0 +1,153 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+import com.manolodominguez.opensimmpls.protocols.TIPv4PDU;
+import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
+import org.jfree.data.category.DefaultCategoryDataset;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TTrafficSinkStatsTest {
+
+    public TTrafficSinkStatsTest() {
+    }
+
+    private static TIPv4PDU createPacket(long id, String origin, int GoSLevel, long generationTimeInstant) {
+        TIPv4PDU packet = new TIPv4PDU(id, origin, "10.0.0.9", 100);
+        packet.getIPv4Header().getOptionsField().setRequestedGoSLevel(GoSLevel);
+        packet.getIPv4Header().setGenerationTimeInstant(generationTimeInstant);
+        return packet;
+    }
+
+    /**
+     * Test of addLatencyEntry method, of class TTrafficSinkStats.
+     */
+    @Test
+    public void testAddLatencyEntry() {
+        System.out.println("Test addLatencyEntry()");
+        TTrafficSinkStats instance = new TTrafficSinkStats();
+        instance.setStatsEnabled(true);
+        instance.addLatencyEntry(createPacket(1, "10.0.0.1", TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP, 100), 150);
+        instance.addLatencyEntry(createPacket(2, "10.0.0.1", TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP, 200), 240);
+        // GoS levels with and without backup LSP belong to the same flow.
+        instance.addLatencyEntry(createPacket(3, "10.0.0.1", TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP, 100), 130);
+        instance.addLatencyEntry(createPacket(4, "10.0.0.2", TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP, 100), 110);
+        // Packets that do not carry their generation time instant are ignored.
+        instance.addLatencyEntry(new TIPv4PDU(5, "10.0.0.1", "10.0.0.9", 100), 1000);
+        assertEquals(40, instance.getLatencyPercentile("10.0.0.1", 0, 50.0));
+        assertEquals(50, instance.getLatencyPercentile("10.0.0.1", 0, 99.9));
+        assertEquals(30, instance.getLatencyPercentile("10.0.0.1", 3, 50.0));
+        assertEquals(10, instance.getLatencyPercentile("10.0.0.2", 0, 99.0));
+        assertEquals(0, instance.getLatencyPercentile("10.0.0.3", 0, 99.0));
+        assertEquals(0.625, instance.getJitter("10.0.0.1", 0));
+        assertEquals(0.0, instance.getJitter("10.0.0.2", 0));
+        assertThrows(IllegalArgumentException.class, () -> {
+            instance.getJitter("10.0.0.1", 4);
+        });
+    }
+
+    /**
+     * Test of addLatencyEntry method, of class TTrafficSinkStats, with a clone
+     * of a packet, as those retransmitted by GPSRP.
+     */
+    @Test
+    public void testAddLatencyEntryOfClonedPacket() {
+        System.out.println("Test addLatencyEntry() of a cloned packet");
+        TTrafficSinkStats instance = new TTrafficSinkStats();
+        instance.setStatsEnabled(true);
+        TMPLSPDU packet = new TMPLSPDU(1, "10.0.0.1", "10.0.0.9", 100);
+        packet.getIPv4Header().setGenerationTimeInstant(100);
+        TMPLSPDU clonedPacket = packet.getAClon();
+        assertEquals(100, clonedPacket.getIPv4Header().getGenerationTimeInstant());
+        instance.addLatencyEntry(clonedPacket, 400);
+        assertEquals(300, instance.getLatencyPercentile("10.0.0.1", 0, 50.0));
+    }
+
+    /**
+     * Test of addLatencyEntry method, of class TTrafficSinkStats, when stats
+     * are disabled.
+     */
+    @Test
+    public void testAddLatencyEntryWhenDisabled() {
+        System.out.println("Test addLatencyEntry() when stats are disabled");
+        TTrafficSinkStats instance = new TTrafficSinkStats();
+        instance.setStatsEnabled(false);
+        instance.addLatencyEntry(createPacket(1, "10.0.0.1", 0, 100), 150);
+        assertEquals(0, instance.getLatencyPercentile("10.0.0.1", 0, 50.0));
+    }
+
+    /**
+     * Test of groupStatsByTimeInstant method, of class TTrafficSinkStats.
+     */
+    @Test
+    public void testGroupStatsByTimeInstant() {
+        System.out.println("Test groupStatsByTimeInstant()");
+        TTrafficSinkStats instance = new TTrafficSinkStats();
+        instance.setStatsEnabled(true);
+        assertEquals(4, instance.getNumberOfAvailableDatasets());
+        instance.groupStatsByTimeInstant(100);
+        TStatsXYDataset latencyDataset = (TStatsXYDataset) instance.getDataset2();
+        TStatsXYDataset jitterDataset = (TStatsXYDataset) instance.getDataset3();
+        DefaultCategoryDataset latencyByFlowDataset = (DefaultCategoryDataset) instance.getDataset4();
+        latencyDataset.refresh();
+        jitterDataset.refresh();
+        assertEquals(0, latencyDataset.getSeriesCount());
+        assertEquals(0, jitterDataset.getSeriesCount());
+        instance.addLatencyEntry(createPacket(1, "10.0.0.1", 0, 100), 150);
+        instance.addLatencyEntry(createPacket(2, "10.0.0.2", 2, 100), 120);
+        instance.groupStatsByTimeInstant(200);
+        latencyDataset.refresh();
+        jitterDataset.refresh();
+        assertEquals(3, latencyDataset.getSeriesCount());
+        assertEquals("p50", latencyDataset.getSeriesKey(0));
+        assertEquals(50.0, latencyDataset.getSeries(2).getValue(0));
+        assertEquals(2, jitterDataset.getSeriesCount());
+        assertEquals(2, latencyByFlowDataset.getColumnCount());
+        assertEquals(50, latencyByFlowDataset.getValue("p99", "10.0.0.1 (GoS 0)").intValue());
+        assertEquals(20, latencyByFlowDataset.getValue("p99", "10.0.0.2 (GoS 2)").intValue());
+        // Only flows with new packets get a new point.
+        instance.addLatencyEntry(createPacket(3, "10.0.0.1", 0, 250), 260);
+        instance.groupStatsByTimeInstant(300);
+        assertEquals(2, jitterDataset.getSeries(0).getItemCount());
+        assertEquals(1, jitterDataset.getSeries(1).getItemCount());
+        assertEquals(2, latencyDataset.getSeries(0).getItemCount());
+        instance.reset();
+        ((TStatsXYDataset) instance.getDataset2()).refresh();
+        assertEquals(0, ((TStatsXYDataset) instance.getDataset2()).getSeriesCount());
+        assertEquals(0, ((DefaultCategoryDataset) instance.getDataset4()).getColumnCount());
+        assertEquals(0, instance.getLatencyPercentile("10.0.0.1", 0, 50.0));
+    }
+
+    /**
+     * Test of getValueAxisTitleOfDataset method, of class TTrafficSinkStats.
+     */
+    @Test
+    public void testGetValueAxisTitleOfDataset() {
+        System.out.println("Test getValueAxisTitleOfDataset()");
+        TTrafficSinkStats instance = new TTrafficSinkStats();
+        assertEquals(TStats.NUMBER_OF_PACKETS, instance.getValueAxisTitleOfDataset(1));
+        assertEquals(TStats.LATENCY_NS, instance.getValueAxisTitleOfDataset(2));
+        assertEquals(TStats.JITTER_NS, instance.getValueAxisTitleOfDataset(3));
+        assertEquals(TStats.LATENCY_NS, instance.getValueAxisTitleOfDataset(4));
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario.simulationevents;
+
+import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TSimulationEventCounterTest {
+
+    public TSimulationEventCounterTest() {
+    }
+
+    /**
+     * Test of consumeSimulationEvents method, of class
+     * TSimulationEventCounter.
+     */
+    @Test
+    public void testConsumeSimulationEvents() {
+        System.out.println("Test consumeSimulationEvents()");
+        TSimulationEventCounter instance = new TSimulationEventCounter();
+        Object source = new Object();
+        TSimulationEvent[] simulationEvents = new TSimulationEvent[4];
+        simulationEvents[0] = new TSimulationEventPacketDiscarded(source, 1, 10, TAbstractPDU.MPLS);
+        simulationEvents[1] = new TSimulationEventPacketDiscarded(source, 2, 10, TAbstractPDU.IPV4);
+        simulationEvents[2] = new TSimulationEventPacketSent(source, 3, 20, TAbstractPDU.MPLS);
+        simulationEvents[3] = null; // Out of the batch
+        instance.consumeSimulationEvents(simulationEvents, 3);
+        assertEquals(2, instance.getNumberOfEvents(TSimulationEvent.PACKET_DISCARDED));
+        assertEquals(1, instance.getNumberOfEvents(TSimulationEvent.PACKET_SENT));
+        assertEquals(0, instance.getNumberOfEvents(TSimulationEvent.PACKET_RECEIVED));
+        assertEquals(3, instance.getTotalNumberOfEvents());
+    }
+
+    /**
+     * Test of getWantedEventSubtypes method, of class TSimulationEventCounter.
+     */
+    @Test
+    public void testGetWantedEventSubtypes() {
+        System.out.println("Test getWantedEventSubtypes()");
+        TSimulationEventCounter instance = new TSimulationEventCounter();
+        long wantedEventSubtypes = instance.getWantedEventSubtypes();
+        assertTrue((wantedEventSubtypes & (1L << TSimulationEvent.PACKET_DISCARDED)) != 0);
+        assertFalse((wantedEventSubtypes & (1L << TSimulationEvent.PACKET_ON_FLY)) != 0);
+    }
+
+    /**
+     * Test of reset method, of class TSimulationEventCounter.
+     */
+    @Test
+    public void testReset() {
+        System.out.println("Test reset()");
+        TSimulationEventCounter instance = new TSimulationEventCounter();
+        TSimulationEvent[] simulationEvents = new TSimulationEvent[1];
+        simulationEvents[0] = new TSimulationEventPacketDiscarded(new Object(), 1, 10, TAbstractPDU.MPLS);
+        instance.consumeSimulationEvents(simulationEvents, 1);
+        instance.reset();
+        assertEquals(0, instance.getTotalNumberOfEvents());
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario.simulationevents;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TSimulationEventListenerTest {
+
+    public TSimulationEventListenerTest() {
+    }
+
+    /**
+     * Test of constructor method, of class TSimulationEventListener.
+     */
+    @Test
+    public void testConstructor() {
+        System.out.println("Test constructor");
+        TSimulationEventListener instance = new TSimulationEventListener();
+        assertEquals(TSimulationEventListener.NO_EVENT_SUBTYPES, instance.getSubscribedEventSubtypes());
+        assertFalse(instance.isSubscribedTo(TSimulationEvent.PACKET_SENT));
+    }
+
+    /**
+     * Test of subscribe and unsubscribe methods, of class
+     * TSimulationEventListener.
+     */
+    @Test
+    public void testSubscribeAndUnsubscribe() {
+        System.out.println("Test subscribe() and unsubscribe()");
+        TSimulationEventListener instance = new TSimulationEventListener();
+        instance.subscribe(TSimulationEvent.PACKET_SENT);
+        instance.subscribe(TSimulationEvent.PACKET_ROUTED);
+        assertTrue(instance.isSubscribedTo(TSimulationEvent.PACKET_SENT));
+        assertTrue(instance.isSubscribedTo(TSimulationEvent.PACKET_ROUTED));
+        assertFalse(instance.isSubscribedTo(TSimulationEvent.PACKET_RECEIVED));
+        instance.unsubscribe(TSimulationEvent.PACKET_SENT);
+        assertFalse(instance.isSubscribedTo(TSimulationEvent.PACKET_SENT));
+        assertTrue(instance.isSubscribedTo(TSimulationEvent.PACKET_ROUTED));
+    }
+
+    /**
+     * Test of isSubscribedTo method, of class TSimulationEventListener, for
+     * PACKET_ON_FLY events when there is no simulation panel painting them.
+     */
+    @Test
+    public void testIsSubscribedToPacketOnFlyWithoutSimulationPanel() {
+        System.out.println("Test isSubscribedTo() PACKET_ON_FLY without simulation panel");
+        TSimulationEventListener instance = new TSimulationEventListener();
+        instance.setSubscribedEventSubtypes(TSimulationEventListener.ALL_EVENT_SUBTYPES);
+        assertTrue(instance.isSubscribedTo(TSimulationEvent.PACKET_DISCARDED));
+        assertFalse(instance.isSubscribedTo(TSimulationEvent.PACKET_ON_FLY));
+    }
+
+    /**
+     * Test of addBatchConsumer and removeBatchConsumer methods, of class
+     * TSimulationEventListener. The listener is subscribed to the event
+     * subtypes wanted by any of the registered consumers.
+     */
+    @Test
+    public void testAddAndRemoveBatchConsumer() {
+        System.out.println("Test addBatchConsumer() and removeBatchConsumer()");
+        TSimulationEventListener instance = new TSimulationEventListener();
+        TSimulationEventCounter counter = new TSimulationEventCounter();
+        TSimulationEventTracer tracer = new TSimulationEventTracer();
+        instance.addBatchConsumer(counter);
+        assertEquals(counter.getWantedEventSubtypes(), instance.getSubscribedEventSubtypes());
+        instance.addBatchConsumer(tracer);
+        assertEquals(TSimulationEventListener.ALL_EVENT_SUBTYPES, instance.getSubscribedEventSubtypes());
+        instance.removeBatchConsumer(tracer);
+        assertEquals(counter.getWantedEventSubtypes(), instance.getSubscribedEventSubtypes());
+        assertTrue(instance.isSubscribedTo(TSimulationEvent.PACKET_DISCARDED));
+        instance.removeBatchConsumer(counter);
+        assertEquals(TSimulationEventListener.NO_EVENT_SUBTYPES, instance.getSubscribedEventSubtypes());
+    }
+}